@@ -0,0 +1,394 @@
+package dev.visitingservice.codec;
+
+import dev.visitingservice.dto.BookingEventDTO;
+import dev.visitingservice.dto.BookingEventPayload;
+import dev.visitingservice.dto.BookingEventType;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Compact binary encoding of {@link BookingEventDTO}. A record is a magic byte, a format version, then the event as
+ * a message: its byte length, a presence bitmap with one bit per schema field, and the present fields in schema
+ * order. Absent fields cost nothing, and no field names are written.
+ *
+ * The schemas below are append-only: a new field takes the next bit, so older decoders read the fields they know
+ * and skip the rest of the message by its length. Removing, reordering or retyping a field needs a new
+ * {@link #VERSION}. A message holds at most 64 fields.
+ */
+public final class BookingEventCodec {
+
+    // Never the first byte of a JSON document, so both encodings can share a topic
+    public static final byte MAGIC = (byte) 0xB7;
+    public static final byte VERSION = 1;
+
+    // Wire codes of the event types, by position; append only
+    private static final List<BookingEventType> EVENT_TYPES = List.of(
+            BookingEventType.BOOKING_INITIATED,
+            BookingEventType.BOOKING_CREATED,
+            BookingEventType.BOOKING_ACCEPTED,
+            BookingEventType.BOOKING_REJECTED,
+            BookingEventType.BOOKING_CANCELLED,
+            BookingEventType.BOOKING_RESCHEDULED,
+            BookingEventType.BOOKING_PAYMENT_UPDATED);
+
+    private static final Schema<BookingEventPayload> PAYLOAD = new Schema<>(() -> {
+        BookingEventPayload payload = new BookingEventPayload();
+        payload.setCurrency(null); // an absent currency decodes as absent, not as the constructor default
+        return payload;
+    }, List.of(
+            // totalNights precedes the dates so their setters keep the encoded value
+            field(Type.INT, BookingEventPayload::getTotalNights, BookingEventPayload::setTotalNights),
+            field(Type.UUID, BookingEventPayload::getTenantId, BookingEventPayload::setTenantId),
+            field(Type.UUID, BookingEventPayload::getLandlordId, BookingEventPayload::setLandlordId),
+            field(Type.UUID, BookingEventPayload::getPropertyId, BookingEventPayload::setPropertyId),
+            field(Type.DATE, BookingEventPayload::getStartDate, BookingEventPayload::setStartDate),
+            field(Type.DATE, BookingEventPayload::getEndDate, BookingEventPayload::setEndDate),
+            field(Type.STRING, BookingEventPayload::getStatus, BookingEventPayload::setStatus),
+            field(Type.STRING, BookingEventPayload::getFirstName, BookingEventPayload::setFirstName),
+            field(Type.STRING, BookingEventPayload::getLastName, BookingEventPayload::setLastName),
+            field(Type.STRING, BookingEventPayload::getPhoneNumber, BookingEventPayload::setPhoneNumber),
+            field(Type.INT, BookingEventPayload::getGuestNumber, BookingEventPayload::setGuestNumber),
+            field(Type.STRING, BookingEventPayload::getEmail, BookingEventPayload::setEmail),
+            field(Type.STRING, BookingEventPayload::getPaymentStatus, BookingEventPayload::setPaymentStatus),
+            field(Type.STRING, BookingEventPayload::getPaymentReference, BookingEventPayload::setPaymentReference),
+            field(Type.DOUBLE, BookingEventPayload::getPaymentAmount, BookingEventPayload::setPaymentAmount),
+            field(Type.STRING, BookingEventPayload::getUserAgent, BookingEventPayload::setUserAgent),
+            field(Type.STRING, BookingEventPayload::getSourceIP, BookingEventPayload::setSourceIP),
+            field(Type.STRING, BookingEventPayload::getDeviceType, BookingEventPayload::setDeviceType),
+            field(Type.STRING, BookingEventPayload::getReferralSource, BookingEventPayload::setReferralSource),
+            field(Type.STRING, BookingEventPayload::getSessionId, BookingEventPayload::setSessionId),
+            field(Type.STRING, BookingEventPayload::getPropertyTitle, BookingEventPayload::setPropertyTitle),
+            field(Type.STRING, BookingEventPayload::getPropertyLocation, BookingEventPayload::setPropertyLocation),
+            field(Type.STRING, BookingEventPayload::getPropertyType, BookingEventPayload::setPropertyType),
+            field(Type.DOUBLE, BookingEventPayload::getTotalAmount, BookingEventPayload::setTotalAmount),
+            field(Type.STRING, BookingEventPayload::getCurrency, BookingEventPayload::setCurrency),
+            field(Type.STRING, BookingEventPayload::getBookingChannel, BookingEventPayload::setBookingChannel),
+            field(Type.TIMESTAMP, BookingEventPayload::getCreatedAt, BookingEventPayload::setCreatedAt),
+            field(Type.TIMESTAMP, BookingEventPayload::getUpdatedAt, BookingEventPayload::setUpdatedAt),
+            field(Type.STRING, BookingEventPayload::getPreviousStatus, BookingEventPayload::setPreviousStatus),
+            field(Type.DATE, BookingEventPayload::getPreviousStartDate, BookingEventPayload::setPreviousStartDate),
+            field(Type.DATE, BookingEventPayload::getPreviousEndDate, BookingEventPayload::setPreviousEndDate),
+            field(Type.STRING, BookingEventPayload::getPreviousPaymentStatus, BookingEventPayload::setPreviousPaymentStatus),
+            field(Type.DOUBLE, BookingEventPayload::getPreviousAmount, BookingEventPayload::setPreviousAmount),
+            field(Type.STRING, BookingEventPayload::getChangeReason, BookingEventPayload::setChangeReason),
+            field(Type.STRING, BookingEventPayload::getAdminUserId, BookingEventPayload::setAdminUserId),
+            field(Type.STRING, BookingEventPayload::getIpAddress, BookingEventPayload::setIpAddress),
+            field(Type.STRING, BookingEventPayload::getBrowserInfo, BookingEventPayload::setBrowserInfo)));
+
+    private static final Schema<BookingEventDTO> EVENT = new Schema<>(BookingEventDTO::new, List.of(
+            field(Type.UUID, BookingEventDTO::getEventId, BookingEventDTO::setEventId),
+            field(Type.EVENT_TYPE, BookingEventDTO::getEventType, BookingEventDTO::setEventType),
+            field(Type.UUID, BookingEventDTO::getBookingId, BookingEventDTO::setBookingId),
+            field(Type.TIMESTAMP, BookingEventDTO::getTimestamp, BookingEventDTO::setTimestamp),
+            field(Type.STRING, BookingEventDTO::getSourceService, BookingEventDTO::setSourceService),
+            field(Type.STRING, BookingEventDTO::getVersion, BookingEventDTO::setVersion),
+            field(PAYLOAD, BookingEventDTO::getPayload, BookingEventDTO::setPayload)));
+
+    private BookingEventCodec() {}
+
+    public static byte[] encode(BookingEventDTO event) {
+        Writer out = new Writer(256);
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        EVENT.write(out, event);
+        return out.toByteArray();
+    }
+
+    public static BookingEventDTO decode(byte[] data) {
+        if (!isBinary(data)) {
+            throw new SerializationException("Not a binary booking event");
+        }
+        if (data[1] != VERSION) {
+            throw new SerializationException("Unsupported booking event format version " + data[1]);
+        }
+        try {
+            return EVENT.read(new Reader(data, 2));
+        } catch (IndexOutOfBoundsException e) {
+            throw new SerializationException("Truncated booking event", e);
+        }
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length >= 2 && data[0] == MAGIC;
+    }
+
+    // --- Schema ---
+
+    private interface Type<V> {
+        void write(Writer out, V value);
+
+        V read(Reader in);
+
+        Type<UUID> UUID = new Type<>() {
+            public void write(Writer out, java.util.UUID value) {
+                out.writeLong(value.getMostSignificantBits());
+                out.writeLong(value.getLeastSignificantBits());
+            }
+
+            public java.util.UUID read(Reader in) {
+                return new java.util.UUID(in.readLong(), in.readLong());
+            }
+        };
+
+        Type<String> STRING = new Type<>() {
+            public void write(Writer out, String value) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeVarLong(bytes.length);
+                out.writeBytes(bytes);
+            }
+
+            public String read(Reader in) {
+                int length = (int) in.readVarLong();
+                String value = new String(in.data, in.pos, length, StandardCharsets.UTF_8);
+                in.pos += length;
+                return value;
+            }
+        };
+
+        Type<Integer> INT = new Type<>() {
+            public void write(Writer out, Integer value) {
+                out.writeZigZag(value);
+            }
+
+            public Integer read(Reader in) {
+                return (int) in.readZigZag();
+            }
+        };
+
+        Type<Double> DOUBLE = new Type<>() {
+            public void write(Writer out, Double value) {
+                out.writeLong(Double.doubleToLongBits(value));
+            }
+
+            public Double read(Reader in) {
+                return Double.longBitsToDouble(in.readLong());
+            }
+        };
+
+        Type<LocalDate> DATE = new Type<>() {
+            public void write(Writer out, LocalDate value) {
+                out.writeZigZag(value.toEpochDay());
+            }
+
+            public LocalDate read(Reader in) {
+                return LocalDate.ofEpochDay(in.readZigZag());
+            }
+        };
+
+        Type<OffsetDateTime> TIMESTAMP = new Type<>() {
+            public void write(Writer out, OffsetDateTime value) {
+                out.writeZigZag(value.toEpochSecond());
+                out.writeVarLong(value.getNano());
+                out.writeZigZag(value.getOffset().getTotalSeconds());
+            }
+
+            public OffsetDateTime read(Reader in) {
+                Instant instant = Instant.ofEpochSecond(in.readZigZag(), in.readVarLong());
+                return OffsetDateTime.ofInstant(instant, ZoneOffset.ofTotalSeconds((int) in.readZigZag()));
+            }
+        };
+
+        Type<BookingEventType> EVENT_TYPE = new Type<>() {
+            public void write(Writer out, BookingEventType value) {
+                int code = EVENT_TYPES.indexOf(value);
+                if (code < 0) {
+                    throw new SerializationException("No wire code for event type " + value);
+                }
+                out.writeVarLong(code);
+            }
+
+            public BookingEventType read(Reader in) {
+                int code = (int) in.readVarLong();
+                if (code >= EVENT_TYPES.size()) {
+                    throw new SerializationException("Unknown event type code " + code);
+                }
+                return EVENT_TYPES.get(code);
+            }
+        };
+    }
+
+    private record Field<T, V>(Type<V> type, Function<T, V> getter, BiConsumer<T, V> setter) {}
+
+    private static <T, V> Field<T, V> field(Type<V> type, Function<T, V> getter, BiConsumer<T, V> setter) {
+        return new Field<>(type, getter, setter);
+    }
+
+    // A message: length, presence bitmap, present fields. Also usable as a field type for nested messages.
+    private record Schema<T>(Supplier<T> factory, List<Field<T, ?>> fields) implements Type<T> {
+
+        Schema {
+            if (fields.size() > Long.SIZE) {
+                throw new IllegalArgumentException("A message holds at most " + Long.SIZE + " fields");
+            }
+        }
+
+        @Override
+        public void write(Writer out, T message) {
+            int lengthAt = out.reserveLength();
+            long presence = 0;
+            Object[] values = new Object[fields.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = fields.get(i).getter().apply(message);
+                if (values[i] != null) {
+                    presence |= 1L << i;
+                }
+            }
+            out.writeVarLong(presence);
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    writeField(out, fields.get(i), values[i]);
+                }
+            }
+            out.fillLength(lengthAt);
+        }
+
+        @Override
+        public T read(Reader in) {
+            int length = in.readFixedInt();
+            int end = in.pos + length;
+            long presence = in.readVarLong();
+            T message = factory.get();
+            for (int i = 0; i < fields.size(); i++) {
+                if ((presence & (1L << i)) != 0) {
+                    readField(in, fields.get(i), message);
+                }
+            }
+            // Skip fields appended by newer writers
+            in.pos = end;
+            return message;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T, V> void writeField(Writer out, Field<T, V> field, Object value) {
+            field.type().write(out, (V) value);
+        }
+
+        private static <T, V> void readField(Reader in, Field<T, V> field, T message) {
+            field.setter().accept(message, field.type().read(in));
+        }
+    }
+
+    // --- Buffers ---
+
+    private static final class Writer {
+        private byte[] buf;
+        private int pos;
+
+        Writer(int capacity) {
+            buf = new byte[capacity];
+        }
+
+        private void ensure(int extra) {
+            if (pos + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+            }
+        }
+
+        void writeByte(byte value) {
+            ensure(1);
+            buf[pos++] = value;
+        }
+
+        void writeBytes(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+        }
+
+        void writeLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buf[pos++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[pos++] = (byte) value;
+        }
+
+        void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        // Nested lengths are only known afterwards, so they take a fixed four bytes
+        int reserveLength() {
+            ensure(4);
+            pos += 4;
+            return pos - 4;
+        }
+
+        void fillLength(int at) {
+            int length = pos - at - 4;
+            buf[at] = (byte) (length >>> 24);
+            buf[at + 1] = (byte) (length >>> 16);
+            buf[at + 2] = (byte) (length >>> 8);
+            buf[at + 3] = (byte) length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int pos;
+
+        Reader(byte[] data, int pos) {
+            this.data = data;
+            this.pos = pos;
+        }
+
+        private byte next() {
+            if (pos >= data.length) {
+                throw new IndexOutOfBoundsException(pos);
+            }
+            return data[pos++];
+        }
+
+        long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (next() & 0xFF);
+            }
+            return value;
+        }
+
+        int readFixedInt() {
+            return ((next() & 0xFF) << 24) | ((next() & 0xFF) << 16) | ((next() & 0xFF) << 8) | (next() & 0xFF);
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = next();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new SerializationException("Malformed varint in booking event");
+        }
+
+        long readZigZag() {
+            long raw = readVarLong();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+    }
+}
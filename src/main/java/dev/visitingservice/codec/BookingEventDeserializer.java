@@ -0,0 +1,43 @@
+package dev.visitingservice.codec;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+
+/**
+ * Reads both encodings of a topic: records starting with {@link BookingEventCodec#MAGIC} are decoded as binary
+ * booking events, anything else goes to the JSON deserializer as before. Lets a topic switch encoding without
+ * draining it first.
+ */
+public class BookingEventDeserializer implements Deserializer<Object> {
+
+    private final JsonDeserializer<Object> json = new JsonDeserializer<>();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        if (BookingEventCodec.isBinary(data)) {
+            return BookingEventCodec.decode(data);
+        }
+        return json.deserialize(topic, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (BookingEventCodec.isBinary(data)) {
+            return BookingEventCodec.decode(data);
+        }
+        return json.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
@@ -0,0 +1,55 @@
+package dev.visitingservice.codec;
+
+import dev.visitingservice.dto.BookingEventDTO;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Value serializer choosing the encoding per topic: booking events sent to a binary topic use
+ * {@link BookingEventCodec}, everything else keeps the JSON every existing consumer reads. Binary records carry a
+ * {@value #ENCODING_HEADER} header so consumers can tell them apart without looking at the bytes.
+ */
+public class BookingEventSerializer implements Serializer<Object> {
+
+    public static final String ENCODING_HEADER = "booking-event-encoding";
+    static final byte[] BINARY_ENCODING = ("binary-v" + BookingEventCodec.VERSION).getBytes(StandardCharsets.UTF_8);
+
+    private final Set<String> binaryTopics;
+    private final JsonSerializer<Object> json = new JsonSerializer<>();
+
+    public BookingEventSerializer(Set<String> binaryTopics) {
+        this.binaryTopics = Set.copyOf(binaryTopics);
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data instanceof BookingEventDTO event && binaryTopics.contains(topic)) {
+            return BookingEventCodec.encode(event);
+        }
+        return json.serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data instanceof BookingEventDTO event && binaryTopics.contains(topic)) {
+            headers.add(ENCODING_HEADER, BINARY_ENCODING);
+            return BookingEventCodec.encode(event);
+        }
+        return json.serialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
@@ -10,6 +10,10 @@ public class BookingTopicConfig {
     // Enhanced Kafka topics configuration for booking events
     // Supports scaling, retention, and proper partitioning for high throughput
 
+    public static final String BOOKING_EVENTS_TOPIC = "booking-events";
+    // Properties are hashed onto these partitions to decide which instance writes them
+    public static final int BOOKING_EVENTS_PARTITIONS = 6;
+
     @Bean
     public NewTopic bookingTopic(){
         return TopicBuilder.name("bookings")
@@ -18,8 +22,8 @@ public class BookingTopicConfig {
 
     @Bean
     public NewTopic bookingEventsTopic(){
-        return TopicBuilder.name("booking-events")
-                .partitions(6) // For scaling across multiple consumers
+        return TopicBuilder.name(BOOKING_EVENTS_TOPIC)
+                .partitions(BOOKING_EVENTS_PARTITIONS) // For scaling across multiple consumers
                 .replicas(1) // Adjust based on Kafka cluster setup
                 .config("retention.ms", "604800000") // 7 days retention (7 * 24 * 60 * 60 * 1000)
                 .config("cleanup.policy", "delete") // Delete old messages after retention
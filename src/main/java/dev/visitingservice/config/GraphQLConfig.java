@@ -1,9 +1,13 @@
 package dev.visitingservice.config;
 
+import dev.visitingservice.service.BookingIdempotencyService;
 import graphql.schema.GraphQLScalarType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.graphql.execution.RuntimeWiringConfigurer;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+
+import java.util.Map;
 
 import static graphql.scalars.ExtendedScalars.Date;
 import static graphql.scalars.ExtendedScalars.DateTime;
@@ -27,4 +31,17 @@ public class GraphQLConfig {
     public GraphQLScalarType dateTimeScalar() {
         return DateTime;
     }
+
+    // Exposes the Idempotency-Key header to mutations as a context value
+    @Bean
+    public WebGraphQlInterceptor idempotencyKeyInterceptor() {
+        return (request, chain) -> {
+            String key = request.getHeaders().getFirst(BookingIdempotencyService.HEADER);
+            if (key != null) {
+                request.configureExecutionInput((input, builder) ->
+                        builder.graphQLContext(Map.of(BookingIdempotencyService.HEADER, key)).build());
+            }
+            return chain.next(request);
+        };
+    }
 }
@@ -1,5 +1,10 @@
 package dev.visitingservice.config;
 
+import dev.visitingservice.codec.BookingEventDeserializer;
+import dev.visitingservice.codec.BookingEventSerializer;
+import dev.visitingservice.dto.PaymentStatusEventDTO;
+import dev.visitingservice.service.ownership.PropertyOwnership;
+import dev.visitingservice.service.payment.PaymentStatusConsumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
@@ -10,11 +15,17 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.FixedBackOff;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Configuration
 public class KafkaConfig {
@@ -22,6 +33,9 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
+    @Value("${kafka.encoding.binary-topics:}")
+    private String binaryTopics;
+
     @Value("${spring.kafka.consumer.group-id:visiting-service-group}")
     private String groupId;
 
@@ -31,6 +45,7 @@ public class KafkaConfig {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        // Values go through BookingEventSerializer (passed below): JSON, or binary on kafka.encoding.binary-topics
         configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
 
         // Production-ready idempotence and reliability settings
@@ -52,7 +67,8 @@ public class KafkaConfig {
         configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, 120000); // 2 minutes
         configProps.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, 30000); // 30 seconds
 
-        DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(configProps);
+        DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(configProps,
+                new StringSerializer(), new BookingEventSerializer(binaryTopics()));
         // FIX: Set transaction prefix on ProducerFactory (Spring Kafka recommended way)
         factory.setTransactionIdPrefix("visiting-service-tx-");
         return factory;
@@ -88,7 +104,8 @@ public class KafkaConfig {
         props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
         props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "dev.visitingservice.dto.BookingEventDTO");
 
-        return new DefaultKafkaConsumerFactory<>(props);
+        // Reads binary booking events as well, whatever kafka.encoding.binary-topics says now
+        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new BookingEventDeserializer());
     }
 
     @Bean
@@ -105,6 +122,59 @@ public class KafkaConfig {
         return factory;
     }
 
+    // Payment-service consumer: one listener call per poll, acknowledged after the whole batch commits
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, PaymentStatusEventDTO> paymentListenerContainerFactory(
+            @Value("${payments.consumer.max-poll-records:500}") int maxPollRecords,
+            @Value("${payments.consumer.retry-backoff-ms:1000}") long retryBackoffMs,
+            @Value("${payments.consumer.max-retries:60}") long maxRetries,
+            PaymentStatusConsumer paymentStatusConsumer) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+
+        // Unreadable records arrive as null values instead of failing the whole batch
+        JsonDeserializer<PaymentStatusEventDTO> json = new JsonDeserializer<>(PaymentStatusEventDTO.class, false);
+        ConcurrentKafkaListenerContainerFactory<String, PaymentStatusEventDTO> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(json)));
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        // A batch that still fails after the retries is handed to the consumer record by record and then skipped,
+        // so one bad batch cannot stall its partitions forever
+        factory.setCommonErrorHandler(new DefaultErrorHandler(paymentStatusConsumer::recover,
+                new FixedBackOff(retryBackoffMs, maxRetries)));
+        factory.setConcurrency(3);
+        return factory;
+    }
+
+    // Ownership consumer: only its partition assignment matters, so it skips the payloads and history
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> ownershipListenerContainerFactory(PropertyOwnership propertyOwnership) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        factory.getContainerProperties().setConsumerRebalanceListener(propertyOwnership);
+        factory.setConcurrency(1);
+        return factory;
+    }
+
+    private Set<String> binaryTopics() {
+        return Arrays.stream(binaryTopics.split(","))
+                .map(String::trim)
+                .filter(topic -> !topic.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
     // String Producer Factory for simple string messages
     @Bean
     public ProducerFactory<String, String> stringProducerFactory() {
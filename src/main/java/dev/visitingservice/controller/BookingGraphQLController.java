@@ -1,15 +1,20 @@
 package dev.visitingservice.controller;
 
+import dev.visitingservice.dto.BookingCommandDTO;
 import dev.visitingservice.dto.BookingFilterDTO;
+import dev.visitingservice.dto.BookingRequestDTO;
 import dev.visitingservice.dto.CalendarViewDTO;
 import dev.visitingservice.dto.ShortletBookingDTO;
 import dev.visitingservice.model.ShortletBooking;
 import dev.visitingservice.model.ShortletBooking.BookingStatus;
 import dev.visitingservice.repository.AvailabilitySlotRepository;
 import dev.visitingservice.repository.ShortletBookingRepository;
+import dev.visitingservice.service.BookingIdempotencyService;
+import dev.visitingservice.service.BookingRequestService;
 import dev.visitingservice.service.ShortletBookingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.ContextValue;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.stereotype.Controller;
@@ -20,22 +25,32 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Controller
 public class BookingGraphQLController {
 
+    private static final int MAX_REQUEST_WAIT_SECONDS = 30;
+
     private final ShortletBookingService bookingService;
     private final ShortletBookingRepository bookingRepository;
     private final AvailabilitySlotRepository slotRepository;
+    private final BookingIdempotencyService idempotencyService;
+    private final BookingRequestService requestService;
 
     @Autowired
     public BookingGraphQLController(
             ShortletBookingService bookingService,
             ShortletBookingRepository bookingRepository,
-            AvailabilitySlotRepository slotRepository) {
+            AvailabilitySlotRepository slotRepository,
+            BookingIdempotencyService idempotencyService,
+            BookingRequestService requestService) {
         this.bookingService = bookingService;
         this.bookingRepository = bookingRepository;
         this.slotRepository = slotRepository;
+        this.idempotencyService = idempotencyService;
+        this.requestService = requestService;
     }
 
     @QueryMapping
@@ -111,7 +126,8 @@ public class BookingGraphQLController {
     }
 
     @MutationMapping
-    public ShortletBookingDTO createBooking(@Argument Map<String, String> input) {
+    public ShortletBookingDTO createBooking(@Argument Map<String, String> input,
+                                            @ContextValue(name = BookingIdempotencyService.HEADER, required = false) String idempotencyKey) {
         UUID tenantId = UUID.fromString(input.get("tenantId"));
         UUID landlordId = UUID.fromString(input.get("landlordId"));
         UUID propertyId = UUID.fromString(input.get("propertyId"));
@@ -132,10 +148,42 @@ public class BookingGraphQLController {
         String userAgent = "GraphQL-Client";
         String sourceIP = "unknown";
 
-        return bookingService.createBooking(tenantId, landlordId, propertyId, startDate, endDate,
+        return idempotencyService.createOnce(idempotencyKey, tenantId, input,
+                () -> bookingService.createBooking(tenantId, landlordId, propertyId, startDate, endDate,
                                           firstName, lastName, phoneNumber, guestNumber,
                                           email, amount, currency,  // Add the new parameters
-                                          sessionId, userAgent, sourceIP);
+                                          sessionId, userAgent, sourceIP));
+    }
+
+    @MutationMapping
+    public BookingRequestDTO submitBookingRequest(@Argument Map<String, String> input) {
+        BookingCommandDTO command = new BookingCommandDTO();
+        command.setTenantId(UUID.fromString(input.get("tenantId")));
+        command.setLandlordId(UUID.fromString(input.get("landlordId")));
+        command.setPropertyId(UUID.fromString(input.get("propertyId")));
+        command.setStartDate(LocalDate.parse(input.get("startDate")));
+        command.setEndDate(LocalDate.parse(input.get("endDate")));
+        command.setFirstName(input.get("firstName"));
+        command.setLastName(input.get("lastName"));
+        command.setPhoneNumber(input.get("phoneNumber"));
+        command.setGuestNumber(input.get("guestNumber") != null ? Integer.parseInt(input.get("guestNumber")) : null);
+        command.setEmail(input.get("email"));
+        command.setAmount(input.get("amount") != null ? Double.parseDouble(input.get("amount")) : null);
+        command.setCurrency(input.getOrDefault("currency", "NGN"));
+        command.setSessionId("graphql-session-" + UUID.randomUUID());
+        command.setUserAgent("GraphQL-Client");
+        command.setSourceIP("unknown");
+        return requestService.submit(command);
+    }
+
+    @QueryMapping
+    public CompletableFuture<BookingRequestDTO> bookingRequest(@Argument String id, @Argument Integer waitSeconds) {
+        UUID requestId = UUID.fromString(id);
+        if (waitSeconds == null || waitSeconds <= 0) {
+            return CompletableFuture.completedFuture(requestService.get(requestId));
+        }
+        return requestService.outcome(requestId, Math.min(waitSeconds, MAX_REQUEST_WAIT_SECONDS), TimeUnit.SECONDS)
+                .thenApply(done -> done != null ? done : requestService.get(requestId));
     }
 
     @MutationMapping
@@ -0,0 +1,43 @@
+package dev.visitingservice.controller;
+
+import dev.visitingservice.dto.BookingCommandDTO;
+import dev.visitingservice.exception.BookingConflictException;
+import dev.visitingservice.service.ownership.BookingCommandRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Receives booking and availability writes forwarded by other instances for properties this instance owns.
+ */
+@RestController
+@RequestMapping(BookingCommandRouter.COMMAND_PATH)
+public class InternalBookingCommandController {
+
+    private final BookingCommandRouter commandRouter;
+
+    @Autowired
+    public InternalBookingCommandController(BookingCommandRouter commandRouter) {
+        this.commandRouter = commandRouter;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> execute(@RequestHeader(value = "X-API-KEY", required = false) String apiKey,
+                                     @RequestBody BookingCommandDTO command) {
+        if (!commandRouter.isValidApiKey(apiKey)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid API key"));
+        }
+        try {
+            return ResponseEntity.ok(commandRouter.executeLocally(command));
+        } catch (BookingConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getReason()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.unprocessableEntity().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+}
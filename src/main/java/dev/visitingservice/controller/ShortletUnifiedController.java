@@ -1,34 +1,62 @@
 package dev.visitingservice.controller;
 
 import dev.visitingservice.client.ListingGraphQLClient;
+import dev.visitingservice.dto.AvailabilityCheckDTO;
+import dev.visitingservice.dto.BookingCommandDTO;
+import dev.visitingservice.dto.BookingHoldDTO;
+import dev.visitingservice.dto.BookingRequestDTO;
+import dev.visitingservice.dto.FlexibleAvailabilityDTO;
 import dev.visitingservice.dto.ListingDto;
 import dev.visitingservice.dto.ShortletAvailabilityDTO;
+import dev.visitingservice.dto.ShortletAvailabilityRuleDTO;
 import dev.visitingservice.dto.ShortletBookingDTO;
+import dev.visitingservice.exception.BookingConflictException;
+import dev.visitingservice.service.BookingIdempotencyService;
+import dev.visitingservice.service.BookingRequestService;
 import dev.visitingservice.service.ShortletAvailabilityService;
 import dev.visitingservice.service.ShortletBookingService;
+import dev.visitingservice.service.hold.BookingHoldService;
+import dev.visitingservice.service.index.AvailabilitySearchCache;
+import dev.visitingservice.service.ownership.BookingCommandRouter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.net.URI;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/shortlets")
 public class ShortletUnifiedController {
 
+    private static final int MAX_REQUEST_WAIT_SECONDS = 30;
+
     private final ShortletAvailabilityService availabilityService;
     private final ShortletBookingService bookingService;
     private final ListingGraphQLClient listingGraphQLClient;
+    private final AvailabilitySearchCache searchCache;
+    private final BookingCommandRouter commandRouter;
+    private final BookingIdempotencyService idempotencyService;
+    private final BookingHoldService holdService;
+    private final BookingRequestService requestService;
 
     @Autowired
-    public ShortletUnifiedController(ShortletAvailabilityService availabilityService, ShortletBookingService bookingService, ListingGraphQLClient listingGraphQLClient) {
+    public ShortletUnifiedController(ShortletAvailabilityService availabilityService, ShortletBookingService bookingService, ListingGraphQLClient listingGraphQLClient, AvailabilitySearchCache searchCache, BookingCommandRouter commandRouter, BookingIdempotencyService idempotencyService, BookingHoldService holdService, BookingRequestService requestService) {
         this.availabilityService = availabilityService;
         this.bookingService = bookingService;
         this.listingGraphQLClient = listingGraphQLClient;
+        this.searchCache = searchCache;
+        this.commandRouter = commandRouter;
+        this.idempotencyService = idempotencyService;
+        this.holdService = holdService;
+        this.requestService = requestService;
     }
 
     // --- Availability Endpoints ---
@@ -38,13 +66,92 @@ public class ShortletUnifiedController {
             UUID propertyId = UUID.fromString(body.get("propertyId"));
             LocalDate startDate = LocalDate.parse(body.get("startDate"));
             LocalDate endDate = LocalDate.parse(body.get("endDate"));
-            ShortletAvailabilityDTO dto = availabilityService.setAvailability(landlordId, propertyId, startDate, endDate);
+            // Runs on the property's owner, queued behind its booking changes
+            BookingCommandDTO command = new BookingCommandDTO(BookingCommandDTO.CommandType.SET_AVAILABILITY);
+            command.setLandlordId(landlordId);
+            command.setPropertyId(propertyId);
+            command.setStartDate(startDate);
+            command.setEndDate(endDate);
+            ShortletAvailabilityDTO dto = commandRouter.route(command, ShortletAvailabilityDTO.class);
             return ResponseEntity.ok(dto);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
+    @PostMapping("/availability/{landlordId}/bulk")
+    public ResponseEntity<?> setAvailabilityBulk(@PathVariable UUID landlordId, @RequestBody List<ShortletAvailabilityDTO> ranges) {
+        try {
+            // Ranges are grouped by the instance that owns their property
+            List<ShortletAvailabilityDTO> result = commandRouter.routeBulk(landlordId, ranges);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/availability/{landlordId}/rules")
+    public ResponseEntity<?> setAvailabilityRule(@PathVariable UUID landlordId, @RequestBody ShortletAvailabilityRuleDTO rule) {
+        try {
+            BookingCommandDTO command = new BookingCommandDTO(BookingCommandDTO.CommandType.SET_AVAILABILITY_RULE);
+            command.setLandlordId(landlordId);
+            command.setRule(rule);
+            return ResponseEntity.ok(commandRouter.route(command, ShortletAvailabilityRuleDTO.class));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/availability/{landlordId}/{propertyId}/rules")
+    public ResponseEntity<List<ShortletAvailabilityRuleDTO>> getAvailabilityRules(@PathVariable UUID landlordId, @PathVariable UUID propertyId) {
+        return ResponseEntity.ok(availabilityService.getAvailabilityRules(landlordId, propertyId));
+    }
+
+    @DeleteMapping("/availability/{landlordId}/rules/{ruleId}")
+    public ResponseEntity<?> deleteAvailabilityRule(@PathVariable UUID landlordId, @PathVariable UUID ruleId) {
+        try {
+            BookingCommandDTO command = new BookingCommandDTO(BookingCommandDTO.CommandType.DELETE_AVAILABILITY_RULE);
+            command.setLandlordId(landlordId);
+            command.setRuleId(ruleId);
+            commandRouter.route(command, Void.class);
+            return ResponseEntity.ok(Map.of("message", "Availability rule deleted successfully."));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/availability/{landlordId}/rules/{ruleId}/exceptions")
+    public ResponseEntity<?> addAvailabilityException(@PathVariable UUID landlordId, @PathVariable UUID ruleId,
+                                                      @RequestBody Map<String, String> body) {
+        try {
+            LocalDate startDate = LocalDate.parse(body.get("startDate"));
+            LocalDate endDate = LocalDate.parse(body.get("endDate"));
+            BookingCommandDTO command = new BookingCommandDTO(BookingCommandDTO.CommandType.ADD_AVAILABILITY_EXCEPTION);
+            command.setLandlordId(landlordId);
+            command.setRuleId(ruleId);
+            command.setStartDate(startDate);
+            command.setEndDate(endDate);
+            return ResponseEntity.ok(commandRouter.route(command, ShortletAvailabilityRuleDTO.class));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/availability/{landlordId}/rules/{ruleId}/exceptions/{exceptionId}")
+    public ResponseEntity<?> deleteAvailabilityException(@PathVariable UUID landlordId, @PathVariable UUID ruleId,
+                                                         @PathVariable UUID exceptionId) {
+        try {
+            BookingCommandDTO command = new BookingCommandDTO(BookingCommandDTO.CommandType.DELETE_AVAILABILITY_EXCEPTION);
+            command.setLandlordId(landlordId);
+            command.setRuleId(ruleId);
+            command.setExceptionId(exceptionId);
+            commandRouter.route(command, Void.class);
+            return ResponseEntity.ok(Map.of("message", "Availability exception deleted successfully."));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/availability/{landlordId}/{propertyId}")
     public ResponseEntity<List<ShortletAvailabilityDTO>> getAvailability(@PathVariable UUID landlordId, @PathVariable UUID propertyId) {
         List<ShortletAvailabilityDTO> list = availabilityService.getAvailability(landlordId, propertyId);
@@ -54,7 +161,9 @@ public class ShortletUnifiedController {
     @DeleteMapping("/availability/{availabilityId}")
     public ResponseEntity<?> deleteAvailability(@PathVariable UUID availabilityId) {
         try {
-            availabilityService.deleteAvailability(availabilityId);
+            BookingCommandDTO command = new BookingCommandDTO(BookingCommandDTO.CommandType.DELETE_AVAILABILITY);
+            command.setAvailabilityId(availabilityId);
+            commandRouter.route(command, Void.class);
             return ResponseEntity.ok(Map.of("message", "Availability deleted successfully."));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -63,11 +172,18 @@ public class ShortletUnifiedController {
 
     @GetMapping("/availability/search")
     public ResponseEntity<?> searchAvailableListings(@RequestParam("startDate") String startDateStr,
-                                                    @RequestParam("endDate") String endDateStr) {
+                                                    @RequestParam("endDate") String endDateStr,
+                                                    @RequestParam(value = "page", required = false) Integer page,
+                                                    @RequestParam(value = "size", required = false) Integer size) {
         try {
             LocalDate startDate = LocalDate.parse(startDateStr);
             LocalDate endDate = LocalDate.parse(endDateStr);
-            List<UUID> propertyIds = availabilityService.getAvailablePropertyIdsInRange(startDate, endDate);
+            boolean paged = page != null || size != null;
+            long cacheVersion = searchCache.version();
+            List<UUID> propertyIds = paged
+                    ? availabilityService.getAvailablePropertyIdsInRange(startDate, endDate,
+                            page != null ? page : 0, size != null ? size : 20)
+                    : availabilityService.getAvailablePropertyIdsInRange(startDate, endDate);
             if (propertyIds.isEmpty()) {
                 return ResponseEntity.ok(Map.of(
                     "success", true,
@@ -75,7 +191,13 @@ public class ShortletUnifiedController {
                     "data", List.of()
                 ));
             }
-            List<ListingDto> listings = listingGraphQLClient.getListingsByIds(propertyIds);
+            List<ListingDto> listings = paged ? null : searchCache.getListings(startDate, endDate).orElse(null);
+            if (listings == null) {
+                listings = listingGraphQLClient.getListingsByIds(propertyIds);
+                if (!paged && listings != null && !listings.isEmpty()) {
+                    searchCache.putListings(startDate, endDate, listings, cacheVersion);
+                }
+            }
             if (listings == null || listings.isEmpty()) {
                 return ResponseEntity.ok(Map.of(
                     "success", false,
@@ -97,9 +219,59 @@ public class ShortletUnifiedController {
         }
     }
 
+    @GetMapping("/availability/flexible")
+    public ResponseEntity<?> searchFlexibleAvailability(@RequestParam("windowStart") String windowStartStr,
+                                                        @RequestParam("windowEnd") String windowEndStr,
+                                                        @RequestParam("nights") int nights,
+                                                        @RequestParam(value = "mode", defaultValue = "earliest") String mode) {
+        try {
+            LocalDate windowStart = LocalDate.parse(windowStartStr);
+            LocalDate windowEnd = LocalDate.parse(windowEndStr);
+            boolean allStartDates;
+            if ("all".equalsIgnoreCase(mode)) {
+                allStartDates = true;
+            } else if ("earliest".equalsIgnoreCase(mode)) {
+                allStartDates = false;
+            } else {
+                throw new IllegalArgumentException("mode must be 'earliest' or 'all'");
+            }
+            List<FlexibleAvailabilityDTO> results = availabilityService.findFlexibleAvailability(windowStart, windowEnd, nights, allStartDates);
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "message", results.isEmpty() ? "No properties have a free stay of that length in the window." : "Flexible availability fetched successfully.",
+                "data", results
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", "Error occurred while searching flexible availability: " + e.getMessage(),
+                "data", List.of()
+            ));
+        }
+    }
+
+    @PostMapping("/availability/check")
+    public ResponseEntity<?> checkAvailability(@RequestBody List<AvailabilityCheckDTO> checks) {
+        try {
+            List<AvailabilityCheckDTO> results = availabilityService.checkAvailability(checks);
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "message", "Availability checked for " + results.size() + " requests.",
+                "data", results
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", "Error occurred while checking availability: " + e.getMessage(),
+                "data", List.of()
+            ));
+        }
+    }
+
     // --- Booking Endpoints ---
     @PostMapping("/bookings")
     public ResponseEntity<?> createBooking(@RequestBody Map<String, String> body,
+                                           @RequestHeader(value = BookingIdempotencyService.HEADER, required = false) String idempotencyKey,
                                            HttpServletRequest request) {
         try {
             UUID tenantId = UUID.fromString(body.get("tenantId"));
@@ -122,14 +294,91 @@ public class ShortletUnifiedController {
             String userAgent = request.getHeader("User-Agent");
             String sourceIP = request.getRemoteAddr();
 
-            ShortletBookingDTO dto = bookingService.createBooking(
+            // A retry with the same Idempotency-Key gets the original response without booking again
+            ShortletBookingDTO dto = idempotencyService.createOnce(idempotencyKey, tenantId, body, () -> bookingService.createBooking(
                     tenantId, landlordId, propertyId, startDate, endDate,
                     firstName, lastName, phoneNumber, guestNumber,
                     email, amount, currency,   // 👈 pass them
                     sessionId, userAgent, sourceIP
-            );
+            ));
 
             return ResponseEntity.ok(dto);
+        } catch (BookingConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getReason()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // --- Asynchronous Booking Requests ---
+    @PostMapping("/bookings/requests")
+    public ResponseEntity<?> submitBookingRequest(@RequestBody Map<String, String> body, HttpServletRequest request) {
+        try {
+            BookingCommandDTO command = new BookingCommandDTO();
+            command.setTenantId(UUID.fromString(body.get("tenantId")));
+            command.setLandlordId(UUID.fromString(body.get("landlordId")));
+            command.setPropertyId(UUID.fromString(body.get("propertyId")));
+            command.setStartDate(LocalDate.parse(body.get("startDate")));
+            command.setEndDate(LocalDate.parse(body.get("endDate")));
+            command.setFirstName(body.get("firstName"));
+            command.setLastName(body.get("lastName"));
+            command.setPhoneNumber(body.get("phoneNumber"));
+            command.setGuestNumber(body.get("guestNumber") != null ? Integer.parseInt(body.get("guestNumber")) : null);
+            command.setEmail(body.get("email"));
+            command.setAmount(body.get("amount") != null ? Double.parseDouble(body.get("amount")) : null);
+            command.setCurrency(body.getOrDefault("currency", "NGN"));
+            command.setSessionId(request.getSession().getId());
+            command.setUserAgent(request.getHeader("User-Agent"));
+            command.setSourceIP(request.getRemoteAddr());
+
+            BookingRequestDTO submitted = requestService.submit(command);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/shortlets/bookings/requests/" + submitted.getId()))
+                    .body(submitted);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Long-polls up to waitSeconds for the outcome, then returns the current state
+    @GetMapping("/bookings/requests/{requestId}")
+    public CompletableFuture<ResponseEntity<?>> getBookingRequest(@PathVariable UUID requestId,
+                                                                  @RequestParam(defaultValue = "0") int waitSeconds) {
+        try {
+            if (waitSeconds <= 0) {
+                return CompletableFuture.completedFuture(ResponseEntity.ok(requestService.get(requestId)));
+            }
+            int wait = Math.min(waitSeconds, MAX_REQUEST_WAIT_SECONDS);
+            return requestService.outcome(requestId, wait, TimeUnit.SECONDS)
+                    .thenApply(done -> ResponseEntity.ok(done != null ? done : requestService.get(requestId)));
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+        }
+    }
+
+    // --- Checkout Holds ---
+    @PostMapping("/holds")
+    public ResponseEntity<?> placeHold(@RequestBody Map<String, String> body) {
+        try {
+            BookingHoldDTO hold = holdService.placeHold(
+                    UUID.fromString(body.get("tenantId")),
+                    UUID.fromString(body.get("landlordId")),
+                    UUID.fromString(body.get("propertyId")),
+                    LocalDate.parse(body.get("startDate")),
+                    LocalDate.parse(body.get("endDate")));
+            return ResponseEntity.ok(hold);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    public ResponseEntity<?> releaseHold(@PathVariable UUID holdId, @RequestParam UUID tenantId) {
+        try {
+            holdService.releaseHold(holdId, tenantId);
+            return ResponseEntity.ok(Map.of("message", "Hold released."));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -153,6 +402,8 @@ public class ShortletUnifiedController {
             // Schedule reminder email for tenant (e.g., 1 day before startDate)
             // These can be implemented via NotificationService, EmailService, and a scheduler
             return ResponseEntity.ok(Map.of("message", "Booking accepted successfully."));
+        } catch (BookingConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getReason()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -2,12 +2,14 @@ package dev.visitingservice.controller;
 
 import dev.visitingservice.dto.SlotRangeRequestDTO;
 import dev.visitingservice.model.AvailabilitySlot;
+import dev.visitingservice.model.ViewingSlotTemplate;
 import dev.visitingservice.service.AvailabilitySlotService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -22,6 +24,18 @@ public class SlotRangeController {
 
     @PostMapping("/range")
     public ResponseEntity<List<AvailabilitySlot>> createSlotsForRange(@RequestBody SlotRangeRequestDTO dto) {
+        if (dto.getStartDate() != null) {
+            return ResponseEntity.ok(slotService.createSlotsForDateRange(
+                    dto.getPropertyId(),
+                    dto.getLandlordId(),
+                    dto.getStartDate(),
+                    dto.getEndDate() != null ? dto.getEndDate() : dto.getStartDate(),
+                    dto.getDaysOfWeek(),
+                    dto.getStartTime(),
+                    dto.getEndTime(),
+                    dto.getIntervalMinutes()
+            ));
+        }
         List<AvailabilitySlot> slots = slotService.createSlotsForRange(
                 dto.getPropertyId(),
                 dto.getLandlordId(),
@@ -39,4 +53,30 @@ public class SlotRangeController {
         List<AvailabilitySlot> slots = slotService.getSlots(propertyId, landlordId);
         return ResponseEntity.ok(slots);
     }
+
+    @PostMapping("/templates")
+    public ResponseEntity<?> createTemplate(@RequestBody ViewingSlotTemplate template) {
+        try {
+            return ResponseEntity.ok(slotService.createTemplate(template));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/templates")
+    public ResponseEntity<List<ViewingSlotTemplate>> getTemplates(@RequestParam("propertyId") UUID propertyId,
+                                                                  @RequestParam("landlordId") UUID landlordId) {
+        return ResponseEntity.ok(slotService.getTemplates(propertyId, landlordId));
+    }
+
+    @DeleteMapping("/templates/{templateId}")
+    public ResponseEntity<?> deleteTemplate(@PathVariable UUID templateId,
+                                            @RequestParam("landlordId") UUID landlordId) {
+        try {
+            slotService.deleteTemplate(templateId, landlordId);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
 }
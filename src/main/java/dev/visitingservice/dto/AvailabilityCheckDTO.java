@@ -0,0 +1,29 @@
+package dev.visitingservice.dto;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public class AvailabilityCheckDTO {
+    private UUID propertyId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Boolean available;
+
+    public AvailabilityCheckDTO() {}
+
+    public AvailabilityCheckDTO(UUID propertyId, LocalDate startDate, LocalDate endDate, Boolean available) {
+        this.propertyId = propertyId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.available = available;
+    }
+
+    public UUID getPropertyId() { return propertyId; }
+    public void setPropertyId(UUID propertyId) { this.propertyId = propertyId; }
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    public Boolean getAvailable() { return available; }
+    public void setAvailable(Boolean available) { this.available = available; }
+}
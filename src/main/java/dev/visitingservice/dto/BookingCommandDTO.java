@@ -0,0 +1,96 @@
+package dev.visitingservice.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A booking or availability write, in the form one instance forwards it to the instance that owns the property.
+ */
+public class BookingCommandDTO {
+
+    public enum CommandType {
+        CREATE, ACCEPT, REJECT, CANCEL, RESCHEDULE, SET_AVAILABILITY, SET_AVAILABILITY_BULK, DELETE_AVAILABILITY,
+        SET_AVAILABILITY_RULE, DELETE_AVAILABILITY_RULE, ADD_AVAILABILITY_EXCEPTION, DELETE_AVAILABILITY_EXCEPTION
+    }
+
+    private CommandType type;
+    private UUID bookingId;
+    private UUID tenantId;
+    private UUID landlordId;
+    private UUID propertyId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String firstName;
+    private String lastName;
+    private String phoneNumber;
+    private Integer guestNumber;
+    private String email;
+    private Double amount;
+    private String currency;
+    private String sessionId;
+    private String userAgent;
+    private String sourceIP;
+    private UUID availabilityId;
+    private UUID ruleId;
+    private UUID exceptionId;
+    private List<ShortletAvailabilityDTO> ranges;
+    private ShortletAvailabilityRuleDTO rule;
+
+    public BookingCommandDTO() {}
+
+    public BookingCommandDTO(CommandType type) {
+        this.type = type;
+    }
+
+    public static BookingCommandDTO forBooking(CommandType type, UUID bookingId) {
+        BookingCommandDTO command = new BookingCommandDTO(type);
+        command.setBookingId(bookingId);
+        return command;
+    }
+
+    public CommandType getType() { return type; }
+    public void setType(CommandType type) { this.type = type; }
+    public UUID getBookingId() { return bookingId; }
+    public void setBookingId(UUID bookingId) { this.bookingId = bookingId; }
+    public UUID getTenantId() { return tenantId; }
+    public void setTenantId(UUID tenantId) { this.tenantId = tenantId; }
+    public UUID getLandlordId() { return landlordId; }
+    public void setLandlordId(UUID landlordId) { this.landlordId = landlordId; }
+    public UUID getPropertyId() { return propertyId; }
+    public void setPropertyId(UUID propertyId) { this.propertyId = propertyId; }
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String firstName) { this.firstName = firstName; }
+    public String getLastName() { return lastName; }
+    public void setLastName(String lastName) { this.lastName = lastName; }
+    public String getPhoneNumber() { return phoneNumber; }
+    public void setPhoneNumber(String phoneNumber) { this.phoneNumber = phoneNumber; }
+    public Integer getGuestNumber() { return guestNumber; }
+    public void setGuestNumber(Integer guestNumber) { this.guestNumber = guestNumber; }
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+    public Double getAmount() { return amount; }
+    public void setAmount(Double amount) { this.amount = amount; }
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+    public String getSessionId() { return sessionId; }
+    public void setSessionId(String sessionId) { this.sessionId = sessionId; }
+    public String getUserAgent() { return userAgent; }
+    public void setUserAgent(String userAgent) { this.userAgent = userAgent; }
+    public String getSourceIP() { return sourceIP; }
+    public void setSourceIP(String sourceIP) { this.sourceIP = sourceIP; }
+    public UUID getAvailabilityId() { return availabilityId; }
+    public void setAvailabilityId(UUID availabilityId) { this.availabilityId = availabilityId; }
+    public UUID getRuleId() { return ruleId; }
+    public void setRuleId(UUID ruleId) { this.ruleId = ruleId; }
+    public UUID getExceptionId() { return exceptionId; }
+    public void setExceptionId(UUID exceptionId) { this.exceptionId = exceptionId; }
+    public List<ShortletAvailabilityDTO> getRanges() { return ranges; }
+    public void setRanges(List<ShortletAvailabilityDTO> ranges) { this.ranges = ranges; }
+    public ShortletAvailabilityRuleDTO getRule() { return rule; }
+    public void setRule(ShortletAvailabilityRuleDTO rule) { this.rule = rule; }
+}
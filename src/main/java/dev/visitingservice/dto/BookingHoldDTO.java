@@ -0,0 +1,39 @@
+package dev.visitingservice.dto;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public class BookingHoldDTO {
+    private UUID id;
+    private UUID tenantId;
+    private UUID propertyId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private OffsetDateTime expiresAt;
+
+    public BookingHoldDTO() {}
+
+    public BookingHoldDTO(UUID id, UUID tenantId, UUID propertyId, LocalDate startDate, LocalDate endDate,
+                          OffsetDateTime expiresAt) {
+        this.id = id;
+        this.tenantId = tenantId;
+        this.propertyId = propertyId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.expiresAt = expiresAt;
+    }
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    public UUID getTenantId() { return tenantId; }
+    public void setTenantId(UUID tenantId) { this.tenantId = tenantId; }
+    public UUID getPropertyId() { return propertyId; }
+    public void setPropertyId(UUID propertyId) { this.propertyId = propertyId; }
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    public OffsetDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(OffsetDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -0,0 +1,35 @@
+package dev.visitingservice.dto;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public class BookingRequestDTO {
+    private UUID id;
+    private String status;
+    private UUID bookingId;
+    private String error;
+    private ShortletBookingDTO booking;
+    private OffsetDateTime createdAt;
+    private OffsetDateTime updatedAt;
+
+    public BookingRequestDTO() {}
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public UUID getBookingId() { return bookingId; }
+    public void setBookingId(UUID bookingId) { this.bookingId = bookingId; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+    public ShortletBookingDTO getBooking() { return booking; }
+    public void setBooking(ShortletBookingDTO booking) { this.booking = booking; }
+    public OffsetDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(OffsetDateTime createdAt) { this.createdAt = createdAt; }
+    public OffsetDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(OffsetDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public boolean isFinished() {
+        return "COMPLETED".equals(status) || "FAILED".equals(status);
+    }
+}
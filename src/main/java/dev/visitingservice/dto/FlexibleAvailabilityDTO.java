@@ -0,0 +1,22 @@
+package dev.visitingservice.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public class FlexibleAvailabilityDTO {
+    private UUID propertyId;
+    private List<LocalDate> startDates;
+
+    public FlexibleAvailabilityDTO() {}
+
+    public FlexibleAvailabilityDTO(UUID propertyId, List<LocalDate> startDates) {
+        this.propertyId = propertyId;
+        this.startDates = startDates;
+    }
+
+    public UUID getPropertyId() { return propertyId; }
+    public void setPropertyId(UUID propertyId) { this.propertyId = propertyId; }
+    public List<LocalDate> getStartDates() { return startDates; }
+    public void setStartDates(List<LocalDate> startDates) { this.startDates = startDates; }
+}
@@ -0,0 +1,32 @@
+package dev.visitingservice.dto;
+
+import java.util.UUID;
+
+/**
+ * A payment status change published by the payment service for one booking. Fields left null are not changed.
+ */
+public class PaymentStatusEventDTO {
+
+    private UUID bookingId;
+    private String paymentStatus;
+    private String paymentReference;
+    private Double paymentAmount;
+
+    public PaymentStatusEventDTO() {}
+
+    public PaymentStatusEventDTO(UUID bookingId, String paymentStatus, String paymentReference, Double paymentAmount) {
+        this.bookingId = bookingId;
+        this.paymentStatus = paymentStatus;
+        this.paymentReference = paymentReference;
+        this.paymentAmount = paymentAmount;
+    }
+
+    public UUID getBookingId() { return bookingId; }
+    public void setBookingId(UUID bookingId) { this.bookingId = bookingId; }
+    public String getPaymentStatus() { return paymentStatus; }
+    public void setPaymentStatus(String paymentStatus) { this.paymentStatus = paymentStatus; }
+    public String getPaymentReference() { return paymentReference; }
+    public void setPaymentReference(String paymentReference) { this.paymentReference = paymentReference; }
+    public Double getPaymentAmount() { return paymentAmount; }
+    public void setPaymentAmount(Double paymentAmount) { this.paymentAmount = paymentAmount; }
+}
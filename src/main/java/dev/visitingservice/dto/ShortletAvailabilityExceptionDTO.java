@@ -0,0 +1,25 @@
+package dev.visitingservice.dto;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public class ShortletAvailabilityExceptionDTO {
+    private UUID id;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    public ShortletAvailabilityExceptionDTO() {}
+
+    public ShortletAvailabilityExceptionDTO(UUID id, LocalDate startDate, LocalDate endDate) {
+        this.id = id;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+}
@@ -0,0 +1,34 @@
+package dev.visitingservice.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+public class ShortletAvailabilityRuleDTO {
+    private UUID id;
+    private UUID landlordId;
+    private UUID propertyId;
+    // Empty means every day
+    private Set<DayOfWeek> daysOfWeek;
+    private LocalDate startDate;
+    // Null means open-ended
+    private LocalDate endDate;
+    private List<ShortletAvailabilityExceptionDTO> exceptions;
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    public UUID getLandlordId() { return landlordId; }
+    public void setLandlordId(UUID landlordId) { this.landlordId = landlordId; }
+    public UUID getPropertyId() { return propertyId; }
+    public void setPropertyId(UUID propertyId) { this.propertyId = propertyId; }
+    public Set<DayOfWeek> getDaysOfWeek() { return daysOfWeek; }
+    public void setDaysOfWeek(Set<DayOfWeek> daysOfWeek) { this.daysOfWeek = daysOfWeek; }
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    public List<ShortletAvailabilityExceptionDTO> getExceptions() { return exceptions; }
+    public void setExceptions(List<ShortletAvailabilityExceptionDTO> exceptions) { this.exceptions = exceptions; }
+}
@@ -1,7 +1,9 @@
 package dev.visitingservice.dto;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Set;
 import java.util.UUID;
 
 public class SlotRangeRequestDTO {
@@ -11,6 +13,10 @@ public class SlotRangeRequestDTO {
     private LocalTime startTime;
     private LocalTime endTime;
     private Integer intervalMinutes;
+    // Multi-day generation: used instead of date when startDate is set
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Set<DayOfWeek> daysOfWeek;
 
     public UUID getPropertyId() { return propertyId; }
     public void setPropertyId(UUID propertyId) { this.propertyId = propertyId; }
@@ -24,5 +30,11 @@ public class SlotRangeRequestDTO {
     public void setEndTime(LocalTime endTime) { this.endTime = endTime; }
     public Integer getIntervalMinutes() { return intervalMinutes; }
     public void setIntervalMinutes(Integer intervalMinutes) { this.intervalMinutes = intervalMinutes; }
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    public Set<DayOfWeek> getDaysOfWeek() { return daysOfWeek; }
+    public void setDaysOfWeek(Set<DayOfWeek> daysOfWeek) { this.daysOfWeek = daysOfWeek; }
 }
 
@@ -0,0 +1,17 @@
+package dev.visitingservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Thrown when accepting a booking would overlap another ACCEPTED booking of the same property.
+ */
+public class BookingConflictException extends ResponseStatusException {
+    public BookingConflictException(String message) {
+        super(HttpStatus.CONFLICT, message);
+    }
+
+    public BookingConflictException(String message, Throwable cause) {
+        super(HttpStatus.CONFLICT, message, cause);
+    }
+}
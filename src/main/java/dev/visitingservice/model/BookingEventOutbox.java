@@ -0,0 +1,84 @@
+package dev.visitingservice.model;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * A booking event waiting to be published, stored as the JSON of its BookingEventDTO. Ids increase in commit order
+ * closely enough for the relay to publish in id order.
+ */
+@Entity
+@Table(name = "booking_event_outbox")
+public class BookingEventOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private UUID eventId;
+
+    @Column(name = "booking_id", nullable = false)
+    private UUID bookingId;
+
+    @Column(name = "event_type", nullable = false, length = 50)
+    private String eventType;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    public BookingEventOutbox() {}
+
+    public BookingEventOutbox(UUID eventId, UUID bookingId, String eventType, String payload) {
+        this.eventId = eventId;
+        this.bookingId = bookingId;
+        this.eventType = eventType;
+        this.payload = payload;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = OffsetDateTime.now(ZoneOffset.UTC);
+    }
+
+    public Long getId() {
+        return id;
+    }
+    public void setId(Long id) {
+        this.id = id;
+    }
+    public UUID getEventId() {
+        return eventId;
+    }
+    public void setEventId(UUID eventId) {
+        this.eventId = eventId;
+    }
+    public UUID getBookingId() {
+        return bookingId;
+    }
+    public void setBookingId(UUID bookingId) {
+        this.bookingId = bookingId;
+    }
+    public String getEventType() {
+        return eventType;
+    }
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+    public String getPayload() {
+        return payload;
+    }
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+    public void setCreatedAt(OffsetDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,90 @@
+package dev.visitingservice.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Reserves a property's nights [startDate, endDate) for one tenant until expiresAt, between quote and payment.
+ */
+@Entity
+@Table(name = "booking_hold")
+public class BookingHold {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+
+    @Column(name = "landlord_id", nullable = false)
+    private UUID landlordId;
+
+    @Column(name = "property_id", nullable = false)
+    private UUID propertyId;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private OffsetDateTime expiresAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = OffsetDateTime.now(ZoneOffset.UTC);
+    }
+
+    public UUID getId() {
+        return id;
+    }
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    public UUID getTenantId() {
+        return tenantId;
+    }
+    public void setTenantId(UUID tenantId) {
+        this.tenantId = tenantId;
+    }
+    public UUID getLandlordId() {
+        return landlordId;
+    }
+    public void setLandlordId(UUID landlordId) {
+        this.landlordId = landlordId;
+    }
+    public UUID getPropertyId() {
+        return propertyId;
+    }
+    public void setPropertyId(UUID propertyId) {
+        this.propertyId = propertyId;
+    }
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+    public OffsetDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    public void setExpiresAt(OffsetDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,72 @@
+package dev.visitingservice.model;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * The response a booking creation returned for a client's Idempotency-Key, kept until it expires. A row without a
+ * response is a claim by a creation that is still running.
+ */
+@Entity
+@Table(name = "booking_idempotency_key")
+public class BookingIdempotencyKey {
+
+    // Tenant id and client key, so keys chosen by different tenants never collide
+    @Id
+    @Column(name = "idempotency_key", length = 300)
+    private String idempotencyKey;
+
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    // Null while the creation that claimed the key is still running
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private OffsetDateTime expiresAt;
+
+    public BookingIdempotencyKey() {
+    }
+
+    public BookingIdempotencyKey(String idempotencyKey, UUID tenantId, String requestHash, String responseBody,
+                                 OffsetDateTime expiresAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.tenantId = tenantId;
+        this.requestHash = requestHash;
+        this.responseBody = responseBody;
+        this.expiresAt = expiresAt;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = OffsetDateTime.now(ZoneOffset.UTC);
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+    public UUID getTenantId() {
+        return tenantId;
+    }
+    public String getRequestHash() {
+        return requestHash;
+    }
+    public String getResponseBody() {
+        return responseBody;
+    }
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+    public OffsetDateTime getExpiresAt() {
+        return expiresAt;
+    }
+}
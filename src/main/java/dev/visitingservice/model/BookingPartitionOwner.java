@@ -0,0 +1,47 @@
+package dev.visitingservice.model;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+
+/**
+ * The instance that owns a booking-events partition through consumer group assignment, and when it last said so.
+ */
+@Entity
+@Table(name = "booking_partition_owner")
+public class BookingPartitionOwner {
+
+    @Id
+    @Column(name = "partition_id")
+    private Integer partitionId;
+
+    @Column(name = "owner_url", nullable = false)
+    private String ownerUrl;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private OffsetDateTime heartbeatAt;
+
+    public BookingPartitionOwner() {
+    }
+
+    public BookingPartitionOwner(Integer partitionId, String ownerUrl, OffsetDateTime heartbeatAt) {
+        this.partitionId = partitionId;
+        this.ownerUrl = ownerUrl;
+        this.heartbeatAt = heartbeatAt;
+    }
+
+    public Integer getPartitionId() {
+        return partitionId;
+    }
+    public String getOwnerUrl() {
+        return ownerUrl;
+    }
+    public void setOwnerUrl(String ownerUrl) {
+        this.ownerUrl = ownerUrl;
+    }
+    public OffsetDateTime getHeartbeatAt() {
+        return heartbeatAt;
+    }
+    public void setHeartbeatAt(OffsetDateTime heartbeatAt) {
+        this.heartbeatAt = heartbeatAt;
+    }
+}
@@ -0,0 +1,108 @@
+package dev.visitingservice.model;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * A booking creation accepted for asynchronous processing, and its outcome once processed.
+ */
+@Entity
+@Table(name = "booking_request")
+public class BookingRequest {
+
+    public enum RequestStatus {
+        SUBMITTED, PROCESSING, COMPLETED, FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RequestStatus status;
+
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+
+    @Column(name = "property_id", nullable = false)
+    private UUID propertyId;
+
+    // The BookingCommandDTO to run, as JSON
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "booking_id")
+    private UUID bookingId;
+
+    @Column(length = 500)
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = OffsetDateTime.now(ZoneOffset.UTC);
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = OffsetDateTime.now(ZoneOffset.UTC);
+    }
+
+    public UUID getId() {
+        return id;
+    }
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    public RequestStatus getStatus() {
+        return status;
+    }
+    public void setStatus(RequestStatus status) {
+        this.status = status;
+    }
+    public UUID getTenantId() {
+        return tenantId;
+    }
+    public void setTenantId(UUID tenantId) {
+        this.tenantId = tenantId;
+    }
+    public UUID getPropertyId() {
+        return propertyId;
+    }
+    public void setPropertyId(UUID propertyId) {
+        this.propertyId = propertyId;
+    }
+    public String getPayload() {
+        return payload;
+    }
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+    public UUID getBookingId() {
+        return bookingId;
+    }
+    public void setBookingId(UUID bookingId) {
+        this.bookingId = bookingId;
+    }
+    public String getError() {
+        return error;
+    }
+    public void setError(String error) {
+        this.error = error;
+    }
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
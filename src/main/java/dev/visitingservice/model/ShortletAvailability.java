@@ -2,6 +2,8 @@ package dev.visitingservice.model;
 
 import jakarta.persistence.*;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.UUID;
 
 @Entity
@@ -25,6 +27,15 @@ public class ShortletAvailability {
     @Column(name = "end_date", nullable = false)
     private LocalDate endDate;
 
+    @Column(name = "updated_at")
+    private OffsetDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = OffsetDateTime.now(ZoneOffset.UTC);
+    }
+
     // Getters and setters
     public UUID getId() {
         return id;
@@ -56,6 +67,7 @@ public class ShortletAvailability {
     public void setEndDate(LocalDate endDate) {
         this.endDate = endDate;
     }
-
-
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
 }
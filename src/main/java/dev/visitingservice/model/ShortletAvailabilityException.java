@@ -0,0 +1,65 @@
+package dev.visitingservice.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Inclusive date range during which a {@link ShortletAvailabilityRule} does not apply.
+ */
+@Entity
+@Table(name = "shortlet_availability_exception")
+public class ShortletAvailabilityException {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    @Column(name = "rule_id", nullable = false)
+    private UUID ruleId;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+
+    @Column(name = "updated_at")
+    private OffsetDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = OffsetDateTime.now(ZoneOffset.UTC);
+    }
+
+    // Getters and setters
+    public UUID getId() {
+        return id;
+    }
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    public UUID getRuleId() {
+        return ruleId;
+    }
+    public void setRuleId(UUID ruleId) {
+        this.ruleId = ruleId;
+    }
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,108 @@
+package dev.visitingservice.model;
+
+import jakarta.persistence.*;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Recurring shortlet availability, e.g. every weekend or Mon-Thu until a date, evaluated directly instead of being
+ * stored as one {@link ShortletAvailability} row per run. Days listed in a {@link ShortletAvailabilityException}
+ * of the rule are not available.
+ */
+@Entity
+@Table(name = "shortlet_availability_rule")
+public class ShortletAvailabilityRule {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    @Column(name = "landlord_id", nullable = false)
+    private UUID landlordId;
+
+    @Column(name = "property_id", nullable = false)
+    private UUID propertyId;
+
+    // Bit (ordinal - 1) set for every DayOfWeek the rule applies to; 0 means every day
+    @Column(name = "days_of_week", nullable = false)
+    private int daysOfWeekMask;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    // Inclusive; null means open-ended
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
+    @Column(name = "updated_at")
+    private OffsetDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        updatedAt = OffsetDateTime.now(ZoneOffset.UTC);
+    }
+
+    // Getters and setters
+    public UUID getId() {
+        return id;
+    }
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    public UUID getLandlordId() {
+        return landlordId;
+    }
+    public void setLandlordId(UUID landlordId) {
+        this.landlordId = landlordId;
+    }
+    public UUID getPropertyId() {
+        return propertyId;
+    }
+    public void setPropertyId(UUID propertyId) {
+        this.propertyId = propertyId;
+    }
+    public int getDaysOfWeekMask() {
+        return daysOfWeekMask;
+    }
+    public void setDaysOfWeekMask(int daysOfWeekMask) {
+        this.daysOfWeekMask = daysOfWeekMask;
+    }
+    public Set<DayOfWeek> getDaysOfWeek() {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if ((daysOfWeekMask & (1 << (day.getValue() - 1))) != 0) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+    public void setDaysOfWeek(Set<DayOfWeek> daysOfWeek) {
+        int mask = 0;
+        if (daysOfWeek != null) {
+            for (DayOfWeek day : daysOfWeek) {
+                mask |= 1 << (day.getValue() - 1);
+            }
+        }
+        this.daysOfWeekMask = mask;
+    }
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
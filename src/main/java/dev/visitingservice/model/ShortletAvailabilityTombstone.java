@@ -0,0 +1,42 @@
+package dev.visitingservice.model;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Marks that availability of a property was deleted, so that an index restored from a snapshot taken before the
+ * deletion knows to reload that property.
+ */
+@Entity
+@Table(name = "shortlet_availability_tombstone")
+public class ShortletAvailabilityTombstone {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    @Column(name = "property_id", nullable = false)
+    private UUID propertyId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private OffsetDateTime deletedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        deletedAt = OffsetDateTime.now(ZoneOffset.UTC);
+    }
+
+    public UUID getId() {
+        return id;
+    }
+    public UUID getPropertyId() {
+        return propertyId;
+    }
+    public void setPropertyId(UUID propertyId) {
+        this.propertyId = propertyId;
+    }
+    public OffsetDateTime getDeletedAt() {
+        return deletedAt;
+    }
+}
@@ -20,6 +20,12 @@ public interface AvailabilitySlotRepository extends JpaRepository<AvailabilitySl
 
     List<AvailabilitySlot> findByPropertyIdAndLandlordIdAndStartTimeAfter(UUID propertyId, UUID landlordId, OffsetDateTime after);
 
+    // Existing slots intersecting a generation window, ordered for an overlap sweep
+    List<AvailabilitySlot> findByPropertyIdAndStartTimeLessThanAndEndTimeGreaterThanOrderByStartTime(UUID propertyId, OffsetDateTime end, OffsetDateTime start);
+
+    // Every future slot, booked or not, to expand recurring templates around
+    List<AvailabilitySlot> findByPropertyIdAndEndTimeAfterOrderByStartTime(UUID propertyId, OffsetDateTime after);
+
     // Method for calendar view
     List<AvailabilitySlot> findByPropertyIdAndStartTimeGreaterThanEqualAndEndTimeLessThanEqual(UUID propertyId, OffsetDateTime start, OffsetDateTime end);
 
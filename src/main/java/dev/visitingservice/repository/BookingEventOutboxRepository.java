@@ -0,0 +1,14 @@
+package dev.visitingservice.repository;
+
+import dev.visitingservice.model.BookingEventOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface BookingEventOutboxRepository extends JpaRepository<BookingEventOutbox, Long> {
+
+    @Query(value = "SELECT * FROM booking_event_outbox ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<BookingEventOutbox> findOldest(@Param("limit") int limit);
+}
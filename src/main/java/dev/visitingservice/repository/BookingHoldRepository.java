@@ -0,0 +1,23 @@
+package dev.visitingservice.repository;
+
+import dev.visitingservice.model.BookingHold;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface BookingHoldRepository extends JpaRepository<BookingHold, UUID> {
+
+    boolean existsByPropertyIdAndTenantIdNotAndStartDateLessThanAndEndDateGreaterThanAndExpiresAtAfter(
+            UUID propertyId, UUID tenantId, LocalDate endDate, LocalDate startDate, OffsetDateTime now);
+
+    boolean existsByPropertyIdAndStartDateLessThanAndEndDateGreaterThanAndExpiresAtAfter(
+            UUID propertyId, LocalDate endDate, LocalDate startDate, OffsetDateTime now);
+
+    List<BookingHold> findByExpiresAtAfter(OffsetDateTime now);
+
+    // Cleanup method: rows whose instance stopped before reaping them
+    int deleteByExpiresAtBefore(OffsetDateTime cutoffTime);
+}
@@ -0,0 +1,45 @@
+package dev.visitingservice.repository;
+
+import dev.visitingservice.model.BookingIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface BookingIdempotencyKeyRepository extends JpaRepository<BookingIdempotencyKey, String> {
+
+    Optional<BookingIdempotencyKey> findByIdempotencyKeyAndExpiresAtAfter(String idempotencyKey, OffsetDateTime now);
+
+    // Fails with a key conflict when another request already claimed the key
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO booking_idempotency_key (idempotency_key, tenant_id, request_hash, created_at, expires_at) "
+            + "VALUES (:key, :tenantId, :requestHash, :now, :expiresAt)", nativeQuery = true)
+    int claim(@Param("key") String idempotencyKey, @Param("tenantId") UUID tenantId,
+              @Param("requestHash") String requestHash, @Param("now") OffsetDateTime now,
+              @Param("expiresAt") OffsetDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE BookingIdempotencyKey k SET k.responseBody = :responseBody, k.expiresAt = :expiresAt WHERE k.idempotencyKey = :key")
+    int complete(@Param("key") String idempotencyKey, @Param("responseBody") String responseBody,
+                 @Param("expiresAt") OffsetDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM BookingIdempotencyKey k WHERE k.idempotencyKey = :key AND k.expiresAt <= :now")
+    int deleteExpired(@Param("key") String idempotencyKey, @Param("now") OffsetDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM BookingIdempotencyKey k WHERE k.idempotencyKey = :key AND k.responseBody IS NULL")
+    int release(@Param("key") String idempotencyKey);
+
+    // Cleanup method
+    int deleteByExpiresAtBefore(OffsetDateTime cutoffTime);
+}
@@ -0,0 +1,19 @@
+package dev.visitingservice.repository;
+
+import dev.visitingservice.model.BookingPartitionOwner;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+public interface BookingPartitionOwnerRepository extends JpaRepository<BookingPartitionOwner, Integer> {
+
+    // Called from the Kafka consumer thread on revocation, outside any service transaction
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM BookingPartitionOwner o WHERE o.partitionId IN :partitionIds AND o.ownerUrl = :ownerUrl")
+    int releaseOwnership(@Param("partitionIds") Collection<Integer> partitionIds, @Param("ownerUrl") String ownerUrl);
+}
@@ -0,0 +1,41 @@
+package dev.visitingservice.repository;
+
+import dev.visitingservice.model.BookingRequest;
+import dev.visitingservice.model.BookingRequest.RequestStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface BookingRequestRepository extends JpaRepository<BookingRequest, UUID> {
+
+    // Claims a request for processing; 0 when another worker or instance got it first
+    @Modifying
+    @Transactional
+    @Query("UPDATE BookingRequest r SET r.status = :to, r.updatedAt = :now WHERE r.id = :id AND r.status = :from")
+    int transition(@Param("id") UUID id, @Param("from") RequestStatus from, @Param("to") RequestStatus to,
+                   @Param("now") OffsetDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE BookingRequest r SET r.status = :status, r.bookingId = :bookingId, r.error = :error, r.updatedAt = :now WHERE r.id = :id")
+    int complete(@Param("id") UUID id, @Param("status") RequestStatus status, @Param("bookingId") UUID bookingId,
+                 @Param("error") String error, @Param("now") OffsetDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE BookingRequest r SET r.status = :to, r.updatedAt = :now WHERE r.status = :from AND r.updatedAt < :before")
+    int transitionStale(@Param("from") RequestStatus from, @Param("to") RequestStatus to,
+                        @Param("before") OffsetDateTime before, @Param("now") OffsetDateTime now);
+
+    @Query("SELECT r.id FROM BookingRequest r WHERE r.status = :status AND r.updatedAt < :before ORDER BY r.updatedAt")
+    List<UUID> findIdsByStatusUpdatedBefore(@Param("status") RequestStatus status, @Param("before") OffsetDateTime before);
+
+    // Cleanup method
+    int deleteByStatusInAndUpdatedAtBefore(List<RequestStatus> statuses, OffsetDateTime cutoffTime);
+}
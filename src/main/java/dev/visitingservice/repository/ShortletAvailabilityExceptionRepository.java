@@ -0,0 +1,17 @@
+package dev.visitingservice.repository;
+
+import dev.visitingservice.model.ShortletAvailabilityException;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface ShortletAvailabilityExceptionRepository extends JpaRepository<ShortletAvailabilityException, UUID> {
+
+    List<ShortletAvailabilityException> findByRuleId(UUID ruleId);
+
+    List<ShortletAvailabilityException> findByRuleIdIn(Collection<UUID> ruleIds);
+
+    void deleteByRuleId(UUID ruleId);
+}
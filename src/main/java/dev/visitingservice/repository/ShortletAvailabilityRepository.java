@@ -9,6 +9,8 @@ import org.springframework.stereotype.Repository;
 import jakarta.persistence.LockModeType;
 
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -17,13 +19,64 @@ public interface ShortletAvailabilityRepository extends JpaRepository<ShortletAv
     List<ShortletAvailability> findByLandlordId(UUID landlordId);
     boolean existsByLandlordIdAndStartDateLessThanEqualAndEndDateGreaterThanEqual(UUID landlordId, LocalDate endDate, LocalDate startDate);
     List<ShortletAvailability> findByLandlordIdAndPropertyId(UUID landlordId, UUID propertyId);
+    boolean existsByLandlordIdAndPropertyId(UUID landlordId, UUID propertyId);
+    List<ShortletAvailability> findByPropertyId(UUID propertyId);
+    List<ShortletAvailability> findByPropertyIdIn(Collection<UUID> propertyIds);
+    List<ShortletAvailability> findByStartDateLessThanEqualAndEndDateGreaterThanEqual(LocalDate endDate, LocalDate startDate);
     boolean existsByLandlordIdAndPropertyIdAndStartDateLessThanEqualAndEndDateGreaterThanEqual(UUID landlordId, UUID propertyId, LocalDate endDate, LocalDate startDate);
     List<ShortletAvailability> findByLandlordIdAndPropertyIdAndStartDateLessThanEqualAndEndDateGreaterThanEqual(UUID landlordId, UUID propertyId, LocalDate endDate, LocalDate startDate);
-    @Query("SELECT DISTINCT s.propertyId FROM ShortletAvailability s WHERE s.startDate <= :desiredStart AND s.endDate >= :desiredEnd")
-    List<UUID> findPropertyIdsWithAvailabilityInRange(@Param("desiredStart") LocalDate desiredStart, @Param("desiredEnd") LocalDate desiredEnd);
+
+    // Properties whose availability rows together cover the range and with no overlapping ACCEPTED booking, in one
+    // statement: a row holds the first day, and every row ending inside the range is continued by a row holding the
+    // next day, the same coverage the index and the booking validator apply
+    String FREE_PROPERTY_IDS_SQL = """
+            SELECT DISTINCT a.property_id FROM shortlet_availability a
+            WHERE a.start_date <= :desiredStart AND a.end_date >= :desiredStart
+              AND NOT EXISTS (
+                  SELECT 1 FROM shortlet_availability r
+                  WHERE r.property_id = a.property_id
+                    AND r.start_date <= :desiredEnd
+                    AND r.end_date >= :desiredStart
+                    AND r.end_date < :desiredEnd
+                    AND NOT EXISTS (
+                        SELECT 1 FROM shortlet_availability n
+                        WHERE n.property_id = r.property_id
+                          AND n.start_date <= r.end_date + 1
+                          AND n.end_date > r.end_date))
+              AND NOT EXISTS (
+                  SELECT 1 FROM shortlet_booking b
+                  WHERE b.property_id = a.property_id
+                    AND b.status = 'ACCEPTED'
+                    AND b.start_date < :desiredEnd
+                    AND b.end_date > :desiredStart)
+            """;
+
+    @Query(value = FREE_PROPERTY_IDS_SQL, nativeQuery = true)
+    List<UUID> findFreePropertyIdsInRange(@Param("desiredStart") LocalDate desiredStart, @Param("desiredEnd") LocalDate desiredEnd);
+
+    @Query(value = FREE_PROPERTY_IDS_SQL + " ORDER BY a.property_id LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<UUID> findFreePropertyIdsInRange(@Param("desiredStart") LocalDate desiredStart, @Param("desiredEnd") LocalDate desiredEnd,
+                                          @Param("limit") int limit, @Param("offset") long offset);
+
+    // Properties whose rows were written after the given time, for replaying changes onto an index snapshot
+    @Query("SELECT DISTINCT a.propertyId FROM ShortletAvailability a WHERE a.updatedAt > :since")
+    List<UUID> findPropertyIdsUpdatedAfter(@Param("since") OffsetDateTime since);
+
+    // Landlord/property pairs with touching or overlapping rows that compaction can merge
+    @Query(value = """
+            SELECT DISTINCT a.landlord_id, a.property_id FROM shortlet_availability a
+            JOIN shortlet_availability b
+              ON b.landlord_id = a.landlord_id AND b.property_id = a.property_id AND b.id <> a.id
+             AND b.start_date >= a.start_date AND b.start_date <= a.end_date + 1
+            """, nativeQuery = true)
+    List<Object[]> findFragmentedLandlordPropertyPairs();
 
     // NEW: Pessimistic locking method for concurrency control
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT s FROM ShortletAvailability s WHERE s.landlordId = :landlordId AND s.propertyId = :propertyId")
     List<ShortletAvailability> findByLandlordIdAndPropertyIdWithLock(@Param("landlordId") UUID landlordId, @Param("propertyId") UUID propertyId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ShortletAvailability s WHERE s.landlordId = :landlordId AND s.propertyId IN :propertyIds")
+    List<ShortletAvailability> findByLandlordIdAndPropertyIdInWithLock(@Param("landlordId") UUID landlordId, @Param("propertyIds") Collection<UUID> propertyIds);
 }
@@ -0,0 +1,40 @@
+package dev.visitingservice.repository;
+
+import dev.visitingservice.model.ShortletAvailabilityRule;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface ShortletAvailabilityRuleRepository extends JpaRepository<ShortletAvailabilityRule, UUID> {
+
+    List<ShortletAvailabilityRule> findByPropertyId(UUID propertyId);
+
+    List<ShortletAvailabilityRule> findByPropertyIdIn(Collection<UUID> propertyIds);
+
+    List<ShortletAvailabilityRule> findByLandlordIdAndPropertyId(UUID landlordId, UUID propertyId);
+
+    // Rules whose date range intersects [start, end]
+    @Query("SELECT r FROM ShortletAvailabilityRule r WHERE r.startDate <= :end AND (r.endDate IS NULL OR r.endDate >= :start)")
+    List<ShortletAvailabilityRule> findActiveBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    @Query("SELECT DISTINCT r.propertyId FROM ShortletAvailabilityRule r WHERE r.startDate <= :end AND (r.endDate IS NULL OR r.endDate >= :start)")
+    List<UUID> findPropertyIdsActiveBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    @Query("SELECT DISTINCT r.propertyId FROM ShortletAvailabilityRule r WHERE r.updatedAt > :since")
+    List<UUID> findPropertyIdsUpdatedAfter(@Param("since") OffsetDateTime since);
+
+    @Query("SELECT DISTINCT r.propertyId FROM ShortletAvailabilityRule r, ShortletAvailabilityException e WHERE e.ruleId = r.id AND e.updatedAt > :since")
+    List<UUID> findPropertyIdsWithExceptionsUpdatedAfter(@Param("since") OffsetDateTime since);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ShortletAvailabilityRule r WHERE r.landlordId = :landlordId AND r.propertyId = :propertyId")
+    List<ShortletAvailabilityRule> findByLandlordIdAndPropertyIdWithLock(@Param("landlordId") UUID landlordId, @Param("propertyId") UUID propertyId);
+}
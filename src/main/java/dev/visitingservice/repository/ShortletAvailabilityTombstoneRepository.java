@@ -0,0 +1,19 @@
+package dev.visitingservice.repository;
+
+import dev.visitingservice.model.ShortletAvailabilityTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface ShortletAvailabilityTombstoneRepository extends JpaRepository<ShortletAvailabilityTombstone, UUID> {
+
+    @Query("SELECT DISTINCT t.propertyId FROM ShortletAvailabilityTombstone t WHERE t.deletedAt > :since")
+    List<UUID> findPropertyIdsDeletedAfter(@Param("since") OffsetDateTime since);
+
+    // Cleanup method
+    int deleteByDeletedAtBefore(OffsetDateTime cutoffTime);
+}
@@ -4,10 +4,12 @@ import dev.visitingservice.model.ShortletBooking;
 import dev.visitingservice.model.ShortletBooking.BookingStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -39,8 +41,17 @@ public interface ShortletBookingRepository extends JpaRepository<ShortletBooking
     List<ShortletBooking> findByLandlordIdAndStatusAndStartDateGreaterThanEqualAndEndDateLessThanEqual(
             UUID landlordId, BookingStatus status, LocalDate startDate, LocalDate endDate);
 
-    @Query("SELECT DISTINCT b.propertyId FROM ShortletBooking b WHERE b.status = dev.visitingservice.model.ShortletBooking.BookingStatus.ACCEPTED AND b.startDate < :endDate AND b.endDate > :startDate")
-    List<UUID> findAcceptedBookedPropertyIdsInRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    boolean existsByPropertyIdAndStatusAndStartDateLessThanAndEndDateGreaterThan(
+            UUID propertyId, BookingStatus status, LocalDate endDate, LocalDate startDate);
+
+    List<ShortletBooking> findByPropertyIdAndStatusAndIdNotAndStartDateLessThanAndEndDateGreaterThan(
+            UUID propertyId, BookingStatus status, UUID excludedId, LocalDate endDate, LocalDate startDate);
+
+    // Bulk status change; bypasses @PreUpdate, so updatedAt is set here for the availability index replay
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ShortletBooking b SET b.status = :to, b.updatedAt = :updatedAt WHERE b.id IN :ids AND b.status = :from")
+    int updateStatusByIdIn(@Param("ids") Collection<UUID> ids, @Param("from") BookingStatus from,
+                           @Param("to") BookingStatus to, @Param("updatedAt") OffsetDateTime updatedAt);
 
     // Cleanup methods
     List<ShortletBooking> findByStatusAndStartDateBefore(BookingStatus status, LocalDate cutoffDate);
@@ -65,4 +76,17 @@ public interface ShortletBookingRepository extends JpaRepository<ShortletBooking
 
     // NEW: Find by property ID method
     List<ShortletBooking> findByPropertyId(UUID propertyId);
+
+    // Accepted bookings still relevant to availability (used to build the in-memory availability index)
+    List<ShortletBooking> findByPropertyIdAndStatusAndEndDateAfter(UUID propertyId, BookingStatus status, LocalDate endDate);
+
+    List<ShortletBooking> findByStatusAndEndDateAfter(BookingStatus status, LocalDate endDate);
+
+    List<ShortletBooking> findByPropertyIdInAndStatusAndEndDateAfter(Collection<UUID> propertyIds, BookingStatus status, LocalDate endDate);
+
+    // Properties with bookings written after the given time, for replaying changes onto an index snapshot
+    @Query("SELECT DISTINCT b.propertyId FROM ShortletBooking b WHERE b.updatedAt > :since")
+    List<UUID> findPropertyIdsUpdatedAfter(@Param("since") OffsetDateTime since);
+
+    List<ShortletBooking> findByStatusAndStartDateLessThanAndEndDateGreaterThan(BookingStatus status, LocalDate endDate, LocalDate startDate);
 }
@@ -0,0 +1,26 @@
+package dev.visitingservice.repository;
+
+import dev.visitingservice.model.ViewingSlotTemplate;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface ViewingSlotTemplateRepository extends JpaRepository<ViewingSlotTemplate, UUID> {
+
+    List<ViewingSlotTemplate> findByPropertyId(UUID propertyId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM ViewingSlotTemplate t WHERE t.propertyId = :propertyId")
+    List<ViewingSlotTemplate> findByPropertyIdWithLock(@Param("propertyId") UUID propertyId);
+
+    List<ViewingSlotTemplate> findByPropertyIdAndLandlordId(UUID propertyId, UUID landlordId);
+
+    // Cleanup method
+    int deleteByValidUntilBefore(LocalDate cutoffDate);
+}
@@ -0,0 +1,39 @@
+package dev.visitingservice.scheduler;
+
+import dev.visitingservice.service.AvailabilityCompactionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+@Component
+public class AvailabilityCompactionScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityCompactionScheduler.class);
+
+    private final AvailabilityCompactionService compactionService;
+
+    public AvailabilityCompactionScheduler(AvailabilityCompactionService compactionService) {
+        this.compactionService = compactionService;
+    }
+
+    // Run daily at 3 AM, after the cleanup jobs; each property is compacted in its own transaction
+    @Scheduled(cron = "${availability.compaction.cron:0 0 3 * * *}")
+    public void compactFragmentedAvailability() {
+        List<UUID[]> pairs = compactionService.findFragmentedProperties();
+        int reclaimed = 0;
+        int failed = 0;
+        for (UUID[] pair : pairs) {
+            try {
+                reclaimed += compactionService.compact(pair[0], pair[1]);
+            } catch (Exception e) {
+                failed++;
+                logger.warn("⚠️ Failed to compact availability for property {}: {}", pair[1], e.getMessage());
+            }
+        }
+        logger.info("Availability compaction: {} properties scanned, {} rows reclaimed, {} failures", pairs.size(), reclaimed, failed);
+    }
+}
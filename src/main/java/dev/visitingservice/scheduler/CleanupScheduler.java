@@ -5,9 +5,15 @@ import dev.visitingservice.model.ShortletBooking;
 import dev.visitingservice.model.Visit;
 import dev.visitingservice.model.Status;
 import dev.visitingservice.model.ShortletBooking.BookingStatus;
+import dev.visitingservice.model.BookingRequest.RequestStatus;
+import dev.visitingservice.repository.BookingHoldRepository;
+import dev.visitingservice.repository.BookingIdempotencyKeyRepository;
+import dev.visitingservice.repository.BookingRequestRepository;
+import dev.visitingservice.repository.ShortletAvailabilityTombstoneRepository;
 import dev.visitingservice.repository.ShortletBookingRepository;
 import dev.visitingservice.repository.VisitRepository;
 import dev.visitingservice.repository.AvailabilitySlotRepository;
+import dev.visitingservice.repository.ViewingSlotTemplateRepository;
 import dev.visitingservice.service.NotificationPublisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,15 +36,30 @@ public class CleanupScheduler {
     private final ShortletBookingRepository bookingRepository;
     private final VisitRepository visitRepository;
     private final AvailabilitySlotRepository availabilitySlotRepository;
+    private final ViewingSlotTemplateRepository templateRepository;
+    private final ShortletAvailabilityTombstoneRepository tombstoneRepository;
+    private final BookingIdempotencyKeyRepository idempotencyKeyRepository;
+    private final BookingHoldRepository holdRepository;
+    private final BookingRequestRepository bookingRequestRepository;
     private final NotificationPublisher notificationPublisher;
 
     public CleanupScheduler(ShortletBookingRepository bookingRepository,
                           VisitRepository visitRepository,
                           AvailabilitySlotRepository availabilitySlotRepository,
+                          ViewingSlotTemplateRepository templateRepository,
+                          ShortletAvailabilityTombstoneRepository tombstoneRepository,
+                          BookingIdempotencyKeyRepository idempotencyKeyRepository,
+                          BookingHoldRepository holdRepository,
+                          BookingRequestRepository bookingRequestRepository,
                           NotificationPublisher notificationPublisher) {
         this.bookingRepository = bookingRepository;
         this.visitRepository = visitRepository;
         this.availabilitySlotRepository = availabilitySlotRepository;
+        this.templateRepository = templateRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.holdRepository = holdRepository;
+        this.bookingRequestRepository = bookingRequestRepository;
         this.notificationPublisher = notificationPublisher;
     }
 
@@ -124,6 +145,25 @@ public class CleanupScheduler {
 
         logger.info("Deleted {} old availability slots older than {}", deletedSlots, cutoffTime);
 
+        int deletedTemplates = templateRepository.deleteByValidUntilBefore(cutoffTime.toLocalDate());
+        logger.info("Deleted {} expired viewing slot templates", deletedTemplates);
+
+        // Tombstones only matter to index snapshots younger than them; snapshots are discarded after a day
+        int deletedTombstones = tombstoneRepository.deleteByDeletedAtBefore(cutoffTime.minusDays(6));
+        logger.info("Deleted {} availability tombstones", deletedTombstones);
+
+        int deletedIdempotencyKeys = idempotencyKeyRepository.deleteByExpiresAtBefore(OffsetDateTime.now(ZoneOffset.UTC));
+        logger.info("Deleted {} expired booking idempotency keys", deletedIdempotencyKeys);
+
+        // Holds are reaped by the instance that placed them; this only catches rows left by a stopped instance
+        int deletedHolds = holdRepository.deleteByExpiresAtBefore(OffsetDateTime.now(ZoneOffset.UTC).minusHours(1));
+        logger.info("Deleted {} orphaned booking holds", deletedHolds);
+
+        // Clients poll a request shortly after submitting it; finished ones only need to outlive that
+        int deletedRequests = bookingRequestRepository.deleteByStatusInAndUpdatedAtBefore(
+                List.of(RequestStatus.COMPLETED, RequestStatus.FAILED), cutoffTime.minusDays(6));
+        logger.info("Deleted {} finished booking requests", deletedRequests);
+
         // Always send admin notification for daily slot cleanup
         sendAdminCleanupNotification("Daily Availability Slots Cleanup",
             String.format("Cleaned up %d availability slots older than %s",
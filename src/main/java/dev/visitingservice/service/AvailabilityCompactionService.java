@@ -0,0 +1,128 @@
+package dev.visitingservice.service;
+
+import dev.visitingservice.model.ShortletAvailability;
+import dev.visitingservice.repository.ShortletAvailabilityRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Coalesces contiguous or overlapping availability rows of one (landlord, property) into a single row.
+ *
+ * setAvailability and acceptBooking split rows into before/after fragments; merging them back keeps the locked
+ * reads in {@link ShortletAvailabilityRepository#findByLandlordIdAndPropertyIdWithLock} short. Coverage is
+ * unchanged, so the availability index does not need a refresh.
+ */
+@Service
+public class AvailabilityCompactionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityCompactionService.class);
+
+    private final ShortletAvailabilityRepository availabilityRepository;
+    private final PropertyLockService propertyLockService;
+
+    public AvailabilityCompactionService(ShortletAvailabilityRepository availabilityRepository,
+                                         PropertyLockService propertyLockService) {
+        this.availabilityRepository = availabilityRepository;
+        this.propertyLockService = propertyLockService;
+    }
+
+    @Transactional
+    public int compact(UUID landlordId, UUID propertyId) {
+        return compact(landlordId, propertyId, null);
+    }
+
+    /**
+     * Merges the property's fragmented rows and returns how many rows were deleted.
+     *
+     * @param preferredId row to keep when it is part of a merged group, so callers holding it see the merged range
+     */
+    @Transactional
+    public int compact(UUID landlordId, UUID propertyId, UUID preferredId) {
+        // Serialises the scheduled run with availability writes and accepts, which hold the property lock rather
+        // than row locks; re-entrant for callers that already hold it
+        propertyLockService.lock(propertyId);
+        List<ShortletAvailability> rows = new ArrayList<>(
+                availabilityRepository.findByLandlordIdAndPropertyIdWithLock(landlordId, propertyId));
+        if (rows.size() < 2) {
+            return 0;
+        }
+        rows.sort(Comparator.comparing(ShortletAvailability::getStartDate));
+
+        List<ShortletAvailability> toDelete = new ArrayList<>();
+        List<Merge> merges = new ArrayList<>();
+        List<ShortletAvailability> group = new ArrayList<>();
+        ShortletAvailability groupEnd = null;
+        for (ShortletAvailability row : rows) {
+            // Inclusive ranges touch when the next start is at most end + 1
+            if (groupEnd != null && !row.getStartDate().isAfter(groupEnd.getEndDate().plusDays(1))) {
+                group.add(row);
+                if (row.getEndDate().isAfter(groupEnd.getEndDate())) {
+                    groupEnd = row;
+                }
+                continue;
+            }
+            mergeGroup(group, preferredId, merges, toDelete);
+            group = new ArrayList<>();
+            group.add(row);
+            groupEnd = row;
+        }
+        mergeGroup(group, preferredId, merges, toDelete);
+        if (toDelete.isEmpty()) {
+            return 0;
+        }
+
+        // Delete and flush before widening the keepers; Hibernate flushes updates before deletes, so widening first
+        // could collide with a fragment on the unique range constraint
+        availabilityRepository.deleteAll(toDelete);
+        availabilityRepository.flush();
+        List<ShortletAvailability> keepers = new ArrayList<>(merges.size());
+        for (Merge merge : merges) {
+            merge.keeper().setStartDate(merge.startDate());
+            merge.keeper().setEndDate(merge.endDate());
+            keepers.add(merge.keeper());
+        }
+        availabilityRepository.saveAll(keepers);
+        logger.info("🧹 Compacted availability for property {}: reclaimed {} rows", propertyId, toDelete.size());
+        return toDelete.size();
+    }
+
+    private record Merge(ShortletAvailability keeper, LocalDate startDate, LocalDate endDate) {}
+
+    private void mergeGroup(List<ShortletAvailability> group, UUID preferredId,
+                            List<Merge> merges, List<ShortletAvailability> toDelete) {
+        if (group.size() < 2) {
+            return;
+        }
+        ShortletAvailability keeper = group.stream()
+                .filter(row -> row.getId() != null && row.getId().equals(preferredId))
+                .findFirst()
+                .orElse(group.get(0));
+        ShortletAvailability last = group.stream().max(Comparator.comparing(ShortletAvailability::getEndDate)).orElseThrow();
+        for (ShortletAvailability row : group) {
+            if (row != keeper) {
+                toDelete.add(row);
+            }
+        }
+        merges.add(new Merge(keeper, group.get(0).getStartDate(), last.getEndDate()));
+    }
+
+    /**
+     * (landlordId, propertyId) pairs that have at least two touching or overlapping rows.
+     */
+    @Transactional(readOnly = true)
+    public List<UUID[]> findFragmentedProperties() {
+        List<UUID[]> pairs = new ArrayList<>();
+        for (Object[] row : availabilityRepository.findFragmentedLandlordPropertyPairs()) {
+            pairs.add(new UUID[]{(UUID) row[0], (UUID) row[1]});
+        }
+        return pairs;
+    }
+}
@@ -1,11 +1,15 @@
 package dev.visitingservice.service;
 
 import dev.visitingservice.model.AvailabilitySlot;
+import dev.visitingservice.model.ViewingSlotTemplate;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public interface AvailabilitySlotService {
@@ -21,5 +25,22 @@ public interface AvailabilitySlotService {
         UUID propertyId, UUID landlordId, LocalDate date, LocalTime startTime, LocalTime endTime, Integer intervalMinutes
     );
 
+    List<AvailabilitySlot> createSlotsForDateRange(
+        UUID propertyId, UUID landlordId, LocalDate startDate, LocalDate endDate, Set<DayOfWeek> daysOfWeek,
+        LocalTime startTime, LocalTime endTime, Integer intervalMinutes
+    );
+
     List<AvailabilitySlot> getSlots(UUID propertyId, UUID landlordId);
+
+    ViewingSlotTemplate createTemplate(ViewingSlotTemplate template);
+
+    List<ViewingSlotTemplate> getTemplates(UUID propertyId, UUID landlordId);
+
+    void deleteTemplate(UUID templateId, UUID landlordId);
+
+    /**
+     * Stores the template slot with this id as a booked {@link AvailabilitySlot}, or returns empty when no
+     * template of the property currently offers it.
+     */
+    Optional<AvailabilitySlot> claimTemplateSlot(UUID propertyId, UUID slotId);
 }
\ No newline at end of file
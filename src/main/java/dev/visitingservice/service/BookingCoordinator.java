@@ -0,0 +1,188 @@
+package dev.visitingservice.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Routes every booking and availability mutation of a property through that property's mailbox, which a single
+ * virtual thread drains in order. Conflicting requests for one property queue here instead of inside Postgres, while
+ * different properties run in parallel. The drainer exits, and the mailbox is dropped, as soon as it is empty.
+ *
+ * This only serialises writers on this instance; the database locks and constraints still guard against other
+ * instances.
+ */
+@Service
+public class BookingCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingCoordinator.class);
+
+    // Property whose mailbox the current thread is draining, so nested calls run inline instead of deadlocking
+    private static final ThreadLocal<UUID> DRAINING = new ThreadLocal<>();
+
+    private final ConcurrentHashMap<UUID, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final boolean enabled;
+    private final long timeoutMillis;
+    private final long slowWaitMillis;
+
+    private final Timer waitTimer;
+    private final Timer executionTimer;
+
+    private static final class Mailbox {
+        private final Queue<Task<?>> tasks = new ConcurrentLinkedQueue<>();
+    }
+
+    private static final class Task<T> {
+        private final Supplier<T> action;
+        private final long enqueuedAt = System.nanoTime();
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        // Set by whichever of the drainer (to run) or a timed-out caller (to abandon) gets there first
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private Task(Supplier<T> action) {
+            this.action = action;
+        }
+    }
+
+    public BookingCoordinator(MeterRegistry meterRegistry,
+                              @Value("${booking.coordinator.enabled:true}") boolean enabled,
+                              @Value("${booking.coordinator.timeout-seconds:30}") long timeoutSeconds,
+                              @Value("${booking.coordinator.slow-wait-ms:1000}") long slowWaitMillis) {
+        this.enabled = enabled;
+        this.timeoutMillis = TimeUnit.SECONDS.toMillis(timeoutSeconds);
+        this.slowWaitMillis = slowWaitMillis;
+        this.waitTimer = Timer.builder("booking.coordinator.wait")
+                .description("Time a property mutation waited in its mailbox before running")
+                .publishPercentiles(0.5, 0.95, 0.99).register(meterRegistry);
+        this.executionTimer = Timer.builder("booking.coordinator.execution")
+                .description("Time a property mutation took once dequeued").register(meterRegistry);
+        Gauge.builder("booking.coordinator.queue.depth", queued, AtomicInteger::get)
+                .description("Property mutations waiting across all mailboxes").register(meterRegistry);
+        Gauge.builder("booking.coordinator.mailboxes", mailboxes, ConcurrentHashMap::size)
+                .description("Properties with queued or running mutations").register(meterRegistry);
+        Gauge.builder("booking.coordinator.queue.max-depth", this, BookingCoordinator::maxDepth)
+                .description("Depth of the deepest property mailbox").register(meterRegistry);
+    }
+
+    /**
+     * Runs the action on the property's mailbox thread and returns its result, rethrowing whatever it threw. Waits at
+     * most the configured timeout for the action to start; once started it is always awaited.
+     */
+    public <T> T submit(UUID propertyId, Supplier<T> action) {
+        if (!enabled || propertyId == null || propertyId.equals(DRAINING.get())) {
+            return action.get();
+        }
+        Task<T> task = new Task<>(action);
+        boolean[] start = new boolean[1];
+        mailboxes.compute(propertyId, (id, mailbox) -> {
+            if (mailbox == null) {
+                mailbox = new Mailbox();
+                start[0] = true;
+            }
+            mailbox.tasks.add(task);
+            return mailbox;
+        });
+        queued.incrementAndGet();
+        if (start[0]) {
+            Thread.ofVirtual().name("booking-mailbox-" + propertyId).start(() -> drain(propertyId));
+        }
+        return await(propertyId, task);
+    }
+
+    private <T> T await(UUID propertyId, Task<T> task) {
+        try {
+            try {
+                return task.result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (task.claimed.compareAndSet(false, true)) {
+                    queued.decrementAndGet();
+                    throw new IllegalStateException("Timed out waiting for other changes to property " + propertyId);
+                }
+                // Already running: the caller must see its outcome
+                return task.result.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for property " + propertyId);
+        }
+    }
+
+    private void drain(UUID propertyId) {
+        DRAINING.set(propertyId);
+        try {
+            while (true) {
+                Task<?> task = mailboxes.get(propertyId).tasks.poll();
+                if (task == null) {
+                    // Only drop the mailbox if nothing was enqueued since the poll; submit enqueues under the same lock
+                    boolean[] idle = new boolean[1];
+                    mailboxes.computeIfPresent(propertyId, (id, mailbox) -> {
+                        idle[0] = mailbox.tasks.isEmpty();
+                        return idle[0] ? null : mailbox;
+                    });
+                    if (idle[0]) {
+                        return;
+                    }
+                    continue;
+                }
+                run(propertyId, task);
+            }
+        } finally {
+            DRAINING.remove();
+        }
+    }
+
+    private <T> void run(UUID propertyId, Task<T> task) {
+        if (!task.claimed.compareAndSet(false, true)) {
+            return; // abandoned by a timed-out caller
+        }
+        queued.decrementAndGet();
+        long waited = System.nanoTime() - task.enqueuedAt;
+        waitTimer.record(waited, TimeUnit.NANOSECONDS);
+        if (TimeUnit.NANOSECONDS.toMillis(waited) >= slowWaitMillis) {
+            logger.warn("🐢 Booking mutation for property {} waited {} in its mailbox", propertyId, Duration.ofNanos(waited));
+        }
+        long started = System.nanoTime();
+        try {
+            task.result.complete(task.action.get());
+        } catch (Throwable t) {
+            task.result.completeExceptionally(t);
+        } finally {
+            executionTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private double maxDepth() {
+        int max = 0;
+        for (Mailbox mailbox : mailboxes.values()) {
+            max = Math.max(max, mailbox.tasks.size());
+        }
+        return max;
+    }
+}
@@ -0,0 +1,193 @@
+package dev.visitingservice.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coalesces Kafka sends from concurrent callers into one Kafka transaction per batch. Callers enqueue without
+ * locking and get a future completed with their own record's metadata once the batch commits, or with the batch's
+ * failure.
+ *
+ * A batch is flushed when it reaches the target size or its oldest record has waited the target linger. Both follow
+ * the observed arrival rate: the target size is what arrives within {@code max-linger-ms}, capped at
+ * {@code max-size}, and the linger is how long that takes. At low rates the target is one record, so a lone event is
+ * sent without waiting.
+ */
+@Component
+public class BookingEventBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingEventBatcher.class);
+
+    // Weight of the newest rate sample
+    private static final double RATE_SMOOTHING = 0.2;
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final int maxBatchSize;
+    private final long maxLingerNanos;
+
+    private final ConcurrentLinkedQueue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Semaphore wakeups = new Semaphore(0);
+    private volatile Thread flusher;
+
+    private final DistributionSummary batchSizes;
+
+    // Only touched by the flusher thread, apart from reads for the gauges
+    private volatile int targetBatchSize = 1;
+    private volatile long lingerNanos = 0;
+    private double ratePerNano = 0;
+    private long lastFlushNanos = System.nanoTime();
+
+    record Pending(String topic, String key, Object value, long enqueuedNanos,
+                   CompletableFuture<RecordMetadata> result) {}
+
+    public BookingEventBatcher(KafkaTemplate<String, Object> kafkaTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${booking.events.batch.max-size:500}") int maxBatchSize,
+                               @Value("${booking.events.batch.max-linger-ms:20}") long maxLingerMs) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLingerNanos = TimeUnit.MILLISECONDS.toNanos(maxLingerMs);
+        this.batchSizes = DistributionSummary.builder("booking.events.batch.size")
+                .description("Records per Kafka transaction sent by the event batcher")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("booking.events.batch.target-size", this, b -> b.targetBatchSize)
+                .description("Batch size the event batcher currently waits for").register(meterRegistry);
+        Gauge.builder("booking.events.batch.linger", this, b -> b.lingerNanos / 1_000_000.0)
+                .description("Milliseconds the event batcher currently lets a batch fill").register(meterRegistry);
+    }
+
+    public CompletableFuture<RecordMetadata> publish(String topic, String key, Object value) {
+        CompletableFuture<RecordMetadata> result = new CompletableFuture<>();
+        queue.add(new Pending(topic, key, value, System.nanoTime(), result));
+        int size = queued.incrementAndGet();
+        // The flusher needs waking for a new batch and once the target is reached, not for every record
+        if (size == 1 || size >= targetBatchSize) {
+            wake();
+        }
+        return result;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        flusher = Thread.ofVirtual().name("booking-event-batcher").start(this::flushLoop);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher != null) {
+            flusher.interrupt();
+        }
+    }
+
+    private void wake() {
+        if (wakeups.availablePermits() == 0) {
+            wakeups.release();
+        }
+    }
+
+    private void flushLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Pending oldest = queue.peek();
+                if (oldest == null) {
+                    wakeups.acquire();
+                    continue;
+                }
+                long waitNanos = oldest.enqueuedNanos() + lingerNanos - System.nanoTime();
+                if (queued.get() < targetBatchSize && waitNanos > 0) {
+                    wakeups.tryAcquire(waitNanos, TimeUnit.NANOSECONDS);
+                    continue;
+                }
+                flush(drain());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                logger.error("❌ Event batcher flush failed: {}", e.getMessage(), e);
+            }
+        }
+        // Fail whatever is left so no caller waits forever
+        List<Pending> remaining = drain();
+        while (!remaining.isEmpty()) {
+            remaining.forEach(p -> p.result().completeExceptionally(new IllegalStateException("Event batcher stopped")));
+            remaining = drain();
+        }
+    }
+
+    private List<Pending> drain() {
+        List<Pending> batch = new ArrayList<>(Math.min(queued.get(), maxBatchSize));
+        Pending next;
+        while (batch.size() < maxBatchSize && (next = queue.poll()) != null) {
+            batch.add(next);
+        }
+        queued.addAndGet(-batch.size());
+        return batch;
+    }
+
+    void flush(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            List<CompletableFuture<SendResult<String, Object>>> sends = kafkaTemplate.executeInTransaction(operations -> {
+                List<CompletableFuture<SendResult<String, Object>>> futures = new ArrayList<>(batch.size());
+                for (Pending pending : batch) {
+                    futures.add(operations.send(pending.topic(), pending.key(), pending.value()));
+                }
+                return futures;
+            });
+            // The commit has flushed every send, so these futures are already done
+            for (int i = 0; i < batch.size(); i++) {
+                CompletableFuture<RecordMetadata> result = batch.get(i).result();
+                sends.get(i).whenComplete((sent, ex) -> {
+                    if (ex == null) {
+                        result.complete(sent.getRecordMetadata());
+                    } else {
+                        result.completeExceptionally(ex);
+                    }
+                });
+            }
+        } catch (RuntimeException e) {
+            logger.error("❌ Kafka transaction for {} batched events failed", batch.size(), e);
+            batch.forEach(p -> p.result().completeExceptionally(e));
+        }
+        batchSizes.record(batch.size());
+        adapt(batch.size());
+    }
+
+    private void adapt(int flushed) {
+        long now = System.nanoTime();
+        long elapsed = Math.max(1, now - lastFlushNanos);
+        lastFlushNanos = now;
+        double sample = (double) flushed / elapsed;
+        ratePerNano = ratePerNano == 0 ? sample : RATE_SMOOTHING * sample + (1 - RATE_SMOOTHING) * ratePerNano;
+
+        int target = (int) Math.min(maxBatchSize, Math.max(1, Math.round(ratePerNano * maxLingerNanos)));
+        targetBatchSize = target;
+        lingerNanos = target == 1 ? 0 : Math.min(maxLingerNanos, (long) (target / ratePerNano));
+    }
+
+    int targetBatchSize() {
+        return targetBatchSize;
+    }
+}
@@ -1,19 +1,26 @@
 package dev.visitingservice.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.visitingservice.dto.BookingEventDTO;
 import dev.visitingservice.dto.BookingEventPayload;
 import dev.visitingservice.dto.BookingEventType;
 import dev.visitingservice.dto.ShortletBookingDTO;
+import dev.visitingservice.model.BookingEventOutbox;
+import dev.visitingservice.repository.BookingEventOutboxRepository;
+import dev.visitingservice.service.outbox.BookingOutboxRelay;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.apache.kafka.clients.producer.RecordMetadata;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -23,7 +30,16 @@ public class BookingEventProducerService {
     private static final Logger logger = LoggerFactory.getLogger(BookingEventProducerService.class);
 
     @Autowired
-    private KafkaTemplate<String, Object> kafkaTemplate; // FIX: Use Object type to match config
+    private BookingEventOutboxRepository outboxRepository;
+
+    @Autowired
+    private BookingOutboxRelay outboxRelay;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BookingEventBatcher batcher;
 
     @Value("${kafka.topic.booking-events:booking-events}")
     private String bookingEventsTopic;
@@ -49,7 +65,7 @@ public class BookingEventProducerService {
 
             BookingEventDTO event = new BookingEventDTO(BookingEventType.BOOKING_INITIATED, tempBookingId, payload);
 
-            sendEvent(event, "BOOKING_INITIATED");
+            publishTrackingEvent(event, "BOOKING_INITIATED");
 
         } catch (Exception e) {
             logger.error("Failed to send BOOKING_INITIATED event for tenant {} and property {}",
@@ -179,6 +195,30 @@ public class BookingEventProducerService {
         }
     }
 
+    /**
+     * Send BOOKING_REJECTED events for several bookings in one Kafka transaction - used when accepting a booking
+     * auto-rejects the pending requests it overlaps
+     */
+    public void sendBookingsRejected(List<ShortletBookingDTO> bookings, String previousStatus) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        try {
+            BookingEventDTO[] events = new BookingEventDTO[bookings.size()];
+            for (int i = 0; i < events.length; i++) {
+                BookingEventPayload payload = BookingEventPayload.fromBookingDTO(bookings.get(i));
+                payload.setPreviousStatus(previousStatus);
+                payload.setUpdatedAt(OffsetDateTime.now());
+                events[i] = new BookingEventDTO(BookingEventType.BOOKING_REJECTED, bookings.get(i).getId(), payload);
+            }
+
+            sendEventsAtomically(events);
+
+        } catch (Exception e) {
+            logger.error("Failed to send {} BOOKING_REJECTED events", bookings.size(), e);
+        }
+    }
+
     /**
      * Send BOOKING_CANCELLED event - triggered when booking is cancelled
      */
@@ -294,79 +334,73 @@ public class BookingEventProducerService {
     }
 
     /**
-     * Generic method to send events with consistent error handling and logging
-     * Always uses transactional sending to match producer config
+     * Send BOOKING_PAYMENT_UPDATED events for several bookings at once - used when a batch of payment-service
+     * updates is applied in one transaction
      */
-
-    private void sendEvent(BookingEventDTO event, String eventTypeStr) {
+    public void sendBookingPaymentsUpdated(List<ShortletBookingDTO> bookings, Map<UUID, String> previousPaymentStatuses) {
+        if (bookings.isEmpty()) {
+            return;
+        }
         try {
-            String key = event.getBookingId().toString();
-
-            logger.info("📤 Sending {} event transactionally for booking {} to topic {}",
-                    eventTypeStr, event.getBookingId(), bookingEventsTopic);
-
-            kafkaTemplate.executeInTransaction(ops -> {
-                ops.send(bookingEventsTopic, key, event)
-                        .whenComplete((result, ex) -> {
-                            if (ex == null) {
-                                logger.info("✅ Transactionally sent {} event for booking {} to partition {} at offset {}",
-                                        eventTypeStr, event.getBookingId(),
-                                        result.getRecordMetadata().partition(),
-                                        result.getRecordMetadata().offset());
-                            } else {
-                                logger.error("❌ Failed to send {} event transactionally for booking {}",
-                                        eventTypeStr, event.getBookingId(), ex);
-                            }
-                        });
-                return true; // signals tx success
-            });
+            BookingEventDTO[] events = new BookingEventDTO[bookings.size()];
+            for (int i = 0; i < events.length; i++) {
+                ShortletBookingDTO booking = bookings.get(i);
+                BookingEventPayload payload = BookingEventPayload.fromBookingDTO(booking);
+                payload.setPreviousPaymentStatus(previousPaymentStatuses.get(booking.getId()));
+                payload.setUpdatedAt(OffsetDateTime.now());
+                events[i] = new BookingEventDTO(BookingEventType.BOOKING_PAYMENT_UPDATED, booking.getId(), payload);
+            }
+
+            sendEventsAtomically(events);
 
         } catch (Exception e) {
-            logger.error("❌ Transaction failed while sending {} event for booking {}",
-                    eventTypeStr, event.getBookingId(), e);
-            throw new RuntimeException("Failed to send event transactionally", e);
+            logger.error("Failed to send {} BOOKING_PAYMENT_UPDATED events", bookings.size(), e);
         }
     }
+
     /**
-     * Send single event with transactional guarantee (production-ready)
+     * Generic method to send events with consistent error handling and logging
+     * Writes the event to the outbox in the caller's transaction; the outbox relay publishes it once that commits
      */
-    private void sendEventTransactional(BookingEventDTO event, String eventTypeStr) {
+    private void sendEvent(BookingEventDTO event, String eventTypeStr) {
         try {
-            String messageKey = event.getBookingId().toString();
-
-            logger.info("📤 Sending {} event transactionally for booking {} to topic {}",
-                    eventTypeStr, event.getBookingId(), bookingEventsTopic);
-
-            // Execute in transaction for exactly-once semantics
-            kafkaTemplate.executeInTransaction(operations -> {
-                CompletableFuture<SendResult<String, Object>> future =
-                        operations.send(bookingEventsTopic, messageKey, event);
-
-                future.whenComplete((result, ex) -> {
-                    if (ex == null) {
-                        logger.info("✅ Transactionally sent {} event for booking {} to partition {} at offset {}",
-                                eventTypeStr, event.getBookingId(),
-                                result.getRecordMetadata().partition(),
-                                result.getRecordMetadata().offset());
-                    } else {
-                        logger.error("❌ Failed to send {} event transactionally for booking {}",
-                                eventTypeStr, event.getBookingId(), ex);
-                    }
-                });
-
-                return true; // Transaction success
-            });
-
+            logger.info("📤 Queuing {} event for booking {} in the outbox", eventTypeStr, event.getBookingId());
+            enqueue(event);
         } catch (Exception e) {
-            logger.error("❌ Transaction failed while sending {} event for booking {}",
-                    eventTypeStr, event.getBookingId(), e);
-            throw new RuntimeException("Failed to send event transactionally", e);
+            logger.error("❌ Failed to queue {} event for booking {}", eventTypeStr, event.getBookingId(), e);
+            throw new RuntimeException("Failed to queue event", e);
         }
     }
+    /**
+     * Publishes an event straight to Kafka through the batcher, outside any database transaction. For events that
+     * describe no stored change, so there is nothing for an outbox row to commit with. The future completes with
+     * the record's metadata once its batch commits.
+     */
+    public CompletableFuture<RecordMetadata> publish(BookingEventDTO event) {
+        return batcher.publish(bookingEventsTopic, event.getBookingId().toString(), event);
+    }
+
+    // BOOKING_INITIATED only tracks a booking attempt, so it is published whether or not the booking commits
+    private void publishTrackingEvent(BookingEventDTO event, String eventTypeStr) {
+        logger.info("📤 Publishing {} tracking event {}", eventTypeStr, event.getBookingId());
+        publish(event).whenComplete((metadata, ex) -> {
+            if (ex != null) {
+                logger.error("❌ Failed to publish {} tracking event {}", eventTypeStr, event.getBookingId(), ex);
+            }
+        });
+    }
+
+    /**
+     * Send single event with transactional guarantee (production-ready)
+     * The outbox row commits or rolls back with the booking change itself
+     */
+    private void sendEventTransactional(BookingEventDTO event, String eventTypeStr) {
+        sendEvent(event, eventTypeStr);
+    }
 
     /**
      * Send multiple related events atomically in a single transaction
-     * Ensures all events are sent or none are sent (atomic guarantee)
+     * All rows are written together and the relay publishes them in one Kafka transaction
      */
     public void sendEventsAtomically(BookingEventDTO... events) {
         if (events == null || events.length == 0) {
@@ -375,29 +409,24 @@ public class BookingEventProducerService {
         }
 
         try {
-            logger.info("📦 Sending {} events atomically in transaction", events.length);
-
-            // Execute all sends in a single transaction
-            kafkaTemplate.executeInTransaction(operations -> {
-                for (BookingEventDTO event : events) {
-                    String messageKey = event.getBookingId().toString();
-
-                    logger.debug("🔄 Adding {} event for booking {} to transaction",
-                            event.getEventType(), event.getBookingId());
-
-                    operations.send(bookingEventsTopic, messageKey, event);
-                }
-
-                logger.info("✅ All {} events committed atomically", events.length);
-                return true; // Commit transaction
-            });
-
+            logger.info("📦 Queuing {} events atomically in the outbox", events.length);
+            enqueue(events);
         } catch (Exception e) {
-            logger.error("❌ Atomic transaction failed for {} events", events.length, e);
+            logger.error("❌ Failed to queue {} events atomically", events.length, e);
             throw new RuntimeException("Failed to send events atomically", e);
         }
     }
 
+    private void enqueue(BookingEventDTO... events) throws JsonProcessingException {
+        List<BookingEventOutbox> rows = new ArrayList<>(events.length);
+        for (BookingEventDTO event : events) {
+            rows.add(new BookingEventOutbox(event.getEventId(), event.getBookingId(), event.getEventType().name(),
+                    objectMapper.writeValueAsString(event)));
+        }
+        outboxRepository.saveAll(rows);
+        outboxRelay.wakeAfterCommit();
+    }
+
     /**
      * Enhanced booking flow - sends both BOOKING_CREATED and follow-up events atomically
      * Example: When accepting a booking, send both ACCEPTED event + any related events
@@ -474,7 +503,7 @@ public class BookingEventProducerService {
             UUID tempBookingId = UUID.randomUUID();
             BookingEventDTO event = new BookingEventDTO(BookingEventType.BOOKING_INITIATED, tempBookingId, payload);
 
-            sendEvent(event, "BOOKING_INITIATED_WITH_CONTEXT");
+            publishTrackingEvent(event, "BOOKING_INITIATED_WITH_CONTEXT");
 
         } catch (Exception e) {
             logger.error("Failed to send enhanced BOOKING_INITIATED event for tenant {} and property {}",
@@ -510,7 +539,7 @@ public class BookingEventProducerService {
             UUID tempBookingId = UUID.randomUUID();
             BookingEventDTO event = new BookingEventDTO(BookingEventType.BOOKING_INITIATED, tempBookingId, payload);
 
-            sendEvent(event, "BOOKING_INITIATED_WITH_PAYMENT_CONTEXT");
+            publishTrackingEvent(event, "BOOKING_INITIATED_WITH_PAYMENT_CONTEXT");
 
         } catch (Exception e) {
             logger.error("Failed to send enhanced BOOKING_INITIATED event with payment info for tenant {} and property {}",
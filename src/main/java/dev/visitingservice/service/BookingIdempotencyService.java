@@ -0,0 +1,239 @@
+package dev.visitingservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.visitingservice.dto.ShortletBookingDTO;
+import dev.visitingservice.exception.BookingConflictException;
+import dev.visitingservice.repository.BookingIdempotencyKeyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Replays the response of a booking creation when a client retries with the same Idempotency-Key, without running
+ * validation, the user and listing lookups, or the property lock again.
+ *
+ * Recent keys live in a bounded in-memory LRU; every key is also persisted with an expiry so retries that land on
+ * another instance, or after a restart, are replayed too. The key row is inserted before the booking is created, as a
+ * claim: a retry that reaches another instance while the original is still running hits the primary key and gets a
+ * conflict instead of booking again. A failed creation deletes its claim, so the request can be retried with the same
+ * key; a claim left behind by a stopped instance lapses after {@code booking.idempotency.pending-seconds}.
+ */
+@Service
+public class BookingIdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingIdempotencyService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final BookingIdempotencyKeyRepository keyRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlHours;
+    private final long pendingSeconds;
+
+    private final Map<String, Stored> recent = new LinkedHashMap<>(256, 0.75f, true);
+    // Requests still running per key, so a retry racing the original waits for it instead of booking twice
+    private final ConcurrentHashMap<String, CompletableFuture<ShortletBookingDTO>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    private record Stored(String requestHash, String responseBody, OffsetDateTime expiresAt) {}
+
+    public BookingIdempotencyService(BookingIdempotencyKeyRepository keyRepository,
+                                     ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${booking.idempotency.enabled:true}") boolean enabled,
+                                     @Value("${booking.idempotency.max-entries:10000}") int maxEntries,
+                                     @Value("${booking.idempotency.ttl-hours:24}") long ttlHours,
+                                     @Value("${booking.idempotency.pending-seconds:120}") long pendingSeconds) {
+        this.keyRepository = keyRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttlHours = ttlHours;
+        this.pendingSeconds = pendingSeconds;
+        this.hits = Counter.builder("booking.idempotency.requests").tag("result", "replayed")
+                .description("Booking creations carrying an Idempotency-Key").register(meterRegistry);
+        this.misses = Counter.builder("booking.idempotency.requests").tag("result", "executed")
+                .description("Booking creations carrying an Idempotency-Key").register(meterRegistry);
+    }
+
+    /**
+     * Returns the stored response for the tenant's key, or runs the creation and stores its response. Reusing a key
+     * with a different request is rejected.
+     */
+    public ShortletBookingDTO createOnce(String key, UUID tenantId, Map<String, ?> request,
+                                         Supplier<ShortletBookingDTO> create) {
+        if (!enabled || key == null || key.isBlank()) {
+            return create.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String scopedKey = tenantId + ":" + key;
+        String requestHash = hash(request);
+
+        Stored stored = lookup(scopedKey);
+        if (stored != null) {
+            return replay(stored, requestHash);
+        }
+
+        CompletableFuture<ShortletBookingDTO> mine = new CompletableFuture<>();
+        CompletableFuture<ShortletBookingDTO> running = inFlight.putIfAbsent(scopedKey, mine);
+        if (running != null) {
+            try {
+                running.join();
+            } catch (CompletionException e) {
+                // The original failed and stored nothing, so this retry runs on its own below
+            }
+            return createOnce(key, tenantId, request, create);
+        }
+        try {
+            if (!claim(scopedKey, tenantId, requestHash)) {
+                stored = lookup(scopedKey);
+                if (stored == null) {
+                    // The other request failed and released the key in between; the client can simply retry
+                    throw new BookingConflictException("A request with this " + HEADER + " is still being processed");
+                }
+                ShortletBookingDTO replayed = replay(stored, requestHash);
+                mine.complete(replayed);
+                return replayed;
+            }
+            misses.increment();
+            ShortletBookingDTO created;
+            try {
+                created = create.get();
+            } catch (RuntimeException e) {
+                release(scopedKey);
+                throw e;
+            }
+            store(scopedKey, requestHash, created);
+            mine.complete(created);
+            return created;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(scopedKey, mine);
+        }
+    }
+
+    // False when another request, possibly on another instance, holds the key
+    private boolean claim(String scopedKey, UUID tenantId, String requestHash) {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        keyRepository.deleteExpired(scopedKey, now);
+        try {
+            keyRepository.claim(scopedKey, tenantId, requestHash, now, now.plusSeconds(pendingSeconds));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private void release(String scopedKey) {
+        try {
+            keyRepository.release(scopedKey);
+        } catch (Exception e) {
+            // Lapses after pending-seconds; until then retries with this key get a conflict
+            logger.warn("⚠️ Could not release idempotency key {}: {}", scopedKey, e.getMessage());
+        }
+    }
+
+    private Stored lookup(String scopedKey) {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        synchronized (recent) {
+            Stored stored = recent.get(scopedKey);
+            if (stored != null) {
+                if (stored.expiresAt().isAfter(now)) {
+                    return stored;
+                }
+                recent.remove(scopedKey);
+            }
+        }
+        return keyRepository.findByIdempotencyKeyAndExpiresAtAfter(scopedKey, now)
+                .map(row -> row.getResponseBody() == null
+                        ? new Stored(row.getRequestHash(), null, row.getExpiresAt())
+                        : remember(scopedKey, new Stored(row.getRequestHash(), row.getResponseBody(), row.getExpiresAt())))
+                .orElse(null);
+    }
+
+    private ShortletBookingDTO replay(Stored stored, String requestHash) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IllegalArgumentException(HEADER + " was already used for a different booking request");
+        }
+        if (stored.responseBody() == null) {
+            throw new BookingConflictException("A request with this " + HEADER + " is still being processed");
+        }
+        hits.increment();
+        try {
+            return objectMapper.readValue(stored.responseBody(), ShortletBookingDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored booking response could not be read", e);
+        }
+    }
+
+    private void store(String scopedKey, String requestHash, ShortletBookingDTO created) {
+        OffsetDateTime expiresAt = OffsetDateTime.now(ZoneOffset.UTC).plusHours(ttlHours);
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(created);
+        } catch (JsonProcessingException e) {
+            // The claim stays until it lapses, so retries get a conflict rather than a second booking
+            logger.warn("⚠️ Could not store response for idempotency key {}: {}", scopedKey, e.getMessage());
+            return;
+        }
+        remember(scopedKey, new Stored(requestHash, body, expiresAt));
+        try {
+            keyRepository.complete(scopedKey, body, expiresAt);
+        } catch (Exception e) {
+            // Still replayed from memory on this instance; the booking itself is already committed
+            logger.warn("⚠️ Could not persist idempotency key {}: {}", scopedKey, e.getMessage());
+        }
+    }
+
+    private Stored remember(String scopedKey, Stored stored) {
+        synchronized (recent) {
+            recent.put(scopedKey, stored);
+            Iterator<Stored> eldest = recent.values().iterator();
+            while (recent.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        return stored;
+    }
+
+    private static String hash(Map<String, ?> request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = new TreeMap<>(request).toString().getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(digest.digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
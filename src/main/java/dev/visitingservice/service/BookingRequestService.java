@@ -0,0 +1,248 @@
+package dev.visitingservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.visitingservice.dto.BookingCommandDTO;
+import dev.visitingservice.dto.BookingRequestDTO;
+import dev.visitingservice.dto.ShortletBookingDTO;
+import dev.visitingservice.model.BookingRequest;
+import dev.visitingservice.model.BookingRequest.RequestStatus;
+import dev.visitingservice.repository.BookingRequestRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous booking creation. {@link #submit} only stores the intent as SUBMITTED and returns; the remote
+ * validation, the locked rule check and the insert then run on a virtual thread, at most
+ * {@code booking.async.max-concurrency} at a time, so request threads no longer wait on downstream services.
+ *
+ * Each request is claimed with a conditional status update before it runs, so a request is processed once even when
+ * several instances recover it. Requests left SUBMITTED or stuck PROCESSING by a stopped instance are picked up
+ * again by {@link #recover()}; createBooking already returns the existing booking for a repeated request.
+ */
+@Service
+public class BookingRequestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingRequestService.class);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final BookingRequestRepository requestRepository;
+    private final ShortletBookingService bookingService;
+    private final ObjectMapper objectMapper;
+    private final int maxQueued;
+    private final long recoverAfterSeconds;
+    private final long processingTimeoutMinutes;
+
+    private final Semaphore permits;
+    // Requests queued or running on this instance
+    private final Set<UUID> local = ConcurrentHashMap.newKeySet();
+    // Callers waiting for the outcome of a request; the entry goes once the request finishes or its last waiter leaves
+    private final ConcurrentHashMap<UUID, Waiters> outcomes = new ConcurrentHashMap<>();
+
+    private final Timer processingTimer;
+
+    private static final class Waiters {
+        private final CompletableFuture<BookingRequestDTO> result = new CompletableFuture<>();
+        // Guarded by the outcomes map
+        private int count;
+    }
+
+    public BookingRequestService(BookingRequestRepository requestRepository,
+                                 ShortletBookingService bookingService,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${booking.async.max-concurrency:64}") int maxConcurrency,
+                                 @Value("${booking.async.max-queued:10000}") int maxQueued,
+                                 @Value("${booking.async.recover-after-seconds:60}") long recoverAfterSeconds,
+                                 @Value("${booking.async.processing-timeout-minutes:10}") long processingTimeoutMinutes) {
+        this.requestRepository = requestRepository;
+        this.bookingService = bookingService;
+        this.objectMapper = objectMapper;
+        this.maxQueued = maxQueued;
+        this.recoverAfterSeconds = recoverAfterSeconds;
+        this.processingTimeoutMinutes = processingTimeoutMinutes;
+        this.permits = new Semaphore(maxConcurrency);
+        this.processingTimer = Timer.builder("booking.requests.processing")
+                .description("Time from claiming an asynchronous booking request to its outcome").register(meterRegistry);
+        Gauge.builder("booking.requests.pending", local, Set::size)
+                .description("Asynchronous booking requests queued or running on this instance").register(meterRegistry);
+    }
+
+    /**
+     * Stores the booking intent and schedules it. Only checks that the request is complete enough to process;
+     * everything else is reported through the request's outcome.
+     */
+    public BookingRequestDTO submit(BookingCommandDTO command) {
+        if (command.getTenantId() == null || command.getLandlordId() == null || command.getPropertyId() == null
+                || command.getStartDate() == null || command.getEndDate() == null) {
+            throw new IllegalArgumentException("tenantId, landlordId, propertyId, startDate and endDate are required");
+        }
+        if (!command.getStartDate().isBefore(command.getEndDate())) {
+            throw new IllegalArgumentException("Start date must be before end date");
+        }
+        if (local.size() >= maxQueued) {
+            throw new IllegalStateException("Too many booking requests in progress, please retry shortly");
+        }
+        command.setType(BookingCommandDTO.CommandType.CREATE);
+
+        BookingRequest request = new BookingRequest();
+        request.setStatus(RequestStatus.SUBMITTED);
+        request.setTenantId(command.getTenantId());
+        request.setPropertyId(command.getPropertyId());
+        try {
+            request.setPayload(objectMapper.writeValueAsString(command));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Booking request could not be stored", e);
+        }
+        BookingRequest saved = requestRepository.save(request);
+        logger.info("📨 Booking request {} submitted for property {}", saved.getId(), saved.getPropertyId());
+        dispatch(saved.getId());
+        return toDTO(saved, null);
+    }
+
+    public BookingRequestDTO get(UUID requestId) {
+        BookingRequest request = requestRepository.findById(requestId)
+                .orElseThrow(() -> new IllegalArgumentException("Booking request not found"));
+        ShortletBookingDTO booking = request.getStatus() == RequestStatus.COMPLETED && request.getBookingId() != null
+                ? bookingService.getBookingById(request.getBookingId()) : null;
+        return toDTO(request, booking);
+    }
+
+    /**
+     * Completes with the request once it has finished: immediately if it already has, otherwise when this instance
+     * finishes it. Completes with null after the timeout, for example when another instance recovered the request;
+     * callers then fall back to {@link #get(UUID)}.
+     */
+    public CompletableFuture<BookingRequestDTO> outcome(UUID requestId, long timeout, TimeUnit unit) {
+        Waiters waiters = outcomes.compute(requestId, (id, existing) -> {
+            Waiters registered = existing != null ? existing : new Waiters();
+            registered.count++;
+            return registered;
+        });
+        BookingRequestDTO current;
+        try {
+            current = get(requestId);
+        } catch (RuntimeException e) {
+            leave(requestId, waiters);
+            throw e;
+        }
+        if (current.isFinished()) {
+            leave(requestId, waiters);
+            return CompletableFuture.completedFuture(current);
+        }
+        return waiters.result.copy()
+                .completeOnTimeout(null, timeout, unit)
+                .whenComplete((done, error) -> leave(requestId, waiters));
+    }
+
+    private void leave(UUID requestId, Waiters waiters) {
+        outcomes.computeIfPresent(requestId, (id, current) -> current != waiters || --current.count > 0 ? current : null);
+    }
+
+    private void dispatch(UUID requestId) {
+        if (!local.add(requestId)) {
+            return;
+        }
+        Thread.ofVirtual().name("booking-request-" + requestId).start(() -> {
+            try {
+                permits.acquire();
+                try {
+                    process(requestId);
+                } finally {
+                    permits.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                // Left SUBMITTED or PROCESSING; recover() will retry it
+                logger.error("❌ Booking request {} could not be processed: {}", requestId, e.getMessage());
+            } finally {
+                local.remove(requestId);
+            }
+        });
+    }
+
+    void process(UUID requestId) {
+        if (requestRepository.transition(requestId, RequestStatus.SUBMITTED, RequestStatus.PROCESSING, now()) == 0) {
+            return; // claimed elsewhere or already finished
+        }
+        long started = System.nanoTime();
+        BookingRequest request = requestRepository.findById(requestId).orElseThrow();
+        try {
+            BookingCommandDTO command = objectMapper.readValue(request.getPayload(), BookingCommandDTO.class);
+            ShortletBookingDTO booking = bookingService.createBooking(command.getTenantId(), command.getLandlordId(),
+                    command.getPropertyId(), command.getStartDate(), command.getEndDate(), command.getFirstName(),
+                    command.getLastName(), command.getPhoneNumber(), command.getGuestNumber(), command.getEmail(),
+                    command.getAmount(), command.getCurrency(), command.getSessionId(), command.getUserAgent(),
+                    command.getSourceIP());
+            requestRepository.complete(requestId, RequestStatus.COMPLETED, booking.getId(), null, now());
+            logger.info("✅ Booking request {} created booking {}", requestId, booking.getId());
+        } catch (Exception e) {
+            String error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            requestRepository.complete(requestId, RequestStatus.FAILED, null,
+                    error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error, now());
+            logger.info("🚫 Booking request {} failed: {}", requestId, error);
+        } finally {
+            processingTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+        Waiters waiting = outcomes.remove(requestId);
+        if (waiting != null) {
+            waiting.result.complete(get(requestId));
+        }
+    }
+
+    /**
+     * Re-queues requests that a stopped instance accepted but never finished.
+     */
+    @Scheduled(fixedDelayString = "${booking.async.recovery-interval-ms:30000}",
+            initialDelayString = "${booking.async.recovery-interval-ms:30000}")
+    public void recover() {
+        try {
+            int reset = requestRepository.transitionStale(RequestStatus.PROCESSING, RequestStatus.SUBMITTED,
+                    now().minusMinutes(processingTimeoutMinutes), now());
+            if (reset > 0) {
+                logger.warn("⚠️ Re-queued {} booking requests stuck in processing", reset);
+            }
+            for (UUID requestId : requestRepository.findIdsByStatusUpdatedBefore(RequestStatus.SUBMITTED,
+                    now().minusSeconds(recoverAfterSeconds))) {
+                if (local.size() >= maxQueued) {
+                    break;
+                }
+                dispatch(requestId);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("⚠️ Failed to recover booking requests: {}", e.getMessage());
+        }
+    }
+
+    private static OffsetDateTime now() {
+        return OffsetDateTime.now(ZoneOffset.UTC);
+    }
+
+    private BookingRequestDTO toDTO(BookingRequest request, ShortletBookingDTO booking) {
+        BookingRequestDTO dto = new BookingRequestDTO();
+        dto.setId(request.getId());
+        dto.setStatus(request.getStatus().name());
+        dto.setBookingId(request.getBookingId());
+        dto.setError(request.getError());
+        dto.setBooking(booking);
+        dto.setCreatedAt(request.getCreatedAt());
+        dto.setUpdatedAt(request.getUpdatedAt());
+        return dto;
+    }
+}
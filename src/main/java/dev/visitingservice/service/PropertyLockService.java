@@ -0,0 +1,156 @@
+package dev.visitingservice.service;
+
+import dev.visitingservice.util.TransactionCallbacks;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One transaction-scoped lock per property, serialising booking validation, acceptance and availability writes of
+ * that property.
+ *
+ * On Postgres this is {@code pg_advisory_xact_lock} keyed by the property UUID folded to 64 bits, so the lock is
+ * shared across instances and released by the database on commit or rollback. Other databases (H2 in tests) fall back
+ * to an in-process striped lock released when the transaction completes. Unlike row locks, the cost does not grow
+ * with the number of availability rows or historical bookings of the property.
+ *
+ * With {@code booking.lock.mode=row} every method is a no-op and callers keep locking rows as before.
+ */
+@Service
+public class PropertyLockService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertyLockService.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final DataSource dataSource;
+    private final boolean propertyMode;
+    private final long waitSeconds;
+    private final ReentrantLock[] stripes;
+    private final ConcurrentHashMap<Long, ReentrantLock> keyLocks = new ConcurrentHashMap<>();
+    private volatile Boolean postgres;
+
+    public PropertyLockService(DataSource dataSource,
+                               @Value("${booking.lock.mode:property}") String mode,
+                               @Value("${booking.lock.stripes:256}") int stripes,
+                               @Value("${booking.lock.wait-seconds:30}") long waitSeconds) {
+        if (!"property".equals(mode) && !"row".equals(mode)) {
+            throw new IllegalArgumentException("booking.lock.mode must be 'property' or 'row', was '" + mode + "'");
+        }
+        this.dataSource = dataSource;
+        this.propertyMode = "property".equals(mode);
+        this.waitSeconds = waitSeconds;
+        this.stripes = new ReentrantLock[Math.max(1, stripes)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Whether callers rely on the per-property lock instead of locking availability and booking rows.
+     */
+    public boolean isPropertyMode() {
+        return propertyMode;
+    }
+
+    /**
+     * Blocks until the current transaction holds the property's lock. Must be called inside a transaction; the
+     * lock is held until it completes.
+     */
+    public void lock(UUID propertyId) {
+        if (!propertyMode || propertyId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Property locks require an active transaction");
+        }
+        if (isPostgres()) {
+            entityManager.createNativeQuery("SELECT 1 FROM pg_advisory_xact_lock(:key)")
+                    .setParameter("key", key(propertyId))
+                    .getSingleResult();
+        } else {
+            lockStripe(propertyId);
+        }
+        logger.debug("🔒 Acquired property lock for {}", propertyId);
+    }
+
+    /**
+     * Locks several properties in a fixed order so that two transactions locking overlapping sets cannot deadlock.
+     */
+    public void lockAll(Collection<UUID> propertyIds) {
+        for (UUID propertyId : new TreeSet<>(propertyIds)) {
+            lock(propertyId);
+        }
+    }
+
+    /**
+     * Takes a transaction-scoped lock on an arbitrary key if it is free, without waiting, for work that only one
+     * instance should do at a time. Applies in both lock modes. Falls back to an in-process lock off Postgres, like
+     * {@link #lock(UUID)}.
+     */
+    public boolean tryLock(long key) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Locks require an active transaction");
+        }
+        if (isPostgres()) {
+            return (Boolean) entityManager.createNativeQuery("SELECT pg_try_advisory_xact_lock(:key)")
+                    .setParameter("key", key)
+                    .getSingleResult();
+        }
+        ReentrantLock lock = keyLocks.computeIfAbsent(key, k -> new ReentrantLock());
+        if (!lock.tryLock()) {
+            return false;
+        }
+        unlockAfterCompletion(lock);
+        return true;
+    }
+
+    static long key(UUID propertyId) {
+        return propertyId.getMostSignificantBits() ^ propertyId.getLeastSignificantBits();
+    }
+
+    private void lockStripe(UUID propertyId) {
+        ReentrantLock stripe = stripes[Math.floorMod(Long.hashCode(key(propertyId)), stripes.length)];
+        try {
+            if (!stripe.tryLock(waitSeconds, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out waiting for lock on property " + propertyId);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for lock on property " + propertyId);
+        }
+        unlockAfterCompletion(stripe);
+    }
+
+    private static void unlockAfterCompletion(ReentrantLock lock) {
+        TransactionCallbacks.afterCompletion(lock::unlock);
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            try (Connection connection = dataSource.getConnection()) {
+                result = "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not determine database for property locks", e);
+            }
+            postgres = result;
+        }
+        return result;
+    }
+}
@@ -1,6 +1,9 @@
 package dev.visitingservice.service;
 
+import dev.visitingservice.dto.AvailabilityCheckDTO;
+import dev.visitingservice.dto.FlexibleAvailabilityDTO;
 import dev.visitingservice.dto.ShortletAvailabilityDTO;
+import dev.visitingservice.dto.ShortletAvailabilityRuleDTO;
 import dev.visitingservice.model.ShortletAvailability;
 
 import java.time.LocalDate;
@@ -9,8 +12,17 @@ import java.util.UUID;
 
 public interface ShortletAvailabilityService {
     ShortletAvailabilityDTO setAvailability(UUID landlordId, UUID propertyId, LocalDate startDate, LocalDate endDate);
+    List<ShortletAvailabilityDTO> setAvailabilityBulk(UUID landlordId, List<ShortletAvailabilityDTO> ranges);
     List<ShortletAvailabilityDTO> getAvailability(UUID landlordId, UUID propertyId);
     void deleteAvailability(UUID availabilityId);
     boolean isAvailable(UUID landlordId, UUID propertyId, LocalDate startDate, LocalDate endDate);
     List<UUID> getAvailablePropertyIdsInRange(LocalDate desiredStart, LocalDate desiredEnd);
+    List<UUID> getAvailablePropertyIdsInRange(LocalDate desiredStart, LocalDate desiredEnd, int page, int size);
+    List<AvailabilityCheckDTO> checkAvailability(List<AvailabilityCheckDTO> checks);
+    List<FlexibleAvailabilityDTO> findFlexibleAvailability(LocalDate windowStart, LocalDate windowEnd, int nights, boolean allStartDates);
+    ShortletAvailabilityRuleDTO setAvailabilityRule(UUID landlordId, ShortletAvailabilityRuleDTO rule);
+    List<ShortletAvailabilityRuleDTO> getAvailabilityRules(UUID landlordId, UUID propertyId);
+    void deleteAvailabilityRule(UUID landlordId, UUID ruleId);
+    ShortletAvailabilityRuleDTO addAvailabilityException(UUID landlordId, UUID ruleId, LocalDate startDate, LocalDate endDate);
+    void deleteAvailabilityException(UUID landlordId, UUID ruleId, UUID exceptionId);
 }
@@ -1,5 +1,6 @@
 package dev.visitingservice.service;
 
+import dev.visitingservice.dto.PaymentStatusEventDTO;
 import dev.visitingservice.dto.ShortletBookingDTO;
 import java.time.LocalDate;
 import java.util.List;
@@ -13,6 +14,7 @@ public interface ShortletBookingService {
     ShortletBookingDTO cancelBooking(UUID bookingId);
     ShortletBookingDTO rescheduleBooking(UUID bookingId, LocalDate newStartDate, LocalDate newEndDate);
     ShortletBookingDTO updateBookingPayment(UUID bookingId, String paymentStatus, String paymentReference, Double paymentAmount);
+    int updateBookingPayments(List<PaymentStatusEventDTO> updates);
 
     // NEW MISSING METHODS FOR TENANT FUNCTIONALITY
     List<ShortletBookingDTO> getTenantBookings(UUID tenantId, int page, int limit, String status);
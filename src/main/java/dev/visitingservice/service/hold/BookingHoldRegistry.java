@@ -0,0 +1,231 @@
+package dev.visitingservice.service.hold;
+
+import dev.visitingservice.model.BookingHold;
+import dev.visitingservice.repository.BookingHoldRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory view of the active booking holds, answering "is this stay held?" for searches and the booking fast path
+ * without a query. Each hold also sits in a {@link DelayQueue}; a virtual thread takes holds off it as they expire
+ * and deletes the rows this instance created by id, so nothing sweeps the table. Holds placed on other instances are
+ * picked up from the table every sync interval.
+ *
+ * Lookups ignore expired holds themselves, so a late reaper never makes dates look held for longer than the TTL.
+ */
+@Component
+public class BookingHoldRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingHoldRegistry.class);
+
+    private final BookingHoldRepository holdRepository;
+
+    private final ConcurrentHashMap<UUID, Map<UUID, Hold>> byProperty = new ConcurrentHashMap<>();
+    private final DelayQueue<Hold> expiries = new DelayQueue<>();
+    private volatile Thread reaper;
+
+    static final class Hold implements Delayed {
+        private final UUID id;
+        private final UUID propertyId;
+        private final UUID tenantId;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final long expiresAtMillis;
+        // Created by this instance, which is then responsible for deleting the row
+        private final boolean local;
+        // When this instance learned of the hold, to tell whether a sync query could have seen its row
+        private final long addedAtMillis = System.currentTimeMillis();
+
+        private Hold(BookingHold row, boolean local) {
+            this.id = row.getId();
+            this.propertyId = row.getPropertyId();
+            this.tenantId = row.getTenantId();
+            this.startDate = row.getStartDate();
+            this.endDate = row.getEndDate();
+            this.expiresAtMillis = row.getExpiresAt().toInstant().toEpochMilli();
+            this.local = local;
+        }
+
+        private boolean blocks(LocalDate start, LocalDate end, UUID exceptTenantId, long now) {
+            return expiresAtMillis > now && startDate.isBefore(end) && endDate.isAfter(start)
+                    && (exceptTenantId == null || !exceptTenantId.equals(tenantId));
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiresAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(expiresAtMillis, ((Hold) other).expiresAtMillis);
+        }
+    }
+
+    public BookingHoldRegistry(BookingHoldRepository holdRepository, MeterRegistry meterRegistry) {
+        this.holdRepository = holdRepository;
+        Gauge.builder("booking.holds.active", expiries, DelayQueue::size)
+                .description("Booking holds not yet expired or released").register(meterRegistry);
+    }
+
+    /**
+     * Whether another tenant holds any of the nights [startDate, endDate). A null tenant treats every hold as blocking.
+     */
+    public boolean isHeld(UUID propertyId, LocalDate startDate, LocalDate endDate, UUID exceptTenantId) {
+        Map<UUID, Hold> holds = byProperty.get(propertyId);
+        if (holds == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        for (Hold hold : holds.values()) {
+            if (hold.blocks(startDate, endDate, exceptTenantId, now)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The given properties minus those held for any night of the stay, in their original order.
+     */
+    public List<UUID> withoutHeld(List<UUID> propertyIds, LocalDate startDate, LocalDate endDate) {
+        if (byProperty.isEmpty()) {
+            return propertyIds;
+        }
+        List<UUID> free = new ArrayList<>(propertyIds.size());
+        for (UUID propertyId : propertyIds) {
+            if (!isHeld(propertyId, startDate, endDate, null)) {
+                free.add(propertyId);
+            }
+        }
+        return free;
+    }
+
+    void add(BookingHold row, boolean local) {
+        Hold hold = new Hold(row, local);
+        Hold previous = byProperty.computeIfAbsent(hold.propertyId, id -> new ConcurrentHashMap<>()).put(hold.id, hold);
+        if (previous != null) {
+            expiries.remove(previous);
+        }
+        expiries.add(hold);
+    }
+
+    void remove(UUID propertyId, UUID holdId) {
+        Hold hold = forget(propertyId, holdId);
+        if (hold != null) {
+            expiries.remove(hold);
+        }
+    }
+
+    private Hold forget(UUID propertyId, UUID holdId) {
+        Hold[] removed = new Hold[1];
+        byProperty.computeIfPresent(propertyId, (id, holds) -> {
+            removed[0] = holds.remove(holdId);
+            return holds.isEmpty() ? null : holds;
+        });
+        return removed[0];
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        sync();
+        reaper = Thread.ofVirtual().name("booking-hold-reaper").start(this::reapLoop);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (reaper != null) {
+            reaper.interrupt();
+        }
+    }
+
+    private void reapLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                reap(expiries.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                logger.warn("⚠️ Failed to reap expired booking holds: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Drops every hold that has expired and deletes the rows this instance created. Returns how many were dropped.
+     */
+    int reapExpired() {
+        Hold first = expiries.poll();
+        return first == null ? 0 : reap(first);
+    }
+
+    private int reap(Hold first) {
+        List<Hold> expired = new ArrayList<>();
+        expired.add(first);
+        expiries.drainTo(expired);
+        List<UUID> localIds = new ArrayList<>();
+        for (Hold hold : expired) {
+            // Skip a hold that was replaced or released since it was queued
+            if (forget(hold.propertyId, hold.id) == hold && hold.local) {
+                localIds.add(hold.id);
+            }
+        }
+        if (!localIds.isEmpty()) {
+            holdRepository.deleteAllByIdInBatch(localIds);
+        }
+        logger.debug("Reaped {} expired booking holds", expired.size());
+        return expired.size();
+    }
+
+    /**
+     * Adds holds placed on other instances and drops every hold whose row is gone, from one query on active holds.
+     * That includes holds of this instance released on another one. Holds added after the query started are kept:
+     * their row may have committed too late for it.
+     */
+    @Scheduled(fixedDelayString = "${booking.hold.sync-interval-ms:5000}",
+            initialDelayString = "${booking.hold.sync-interval-ms:5000}")
+    public void sync() {
+        try {
+            long queriedAt = System.currentTimeMillis();
+            List<BookingHold> active = holdRepository.findByExpiresAtAfter(OffsetDateTime.now(ZoneOffset.UTC));
+            Set<UUID> activeIds = new HashSet<>();
+            for (BookingHold row : active) {
+                activeIds.add(row.getId());
+                Map<UUID, Hold> holds = byProperty.get(row.getPropertyId());
+                if (holds == null || !holds.containsKey(row.getId())) {
+                    add(row, false);
+                }
+            }
+            for (Map<UUID, Hold> holds : byProperty.values()) {
+                for (Hold hold : holds.values()) {
+                    if (!activeIds.contains(hold.id) && (!hold.local || hold.addedAtMillis < queriedAt)) {
+                        remove(hold.propertyId, hold.id);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("⚠️ Failed to sync booking holds: {}", e.getMessage());
+        }
+    }
+}
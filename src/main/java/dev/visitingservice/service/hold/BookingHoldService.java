@@ -0,0 +1,92 @@
+package dev.visitingservice.service.hold;
+
+import dev.visitingservice.dto.BookingHoldDTO;
+import dev.visitingservice.model.BookingHold;
+import dev.visitingservice.repository.BookingHoldRepository;
+import dev.visitingservice.service.impl.BookingBusinessRuleValidator;
+import dev.visitingservice.util.TransactionCallbacks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Places and releases holds: a tenant's reservation of a stay for a few minutes between the price quote and
+ * payment. While a hold is active, other tenants cannot book or hold any of its nights and searches leave the
+ * property out; the holder's own booking goes through.
+ */
+@Service
+public class BookingHoldService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingHoldService.class);
+
+    private final BookingHoldRepository holdRepository;
+    private final BookingHoldRegistry holdRegistry;
+    private final BookingBusinessRuleValidator businessRuleValidator;
+    private final long ttlMinutes;
+
+    @Autowired
+    public BookingHoldService(BookingHoldRepository holdRepository,
+                              BookingHoldRegistry holdRegistry,
+                              BookingBusinessRuleValidator businessRuleValidator,
+                              @Value("${booking.hold.ttl-minutes:10}") long ttlMinutes) {
+        this.holdRepository = holdRepository;
+        this.holdRegistry = holdRegistry;
+        this.businessRuleValidator = businessRuleValidator;
+        this.ttlMinutes = ttlMinutes;
+    }
+
+    /**
+     * Holds the nights [startDate, endDate) for the tenant. The same availability and conflict rules as booking
+     * apply, checked under the property lock so two tenants cannot hold the same night.
+     */
+    @Transactional
+    public BookingHoldDTO placeHold(UUID tenantId, UUID landlordId, UUID propertyId, LocalDate startDate, LocalDate endDate) {
+        if (tenantId == null || landlordId == null || propertyId == null || startDate == null || endDate == null) {
+            throw new IllegalArgumentException("tenantId, landlordId, propertyId, startDate and endDate are required");
+        }
+        if (!startDate.isBefore(endDate)) {
+            throw new IllegalArgumentException("startDate must be before endDate");
+        }
+        if (startDate.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Cannot hold dates in the past");
+        }
+        businessRuleValidator.validateInCurrentTransaction(landlordId, propertyId, startDate, endDate, tenantId);
+
+        BookingHold hold = new BookingHold();
+        hold.setTenantId(tenantId);
+        hold.setLandlordId(landlordId);
+        hold.setPropertyId(propertyId);
+        hold.setStartDate(startDate);
+        hold.setEndDate(endDate);
+        hold.setExpiresAt(OffsetDateTime.now(ZoneOffset.UTC).plusMinutes(ttlMinutes));
+        BookingHold saved = holdRepository.save(hold);
+        TransactionCallbacks.afterCommit(() -> holdRegistry.add(saved, true));
+        logger.info("⏳ Tenant {} holds property {} from {} to {} until {}", tenantId, propertyId, startDate, endDate,
+                saved.getExpiresAt());
+        return toDTO(saved);
+    }
+
+    @Transactional
+    public void releaseHold(UUID holdId, UUID tenantId) {
+        BookingHold hold = holdRepository.findById(holdId)
+                .orElseThrow(() -> new IllegalArgumentException("Hold not found"));
+        if (!hold.getTenantId().equals(tenantId)) {
+            throw new IllegalArgumentException("Hold belongs to another tenant");
+        }
+        holdRepository.delete(hold);
+        TransactionCallbacks.afterCommit(() -> holdRegistry.remove(hold.getPropertyId(), hold.getId()));
+    }
+
+    private BookingHoldDTO toDTO(BookingHold hold) {
+        return new BookingHoldDTO(hold.getId(), hold.getTenantId(), hold.getPropertyId(), hold.getStartDate(),
+                hold.getEndDate(), hold.getExpiresAt());
+    }
+}
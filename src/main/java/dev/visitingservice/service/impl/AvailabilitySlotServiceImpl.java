@@ -1,33 +1,62 @@
 package dev.visitingservice.service.impl;
 
 import dev.visitingservice.model.AvailabilitySlot;
+import dev.visitingservice.model.ViewingSlotTemplate;
 import dev.visitingservice.repository.AvailabilitySlotRepository;
+import dev.visitingservice.repository.ViewingSlotTemplateRepository;
 import dev.visitingservice.service.AvailabilitySlotService;
+import dev.visitingservice.service.PropertyLockService;
 import dev.visitingservice.service.VisitValidationService;
 import dev.visitingservice.exception.SlotUnavailableException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
 import java.time.OffsetDateTime;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 @Service
 public class AvailabilitySlotServiceImpl implements AvailabilitySlotService {
 
+    private static final ZoneId NIGERIA_ZONE = ZoneId.of("Africa/Lagos");
+
     @Autowired
     private AvailabilitySlotRepository repository;
 
+    @Autowired
+    private ViewingSlotTemplateRepository templateRepository;
+
     @Autowired
     private VisitValidationService validationService;
 
+    @Autowired
+    private PropertyLockService propertyLockService;
+
+    @Value("${slots.range.max-days:92}")
+    private int maxRangeDays;
+
+    @Value("${slots.range.max-slots:5000}")
+    private int maxSlotsPerRequest;
+
+    @Value("${slots.template.lookahead-days:28}")
+    private int templateLookaheadDays;
+
     @Override
     public AvailabilitySlot createSlot(AvailabilitySlot slot) {
         // validate landlord owns listing
@@ -49,13 +78,21 @@ public class AvailabilitySlotServiceImpl implements AvailabilitySlotService {
 
     @Override
     public List<AvailabilitySlot> getAvailableSlots(UUID propertyId) {
-        return repository.findByPropertyIdAndStartTimeAfterAndBookedFalse(propertyId, OffsetDateTime.now());
+        List<ViewingSlotTemplate> templates = templateRepository.findByPropertyId(propertyId);
+        if (templates.isEmpty()) {
+            return repository.findByPropertyIdAndStartTimeAfterAndBookedFalse(propertyId, OffsetDateTime.now());
+        }
+        return withTemplateSlots(propertyId, null, templates, OffsetDateTime.now());
     }
 
     @Override
     public List<AvailabilitySlot> getAvailableSlots(UUID propertyId, UUID landlordId) {
-        return repository.findByPropertyIdAndLandlordIdAndStartTimeAfterAndBookedFalse(
-                propertyId, landlordId, OffsetDateTime.now());
+        List<ViewingSlotTemplate> templates = templateRepository.findByPropertyIdAndLandlordId(propertyId, landlordId);
+        if (templates.isEmpty()) {
+            return repository.findByPropertyIdAndLandlordIdAndStartTimeAfterAndBookedFalse(
+                    propertyId, landlordId, OffsetDateTime.now());
+        }
+        return withTemplateSlots(propertyId, landlordId, templates, OffsetDateTime.now());
     }
 
     @Override
@@ -66,34 +103,61 @@ public class AvailabilitySlotServiceImpl implements AvailabilitySlotService {
 
     @Override
     public List<AvailabilitySlot> createSlotsForRange(UUID propertyId, UUID landlordId, LocalDate date, LocalTime startTime, LocalTime endTime, Integer intervalMinutes) {
+        return createSlotsForDateRange(propertyId, landlordId, date, date, null, startTime, endTime, intervalMinutes);
+    }
+
+    @Override
+    @Transactional
+    public List<AvailabilitySlot> createSlotsForDateRange(UUID propertyId, UUID landlordId, LocalDate startDate, LocalDate endDate,
+                                                          Set<DayOfWeek> daysOfWeek, LocalTime startTime, LocalTime endTime,
+                                                          Integer intervalMinutes) {
         if (intervalMinutes == null || intervalMinutes <= 0) intervalMinutes = 60;
         if (startTime == null || endTime == null || !startTime.isBefore(endTime)) {
             throw new IllegalArgumentException("Start time must be before end time");
         }
-        ZoneId nigeriaZone = ZoneId.of("Africa/Lagos");
-        ZonedDateTime startZdt = ZonedDateTime.of(date, startTime, nigeriaZone);
-        ZonedDateTime endZdt = ZonedDateTime.of(date, endTime, nigeriaZone);
-        List<AvailabilitySlot> createdSlots = new ArrayList<>();
-        ZonedDateTime slotStart = startZdt;
-        while (slotStart.plusMinutes(intervalMinutes).compareTo(endZdt) <= 0) {
-            ZonedDateTime slotEnd = slotStart.plusMinutes(intervalMinutes);
-            OffsetDateTime slotStartUtc = slotStart.withZoneSameInstant(ZoneId.of("UTC")).toOffsetDateTime();
-            OffsetDateTime slotEndUtc = slotEnd.withZoneSameInstant(ZoneId.of("UTC")).toOffsetDateTime();
-            // Check for overlap
-            boolean overlap = repository.existsByPropertyIdAndStartTimeLessThanAndEndTimeGreaterThan(
-                propertyId, slotEndUtc, slotStartUtc);
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must be on or before end date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= maxRangeDays) {
+            throw new IllegalArgumentException("Slot generation cannot span more than " + maxRangeDays + " days");
+        }
+        Predicate<LocalDate> includeDay = date -> daysOfWeek == null || daysOfWeek.isEmpty()
+                || daysOfWeek.contains(date.getDayOfWeek());
+        List<OffsetDateTime[]> candidates = candidateSlots(startDate, endDate, includeDay, startTime, endTime, intervalMinutes);
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        if (candidates.size() > maxSlotsPerRequest) {
+            throw new IllegalArgumentException("Slot generation would create more than " + maxSlotsPerRequest + " slots");
+        }
+
+        // Load every existing slot in the window once, then sweep both sorted lists together
+        List<AvailabilitySlot> existing = repository.findByPropertyIdAndStartTimeLessThanAndEndTimeGreaterThanOrderByStartTime(
+                propertyId, candidates.get(candidates.size() - 1)[1], candidates.get(0)[0]);
+        List<AvailabilitySlot> toCreate = new ArrayList<>();
+        int next = 0;
+        OffsetDateTime maxExistingEnd = null;
+        for (OffsetDateTime[] candidate : candidates) {
+            // Fold in every existing slot that starts before this candidate ends
+            while (next < existing.size() && existing.get(next).getStartTime().isBefore(candidate[1])) {
+                OffsetDateTime end = existing.get(next).getEndTime();
+                if (maxExistingEnd == null || end.isAfter(maxExistingEnd)) {
+                    maxExistingEnd = end;
+                }
+                next++;
+            }
+            boolean overlap = maxExistingEnd != null && maxExistingEnd.isAfter(candidate[0]);
             if (!overlap) {
                 AvailabilitySlot slot = new AvailabilitySlot();
                 slot.setPropertyId(propertyId);
                 slot.setLandlordId(landlordId);
-                slot.setStartTime(slotStartUtc);
-                slot.setEndTime(slotEndUtc);
+                slot.setStartTime(candidate[0]);
+                slot.setEndTime(candidate[1]);
                 slot.setBooked(false);
-                createdSlots.add(repository.save(slot));
+                toCreate.add(slot);
             }
-            slotStart = slotEnd;
         }
-        return createdSlots;
+        return repository.saveAll(toCreate);
     }
 
     @Override
@@ -101,4 +165,156 @@ public class AvailabilitySlotServiceImpl implements AvailabilitySlotService {
         return repository.findByPropertyIdAndLandlordIdAndStartTimeAfter(
             propertyId, landlordId, OffsetDateTime.now());
     }
+
+    @Override
+    public ViewingSlotTemplate createTemplate(ViewingSlotTemplate template) {
+        validationService.validateListingOwnership(template.getPropertyId(), template.getLandlordId());
+
+        if (template.getIntervalMinutes() <= 0) template.setIntervalMinutes(60);
+        if (template.getStartTime() == null || template.getEndTime() == null
+                || !template.getStartTime().isBefore(template.getEndTime())) {
+            throw new IllegalArgumentException("Start time must be before end time");
+        }
+        if (template.getValidFrom() == null) {
+            template.setValidFrom(LocalDate.now(NIGERIA_ZONE));
+        }
+        if (template.getValidUntil() != null && template.getValidUntil().isBefore(template.getValidFrom())) {
+            throw new IllegalArgumentException("Valid until must be on or after valid from");
+        }
+        template.setId(null);
+        return templateRepository.save(template);
+    }
+
+    @Override
+    public List<ViewingSlotTemplate> getTemplates(UUID propertyId, UUID landlordId) {
+        return templateRepository.findByPropertyIdAndLandlordId(propertyId, landlordId);
+    }
+
+    @Override
+    public void deleteTemplate(UUID templateId, UUID landlordId) {
+        ViewingSlotTemplate template = templateRepository.findById(templateId)
+                .orElseThrow(() -> new IllegalArgumentException("Template not found: " + templateId));
+        if (!template.getLandlordId().equals(landlordId)) {
+            throw new IllegalArgumentException("Template does not belong to landlord");
+        }
+        templateRepository.delete(template);
+    }
+
+    @Override
+    @Transactional
+    public Optional<AvailabilitySlot> claimTemplateSlot(UUID propertyId, UUID slotId) {
+        if (propertyId == null || slotId == null) {
+            return Optional.empty();
+        }
+        // Two visitors claiming the same slot must not both pass the overlap check before either row is saved
+        List<ViewingSlotTemplate> templates;
+        if (propertyLockService.isPropertyMode()) {
+            propertyLockService.lock(propertyId);
+            templates = templateRepository.findByPropertyId(propertyId);
+        } else {
+            templates = templateRepository.findByPropertyIdWithLock(propertyId);
+        }
+        for (AvailabilitySlot slot : templateSlots(templates, OffsetDateTime.now())) {
+            if (!slot.getId().equals(slotId)) {
+                continue;
+            }
+            if (repository.existsByPropertyIdAndStartTimeLessThanAndEndTimeGreaterThan(
+                    propertyId, slot.getEndTime(), slot.getStartTime())) {
+                throw new SlotUnavailableException("Slot is already booked");
+            }
+            // The stored row gets its own id; the template id only names the slot until it is claimed
+            slot.setId(null);
+            slot.setBooked(true);
+            return Optional.of(repository.save(slot));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Stored unbooked slots plus the template slots in the lookahead window that no stored slot, booked or not,
+     * overlaps. Both lists are sorted by start time so the overlap check is a single sweep.
+     */
+    private List<AvailabilitySlot> withTemplateSlots(UUID propertyId, UUID landlordId,
+                                                     List<ViewingSlotTemplate> templates, OffsetDateTime now) {
+        List<AvailabilitySlot> existing = repository.findByPropertyIdAndEndTimeAfterOrderByStartTime(propertyId, now);
+        List<AvailabilitySlot> slots = new ArrayList<>();
+        for (AvailabilitySlot slot : existing) {
+            if (!slot.isBooked() && slot.getStartTime().isAfter(now)
+                    && (landlordId == null || landlordId.equals(slot.getLandlordId()))) {
+                slots.add(slot);
+            }
+        }
+        int next = 0;
+        OffsetDateTime maxEnd = null;
+        for (AvailabilitySlot candidate : templateSlots(templates, now)) {
+            while (next < existing.size() && existing.get(next).getStartTime().isBefore(candidate.getEndTime())) {
+                OffsetDateTime end = existing.get(next).getEndTime();
+                if (maxEnd == null || end.isAfter(maxEnd)) {
+                    maxEnd = end;
+                }
+                next++;
+            }
+            // Also skips slots of overlapping templates after the first one
+            if (maxEnd != null && maxEnd.isAfter(candidate.getStartTime())) {
+                continue;
+            }
+            slots.add(candidate);
+            maxEnd = candidate.getEndTime();
+        }
+        slots.sort(Comparator.comparing(AvailabilitySlot::getStartTime));
+        return slots;
+    }
+
+    /**
+     * Unsaved slots of every template starting after {@code now} within the lookahead window, sorted by start time.
+     * Each carries a stable id derived from its template and start so a client can claim it.
+     */
+    private List<AvailabilitySlot> templateSlots(List<ViewingSlotTemplate> templates, OffsetDateTime now) {
+        LocalDate from = now.atZoneSameInstant(NIGERIA_ZONE).toLocalDate();
+        LocalDate to = from.plusDays(templateLookaheadDays);
+        List<AvailabilitySlot> slots = new ArrayList<>();
+        for (ViewingSlotTemplate template : templates) {
+            for (OffsetDateTime[] candidate : candidateSlots(from, to, template::appliesOn,
+                    template.getStartTime(), template.getEndTime(), template.getIntervalMinutes())) {
+                if (!candidate[0].isAfter(now)) {
+                    continue;
+                }
+                AvailabilitySlot slot = new AvailabilitySlot();
+                slot.setId(templateSlotId(template.getId(), candidate[0]));
+                slot.setPropertyId(template.getPropertyId());
+                slot.setLandlordId(template.getLandlordId());
+                slot.setStartTime(candidate[0]);
+                slot.setEndTime(candidate[1]);
+                slot.setBooked(false);
+                slots.add(slot);
+            }
+        }
+        slots.sort(Comparator.comparing(AvailabilitySlot::getStartTime));
+        return slots;
+    }
+
+    static UUID templateSlotId(UUID templateId, OffsetDateTime start) {
+        return UUID.nameUUIDFromBytes((templateId + "@" + start.toInstant()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Candidate [start, end) pairs in UTC, in chronological order, for every included day in [startDate, endDate]
+    private static List<OffsetDateTime[]> candidateSlots(LocalDate startDate, LocalDate endDate, Predicate<LocalDate> includeDay,
+                                                         LocalTime startTime, LocalTime endTime, int intervalMinutes) {
+        List<OffsetDateTime[]> candidates = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            if (!includeDay.test(date)) {
+                continue;
+            }
+            ZonedDateTime slotStart = ZonedDateTime.of(date, startTime, NIGERIA_ZONE);
+            ZonedDateTime endZdt = ZonedDateTime.of(date, endTime, NIGERIA_ZONE);
+            while (slotStart.plusMinutes(intervalMinutes).compareTo(endZdt) <= 0) {
+                ZonedDateTime slotEnd = slotStart.plusMinutes(intervalMinutes);
+                candidates.add(new OffsetDateTime[]{
+                        slotStart.withZoneSameInstant(ZoneId.of("UTC")).toOffsetDateTime(),
+                        slotEnd.withZoneSameInstant(ZoneId.of("UTC")).toOffsetDateTime()});
+                slotStart = slotEnd;
+            }
+        }
+        return candidates;
+    }
 }
\ No newline at end of file
@@ -3,8 +3,14 @@ package dev.visitingservice.service.impl;
 import dev.visitingservice.model.ShortletAvailability;
 import dev.visitingservice.model.ShortletBooking;
 import dev.visitingservice.model.ShortletBooking.BookingStatus;
+import dev.visitingservice.repository.BookingHoldRepository;
 import dev.visitingservice.repository.ShortletAvailabilityRepository;
 import dev.visitingservice.repository.ShortletBookingRepository;
+import dev.visitingservice.service.PropertyLockService;
+import dev.visitingservice.service.hold.BookingHoldRegistry;
+import dev.visitingservice.service.index.AvailabilityRuleLoader;
+import dev.visitingservice.service.index.AvailabilityRuleSet;
+import dev.visitingservice.service.index.ShortletAvailabilityIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +19,8 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.UUID;
 
@@ -27,12 +35,27 @@ public class BookingBusinessRuleValidator {
 
     private final ShortletAvailabilityRepository availabilityRepository;
     private final ShortletBookingRepository bookingRepository;
+    private final ShortletAvailabilityIndex availabilityIndex;
+    private final AvailabilityRuleLoader ruleLoader;
+    private final PropertyLockService propertyLockService;
+    private final BookingHoldRepository holdRepository;
+    private final BookingHoldRegistry holdRegistry;
 
     @Autowired
     public BookingBusinessRuleValidator(ShortletAvailabilityRepository availabilityRepository,
-                                       ShortletBookingRepository bookingRepository) {
+                                       ShortletBookingRepository bookingRepository,
+                                       ShortletAvailabilityIndex availabilityIndex,
+                                       AvailabilityRuleLoader ruleLoader,
+                                       PropertyLockService propertyLockService,
+                                       BookingHoldRepository holdRepository,
+                                       BookingHoldRegistry holdRegistry) {
         this.availabilityRepository = availabilityRepository;
         this.bookingRepository = bookingRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.ruleLoader = ruleLoader;
+        this.propertyLockService = propertyLockService;
+        this.holdRepository = holdRepository;
+        this.holdRegistry = holdRegistry;
     }
 
     /**
@@ -44,41 +67,100 @@ public class BookingBusinessRuleValidator {
                    timeout = 30) // 30 second timeout for locking operations
     public void validateWithLocking(UUID landlordId, UUID propertyId, LocalDate startDate,
                                    LocalDate endDate, UUID tenantId) {
+        validateInCurrentTransaction(landlordId, propertyId, startDate, endDate, tenantId);
+    }
+
+    /**
+     * The checks of {@link #validateWithLocking} inside the caller's transaction, so that whatever the caller writes
+     * next is covered by the same locks. Holds of the given tenant do not block.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void validateInCurrentTransaction(UUID landlordId, UUID propertyId, LocalDate startDate,
+                                             LocalDate endDate, UUID tenantId) {
+
+        // The index may lag writes from other instances by up to a refresh interval, so it never rejects: every
+        // decision below is made under lock. It only tells whether its own copy of the property needs reloading
+        boolean indexSaysFree = availabilityIndex.residentTimeline(propertyId, startDate)
+            .map(timeline -> timeline.isFree(startDate, endDate))
+            .orElse(true);
+        if (holdRegistry.isHeld(propertyId, startDate, endDate, tenantId)) {
+            throw new IllegalArgumentException("Requested dates are held by another guest");
+        }
 
         logger.debug("🔒 Acquiring locks for business rule validation: landlord={}, property={}",
                     landlordId, propertyId);
 
-        // Use pessimistic locking to prevent concurrent booking conflicts
-        List<ShortletAvailability> availabilities = availabilityRepository
-            .findByLandlordIdAndPropertyIdWithLock(landlordId, propertyId);
+        List<ShortletAvailability> availabilities;
+        AvailabilityRuleSet rules;
+        if (propertyLockService.isPropertyMode()) {
+            // One lock per property, then only the rows that matter for these dates
+            propertyLockService.lock(propertyId);
+            availabilities = availabilityRepository
+                .findByLandlordIdAndPropertyIdAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
+                    landlordId, propertyId, endDate, startDate);
+            rules = ruleLoader.forProperty(landlordId, propertyId);
+        } else {
+            // Use pessimistic locking to prevent concurrent booking conflicts
+            availabilities = availabilityRepository.findByLandlordIdAndPropertyIdWithLock(landlordId, propertyId);
+            rules = ruleLoader.forPropertyWithLock(landlordId, propertyId);
+        }
 
-        if (availabilities.isEmpty()) {
+        if (availabilities.isEmpty() && rules.isEmpty() && !hasAnyAvailability(landlordId, propertyId)) {
             throw new IllegalArgumentException("No availability information found for this property");
         }
 
-        // Check availability
+        // Check availability: every day covered by some row or recurring rule, the rule the index and search apply
         boolean isAvailable = availabilities.stream()
-            .anyMatch(a -> !a.getStartDate().isAfter(startDate) && !a.getEndDate().isBefore(endDate));
+            .anyMatch(a -> !a.getStartDate().isAfter(startDate) && !a.getEndDate().isBefore(endDate))
+            || rules.covers(availabilities, startDate, endDate);
 
         if (!isAvailable) {
             throw new IllegalArgumentException("Requested dates are not available for booking");
         }
 
-        // Check for overlapping accepted bookings (with pessimistic locking)
-        List<ShortletBooking> existingBookings = bookingRepository
-            .findByLandlordIdAndPropertyIdWithLock(landlordId, propertyId);
-
-        boolean hasOverlap = existingBookings.stream()
-            .filter(booking -> booking.getStatus() == BookingStatus.ACCEPTED)
-            .anyMatch(booking ->
-                booking.getStartDate().isBefore(endDate) && booking.getEndDate().isAfter(startDate)
-            );
+        boolean hasOverlap;
+        if (propertyLockService.isPropertyMode()) {
+            hasOverlap = bookingRepository.existsByPropertyIdAndStatusAndStartDateLessThanAndEndDateGreaterThan(
+                propertyId, BookingStatus.ACCEPTED, endDate, startDate);
+        } else {
+            // Check for overlapping accepted bookings (with pessimistic locking)
+            List<ShortletBooking> existingBookings = bookingRepository
+                .findByLandlordIdAndPropertyIdWithLock(landlordId, propertyId);
+
+            hasOverlap = existingBookings.stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.ACCEPTED)
+                .anyMatch(booking ->
+                    booking.getStartDate().isBefore(endDate) && booking.getEndDate().isAfter(startDate)
+                );
+        }
 
         if (hasOverlap) {
             throw new IllegalArgumentException("Requested dates conflict with existing accepted booking");
         }
 
+        // The table also has holds placed on other instances that this one has not synced yet
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        boolean held = tenantId == null
+            ? holdRepository.existsByPropertyIdAndStartDateLessThanAndEndDateGreaterThanAndExpiresAtAfter(
+                propertyId, endDate, startDate, now)
+            : holdRepository.existsByPropertyIdAndTenantIdNotAndStartDateLessThanAndEndDateGreaterThanAndExpiresAtAfter(
+                propertyId, tenantId, endDate, startDate, now);
+        if (held) {
+            throw new IllegalArgumentException("Requested dates are held by another guest");
+        }
+
+        if (!indexSaysFree) {
+            // The stay is bookable although the index said otherwise, so it is behind another instance's write
+            availabilityIndex.refreshAfterCommit(propertyId, startDate, endDate);
+        }
+
         logger.debug("✅ Business rules validation passed with locks: landlord={}, property={}, dates={} to {}",
                     landlordId, propertyId, startDate, endDate);
     }
+
+    // Only reached when nothing intersects the dates, to keep the two error messages apart
+    private boolean hasAnyAvailability(UUID landlordId, UUID propertyId) {
+        return propertyLockService.isPropertyMode()
+            && availabilityRepository.existsByLandlordIdAndPropertyId(landlordId, propertyId);
+    }
 }
@@ -0,0 +1,122 @@
+package dev.visitingservice.service.impl;
+
+import dev.visitingservice.dto.BookingCommandDTO;
+import dev.visitingservice.dto.BookingCommandDTO.CommandType;
+import dev.visitingservice.dto.PaymentStatusEventDTO;
+import dev.visitingservice.dto.ShortletBookingDTO;
+import dev.visitingservice.service.BookingCoordinator;
+import dev.visitingservice.service.ShortletBookingService;
+import dev.visitingservice.service.ownership.BookingCommandRouter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The {@link ShortletBookingService} injected everywhere: hands booking mutations to the {@link BookingCommandRouter},
+ * which runs them on the instance owning the property through its {@link BookingCoordinator} mailbox before they
+ * reach the transactional {@link ShortletBookingServiceImpl}, and passes reads straight through. A new booking's
+ * input checks and remote lookups run before it is routed; only the locked part is queued.
+ */
+@Service
+@Primary
+public class CoordinatedShortletBookingService implements ShortletBookingService {
+
+    private final ShortletBookingServiceImpl delegate;
+    private final BookingCommandRouter commandRouter;
+
+    @Autowired
+    public CoordinatedShortletBookingService(ShortletBookingServiceImpl delegate,
+                                             BookingCommandRouter commandRouter) {
+        this.delegate = delegate;
+        this.commandRouter = commandRouter;
+    }
+
+    @Override
+    public ShortletBookingDTO createBooking(UUID tenantId, UUID landlordId, UUID propertyId, LocalDate startDate,
+                                            LocalDate endDate, String firstName, String lastName, String phoneNumber,
+                                            Integer guestNumber, String email, Double amount, String currency,
+                                            String sessionId, String userAgent, String sourceIP) {
+        // Remote lookups happen here, so they never hold up the property's queue or its owner
+        delegate.validateNewBooking(tenantId, landlordId, propertyId, startDate, endDate, email, amount);
+        BookingCommandDTO command = new BookingCommandDTO(CommandType.CREATE);
+        command.setTenantId(tenantId);
+        command.setLandlordId(landlordId);
+        command.setPropertyId(propertyId);
+        command.setStartDate(startDate);
+        command.setEndDate(endDate);
+        command.setFirstName(firstName);
+        command.setLastName(lastName);
+        command.setPhoneNumber(phoneNumber);
+        command.setGuestNumber(guestNumber);
+        command.setEmail(email);
+        command.setAmount(amount);
+        command.setCurrency(currency);
+        command.setSessionId(sessionId);
+        command.setUserAgent(userAgent);
+        command.setSourceIP(sourceIP);
+        return commandRouter.route(command, ShortletBookingDTO.class);
+    }
+
+    @Override
+    public ShortletBookingDTO acceptBooking(UUID bookingId) {
+        return commandRouter.route(BookingCommandDTO.forBooking(CommandType.ACCEPT, bookingId), ShortletBookingDTO.class);
+    }
+
+    @Override
+    public ShortletBookingDTO rejectBooking(UUID bookingId) {
+        return commandRouter.route(BookingCommandDTO.forBooking(CommandType.REJECT, bookingId), ShortletBookingDTO.class);
+    }
+
+    @Override
+    public ShortletBookingDTO cancelBooking(UUID bookingId) {
+        return commandRouter.route(BookingCommandDTO.forBooking(CommandType.CANCEL, bookingId), ShortletBookingDTO.class);
+    }
+
+    @Override
+    public ShortletBookingDTO rescheduleBooking(UUID bookingId, LocalDate newStartDate, LocalDate newEndDate) {
+        BookingCommandDTO command = BookingCommandDTO.forBooking(CommandType.RESCHEDULE, bookingId);
+        command.setStartDate(newStartDate);
+        command.setEndDate(newEndDate);
+        return commandRouter.route(command, ShortletBookingDTO.class);
+    }
+
+    @Override
+    public ShortletBookingDTO updateBookingPayment(UUID bookingId, String paymentStatus, String paymentReference,
+                                                   Double paymentAmount) {
+        return delegate.updateBookingPayment(bookingId, paymentStatus, paymentReference, paymentAmount);
+    }
+
+    @Override
+    public int updateBookingPayments(List<PaymentStatusEventDTO> updates) {
+        return delegate.updateBookingPayments(updates);
+    }
+
+    @Override
+    public List<ShortletBookingDTO> getBookings(UUID landlordId, int page, int size) {
+        return delegate.getBookings(landlordId, page, size);
+    }
+
+    @Override
+    public List<ShortletBookingDTO> getTenantBookings(UUID tenantId, int page, int limit, String status) {
+        return delegate.getTenantBookings(tenantId, page, limit, status);
+    }
+
+    @Override
+    public ShortletBookingDTO getBookingById(UUID bookingId) {
+        return delegate.getBookingById(bookingId);
+    }
+
+    @Override
+    public List<ShortletBookingDTO> getAllBookings(int page, int limit, String status, LocalDate dateFrom, LocalDate dateTo) {
+        return delegate.getAllBookings(page, limit, status, dateFrom, dateTo);
+    }
+
+    @Override
+    public List<ShortletBookingDTO> getBookingsByProperty(UUID propertyId) {
+        return delegate.getBookingsByProperty(propertyId);
+    }
+}
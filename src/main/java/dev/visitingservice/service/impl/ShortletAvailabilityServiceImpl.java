@@ -1,32 +1,98 @@
 package dev.visitingservice.service.impl;
 
+import dev.visitingservice.dto.AvailabilityCheckDTO;
+import dev.visitingservice.dto.FlexibleAvailabilityDTO;
 import dev.visitingservice.dto.ShortletAvailabilityDTO;
+import dev.visitingservice.dto.ShortletAvailabilityExceptionDTO;
+import dev.visitingservice.dto.ShortletAvailabilityRuleDTO;
 import dev.visitingservice.model.ShortletAvailability;
+import dev.visitingservice.model.ShortletAvailabilityException;
+import dev.visitingservice.model.ShortletAvailabilityRule;
+import dev.visitingservice.model.ShortletBooking;
+import dev.visitingservice.repository.ShortletAvailabilityExceptionRepository;
 import dev.visitingservice.repository.ShortletAvailabilityRepository;
+import dev.visitingservice.repository.ShortletAvailabilityRuleRepository;
 import dev.visitingservice.repository.ShortletBookingRepository;
+import dev.visitingservice.service.AvailabilityCompactionService;
+import dev.visitingservice.service.PropertyLockService;
+import dev.visitingservice.service.hold.BookingHoldRegistry;
 import dev.visitingservice.service.ShortletAvailabilityService;
 import dev.visitingservice.service.VisitValidationService;
+import dev.visitingservice.service.index.AvailabilityRuleLoader;
+import dev.visitingservice.service.index.AvailabilityRuleSet;
+import dev.visitingservice.service.index.AvailabilitySearchCache;
+import dev.visitingservice.service.index.PropertyTimeline;
+import dev.visitingservice.service.index.ShortletAvailabilityIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 public class ShortletAvailabilityServiceImpl implements ShortletAvailabilityService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ShortletAvailabilityServiceImpl.class);
+
+    // How Postgres and H2 sort UUID columns (unsigned, byte by byte). Every search path returns this order, so a
+    // client paging through results gets the same pages whichever path, or instance, answers each one.
+    static final Comparator<UUID> PROPERTY_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
     private final ShortletAvailabilityRepository availabilityRepository;
     private final VisitValidationService validationService;
     private final ShortletBookingRepository bookingRepository;
+    private final ShortletAvailabilityIndex availabilityIndex;
+    private final AvailabilitySearchCache searchCache;
+    private final AvailabilityCompactionService compactionService;
+    private final ShortletAvailabilityRuleRepository ruleRepository;
+    private final ShortletAvailabilityExceptionRepository exceptionRepository;
+    private final AvailabilityRuleLoader ruleLoader;
+    private final PropertyLockService propertyLockService;
+    private final BookingHoldRegistry holdRegistry;
+
+    @Value("${availability.search.max-page-size:200}")
+    private int maxSearchPageSize;
+
+    @Value("${availability.check.max-batch-size:500}")
+    private int maxCheckBatchSize;
+
+    @Value("${availability.bulk.max-ranges:1000}")
+    private int maxBulkRanges;
+
+    @Value("${availability.flexible.max-window-days:90}")
+    private int maxFlexibleWindowDays;
 
     @Autowired
-    public ShortletAvailabilityServiceImpl(ShortletAvailabilityRepository availabilityRepository, VisitValidationService validationService, ShortletBookingRepository bookingRepository) {
+    public ShortletAvailabilityServiceImpl(ShortletAvailabilityRepository availabilityRepository, VisitValidationService validationService, ShortletBookingRepository bookingRepository, ShortletAvailabilityIndex availabilityIndex, AvailabilitySearchCache searchCache, AvailabilityCompactionService compactionService, ShortletAvailabilityRuleRepository ruleRepository, ShortletAvailabilityExceptionRepository exceptionRepository, AvailabilityRuleLoader ruleLoader, PropertyLockService propertyLockService, BookingHoldRegistry holdRegistry) {
         this.availabilityRepository = availabilityRepository;
         this.validationService = validationService;
         this.bookingRepository = bookingRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.searchCache = searchCache;
+        this.compactionService = compactionService;
+        this.ruleRepository = ruleRepository;
+        this.exceptionRepository = exceptionRepository;
+        this.ruleLoader = ruleLoader;
+        this.propertyLockService = propertyLockService;
+        this.holdRegistry = holdRegistry;
     }
 
     @Override
@@ -37,6 +103,7 @@ public class ShortletAvailabilityServiceImpl implements ShortletAvailabilityServ
         }
         // Validate property ownership
         validationService.validateListingOwnership(propertyId, landlordId);
+        propertyLockService.lock(propertyId);
 
         // Check if an exact slot already exists
         List<ShortletAvailability> exact = availabilityRepository.findByLandlordIdAndPropertyIdAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
@@ -81,9 +148,113 @@ public class ShortletAvailabilityServiceImpl implements ShortletAvailabilityServ
         availability.setStartDate(startDate);
         availability.setEndDate(endDate);
         ShortletAvailability saved = availabilityRepository.save(availability);
+        // Merge the new row with any fragments it now touches; the saved row is kept and widened
+        compactionService.compact(landlordId, propertyId, saved.getId());
+        availabilityIndex.refreshAfterCommit(propertyId, startDate, endDate);
         return toDTO(saved);
     }
 
+    @Override
+    @Transactional
+    public List<ShortletAvailabilityDTO> setAvailabilityBulk(UUID landlordId, List<ShortletAvailabilityDTO> ranges) {
+        if (ranges == null || ranges.isEmpty()) {
+            return List.of();
+        }
+        if (ranges.size() > maxBulkRanges) {
+            throw new IllegalArgumentException("At most " + maxBulkRanges + " ranges are allowed per request");
+        }
+        Map<UUID, List<ShortletAvailabilityDTO>> byProperty = new LinkedHashMap<>();
+        for (ShortletAvailabilityDTO range : ranges) {
+            if (range.getPropertyId() == null || range.getStartDate() == null || range.getEndDate() == null) {
+                throw new IllegalArgumentException("propertyId, startDate and endDate are required for every range");
+            }
+            if (range.getStartDate().isAfter(range.getEndDate())) {
+                throw new IllegalArgumentException("startDate must be before endDate");
+            }
+            byProperty.computeIfAbsent(range.getPropertyId(), id -> new ArrayList<>()).add(range);
+        }
+        // One ownership check per property rather than per range
+        for (UUID propertyId : byProperty.keySet()) {
+            validationService.validateListingOwnership(propertyId, landlordId);
+        }
+
+        propertyLockService.lockAll(byProperty.keySet());
+        Map<UUID, List<ShortletAvailability>> existing = new HashMap<>();
+        for (ShortletAvailability row : availabilityRepository.findByLandlordIdAndPropertyIdInWithLock(landlordId, byProperty.keySet())) {
+            existing.computeIfAbsent(row.getPropertyId(), id -> new ArrayList<>()).add(row);
+        }
+
+        // Same outcome as calling setAvailability per range followed by compaction: the coalesced union
+        List<ShortletAvailability> toDelete = new ArrayList<>();
+        List<ShortletAvailability> toInsert = new ArrayList<>();
+        List<ShortletAvailability> result = new ArrayList<>();
+        for (Map.Entry<UUID, List<ShortletAvailabilityDTO>> entry : byProperty.entrySet()) {
+            UUID propertyId = entry.getKey();
+            List<ShortletAvailability> current = existing.getOrDefault(propertyId, List.of());
+            List<LocalDate[]> merged = new ArrayList<>();
+            for (ShortletAvailability row : current) {
+                merged.add(new LocalDate[]{row.getStartDate(), row.getEndDate()});
+            }
+            for (ShortletAvailabilityDTO range : entry.getValue()) {
+                merged.add(new LocalDate[]{range.getStartDate(), range.getEndDate()});
+            }
+            merged = coalesce(merged);
+
+            Map<String, ShortletAvailability> currentByRange = new HashMap<>();
+            for (ShortletAvailability row : current) {
+                currentByRange.put(row.getStartDate() + "/" + row.getEndDate(), row);
+            }
+            for (LocalDate[] range : merged) {
+                ShortletAvailability kept = currentByRange.remove(range[0] + "/" + range[1]);
+                if (kept != null) {
+                    result.add(kept);
+                    continue;
+                }
+                ShortletAvailability row = new ShortletAvailability();
+                row.setLandlordId(landlordId);
+                row.setPropertyId(propertyId);
+                row.setStartDate(range[0]);
+                row.setEndDate(range[1]);
+                toInsert.add(row);
+                result.add(row);
+            }
+            toDelete.addAll(currentByRange.values());
+        }
+
+        // Deletes run first as one statement, then inserts go out in JDBC batches on flush
+        if (!toDelete.isEmpty()) {
+            availabilityRepository.deleteAllInBatch(toDelete);
+        }
+        availabilityRepository.saveAll(toInsert);
+        for (Map.Entry<UUID, List<ShortletAvailabilityDTO>> entry : byProperty.entrySet()) {
+            LocalDate from = entry.getValue().stream().map(ShortletAvailabilityDTO::getStartDate).min(LocalDate::compareTo).orElseThrow();
+            LocalDate to = entry.getValue().stream().map(ShortletAvailabilityDTO::getEndDate).max(LocalDate::compareTo).orElseThrow();
+            availabilityIndex.refreshAfterCommit(entry.getKey(), from, to);
+        }
+        logger.info("📅 Bulk availability for landlord {}: {} ranges over {} properties, {} rows inserted, {} deleted",
+                landlordId, ranges.size(), byProperty.size(), toInsert.size(), toDelete.size());
+        return result.stream().map(this::toDTO).collect(Collectors.toList());
+    }
+
+    /**
+     * Sorts inclusive ranges and merges those that overlap or touch.
+     */
+    private static List<LocalDate[]> coalesce(List<LocalDate[]> ranges) {
+        ranges.sort(Comparator.comparing((LocalDate[] r) -> r[0]));
+        List<LocalDate[]> merged = new ArrayList<>();
+        for (LocalDate[] range : ranges) {
+            LocalDate[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && !range[0].isAfter(last[1].plusDays(1))) {
+                if (range[1].isAfter(last[1])) {
+                    last[1] = range[1];
+                }
+            } else {
+                merged.add(new LocalDate[]{range[0], range[1]});
+            }
+        }
+        return merged;
+    }
+
     @Override
     public List<ShortletAvailabilityDTO> getAvailability(UUID landlordId, UUID propertyId) {
         if (landlordId == null || propertyId == null) {
@@ -99,10 +270,11 @@ public class ShortletAvailabilityServiceImpl implements ShortletAvailabilityServ
         if (availabilityId == null) {
             throw new IllegalArgumentException("availabilityId cannot be null");
         }
-        if (!availabilityRepository.existsById(availabilityId)) {
-            throw new IllegalArgumentException("Availability not found for the provided ID");
-        }
-        availabilityRepository.deleteById(availabilityId);
+        ShortletAvailability availability = availabilityRepository.findById(availabilityId)
+                .orElseThrow(() -> new IllegalArgumentException("Availability not found for the provided ID"));
+        propertyLockService.lock(availability.getPropertyId());
+        availabilityRepository.delete(availability);
+        availabilityIndex.refreshAfterDelete(availability.getPropertyId(), availability.getStartDate(), availability.getEndDate());
     }
 
     @Override
@@ -110,36 +282,350 @@ public class ShortletAvailabilityServiceImpl implements ShortletAvailabilityServ
         // Check if there's an availability slot that completely covers the requested range
         // AND no accepted bookings overlap with the requested range
 
+        // Dates held during someone's checkout are not offered to anyone else
+        if (holdRegistry.isHeld(propertyId, startDate, endDate, null)) {
+            return false;
+        }
+
+        // Hot path: answer from the in-memory index when it holds this property
+        Optional<PropertyTimeline> timeline = availabilityIndex.timeline(landlordId, propertyId, startDate);
+        if (timeline.isPresent()) {
+            return timeline.get().isFree(startDate, endDate);
+        }
+
         // Step 1: Check if there's complete availability coverage
         boolean hasCompleteAvailability = availabilityRepository.existsByLandlordIdAndPropertyIdAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
                 landlordId, propertyId, startDate, endDate); // Fixed parameter order
 
+        if (!hasCompleteAvailability) {
+            // No single row covers the stay; adjacent rows and recurring rules may, together
+            AvailabilityRuleSet rules = ruleLoader.forProperty(landlordId, propertyId);
+            hasCompleteAvailability = rules.covers(availabilityRepository
+                    .findByLandlordIdAndPropertyIdAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
+                            landlordId, propertyId, endDate, startDate), startDate, endDate);
+        }
+
         if (!hasCompleteAvailability) {
             return false;
         }
 
         // Step 2: Check if there are any accepted bookings overlapping the requested range
-        List<UUID> bookedPropertyIds = bookingRepository.findAcceptedBookedPropertyIdsInRange(startDate, endDate);
-        boolean hasOverlappingBooking = bookedPropertyIds.contains(propertyId);
+        boolean hasOverlappingBooking = bookingRepository.existsByPropertyIdAndStatusAndStartDateLessThanAndEndDateGreaterThan(
+                propertyId, ShortletBooking.BookingStatus.ACCEPTED, endDate, startDate);
 
         return !hasOverlappingBooking;
     }
 
     @Override
     public List<UUID> getAvailablePropertyIdsInRange(LocalDate desiredStart, LocalDate desiredEnd) {
-        // Step 1: Get all property IDs with an availability slot for the date range
-        List<UUID> availablePropertyIds = availabilityRepository.findPropertyIdsWithAvailabilityInRange(desiredStart, desiredEnd);
-        if (availablePropertyIds.isEmpty()) {
+        // Holds come and go within minutes, so they are applied to the cached result rather than cached with it
+        Optional<List<UUID>> cached = searchCache.getPropertyIds(desiredStart, desiredEnd);
+        if (cached.isPresent()) {
+            return holdRegistry.withoutHeld(cached.get(), desiredStart, desiredEnd);
+        }
+        long cacheVersion = searchCache.version();
+        // Covering availability minus overlapping ACCEPTED bookings, from the index or the database
+        List<UUID> propertyIds = availabilityIndex.findFreeProperties(desiredStart, desiredEnd)
+                .map(ShortletAvailabilityServiceImpl::inPropertyOrder)
+                .orElseGet(() -> findFreePropertyIds(desiredStart, desiredEnd,
+                        ruleRepository.findPropertyIdsActiveBetween(desiredStart, desiredEnd)));
+        searchCache.putPropertyIds(desiredStart, desiredEnd, propertyIds, cacheVersion);
+        return holdRegistry.withoutHeld(propertyIds, desiredStart, desiredEnd);
+    }
+
+    @Override
+    public List<UUID> getAvailablePropertyIdsInRange(LocalDate desiredStart, LocalDate desiredEnd, int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+        if (size < 1 || size > maxSearchPageSize) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + maxSearchPageSize);
+        }
+        long offset = (long) page * size;
+        Optional<List<UUID>> cached = searchCache.getPropertyIds(desiredStart, desiredEnd);
+        if (cached.isPresent()) {
+            return slice(holdRegistry.withoutHeld(cached.get(), desiredStart, desiredEnd), offset, size);
+        }
+        long cacheVersion = searchCache.version();
+        Optional<List<UUID>> indexed = availabilityIndex.findFreeProperties(desiredStart, desiredEnd)
+                .map(ShortletAvailabilityServiceImpl::inPropertyOrder);
+        if (indexed.isPresent()) {
+            searchCache.putPropertyIds(desiredStart, desiredEnd, indexed.get(), cacheVersion);
+            return slice(holdRegistry.withoutHeld(indexed.get(), desiredStart, desiredEnd), offset, size);
+        }
+        List<UUID> ruleProperties = ruleRepository.findPropertyIdsActiveBetween(desiredStart, desiredEnd);
+        if (ruleProperties.isEmpty()) {
+            // Paged in SQL, so a held property leaves its page one short instead of shifting later pages
+            return holdRegistry.withoutHeld(availabilityRepository.findFreePropertyIdsInRange(desiredStart, desiredEnd, size, offset),
+                    desiredStart, desiredEnd);
+        }
+        // Rule-based properties are evaluated in memory, so page over the combined, ordered result
+        return slice(holdRegistry.withoutHeld(findFreePropertyIds(desiredStart, desiredEnd, ruleProperties),
+                desiredStart, desiredEnd), offset, size);
+    }
+
+    /**
+     * Properties whose rows together cover the range from the anti-join, plus the given properties with availability rules in
+     * the range evaluated against their rows, rules and bookings. Always in {@link #PROPERTY_ORDER}.
+     */
+    private List<UUID> findFreePropertyIds(LocalDate desiredStart, LocalDate desiredEnd, Collection<UUID> rulePropertyIds) {
+        List<UUID> propertyIds = availabilityRepository.findFreePropertyIdsInRange(desiredStart, desiredEnd);
+        Set<UUID> ruleProperties = new HashSet<>(rulePropertyIds);
+        propertyIds.forEach(ruleProperties::remove);
+        if (ruleProperties.isEmpty()) {
+            return inPropertyOrder(propertyIds);
+        }
+        List<UUID> combined = new ArrayList<>(propertyIds);
+        for (PropertyTimeline timeline : loadTimelines(ruleProperties, desiredStart).values()) {
+            if (timeline.isFree(desiredStart, desiredEnd)) {
+                combined.add(timeline.getPropertyId());
+            }
+        }
+        combined.sort(PROPERTY_ORDER);
+        return combined;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AvailabilityCheckDTO> checkAvailability(List<AvailabilityCheckDTO> checks) {
+        if (checks == null || checks.isEmpty()) {
+            return List.of();
+        }
+        if (checks.size() > maxCheckBatchSize) {
+            throw new IllegalArgumentException("At most " + maxCheckBatchSize + " availability checks are allowed per request");
+        }
+        Boolean[] results = new Boolean[checks.size()];
+        // Answer what the index already holds; collect the rest for two set-based queries
+        Set<UUID> misses = new HashSet<>();
+        LocalDate earliestMiss = null;
+        for (int i = 0; i < checks.size(); i++) {
+            AvailabilityCheckDTO check = checks.get(i);
+            if (check.getPropertyId() == null || check.getStartDate() == null || check.getEndDate() == null
+                    || check.getStartDate().isAfter(check.getEndDate())) {
+                results[i] = false;
+                continue;
+            }
+            Optional<PropertyTimeline> timeline = availabilityIndex.residentTimeline(check.getPropertyId(), check.getStartDate());
+            if (timeline.isPresent()) {
+                results[i] = timeline.get().isFree(check.getStartDate(), check.getEndDate());
+            } else {
+                misses.add(check.getPropertyId());
+                if (earliestMiss == null || check.getStartDate().isBefore(earliestMiss)) {
+                    earliestMiss = check.getStartDate();
+                }
+            }
+        }
+        if (!misses.isEmpty()) {
+            Map<UUID, PropertyTimeline> loaded = loadTimelines(misses, earliestMiss);
+            for (int i = 0; i < checks.size(); i++) {
+                if (results[i] == null) {
+                    AvailabilityCheckDTO check = checks.get(i);
+                    results[i] = loaded.get(check.getPropertyId()).isFree(check.getStartDate(), check.getEndDate());
+                }
+            }
+        }
+        List<AvailabilityCheckDTO> response = new ArrayList<>(checks.size());
+        for (int i = 0; i < checks.size(); i++) {
+            AvailabilityCheckDTO check = checks.get(i);
+            boolean available = results[i]
+                    && !holdRegistry.isHeld(check.getPropertyId(), check.getStartDate(), check.getEndDate(), null);
+            response.add(new AvailabilityCheckDTO(check.getPropertyId(), check.getStartDate(), check.getEndDate(), available));
+        }
+        return response;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<FlexibleAvailabilityDTO> findFlexibleAvailability(LocalDate windowStart, LocalDate windowEnd, int nights, boolean allStartDates) {
+        if (windowStart == null || windowEnd == null || windowStart.isAfter(windowEnd)) {
+            throw new IllegalArgumentException("Window start must be on or before window end");
+        }
+        if (nights < 1) {
+            throw new IllegalArgumentException("Stay length must be at least one night");
+        }
+        long windowDays = ChronoUnit.DAYS.between(windowStart, windowEnd);
+        if (windowDays > maxFlexibleWindowDays) {
+            throw new IllegalArgumentException("Search window cannot exceed " + maxFlexibleWindowDays + " days");
+        }
+        if (nights > windowDays) {
+            return List.of();
+        }
+        Collection<PropertyTimeline> timelines = availabilityIndex.allTimelines(windowStart)
+                .orElseGet(() -> loadWindowTimelines(windowStart, windowEnd));
+        List<FlexibleAvailabilityDTO> results = new ArrayList<>();
+        for (PropertyTimeline timeline : timelines) {
+            if (!timeline.hasAvailability()) {
+                continue;
+            }
+            List<LocalDate> starts = timeline.freeStartDates(windowStart, windowEnd, nights, !allStartDates);
+            if (!starts.isEmpty()) {
+                results.add(new FlexibleAvailabilityDTO(timeline.getPropertyId(), starts));
+            }
+        }
+        results.sort(Comparator.comparing((FlexibleAvailabilityDTO r) -> r.getStartDates().get(0))
+                .thenComparing(FlexibleAvailabilityDTO::getPropertyId));
+        return results;
+    }
+
+    /**
+     * Timelines for every property with availability rows or rules intersecting the window, from four queries.
+     */
+    private Collection<PropertyTimeline> loadWindowTimelines(LocalDate windowStart, LocalDate windowEnd) {
+        Map<UUID, List<ShortletAvailability>> availabilities = new HashMap<>();
+        for (ShortletAvailability availability : availabilityRepository
+                .findByStartDateLessThanEqualAndEndDateGreaterThanEqual(windowEnd, windowStart)) {
+            availabilities.computeIfAbsent(availability.getPropertyId(), id -> new ArrayList<>()).add(availability);
+        }
+        Map<UUID, AvailabilityRuleSet> rules = ruleLoader.activeBetween(windowStart, windowEnd);
+        Map<UUID, List<ShortletBooking>> bookings = new HashMap<>();
+        for (ShortletBooking booking : bookingRepository.findByStatusAndStartDateLessThanAndEndDateGreaterThan(
+                ShortletBooking.BookingStatus.ACCEPTED, windowEnd, windowStart)) {
+            bookings.computeIfAbsent(booking.getPropertyId(), id -> new ArrayList<>()).add(booking);
+        }
+        Set<UUID> propertyIds = new HashSet<>(availabilities.keySet());
+        propertyIds.addAll(rules.keySet());
+        List<PropertyTimeline> timelines = new ArrayList<>(propertyIds.size());
+        for (UUID propertyId : propertyIds) {
+            timelines.add(PropertyTimeline.of(propertyId, windowStart, availabilities.getOrDefault(propertyId, List.of()),
+                    rules.getOrDefault(propertyId, AvailabilityRuleSet.EMPTY), bookings.getOrDefault(propertyId, List.of())));
+        }
+        return timelines;
+    }
+
+    /**
+     * Builds throwaway timelines for the given properties from availability, rule and booking queries. Bookings
+     * ending on or before {@code floor} cannot overlap any stay starting on or after it, so they are not loaded.
+     */
+    private Map<UUID, PropertyTimeline> loadTimelines(Set<UUID> propertyIds, LocalDate floor) {
+        Map<UUID, List<ShortletAvailability>> availabilities = new HashMap<>();
+        for (ShortletAvailability availability : availabilityRepository.findByPropertyIdIn(propertyIds)) {
+            availabilities.computeIfAbsent(availability.getPropertyId(), id -> new ArrayList<>()).add(availability);
+        }
+        Map<UUID, AvailabilityRuleSet> rules = ruleLoader.forProperties(propertyIds);
+        Map<UUID, List<ShortletBooking>> bookings = new HashMap<>();
+        for (ShortletBooking booking : bookingRepository.findByPropertyIdInAndStatusAndEndDateAfter(
+                propertyIds, ShortletBooking.BookingStatus.ACCEPTED, floor)) {
+            bookings.computeIfAbsent(booking.getPropertyId(), id -> new ArrayList<>()).add(booking);
+        }
+        Map<UUID, PropertyTimeline> timelines = new HashMap<>();
+        for (UUID propertyId : propertyIds) {
+            timelines.put(propertyId, PropertyTimeline.of(propertyId, floor,
+                    availabilities.getOrDefault(propertyId, List.of()),
+                    rules.getOrDefault(propertyId, AvailabilityRuleSet.EMPTY),
+                    bookings.getOrDefault(propertyId, List.of())));
+        }
+        return timelines;
+    }
+
+    @Override
+    @Transactional
+    public ShortletAvailabilityRuleDTO setAvailabilityRule(UUID landlordId, ShortletAvailabilityRuleDTO dto) {
+        if (landlordId == null || dto == null || dto.getPropertyId() == null || dto.getStartDate() == null) {
+            throw new IllegalArgumentException("landlordId, propertyId and startDate are required");
+        }
+        if (dto.getEndDate() != null && dto.getStartDate().isAfter(dto.getEndDate())) {
+            throw new IllegalArgumentException("startDate must be before endDate");
+        }
+        validationService.validateListingOwnership(dto.getPropertyId(), landlordId);
+        propertyLockService.lock(dto.getPropertyId());
+
+        ShortletAvailabilityRule rule = new ShortletAvailabilityRule();
+        rule.setLandlordId(landlordId);
+        rule.setPropertyId(dto.getPropertyId());
+        rule.setDaysOfWeek(dto.getDaysOfWeek());
+        rule.setStartDate(dto.getStartDate());
+        rule.setEndDate(dto.getEndDate());
+        ShortletAvailabilityRule saved = ruleRepository.save(rule);
+        availabilityIndex.refreshAfterCommit(saved.getPropertyId(), saved.getStartDate(), ruleEnd(saved));
+        return toDTO(saved, List.of());
+    }
+
+    @Override
+    public List<ShortletAvailabilityRuleDTO> getAvailabilityRules(UUID landlordId, UUID propertyId) {
+        if (landlordId == null || propertyId == null) {
+            throw new IllegalArgumentException("landlordId and propertyId cannot be null");
+        }
+        List<ShortletAvailabilityRule> rules = ruleRepository.findByLandlordIdAndPropertyId(landlordId, propertyId);
+        if (rules.isEmpty()) {
             return List.of();
         }
-        // Step 2: Exclude properties that have an ACCEPTED booking overlapping the requested range
-        List<UUID> bookedPropertyIds = bookingRepository.findAcceptedBookedPropertyIdsInRange(desiredStart, desiredEnd);
-        // Step 3: Return only those that are available and not booked
-        return availablePropertyIds.stream()
-                .filter(id -> !bookedPropertyIds.contains(id))
+        Map<UUID, List<ShortletAvailabilityException>> exceptions = exceptionRepository
+                .findByRuleIdIn(rules.stream().map(ShortletAvailabilityRule::getId).collect(Collectors.toList()))
+                .stream().collect(Collectors.groupingBy(ShortletAvailabilityException::getRuleId));
+        return rules.stream()
+                .map(rule -> toDTO(rule, exceptions.getOrDefault(rule.getId(), List.of())))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional
+    public void deleteAvailabilityRule(UUID landlordId, UUID ruleId) {
+        ShortletAvailabilityRule rule = findOwnedRule(landlordId, ruleId);
+        propertyLockService.lock(rule.getPropertyId());
+        exceptionRepository.deleteByRuleId(rule.getId());
+        ruleRepository.delete(rule);
+        availabilityIndex.refreshAfterDelete(rule.getPropertyId(), rule.getStartDate(), ruleEnd(rule));
+    }
+
+    @Override
+    @Transactional
+    public ShortletAvailabilityRuleDTO addAvailabilityException(UUID landlordId, UUID ruleId, LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("startDate must be before endDate");
+        }
+        ShortletAvailabilityRule rule = findOwnedRule(landlordId, ruleId);
+        propertyLockService.lock(rule.getPropertyId());
+        ShortletAvailabilityException exception = new ShortletAvailabilityException();
+        exception.setRuleId(rule.getId());
+        exception.setStartDate(startDate);
+        exception.setEndDate(endDate);
+        exceptionRepository.save(exception);
+        availabilityIndex.refreshAfterCommit(rule.getPropertyId(), startDate, endDate);
+        return toDTO(rule, exceptionRepository.findByRuleId(rule.getId()));
+    }
+
+    @Override
+    @Transactional
+    public void deleteAvailabilityException(UUID landlordId, UUID ruleId, UUID exceptionId) {
+        ShortletAvailabilityRule rule = findOwnedRule(landlordId, ruleId);
+        ShortletAvailabilityException exception = exceptionRepository.findById(exceptionId)
+                .filter(e -> e.getRuleId().equals(rule.getId()))
+                .orElseThrow(() -> new IllegalArgumentException("Exception not found for the provided rule"));
+        propertyLockService.lock(rule.getPropertyId());
+        exceptionRepository.delete(exception);
+        availabilityIndex.refreshAfterDelete(rule.getPropertyId(), exception.getStartDate(), exception.getEndDate());
+    }
+
+    private ShortletAvailabilityRule findOwnedRule(UUID landlordId, UUID ruleId) {
+        if (landlordId == null || ruleId == null) {
+            throw new IllegalArgumentException("landlordId and ruleId cannot be null");
+        }
+        ShortletAvailabilityRule rule = ruleRepository.findById(ruleId)
+                .orElseThrow(() -> new IllegalArgumentException("Availability rule not found for the provided ID"));
+        if (!rule.getLandlordId().equals(landlordId)) {
+            throw new IllegalArgumentException("Availability rule does not belong to this landlord");
+        }
+        return rule;
+    }
+
+    // Open-ended rules affect every search from their start date on
+    private static LocalDate ruleEnd(ShortletAvailabilityRule rule) {
+        return rule.getEndDate() != null ? rule.getEndDate() : LocalDate.MAX;
+    }
+
+    private static List<UUID> inPropertyOrder(List<UUID> ids) {
+        List<UUID> sorted = new ArrayList<>(ids);
+        sorted.sort(PROPERTY_ORDER);
+        return sorted;
+    }
+
+    private static List<UUID> slice(List<UUID> ids, long offset, int size) {
+        if (offset >= ids.size()) {
+            return List.of();
+        }
+        return ids.subList((int) offset, (int) Math.min(ids.size(), offset + size));
+    }
+
     private ShortletAvailabilityDTO toDTO(ShortletAvailability availability) {
         ShortletAvailabilityDTO dto = new ShortletAvailabilityDTO();
         dto.setId(availability.getId());
@@ -149,4 +635,18 @@ public class ShortletAvailabilityServiceImpl implements ShortletAvailabilityServ
         dto.setLandlordId(availability.getLandlordId());
         return dto;
     }
+
+    private ShortletAvailabilityRuleDTO toDTO(ShortletAvailabilityRule rule, List<ShortletAvailabilityException> exceptions) {
+        ShortletAvailabilityRuleDTO dto = new ShortletAvailabilityRuleDTO();
+        dto.setId(rule.getId());
+        dto.setLandlordId(rule.getLandlordId());
+        dto.setPropertyId(rule.getPropertyId());
+        dto.setDaysOfWeek(rule.getDaysOfWeek());
+        dto.setStartDate(rule.getStartDate());
+        dto.setEndDate(rule.getEndDate());
+        dto.setExceptions(exceptions.stream()
+                .map(e -> new ShortletAvailabilityExceptionDTO(e.getId(), e.getStartDate(), e.getEndDate()))
+                .collect(Collectors.toList()));
+        return dto;
+    }
 }
@@ -1,26 +1,41 @@
 package dev.visitingservice.service.impl;
 
+import dev.visitingservice.dto.PaymentStatusEventDTO;
 import dev.visitingservice.dto.ShortletBookingDTO;
+import dev.visitingservice.exception.BookingConflictException;
 import dev.visitingservice.exception.ExternalServiceException;
 import dev.visitingservice.model.ShortletBooking;
 import dev.visitingservice.model.ShortletBooking.BookingStatus;
 import dev.visitingservice.model.ShortletAvailability;
 import dev.visitingservice.repository.ShortletBookingRepository;
 import dev.visitingservice.repository.ShortletAvailabilityRepository;
+import dev.visitingservice.service.AvailabilityCompactionService;
 import dev.visitingservice.service.BookingEventProducerService;
 import dev.visitingservice.service.BookingValidationService;
 import dev.visitingservice.service.NotificationPublisher;
+import dev.visitingservice.service.PropertyLockService;
 import dev.visitingservice.service.ShortletBookingService;
+import dev.visitingservice.service.index.AvailabilityRuleLoader;
+import dev.visitingservice.service.index.ShortletAvailabilityIndex;
+import dev.visitingservice.util.TransactionCallbacks;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -30,6 +45,8 @@ import java.util.stream.Collectors;
 public class ShortletBookingServiceImpl implements ShortletBookingService {
 
     private static final Logger logger = LoggerFactory.getLogger(ShortletBookingServiceImpl.class);
+    // Exclusion constraint from V15 rejecting overlapping ACCEPTED bookings of a property
+    private static final String OVERLAP_CONSTRAINT = "excl_accepted_booking_overlap";
 
     // Add a small result type for tracking new vs existing bookings
     public record BookingResult(ShortletBookingDTO dto, boolean isNew) {}
@@ -40,6 +57,10 @@ public class ShortletBookingServiceImpl implements ShortletBookingService {
     private final BookingEventProducerService eventProducer;
     private final BookingValidationService bookingValidationService;
     private final BookingBusinessRuleValidator businessRuleValidator;
+    private final ShortletAvailabilityIndex availabilityIndex;
+    private final AvailabilityCompactionService compactionService;
+    private final AvailabilityRuleLoader ruleLoader;
+    private final PropertyLockService propertyLockService;
 
     @Autowired
     public ShortletBookingServiceImpl(ShortletBookingRepository bookingRepository,
@@ -47,13 +68,21 @@ public class ShortletBookingServiceImpl implements ShortletBookingService {
                                       NotificationPublisher notificationPublisher,
                                       BookingEventProducerService eventProducer,
                                       BookingValidationService bookingValidationService,
-                                      BookingBusinessRuleValidator businessRuleValidator) {
+                                      BookingBusinessRuleValidator businessRuleValidator,
+                                      ShortletAvailabilityIndex availabilityIndex,
+                                      AvailabilityCompactionService compactionService,
+                                      AvailabilityRuleLoader ruleLoader,
+                                      PropertyLockService propertyLockService) {
         this.bookingRepository = bookingRepository;
         this.availabilityRepository = availabilityRepository;
         this.notificationPublisher = notificationPublisher;
         this.eventProducer = eventProducer;
         this.bookingValidationService = bookingValidationService;
         this.businessRuleValidator = businessRuleValidator;
+        this.availabilityIndex = availabilityIndex;
+        this.compactionService = compactionService;
+        this.ruleLoader = ruleLoader;
+        this.propertyLockService = propertyLockService;
 
         // Validate critical microservice dependencies at startup
         if (eventProducer == null) {
@@ -69,13 +98,37 @@ public class ShortletBookingServiceImpl implements ShortletBookingService {
                                           String lastName, String phoneNumber, Integer guestNumber,
                                           String email, Double amount, String currency,
                                           String sessionId, String userAgent, String sourceIP) {
+        validateNewBooking(tenantId, landlordId, propertyId, startDate, endDate, email, amount);
+        return createValidatedBooking(tenantId, landlordId, propertyId, startDate, endDate, firstName, lastName,
+                phoneNumber, guestNumber, email, amount, currency, sessionId, userAgent, sourceIP);
+    }
 
+    /**
+     * Input checks and the remote user and listing lookups of a new booking. Needs neither a transaction nor the
+     * property's mailbox, so callers run it before queueing the booking behind the property's other writes.
+     */
+    public void validateNewBooking(UUID tenantId, UUID landlordId, UUID propertyId, LocalDate startDate,
+                                   LocalDate endDate, String email, Double amount) {
         // ===== PHASE 1: COMPREHENSIVE INPUT VALIDATION (FAST FAIL) =====
         validateBasicInputs(tenantId, landlordId, propertyId, startDate, endDate, email, amount);
 
         // ===== PHASE 2: EXTERNAL SYSTEM VALIDATION (WITH RETRY) =====
         // No transaction needed - external calls only
         validateExternalDependencies(tenantId, landlordId, propertyId);
+    }
+
+    /**
+     * The part of {@link #createBooking} that must be serialised per property: the locked rule check, the insert and
+     * its outbox events. For requests that already passed {@link #validateNewBooking}.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public ShortletBookingDTO createValidatedBooking(UUID tenantId, UUID landlordId, UUID propertyId,
+                                                     LocalDate startDate, LocalDate endDate, String firstName,
+                                                     String lastName, String phoneNumber, Integer guestNumber,
+                                                     String email, Double amount, String currency,
+                                                     String sessionId, String userAgent, String sourceIP) {
+        // Cheap, and guards commands forwarded by another instance
+        validateBasicInputs(tenantId, landlordId, propertyId, startDate, endDate, email, amount);
 
         // ===== PHASE 3: BUSINESS RULE VALIDATION (WITH SEPARATE TRANSACTION FOR LOCKING) =====
         businessRuleValidator.validateWithLocking(landlordId, propertyId, startDate, endDate, tenantId);
@@ -87,9 +140,9 @@ public class ShortletBookingServiceImpl implements ShortletBookingService {
             email, amount, currency
         );
 
-        // ===== PHASE 5: POST-CREATION EVENTS (OUTSIDE TRANSACTION) - ONLY FOR NEW BOOKINGS =====
+        // ===== PHASE 5: POST-CREATION EVENTS (OUTBOX, SAME TRANSACTION) - ONLY FOR NEW BOOKINGS =====
         if (result.isNew()) {
-            publishBookingEventsAsync(result.dto(), sessionId, userAgent, sourceIP);
+            publishBookingEvents(result.dto(), sessionId, userAgent, sourceIP);
         } else {
             logger.info("🔄 Skipping event publishing for duplicate booking: {}", result.dto().getId());
         }
@@ -234,47 +287,43 @@ public class ShortletBookingServiceImpl implements ShortletBookingService {
     }
 
     /**
-     * Publishes events asynchronously to avoid impacting the main transaction.
-     * Events are sent after successful booking creation but won't cause rollback if they fail.
+     * Writes the booking events to the outbox in the booking's transaction, so they are published exactly when the
+     * booking commits. The outbox relay sends them to Kafka afterwards. A failed outbox write fails the booking, since
+     * it leaves the transaction unable to commit anyway.
      */
-    private void publishBookingEventsAsync(ShortletBookingDTO booking, String sessionId, String userAgent, String sourceIP) {
-        // Use CompletableFuture to publish events asynchronously
-        CompletableFuture.runAsync(() -> publishBookingEvents(booking, sessionId, userAgent, sourceIP))
-            .exceptionally(throwable -> {
-                logger.error("❌ Async event publishing failed for booking: {} - {}",
-                           booking.getId(), throwable.getMessage());
-                return null;
-            });
-    }
-
     private void publishBookingEvents(ShortletBookingDTO booking, String sessionId, String userAgent, String sourceIP) {
         try {
-            // Send BOOKING_INITIATED event for tracking
+            // Send BOOKING_INITIATED event for tracking; it bypasses the outbox and is not needed downstream
             eventProducer.sendBookingInitiatedWithContext(
                 booking.getTenantId(), booking.getLandlordId(), booking.getPropertyId(),
                 booking.getStartDate(), booking.getEndDate(), sessionId, userAgent, sourceIP,
                 null, null, booking.getTenantEmail(), booking.getTotalAmount(), booking.getCurrency()
             );
-
-            // Send BOOKING_CREATED event for downstream processing
-            eventProducer.sendBookingCreated(booking);
-
-            logger.debug("✅ Booking events published successfully for booking: {}", booking.getId());
-
         } catch (Exception e) {
-            logger.error("❌ Failed to publish booking events for booking: {} - {}", booking.getId(), e.getMessage());
-            // Don't fail the entire transaction for event publishing failures
-            // The booking has already been successfully created
+            logger.error("❌ Failed to publish booking initiated event for booking: {} - {}", booking.getId(), e.getMessage());
         }
 
-        // Send notification email (non-critical)
-        try {
-            ShortletBooking bookingEntity = bookingRepository.findById(booking.getId())
-                .orElseThrow(() -> new IllegalStateException("Booking not found after creation"));
-            notificationPublisher.sendBookingCreated(bookingEntity);
-        } catch (Exception e) {
-            logger.warn("⚠️ Failed to send booking notification email: {}", e.getMessage());
-        }
+        // Send BOOKING_CREATED event for downstream processing
+        eventProducer.sendBookingCreated(booking);
+        logger.debug("✅ Booking events published successfully for booking: {}", booking.getId());
+
+        // Supplementary: Email only once the booking is committed, outside its transaction and mailbox
+        emailAfterCommit(() -> bookingRepository.findById(booking.getId())
+                .ifPresent(notificationPublisher::sendBookingCreated));
+    }
+
+    /**
+     * Sends an email on a virtual thread once the current transaction commits, so neither SMTP nor the recipient
+     * lookups hold the transaction or the property's mailbox, and a rolled-back change sends nothing.
+     */
+    private void emailAfterCommit(Runnable send) {
+        TransactionCallbacks.afterCommit(() -> Thread.ofVirtual().name("booking-email").start(() -> {
+            try {
+                send.run();
+            } catch (Exception e) {
+                logger.warn("⚠️ Failed to send booking notification email: {}", e.getMessage());
+            }
+        }));
     }
 
     @Override
@@ -359,6 +408,11 @@ public class ShortletBookingServiceImpl implements ShortletBookingService {
                 .collect(Collectors.toList());
     }
 
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.contains(OVERLAP_CONSTRAINT);
+    }
+
     private boolean isAllowedTransition(BookingStatus from, BookingStatus to) {
         return switch (from) {
             case PENDING -> to == BookingStatus.ACCEPTED || to == BookingStatus.REJECTED || to == BookingStatus.CANCELLED || to == BookingStatus.RESCHEDULED;
@@ -382,57 +436,94 @@ public class ShortletBookingServiceImpl implements ShortletBookingService {
         if (booking.getStartDate().isBefore(LocalDate.now())) {
             throw new IllegalStateException("Cannot accept a booking that starts in the past");
         }
-        // Block the dates by removing the availability slot that covers this booking
-        List<ShortletAvailability> availabilities = availabilityRepository.findByLandlordIdAndPropertyId(booking.getLandlordId(), booking.getPropertyId());
-        Optional<ShortletAvailability> covering = availabilities.stream()
-                .filter(a -> !a.getStartDate().isAfter(booking.getStartDate()) && !a.getEndDate().isBefore(booking.getEndDate()))
-                .findFirst();
-        if (covering.isEmpty()) {
+        // Optimistic: no lock is taken here. The exclusion constraint on ACCEPTED bookings rejects a concurrent
+        // accept of overlapping dates when the status update is flushed below
+        if (bookingRepository.existsByPropertyIdAndStatusAndStartDateLessThanAndEndDateGreaterThan(
+                booking.getPropertyId(), BookingStatus.ACCEPTED, booking.getEndDate(), booking.getStartDate())) {
+            throw new BookingConflictException("Requested dates conflict with existing accepted booking");
+        }
+        // Only the overlap check above is optimistic. Splitting availability rewrites rows that setAvailability,
+        // rule writes, compaction and accepts of other stays in the same row rewrite too, so it runs under the
+        // property's lock, or under row locks in row mode
+        List<ShortletAvailability> availabilities;
+        if (propertyLockService.isPropertyMode()) {
+            propertyLockService.lock(booking.getPropertyId());
+            availabilities = availabilityRepository.findByLandlordIdAndPropertyIdAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
+                    booking.getLandlordId(), booking.getPropertyId(), booking.getEndDate(), booking.getStartDate());
+        } else {
+            availabilities = availabilityRepository.findByLandlordIdAndPropertyIdWithLock(booking.getLandlordId(), booking.getPropertyId())
+                    .stream()
+                    .filter(a -> !a.getStartDate().isAfter(booking.getEndDate()) && !a.getEndDate().isBefore(booking.getStartDate()))
+                    .collect(Collectors.toList());
+        }
+        boolean covered = availabilities.stream()
+                .anyMatch(a -> !a.getStartDate().isAfter(booking.getStartDate()) && !a.getEndDate().isBefore(booking.getEndDate()))
+                || ruleLoader.forProperty(booking.getLandlordId(), booking.getPropertyId())
+                        .covers(availabilities, booking.getStartDate(), booking.getEndDate());
+        if (!covered) {
             throw new IllegalStateException("No availability found for these dates");
         }
-        ShortletAvailability availability = covering.get();
-        // Split or remove the availability slot
-        if (availability.getStartDate().isBefore(booking.getStartDate())) {
-            ShortletAvailability before = new ShortletAvailability();
-            before.setLandlordId(availability.getLandlordId());
-            before.setPropertyId(availability.getPropertyId());
-            before.setStartDate(availability.getStartDate());
-            before.setEndDate(booking.getStartDate().minusDays(1));
-            availabilityRepository.save(before);
-        }
-        if (availability.getEndDate().isAfter(booking.getEndDate())) {
-            ShortletAvailability after = new ShortletAvailability();
-            after.setLandlordId(availability.getLandlordId());
-            after.setPropertyId(availability.getPropertyId());
-            after.setStartDate(booking.getEndDate().plusDays(1));
-            after.setEndDate(availability.getEndDate());
-            availabilityRepository.save(after);
-        }
-        availabilityRepository.deleteById(availability.getId());
         booking.setStatus(BookingStatus.ACCEPTED);
-        bookingRepository.save(booking);
-
-        // Reject overlapping bookings
-        List<ShortletBooking> overlappingPending = bookingRepository.findByLandlordId(booking.getLandlordId()).stream()
-                .filter(b -> b.getPropertyId().equals(booking.getPropertyId()))
-                .filter(b -> b.getStatus() == BookingStatus.PENDING)
-                .filter(b -> !b.getId().equals(booking.getId())) // FIX: Use .equals() for UUID comparison
-                .filter(b -> b.getStartDate().isBefore(booking.getEndDate()) && b.getEndDate().isAfter(booking.getStartDate()))
-                .collect(Collectors.toList());
-        for (ShortletBooking pending : overlappingPending) {
-            String pendingPreviousStatus = pending.getStatus().name(); // FIX: Use different variable name
-            pending.setStatus(BookingStatus.REJECTED);
-            bookingRepository.save(pending);
-
-            // CRITICAL: Notify other microservices of rejection with correct previous status
-            eventProducer.sendBookingRejected(toDTO(pending), pendingPreviousStatus); // pendingPreviousStatus is "PENDING"
-
-            // Supplementary: Send email to users
-            try {
-                notificationPublisher.sendBookingRejected(pending);
-            } catch (Exception e) {
-                logger.warn("Failed to send rejection email: {}", e.getMessage());
+        try {
+            bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                logger.info("⚔️ Booking {} lost an accept race for property {}", bookingId, booking.getPropertyId());
+                throw new BookingConflictException("Requested dates conflict with existing accepted booking", e);
+            }
+            throw e;
+        }
+        // Block the dates by cutting them out of every availability row they touch; rule-based days are not split,
+        // the accepted booking itself blocks them
+        for (ShortletAvailability availability : availabilities) {
+            if (availability.getStartDate().isBefore(booking.getStartDate())) {
+                ShortletAvailability before = new ShortletAvailability();
+                before.setLandlordId(availability.getLandlordId());
+                before.setPropertyId(availability.getPropertyId());
+                before.setStartDate(availability.getStartDate());
+                before.setEndDate(booking.getStartDate().minusDays(1));
+                availabilityRepository.save(before);
+            }
+            if (availability.getEndDate().isAfter(booking.getEndDate())) {
+                ShortletAvailability after = new ShortletAvailability();
+                after.setLandlordId(availability.getLandlordId());
+                after.setPropertyId(availability.getPropertyId());
+                after.setStartDate(booking.getEndDate().plusDays(1));
+                after.setEndDate(availability.getEndDate());
+                availabilityRepository.save(after);
             }
+            availabilityRepository.deleteById(availability.getId());
+        }
+        if (!availabilities.isEmpty()) {
+            // The fragments may now touch neighbouring rows
+            compactionService.compact(booking.getLandlordId(), booking.getPropertyId());
+        }
+        availabilityIndex.refreshAfterCommit(booking.getPropertyId(), booking.getStartDate(), booking.getEndDate());
+
+        // Reject overlapping pending requests in one statement instead of saving them one by one
+        List<ShortletBooking> overlappingPending = bookingRepository
+                .findByPropertyIdAndStatusAndIdNotAndStartDateLessThanAndEndDateGreaterThan(booking.getPropertyId(),
+                        BookingStatus.PENDING, booking.getId(), booking.getEndDate(), booking.getStartDate());
+        if (!overlappingPending.isEmpty()) {
+            List<UUID> ids = overlappingPending.stream().map(ShortletBooking::getId).collect(Collectors.toList());
+            int rejected = bookingRepository.updateStatusByIdIn(ids, BookingStatus.PENDING, BookingStatus.REJECTED,
+                    OffsetDateTime.now(ZoneOffset.UTC));
+            logger.info("🚫 Auto-rejected {} pending bookings overlapping accepted booking {}", rejected, bookingId);
+            // The update cleared the persistence context, so these copies are detached and only feed events and emails
+            overlappingPending.forEach(pending -> pending.setStatus(BookingStatus.REJECTED));
+
+            // CRITICAL: Notify other microservices of all rejections in one transaction
+            eventProducer.sendBookingsRejected(overlappingPending.stream().map(this::toDTO).collect(Collectors.toList()),
+                    BookingStatus.PENDING.name());
+
+            // Supplementary: Email the tenants once the rejection is committed, off the accept path
+            emailAfterCommit(() -> overlappingPending.forEach(pending -> {
+                try {
+                    notificationPublisher.sendBookingRejected(pending);
+                } catch (Exception e) {
+                    logger.warn("Failed to send rejection email: {}", e.getMessage());
+                }
+            }));
         }
 
         // CRITICAL: Send BOOKING_ACCEPTED event - triggers payment processing, calendar updates, etc.
@@ -494,6 +585,7 @@ public class ShortletBookingServiceImpl implements ShortletBookingService {
         }
         booking.setStatus(BookingStatus.CANCELLED);
         bookingRepository.save(booking);
+        availabilityIndex.refreshAfterCommit(booking.getPropertyId(), booking.getStartDate(), booking.getEndDate());
 
         // CRITICAL: Send BOOKING_CANCELLED event - triggers refund processing, availability restoration, etc.
         eventProducer.sendBookingCancelled(toDTO(booking), previousStatus);
@@ -550,6 +642,9 @@ public class ShortletBookingServiceImpl implements ShortletBookingService {
         booking.setStatus(BookingStatus.RESCHEDULED);
 
         ShortletBooking updated = bookingRepository.save(booking);
+        availabilityIndex.refreshAfterCommit(updated.getPropertyId(),
+                previousStartDate.isBefore(newStartDate) ? previousStartDate : newStartDate,
+                previousEndDate.isAfter(newEndDate) ? previousEndDate : newEndDate);
 
         // CRITICAL: Send BOOKING_RESCHEDULED event - triggers availability updates, calendar sync, etc.
         eventProducer.sendBookingRescheduled(toDTO(updated), previousStartDate, previousEndDate);
@@ -572,6 +667,64 @@ public class ShortletBookingServiceImpl implements ShortletBookingService {
 
         String previousPaymentStatus = booking.getPaymentStatus() != null ? booking.getPaymentStatus().name() : null;
 
+        applyPayment(booking, paymentStatus, paymentReference, paymentAmount);
+        bookingRepository.save(booking);
+
+        // CRITICAL: Send BOOKING_PAYMENT_UPDATED event - triggers financial reconciliation, reporting, etc.
+        eventProducer.sendBookingPaymentUpdated(toDTO(booking), previousPaymentStatus);
+
+        return toDTO(booking);
+    }
+
+    /**
+     * Applies a batch of payment-service updates in one transaction: one query loads every referenced booking, one
+     * batched write stores them and their BOOKING_PAYMENT_UPDATED events. Updates are applied in order, so the last
+     * update for a booking wins. Updates for unknown bookings or with an invalid status are logged and skipped,
+     * since redelivering them would not change the outcome.
+     *
+     * @return the number of bookings updated
+     */
+    @Override
+    @Transactional
+    public int updateBookingPayments(List<PaymentStatusEventDTO> updates) {
+        Set<UUID> ids = updates.stream().map(PaymentStatusEventDTO::getBookingId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Map<UUID, ShortletBooking> bookings = bookingRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(ShortletBooking::getId, booking -> booking));
+
+        Map<UUID, String> previousPaymentStatuses = new HashMap<>();
+        Map<UUID, ShortletBooking> updated = new LinkedHashMap<>();
+        for (PaymentStatusEventDTO update : updates) {
+            ShortletBooking booking = bookings.get(update.getBookingId());
+            if (booking == null) {
+                logger.warn("Skipping payment update for unknown booking {}", update.getBookingId());
+                continue;
+            }
+            String previousPaymentStatus = booking.getPaymentStatus() != null ? booking.getPaymentStatus().name() : null;
+            try {
+                applyPayment(booking, update.getPaymentStatus(), update.getPaymentReference(), update.getPaymentAmount());
+            } catch (IllegalArgumentException e) {
+                logger.warn("Skipping payment update for booking {}: {}", booking.getId(), e.getMessage());
+                continue;
+            }
+            previousPaymentStatuses.putIfAbsent(booking.getId(), previousPaymentStatus);
+            updated.put(booking.getId(), booking);
+        }
+        if (updated.isEmpty()) {
+            return 0;
+        }
+        bookingRepository.saveAll(updated.values());
+
+        eventProducer.sendBookingPaymentsUpdated(
+                updated.values().stream().map(this::toDTO).collect(Collectors.toList()), previousPaymentStatuses);
+        return updated.size();
+    }
+
+    // The status is checked first, so an invalid update leaves the booking untouched
+    private void applyPayment(ShortletBooking booking, String paymentStatus, String paymentReference, Double paymentAmount) {
         if (paymentStatus != null) {
             try {
                 booking.setPaymentStatus(ShortletBooking.PaymentStatus.valueOf(paymentStatus));
@@ -585,12 +738,6 @@ public class ShortletBookingServiceImpl implements ShortletBookingService {
         if (paymentAmount != null) {
             booking.setPaymentAmount(java.math.BigDecimal.valueOf(paymentAmount));
         }
-        bookingRepository.save(booking);
-
-        // CRITICAL: Send BOOKING_PAYMENT_UPDATED event - triggers financial reconciliation, reporting, etc.
-        eventProducer.sendBookingPaymentUpdated(toDTO(booking), previousPaymentStatus);
-
-        return toDTO(booking);
     }
 
     @Override
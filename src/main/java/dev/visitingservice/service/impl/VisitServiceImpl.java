@@ -7,6 +7,7 @@ import dev.visitingservice.repository.AvailabilitySlotRepository;
 import dev.visitingservice.model.AvailabilitySlot;
 import dev.visitingservice.exception.SlotUnavailableException;
 import dev.visitingservice.exception.InvalidRequestException;
+import dev.visitingservice.service.AvailabilitySlotService;
 import dev.visitingservice.service.VisitService;
 import dev.visitingservice.service.NotificationPublisher;
 import dev.visitingservice.service.VisitValidationService;
@@ -33,6 +34,9 @@ public class VisitServiceImpl implements VisitService {
     @Autowired
     private AvailabilitySlotRepository slotRepository;
 
+    @Autowired
+    private AvailabilitySlotService slotService;
+
     @Autowired
     private NotificationPublisher notificationPublisher;
 
@@ -53,13 +57,19 @@ public class VisitServiceImpl implements VisitService {
         if (slotId == null) {
             throw new InvalidRequestException("slotId is required");
         }
-        AvailabilitySlot slot = slotRepository.findById(slotId)
-            .orElseThrow(() -> new InvalidRequestException("Slot not found: " + slotId));
-        if (slot.isBooked()) {
-            throw new SlotUnavailableException("Slot is already booked");
+        AvailabilitySlot slot = slotRepository.findById(slotId).orElse(null);
+        if (slot == null) {
+            // Slots expanded from a recurring template are only stored once claimed
+            slot = slotService.claimTemplateSlot(visit.getPropertyId(), slotId)
+                .orElseThrow(() -> new InvalidRequestException("Slot not found: " + slotId));
+            visit.setSlotId(slot.getId());
+        } else {
+            if (slot.isBooked()) {
+                throw new SlotUnavailableException("Slot is already booked");
+            }
+            slot.setBooked(true);
+            slotRepository.save(slot);
         }
-        slot.setBooked(true);
-        slotRepository.save(slot);
 
         // set visit timing from slot
         visit.setScheduledAt(slot.getStartTime());
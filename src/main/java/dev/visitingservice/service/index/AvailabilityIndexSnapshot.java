@@ -0,0 +1,122 @@
+package dev.visitingservice.service.index;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Memory-mapped file holding every resident {@link PropertyTimeline} as of a watermark, so a restarting instance
+ * can install the index from disk and reload only the properties written since instead of every row.
+ *
+ * Timelines are stored as their coalesced availability and booked runs plus the rule definitions; the bitmaps are
+ * derived from those again on read. The file is written next to its final path and moved into place atomically, so
+ * a reader only ever sees a complete snapshot; the header checksum catches anything else.
+ */
+final class AvailabilityIndexSnapshot {
+
+    private static final int MAGIC = 0x41564958; // "AVIX"
+    private static final int VERSION = 1;
+    // magic, version, watermark, floor day, horizon days, timeline count, checksum
+    private static final int HEADER_BYTES = 2 * Integer.BYTES + Long.BYTES + 3 * Integer.BYTES + Long.BYTES;
+
+    record Contents(Instant watermark, int floorDay, int horizonDays, List<PropertyTimeline> timelines) {}
+
+    private AvailabilityIndexSnapshot() {
+    }
+
+    static void write(Path path, Instant watermark, int floorDay, int horizonDays,
+                      Collection<PropertyTimeline> timelines) throws IOException {
+        List<PropertyTimeline> snapshot = List.copyOf(timelines);
+        long size = HEADER_BYTES;
+        for (PropertyTimeline timeline : snapshot) {
+            size += timeline.snapshotBytes();
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Availability index snapshot too large: " + size + " bytes");
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.position(HEADER_BYTES);
+            for (PropertyTimeline timeline : snapshot) {
+                timeline.writeTo(buffer);
+            }
+            buffer.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, watermark.toEpochMilli())
+                    .putInt(16, floorDay).putInt(20, horizonDays).putInt(24, snapshot.size())
+                    .putLong(28, checksum(buffer));
+            buffer.force();
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the snapshot at {@code path}, or empty when there is none. Throws when the file exists but was written
+     * by another format version or is damaged.
+     */
+    static Optional<Contents> read(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Availability index snapshot has invalid size " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Availability index snapshot has unknown format");
+            }
+            if (buffer.getLong(28) != checksum(buffer)) {
+                throw new IOException("Availability index snapshot checksum mismatch");
+            }
+            Instant watermark = Instant.ofEpochMilli(buffer.getLong(8));
+            int floorDay = buffer.getInt(16);
+            int horizonDays = buffer.getInt(20);
+            int count = buffer.getInt(24);
+            buffer.position(HEADER_BYTES);
+            List<PropertyTimeline> timelines = new ArrayList<>(Math.max(0, Math.min(count, buffer.remaining())));
+            try {
+                for (int i = 0; i < count; i++) {
+                    timelines.add(PropertyTimeline.readFrom(buffer, horizonDays));
+                }
+            } catch (RuntimeException e) {
+                throw new IOException("Availability index snapshot is truncated", e);
+            }
+            return Optional.of(new Contents(watermark, floorDay, horizonDays, timelines));
+        }
+    }
+
+    /**
+     * Reads an element count and checks that that many elements of {@code elementBytes} can still follow, so a
+     * damaged count fails fast instead of allocating a huge array.
+     */
+    static int readCount(ByteBuffer buffer, int elementBytes) {
+        int count = buffer.getInt();
+        if (count < 0 || (long) count * elementBytes > buffer.remaining()) {
+            throw new IllegalStateException("Invalid element count in availability index snapshot: " + count);
+        }
+        return count;
+    }
+
+    private static long checksum(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(HEADER_BYTES, buffer.limit() - HEADER_BYTES));
+        return crc.getValue();
+    }
+}
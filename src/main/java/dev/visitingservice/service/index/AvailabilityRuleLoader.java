@@ -0,0 +1,96 @@
+package dev.visitingservice.service.index;
+
+import dev.visitingservice.model.ShortletAvailabilityException;
+import dev.visitingservice.model.ShortletAvailabilityRule;
+import dev.visitingservice.repository.ShortletAvailabilityExceptionRepository;
+import dev.visitingservice.repository.ShortletAvailabilityRuleRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Loads availability rules together with their exceptions in two queries and evaluates them per property.
+ */
+@Component
+public class AvailabilityRuleLoader {
+
+    private final ShortletAvailabilityRuleRepository ruleRepository;
+    private final ShortletAvailabilityExceptionRepository exceptionRepository;
+
+    public AvailabilityRuleLoader(ShortletAvailabilityRuleRepository ruleRepository,
+                                  ShortletAvailabilityExceptionRepository exceptionRepository) {
+        this.ruleRepository = ruleRepository;
+        this.exceptionRepository = exceptionRepository;
+    }
+
+    public AvailabilityRuleSet forProperty(UUID propertyId) {
+        return evaluate(ruleRepository.findByPropertyId(propertyId));
+    }
+
+    public AvailabilityRuleSet forProperty(UUID landlordId, UUID propertyId) {
+        return evaluate(ruleRepository.findByLandlordIdAndPropertyId(landlordId, propertyId));
+    }
+
+    /**
+     * Like {@link #forProperty(UUID, UUID)} but locks the rule rows, so that properties with rule-only availability
+     * serialise booking validation the same way availability rows do.
+     */
+    public AvailabilityRuleSet forPropertyWithLock(UUID landlordId, UUID propertyId) {
+        return evaluate(ruleRepository.findByLandlordIdAndPropertyIdWithLock(landlordId, propertyId));
+    }
+
+    public Map<UUID, AvailabilityRuleSet> forProperties(Collection<UUID> propertyIds) {
+        if (propertyIds.isEmpty()) {
+            return Map.of();
+        }
+        return group(ruleRepository.findByPropertyIdIn(propertyIds));
+    }
+
+    public Map<UUID, AvailabilityRuleSet> activeBetween(LocalDate start, LocalDate end) {
+        return group(ruleRepository.findActiveBetween(start, end));
+    }
+
+    public Map<UUID, AvailabilityRuleSet> all() {
+        return group(ruleRepository.findAll());
+    }
+
+    /**
+     * Properties whose rules or exceptions were written after {@code since}. Deleted rules are tracked by the index
+     * through tombstones instead.
+     */
+    public Set<UUID> changedPropertyIdsSince(OffsetDateTime since) {
+        Set<UUID> changed = new HashSet<>(ruleRepository.findPropertyIdsUpdatedAfter(since));
+        changed.addAll(ruleRepository.findPropertyIdsWithExceptionsUpdatedAfter(since));
+        return changed;
+    }
+
+    private AvailabilityRuleSet evaluate(List<ShortletAvailabilityRule> rules) {
+        if (rules.isEmpty()) {
+            return AvailabilityRuleSet.EMPTY;
+        }
+        return AvailabilityRuleSet.of(rules, exceptionsFor(rules));
+    }
+
+    private Map<UUID, AvailabilityRuleSet> group(List<ShortletAvailabilityRule> rules) {
+        if (rules.isEmpty()) {
+            return Map.of();
+        }
+        return AvailabilityRuleSet.byProperty(rules, exceptionsFor(rules));
+    }
+
+    private List<ShortletAvailabilityException> exceptionsFor(List<ShortletAvailabilityRule> rules) {
+        List<UUID> ruleIds = new ArrayList<>(rules.size());
+        for (ShortletAvailabilityRule rule : rules) {
+            ruleIds.add(rule.getId());
+        }
+        return exceptionRepository.findByRuleIdIn(ruleIds);
+    }
+}
@@ -0,0 +1,207 @@
+package dev.visitingservice.service.index;
+
+import dev.visitingservice.model.ShortletAvailability;
+import dev.visitingservice.model.ShortletAvailabilityException;
+import dev.visitingservice.model.ShortletAvailabilityRule;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable, evaluated form of one property's recurring availability rules and their exception ranges.
+ *
+ * A day is available under the rules when some rule's date range contains it, its weekday is one of the rule's
+ * days, and none of that rule's exceptions contains it. Rules are open-ended, so callers only ever expand them
+ * over a bounded window with {@link #runs(int, int)} and evaluate single days beyond it.
+ */
+public final class AvailabilityRuleSet {
+
+    public static final AvailabilityRuleSet EMPTY = new AvailabilityRuleSet(List.of());
+
+    private record Rule(UUID landlordId, int startDay, int endDay, int daysOfWeekMask,
+                        int[] exceptionStarts, int[] exceptionEnds) {
+
+        boolean appliesOn(int day) {
+            if (day < startDay || day > endDay) {
+                return false;
+            }
+            // Epoch day 0 was a Thursday; bit 0 is Monday
+            if (daysOfWeekMask != 0 && (daysOfWeekMask & (1 << Math.floorMod(day + 3, 7))) == 0) {
+                return false;
+            }
+            for (int i = 0; i < exceptionStarts.length; i++) {
+                if (day >= exceptionStarts[i] && day <= exceptionEnds[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private final List<Rule> rules;
+
+    private AvailabilityRuleSet(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    public static AvailabilityRuleSet of(Collection<ShortletAvailabilityRule> rules,
+                                         Collection<ShortletAvailabilityException> exceptions) {
+        if (rules.isEmpty()) {
+            return EMPTY;
+        }
+        Map<UUID, List<ShortletAvailabilityException>> byRule = new HashMap<>();
+        for (ShortletAvailabilityException exception : exceptions) {
+            byRule.computeIfAbsent(exception.getRuleId(), id -> new ArrayList<>()).add(exception);
+        }
+        List<Rule> evaluated = new ArrayList<>(rules.size());
+        for (ShortletAvailabilityRule rule : rules) {
+            List<ShortletAvailabilityException> ruleExceptions = byRule.getOrDefault(rule.getId(), List.of());
+            int[] starts = new int[ruleExceptions.size()];
+            int[] ends = new int[ruleExceptions.size()];
+            for (int i = 0; i < starts.length; i++) {
+                starts[i] = (int) ruleExceptions.get(i).getStartDate().toEpochDay();
+                ends[i] = (int) ruleExceptions.get(i).getEndDate().toEpochDay();
+            }
+            evaluated.add(new Rule(rule.getLandlordId(), (int) rule.getStartDate().toEpochDay(),
+                    rule.getEndDate() == null ? Integer.MAX_VALUE : (int) rule.getEndDate().toEpochDay(),
+                    rule.getDaysOfWeekMask(), starts, ends));
+        }
+        return new AvailabilityRuleSet(List.copyOf(evaluated));
+    }
+
+    /**
+     * Groups rules and the exceptions loaded for them by property.
+     */
+    public static Map<UUID, AvailabilityRuleSet> byProperty(Collection<ShortletAvailabilityRule> rules,
+                                                            Collection<ShortletAvailabilityException> exceptions) {
+        Map<UUID, List<ShortletAvailabilityRule>> grouped = new HashMap<>();
+        for (ShortletAvailabilityRule rule : rules) {
+            grouped.computeIfAbsent(rule.getPropertyId(), id -> new ArrayList<>()).add(rule);
+        }
+        Map<UUID, AvailabilityRuleSet> ruleSets = new HashMap<>();
+        for (Map.Entry<UUID, List<ShortletAvailabilityRule>> entry : grouped.entrySet()) {
+            ruleSets.put(entry.getKey(), of(entry.getValue(), exceptions));
+        }
+        return ruleSets;
+    }
+
+    public boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    List<UUID> landlordIds() {
+        List<UUID> landlordIds = new ArrayList<>(rules.size());
+        for (Rule rule : rules) {
+            landlordIds.add(rule.landlordId());
+        }
+        return landlordIds;
+    }
+
+    public boolean isAvailableOn(LocalDate date) {
+        return availableOn((int) date.toEpochDay());
+    }
+
+    boolean availableOn(int day) {
+        for (Rule rule : rules) {
+            if (rule.appliesOn(day)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Inclusive runs of rule-available days within [fromDay, toDay), per rule and in no particular order.
+     */
+    int[][] runs(int fromDay, int toDay) {
+        List<int[]> runs = new ArrayList<>();
+        for (Rule rule : rules) {
+            int runStart = -1;
+            int last = Math.min(toDay - 1, rule.endDay());
+            for (int day = Math.max(fromDay, rule.startDay()); day <= last; day++) {
+                if (rule.appliesOn(day)) {
+                    if (runStart < 0) {
+                        runStart = day;
+                    }
+                } else if (runStart >= 0) {
+                    runs.add(new int[]{runStart, day - 1});
+                    runStart = -1;
+                }
+            }
+            if (runStart >= 0) {
+                runs.add(new int[]{runStart, last});
+            }
+        }
+        return runs.toArray(new int[0][]);
+    }
+
+    /**
+     * True when every day from startDate to endDate inclusive is covered by one of the rows or by the rules.
+     */
+    public boolean covers(Collection<ShortletAvailability> rows, LocalDate startDate, LocalDate endDate) {
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            if (!isAvailableOn(day) && !rowCovers(rows, day)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int snapshotBytes() {
+        int bytes = Integer.BYTES;
+        for (Rule rule : rules) {
+            bytes += 2 * Long.BYTES + 4 * Integer.BYTES + 2 * Integer.BYTES * rule.exceptionStarts().length;
+        }
+        return bytes;
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        buffer.putInt(rules.size());
+        for (Rule rule : rules) {
+            buffer.putLong(rule.landlordId().getMostSignificantBits()).putLong(rule.landlordId().getLeastSignificantBits());
+            buffer.putInt(rule.startDay()).putInt(rule.endDay()).putInt(rule.daysOfWeekMask());
+            buffer.putInt(rule.exceptionStarts().length);
+            for (int i = 0; i < rule.exceptionStarts().length; i++) {
+                buffer.putInt(rule.exceptionStarts()[i]).putInt(rule.exceptionEnds()[i]);
+            }
+        }
+    }
+
+    static AvailabilityRuleSet readFrom(ByteBuffer buffer) {
+        int count = AvailabilityIndexSnapshot.readCount(buffer, 2 * Long.BYTES + 4 * Integer.BYTES);
+        if (count == 0) {
+            return EMPTY;
+        }
+        List<Rule> rules = new ArrayList<>(count);
+        for (int r = 0; r < count; r++) {
+            UUID landlordId = new UUID(buffer.getLong(), buffer.getLong());
+            int startDay = buffer.getInt();
+            int endDay = buffer.getInt();
+            int mask = buffer.getInt();
+            int exceptions = AvailabilityIndexSnapshot.readCount(buffer, 2 * Integer.BYTES);
+            int[] starts = new int[exceptions];
+            int[] ends = new int[exceptions];
+            for (int i = 0; i < exceptions; i++) {
+                starts[i] = buffer.getInt();
+                ends[i] = buffer.getInt();
+            }
+            rules.add(new Rule(landlordId, startDay, endDay, mask, starts, ends));
+        }
+        return new AvailabilityRuleSet(List.copyOf(rules));
+    }
+
+    private static boolean rowCovers(Collection<ShortletAvailability> rows, LocalDate day) {
+        for (ShortletAvailability row : rows) {
+            if (!row.getStartDate().isAfter(day) && !row.getEndDate().isBefore(day)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,173 @@
+package dev.visitingservice.service.index;
+
+import dev.visitingservice.dto.ListingDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of availability search results keyed on (startDate, endDate).
+ *
+ * Entries are dropped when a committed write touches a date range that intersects the key, and expire after a TTL
+ * so that writes made by other instances are eventually picked up. Callers read {@link #version()} before resolving
+ * a result and pass it back on {@code put}; a result computed across an invalidation is not stored.
+ */
+@Component
+public class AvailabilitySearchCache {
+
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final AtomicLong version = new AtomicLong();
+
+    private final boolean enabled;
+    private final boolean cacheListings;
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    private record Key(LocalDate startDate, LocalDate endDate) {}
+
+    private static final class Entry {
+        private final List<UUID> propertyIds;
+        private final long createdAt;
+        private volatile List<ListingDto> listings;
+
+        private Entry(List<UUID> propertyIds, long createdAt) {
+            this.propertyIds = propertyIds;
+            this.createdAt = createdAt;
+        }
+    }
+
+    public AvailabilitySearchCache(MeterRegistry meterRegistry,
+                                   @Value("${availability.search.cache.enabled:true}") boolean enabled,
+                                   @Value("${availability.search.cache.max-entries:1000}") int maxEntries,
+                                   @Value("${availability.search.cache.ttl-seconds:60}") long ttlSeconds,
+                                   @Value("${availability.search.cache.listings:false}") boolean cacheListings) {
+        this.enabled = enabled;
+        this.cacheListings = cacheListings;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.hits = Counter.builder("availability.search.cache.requests").tag("result", "hit")
+                .description("Availability search cache lookups").register(meterRegistry);
+        this.misses = Counter.builder("availability.search.cache.requests").tag("result", "miss")
+                .description("Availability search cache lookups").register(meterRegistry);
+        this.evictions = Counter.builder("availability.search.cache.evictions")
+                .description("Availability search results dropped by size, TTL or write invalidation").register(meterRegistry);
+        Gauge.builder("availability.search.cache.size", this, AvailabilitySearchCache::size).register(meterRegistry);
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    public Optional<List<UUID>> getPropertyIds(LocalDate startDate, LocalDate endDate) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Entry entry = lookup(new Key(startDate, endDate));
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(entry.propertyIds);
+    }
+
+    public void putPropertyIds(LocalDate startDate, LocalDate endDate, List<UUID> propertyIds, long expectedVersion) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (entries) {
+            if (version.get() != expectedVersion) {
+                return;
+            }
+            entries.put(new Key(startDate, endDate), new Entry(List.copyOf(propertyIds), System.currentTimeMillis()));
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (entries.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Enriched listings for a cached search, present only when listing caching is enabled and the same search was
+     * enriched before. Listing details are owned by the Listing Service, so this is off by default.
+     */
+    public Optional<List<ListingDto>> getListings(LocalDate startDate, LocalDate endDate) {
+        if (!enabled || !cacheListings) {
+            return Optional.empty();
+        }
+        Entry entry = lookup(new Key(startDate, endDate));
+        return entry == null ? Optional.empty() : Optional.ofNullable(entry.listings);
+    }
+
+    public void putListings(LocalDate startDate, LocalDate endDate, List<ListingDto> listings, long expectedVersion) {
+        if (!enabled || !cacheListings) {
+            return;
+        }
+        synchronized (entries) {
+            Entry entry = entries.get(new Key(startDate, endDate));
+            if (entry != null && version.get() == expectedVersion) {
+                entry.listings = List.copyOf(listings);
+            }
+        }
+    }
+
+    /**
+     * Drops every cached search whose [startDate, endDate] intersects the changed days.
+     */
+    public void invalidate(LocalDate from, LocalDate to) {
+        synchronized (entries) {
+            version.incrementAndGet();
+            Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Key key = it.next().getKey();
+                if (!key.startDate().isAfter(to) && !from.isAfter(key.endDate())) {
+                    it.remove();
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            version.incrementAndGet();
+            evictions.increment(entries.size());
+            entries.clear();
+        }
+    }
+
+    private Entry lookup(Key key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && System.currentTimeMillis() - entry.createdAt >= ttlMillis) {
+                entries.remove(key);
+                evictions.increment();
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    private int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
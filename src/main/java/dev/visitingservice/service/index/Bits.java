@@ -0,0 +1,79 @@
+package dev.visitingservice.service.index;
+
+/**
+ * Word-level helpers for the day bitmaps used by the availability index. Ranges are half-open [from, to).
+ */
+final class Bits {
+
+    private Bits() {
+    }
+
+    static long[] words(int bits) {
+        return new long[(bits + 63) >>> 6];
+    }
+
+    static void set(long[] words, int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << (from & 63);
+        long lastMask = -1L >>> (63 - ((to - 1) & 63));
+        if (first == last) {
+            words[first] |= firstMask & lastMask;
+            return;
+        }
+        words[first] |= firstMask;
+        for (int w = first + 1; w < last; w++) {
+            words[w] = -1L;
+        }
+        words[last] |= lastMask;
+    }
+
+    static void clear(long[] words, int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << (from & 63);
+        long lastMask = -1L >>> (63 - ((to - 1) & 63));
+        if (first == last) {
+            words[first] &= ~(firstMask & lastMask);
+            return;
+        }
+        words[first] &= ~firstMask;
+        for (int w = first + 1; w < last; w++) {
+            words[w] = 0L;
+        }
+        words[last] &= ~lastMask;
+    }
+
+    static boolean get(long[] words, int bit) {
+        return (words[bit >>> 6] & (1L << (bit & 63))) != 0;
+    }
+
+    static boolean allSet(long[] words, int from, int to) {
+        if (from >= to) {
+            return true;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << (from & 63);
+        long lastMask = -1L >>> (63 - ((to - 1) & 63));
+        if (first == last) {
+            long mask = firstMask & lastMask;
+            return (words[first] & mask) == mask;
+        }
+        if ((words[first] & firstMask) != firstMask) {
+            return false;
+        }
+        for (int w = first + 1; w < last; w++) {
+            if (words[w] != -1L) {
+                return false;
+            }
+        }
+        return (words[last] & lastMask) == lastMask;
+    }
+}
@@ -0,0 +1,80 @@
+package dev.visitingservice.service.index;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-horizon, one-bit-per-day calendar for a single property.
+ *
+ * {@code available} has a bit for every day covered by an availability row. {@code free} has a bit for every
+ * night that is available and not occupied by an ACCEPTED booking. A stay [start, end) is free when every
+ * night from start to end - 1 is free and the checkout day is still available, which is a handful of word
+ * masks over ~12 longs for a two-year horizon.
+ */
+final class DayBitmapCalendar {
+
+    private final int baseDay;
+    private final int days;
+    private final long[] available;
+    private final long[] free;
+
+    private DayBitmapCalendar(int baseDay, int days, long[] available, long[] free) {
+        this.baseDay = baseDay;
+        this.days = days;
+        this.available = available;
+        this.free = free;
+    }
+
+    static DayBitmapCalendar of(int baseDay, int days,
+                                int[] availableStarts, int[] availableEnds,
+                                int[] bookedStarts, int[] bookedEnds) {
+        long[] available = Bits.words(days);
+        for (int i = 0; i < availableStarts.length; i++) {
+            // availability runs are inclusive
+            Bits.set(available, clamp(availableStarts[i] - baseDay, days), clamp(availableEnds[i] + 1 - baseDay, days));
+        }
+        long[] free = available.clone();
+        for (int i = 0; i < bookedStarts.length; i++) {
+            // booked runs are half-open nights
+            Bits.clear(free, clamp(bookedStarts[i] - baseDay, days), clamp(bookedEnds[i] - baseDay, days));
+        }
+        return new DayBitmapCalendar(baseDay, days, available, free);
+    }
+
+    private static int clamp(int offset, int days) {
+        return Math.max(0, Math.min(days, offset));
+    }
+
+    /**
+     * Whether both the first night and the checkout day fall inside the horizon.
+     */
+    boolean contains(int startDay, int endDay) {
+        return startDay >= baseDay && endDay < baseDay + days && startDay <= endDay;
+    }
+
+    /**
+     * Start days of every stay of {@code nights} nights that fits in [fromDay, toDay], found in one pass by
+     * tracking the length of the current run of free nights. Requires {@link #contains(int, int)} for the window.
+     */
+    List<Integer> freeStarts(int fromDay, int toDay, int nights, boolean earliestOnly) {
+        List<Integer> starts = new ArrayList<>();
+        int run = 0;
+        for (int night = fromDay - baseDay; night < toDay - baseDay; night++) {
+            run = Bits.get(free, night) ? run + 1 : 0;
+            int checkout = night + 1;
+            if (run >= nights && Bits.get(available, checkout)) {
+                starts.add(checkout - nights + baseDay);
+                if (earliestOnly) {
+                    break;
+                }
+            }
+        }
+        return starts;
+    }
+
+    boolean isFree(int startDay, int endDay) {
+        int from = startDay - baseDay;
+        int to = endDay - baseDay;
+        return Bits.allSet(free, from, to) && Bits.get(available, to);
+    }
+}
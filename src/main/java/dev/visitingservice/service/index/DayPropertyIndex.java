@@ -0,0 +1,130 @@
+package dev.visitingservice.service.index;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted calendar: for every day in the horizon, a bitmap of the property ordinals that are available that day
+ * and of those that are free that night. A stay [start, end) is answered by AND-ing the free bitmaps of each night
+ * with the available bitmap of the checkout day, so the cost depends on the number of nights and properties but not
+ * on how many bookings exist in the window.
+ */
+final class DayPropertyIndex {
+
+    private final int baseDay;
+    private final int days;
+    private final BitSet[] available;
+    private final BitSet[] free;
+
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final List<UUID> properties = new ArrayList<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    DayPropertyIndex(int baseDay, int days) {
+        this.baseDay = baseDay;
+        this.days = days;
+        this.available = new BitSet[days];
+        this.free = new BitSet[days];
+        for (int d = 0; d < days; d++) {
+            available[d] = new BitSet();
+            free[d] = new BitSet();
+        }
+    }
+
+    static DayPropertyIndex build(int baseDay, int days, Collection<PropertyTimeline> timelines) {
+        DayPropertyIndex index = new DayPropertyIndex(baseDay, days);
+        for (PropertyTimeline timeline : timelines) {
+            index.put(timeline);
+        }
+        return index;
+    }
+
+    /**
+     * Replaces every bit of the timeline's property with its current calendar.
+     */
+    void put(PropertyTimeline timeline) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = ordinals.get(timeline.getPropertyId());
+            int ordinal;
+            if (existing == null) {
+                ordinal = properties.size();
+                properties.add(timeline.getPropertyId());
+                ordinals.put(timeline.getPropertyId(), ordinal);
+            } else {
+                ordinal = existing;
+                for (int d = 0; d < days; d++) {
+                    available[d].clear(ordinal);
+                    free[d].clear(ordinal);
+                }
+            }
+            int[] availableStarts = timeline.availableStarts();
+            int[] availableEnds = timeline.availableEnds();
+            for (int i = 0; i < availableStarts.length; i++) {
+                // availability runs are inclusive
+                int from = Math.max(availableStarts[i] - baseDay, 0);
+                int to = Math.min(availableEnds[i] + 1 - baseDay, days);
+                for (int d = from; d < to; d++) {
+                    available[d].set(ordinal);
+                    free[d].set(ordinal);
+                }
+            }
+            int[] bookedStarts = timeline.bookedStarts();
+            int[] bookedEnds = timeline.bookedEnds();
+            for (int i = 0; i < bookedStarts.length; i++) {
+                // booked runs are half-open nights
+                int from = Math.max(bookedStarts[i] - baseDay, 0);
+                int to = Math.min(bookedEnds[i] - baseDay, days);
+                for (int d = from; d < to; d++) {
+                    free[d].clear(ordinal);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(UUID propertyId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(propertyId);
+            if (ordinal == null) {
+                return;
+            }
+            for (int d = 0; d < days; d++) {
+                available[d].clear(ordinal);
+                free[d].clear(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean contains(int startDay, int endDay) {
+        return startDay >= baseDay && endDay < baseDay + days && startDay <= endDay;
+    }
+
+    List<UUID> findFree(int startDay, int endDay) {
+        lock.readLock().lock();
+        try {
+            BitSet result = (BitSet) available[endDay - baseDay].clone();
+            for (int d = startDay; d < endDay && !result.isEmpty(); d++) {
+                result.and(free[d - baseDay]);
+            }
+            List<UUID> ids = new ArrayList<>(result.cardinality());
+            for (int ordinal = result.nextSetBit(0); ordinal >= 0; ordinal = result.nextSetBit(ordinal + 1)) {
+                ids.add(properties.get(ordinal));
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
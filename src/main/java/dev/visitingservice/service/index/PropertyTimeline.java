@@ -0,0 +1,313 @@
+package dev.visitingservice.service.index;
+
+import dev.visitingservice.model.ShortletAvailability;
+import dev.visitingservice.model.ShortletBooking;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable, in-memory view of one property's shortlet calendar.
+ *
+ * Availability rows are inclusive on both ends (matching how setAvailability and acceptBooking split them),
+ * while accepted bookings occupy the half-open night range [startDate, endDate). Both sets are coalesced
+ * into sorted, disjoint runs of epoch days so that coverage and overlap checks are a single binary search.
+ * Stays that fall inside the rolling horizon are answered from a {@link DayBitmapCalendar} instead.
+ */
+public final class PropertyTimeline {
+
+    public static final int DEFAULT_HORIZON_DAYS = 730;
+
+    private final UUID propertyId;
+    private final UUID landlordId;
+    private final boolean singleLandlord;
+    private final int floorDay;
+
+    // Coalesced availability, inclusive [availableStarts[i], availableEnds[i]]
+    private final int[] availableStarts;
+    private final int[] availableEnds;
+
+    // Coalesced accepted bookings, half-open [bookedStarts[i], bookedEnds[i])
+    private final int[] bookedStarts;
+    private final int[] bookedEnds;
+
+    private final AvailabilityRuleSet rules;
+    private final DayBitmapCalendar calendar;
+
+    private PropertyTimeline(UUID propertyId, UUID landlordId, boolean singleLandlord, int floorDay,
+                             int horizonDays, int[][] available, AvailabilityRuleSet rules, int[][] booked) {
+        this.propertyId = propertyId;
+        this.landlordId = landlordId;
+        this.singleLandlord = singleLandlord;
+        this.floorDay = floorDay;
+        this.availableStarts = available[0];
+        this.availableEnds = available[1];
+        this.bookedStarts = booked[0];
+        this.bookedEnds = booked[1];
+        this.rules = rules;
+        this.calendar = DayBitmapCalendar.of(floorDay, horizonDays, availableStarts, availableEnds, bookedStarts, bookedEnds);
+    }
+
+    public static PropertyTimeline of(UUID propertyId, LocalDate floor,
+                                      Collection<ShortletAvailability> availabilities,
+                                      Collection<ShortletBooking> acceptedBookings) {
+        return of(propertyId, floor, DEFAULT_HORIZON_DAYS, availabilities, AvailabilityRuleSet.EMPTY, acceptedBookings);
+    }
+
+    public static PropertyTimeline of(UUID propertyId, LocalDate floor,
+                                      Collection<ShortletAvailability> availabilities,
+                                      AvailabilityRuleSet rules,
+                                      Collection<ShortletBooking> acceptedBookings) {
+        return of(propertyId, floor, DEFAULT_HORIZON_DAYS, availabilities, rules, acceptedBookings);
+    }
+
+    public static PropertyTimeline of(UUID propertyId, LocalDate floor, int horizonDays,
+                                      Collection<ShortletAvailability> availabilities,
+                                      Collection<ShortletBooking> acceptedBookings) {
+        return of(propertyId, floor, horizonDays, availabilities, AvailabilityRuleSet.EMPTY, acceptedBookings);
+    }
+
+    /**
+     * Builds a timeline from the persisted rows of a single property.
+     *
+     * @param floor the earliest date the loaded bookings are complete for; queries starting before it are not answered
+     * @param horizonDays how many days from the floor are materialised in the bitmap calendar
+     * @param rules the property's recurring availability, expanded into runs over the horizon
+     */
+    public static PropertyTimeline of(UUID propertyId, LocalDate floor, int horizonDays,
+                                      Collection<ShortletAvailability> availabilities,
+                                      AvailabilityRuleSet rules,
+                                      Collection<ShortletBooking> acceptedBookings) {
+        int floorDay = (int) floor.toEpochDay();
+        int[][] ruleRuns = rules.runs(floorDay, floorDay + horizonDays);
+        UUID landlordId = null;
+        boolean singleLandlord = true;
+        List<UUID> landlordIds = new ArrayList<>(availabilities.size());
+        int[][] available = new int[availabilities.size() + ruleRuns.length][];
+        int i = 0;
+        for (ShortletAvailability availability : availabilities) {
+            landlordIds.add(availability.getLandlordId());
+            available[i++] = new int[]{(int) availability.getStartDate().toEpochDay(), (int) availability.getEndDate().toEpochDay()};
+        }
+        landlordIds.addAll(rules.landlordIds());
+        for (UUID id : landlordIds) {
+            if (landlordId == null) {
+                landlordId = id;
+            } else if (!landlordId.equals(id)) {
+                singleLandlord = false;
+            }
+        }
+        for (int[] run : ruleRuns) {
+            available[i++] = run;
+        }
+        int[][] booked = new int[acceptedBookings.size()][];
+        i = 0;
+        for (ShortletBooking booking : acceptedBookings) {
+            booked[i++] = new int[]{(int) booking.getStartDate().toEpochDay(), (int) booking.getEndDate().toEpochDay()};
+        }
+        return new PropertyTimeline(propertyId, landlordId, singleLandlord, floorDay, horizonDays,
+                coalesce(available, 1), rules, coalesce(booked, 0));
+    }
+
+    /**
+     * Sorts ranges by start and merges those that overlap or lie within {@code gap} days of each other.
+     * Inclusive ranges touch when the next start is end + 1, half-open ranges when it equals end.
+     */
+    private static int[][] coalesce(int[][] ranges, int gap) {
+        Arrays.sort(ranges, Comparator.comparingInt(r -> r[0]));
+        int[] starts = new int[ranges.length];
+        int[] ends = new int[ranges.length];
+        int count = 0;
+        for (int[] range : ranges) {
+            if (range[1] < range[0]) {
+                continue;
+            }
+            if (count > 0 && range[0] <= ends[count - 1] + gap) {
+                ends[count - 1] = Math.max(ends[count - 1], range[1]);
+            } else {
+                starts[count] = range[0];
+                ends[count] = range[1];
+                count++;
+            }
+        }
+        return new int[][]{Arrays.copyOf(starts, count), Arrays.copyOf(ends, count)};
+    }
+
+    public UUID getPropertyId() {
+        return propertyId;
+    }
+
+    public UUID getLandlordId() {
+        return landlordId;
+    }
+
+    public LocalDate getFloor() {
+        return LocalDate.ofEpochDay(floorDay);
+    }
+
+    public boolean hasAvailability() {
+        return availableStarts.length > 0 || !rules.isEmpty();
+    }
+
+    int[] availableStarts() {
+        return availableStarts;
+    }
+
+    int[] availableEnds() {
+        return availableEnds;
+    }
+
+    int[] bookedStarts() {
+        return bookedStarts;
+    }
+
+    int[] bookedEnds() {
+        return bookedEnds;
+    }
+
+    int snapshotBytes() {
+        return 4 * Long.BYTES + 1 + Integer.BYTES
+                + Integer.BYTES + 2 * Integer.BYTES * availableStarts.length
+                + Integer.BYTES + 2 * Integer.BYTES * bookedStarts.length
+                + rules.snapshotBytes();
+    }
+
+    /**
+     * Writes the coalesced runs and rules; the bitmap calendar is derived from them again on read.
+     */
+    void writeTo(ByteBuffer buffer) {
+        buffer.putLong(propertyId.getMostSignificantBits()).putLong(propertyId.getLeastSignificantBits());
+        buffer.putLong(landlordId == null ? 0 : landlordId.getMostSignificantBits());
+        buffer.putLong(landlordId == null ? 0 : landlordId.getLeastSignificantBits());
+        buffer.put((byte) ((landlordId != null ? 1 : 0) | (singleLandlord ? 2 : 0)));
+        buffer.putInt(floorDay);
+        writeRuns(buffer, availableStarts, availableEnds);
+        writeRuns(buffer, bookedStarts, bookedEnds);
+        rules.writeTo(buffer);
+    }
+
+    static PropertyTimeline readFrom(ByteBuffer buffer, int horizonDays) {
+        UUID propertyId = new UUID(buffer.getLong(), buffer.getLong());
+        UUID landlordId = new UUID(buffer.getLong(), buffer.getLong());
+        byte flags = buffer.get();
+        int floorDay = buffer.getInt();
+        int[][] available = readRuns(buffer);
+        int[][] booked = readRuns(buffer);
+        AvailabilityRuleSet rules = AvailabilityRuleSet.readFrom(buffer);
+        return new PropertyTimeline(propertyId, (flags & 1) != 0 ? landlordId : null, (flags & 2) != 0, floorDay,
+                horizonDays, available, rules, booked);
+    }
+
+    private static void writeRuns(ByteBuffer buffer, int[] starts, int[] ends) {
+        buffer.putInt(starts.length);
+        for (int i = 0; i < starts.length; i++) {
+            buffer.putInt(starts[i]).putInt(ends[i]);
+        }
+    }
+
+    private static int[][] readRuns(ByteBuffer buffer) {
+        int count = AvailabilityIndexSnapshot.readCount(buffer, 2 * Integer.BYTES);
+        int[] starts = new int[count];
+        int[] ends = new int[count];
+        for (int i = 0; i < count; i++) {
+            starts[i] = buffer.getInt();
+            ends[i] = buffer.getInt();
+        }
+        return new int[][]{starts, ends};
+    }
+
+    /**
+     * Whether this timeline can answer for the given landlord and start date without going to the database.
+     */
+    public boolean canAnswer(UUID landlordId, LocalDate startDate) {
+        if (startDate.toEpochDay() < floorDay || !singleLandlord) {
+            return false;
+        }
+        return landlordId == null || this.landlordId == null || this.landlordId.equals(landlordId);
+    }
+
+    /**
+     * True when every day from startDate to endDate inclusive is available, either in one availability run or,
+     * for rule-based availability beyond the horizon, run by run and day by day.
+     */
+    public boolean covers(LocalDate startDate, LocalDate endDate) {
+        int start = (int) startDate.toEpochDay();
+        int end = (int) endDate.toEpochDay();
+        int idx = lastStartAtOrBefore(availableStarts, start);
+        if (idx >= 0 && availableEnds[idx] >= end) {
+            return true;
+        }
+        if (rules.isEmpty()) {
+            return false;
+        }
+        for (int day = start; day <= end; ) {
+            idx = lastStartAtOrBefore(availableStarts, day);
+            if (idx >= 0 && availableEnds[idx] >= day) {
+                day = availableEnds[idx] + 1;
+            } else if (rules.availableOn(day)) {
+                day++;
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * True when an accepted booking occupies any night in [startDate, endDate).
+     */
+    public boolean overlapsBooking(LocalDate startDate, LocalDate endDate) {
+        int start = (int) startDate.toEpochDay();
+        int end = (int) endDate.toEpochDay();
+        int idx = lastStartAtOrBefore(bookedStarts, end - 1);
+        return idx >= 0 && bookedEnds[idx] > start;
+    }
+
+    public boolean isFree(LocalDate startDate, LocalDate endDate) {
+        int start = (int) startDate.toEpochDay();
+        int end = (int) endDate.toEpochDay();
+        if (calendar.contains(start, end)) {
+            return calendar.isFree(start, end);
+        }
+        return covers(startDate, endDate) && !overlapsBooking(startDate, endDate);
+    }
+
+    /**
+     * Check-in dates of every stay of {@code nights} nights that starts on or after windowStart and checks out on or
+     * before windowEnd, or only the earliest one.
+     */
+    public List<LocalDate> freeStartDates(LocalDate windowStart, LocalDate windowEnd, int nights, boolean earliestOnly) {
+        int from = (int) windowStart.toEpochDay();
+        int to = (int) windowEnd.toEpochDay();
+        List<LocalDate> starts = new ArrayList<>();
+        if (calendar.contains(from, to)) {
+            for (int start : calendar.freeStarts(from, to, nights, earliestOnly)) {
+                starts.add(LocalDate.ofEpochDay(start));
+            }
+            return starts;
+        }
+        for (int start = from; start + nights <= to; start++) {
+            if (isFree(LocalDate.ofEpochDay(start), LocalDate.ofEpochDay(start + nights))) {
+                starts.add(LocalDate.ofEpochDay(start));
+                if (earliestOnly) {
+                    break;
+                }
+            }
+        }
+        return starts;
+    }
+
+    /**
+     * Index of the last run whose start is &lt;= day, or -1 when every run starts later.
+     */
+    private static int lastStartAtOrBefore(int[] starts, int day) {
+        int idx = Arrays.binarySearch(starts, day);
+        return idx >= 0 ? idx : -idx - 2;
+    }
+}
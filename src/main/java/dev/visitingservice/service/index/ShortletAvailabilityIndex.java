@@ -0,0 +1,453 @@
+package dev.visitingservice.service.index;
+
+import dev.visitingservice.model.ShortletAvailability;
+import dev.visitingservice.model.ShortletBooking;
+import dev.visitingservice.model.ShortletAvailabilityTombstone;
+import dev.visitingservice.model.ShortletBooking.BookingStatus;
+import dev.visitingservice.repository.ShortletAvailabilityRepository;
+import dev.visitingservice.repository.ShortletAvailabilityTombstoneRepository;
+import dev.visitingservice.repository.ShortletBookingRepository;
+import dev.visitingservice.util.TransactionCallbacks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-property calendar index over shortlet availability, availability rules and ACCEPTED bookings.
+ *
+ * Every property is loaded at startup. Writes made by other instances are picked up periodically by reloading only the
+ * properties changed since the last watermark; the whole index is rebuilt when there is no watermark yet, the day
+ * floor has moved, or too many properties changed to replay one by one. Write paths on this instance call {@link #refreshAfterCommit(UUID, LocalDate, LocalDate)}, which
+ * reloads the affected property as soon as the transaction commits and drops cached searches over the changed days. Once the first full load has completed, range
+ * searches are answered from an inverted {@link DayPropertyIndex} instead of scanning the availability and
+ * booking tables.
+ *
+ * After every full rebuild the index is written to a memory-mapped snapshot file. On startup the snapshot is
+ * installed and only properties whose availability, bookings or rules were written after its watermark are reloaded;
+ * deletions leave no {@code updated_at} behind, so they are recorded as tombstones instead.
+ */
+@Component
+public class ShortletAvailabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShortletAvailabilityIndex.class);
+
+    private final ShortletAvailabilityRepository availabilityRepository;
+    private final ShortletBookingRepository bookingRepository;
+    private final AvailabilitySearchCache searchCache;
+    private final AvailabilityRuleLoader ruleLoader;
+    private final ShortletAvailabilityTombstoneRepository tombstoneRepository;
+
+    private final ConcurrentHashMap<UUID, PropertyTimeline> timelines = new ConcurrentHashMap<>();
+    // Sequence of the last refresh per property, so a load that raced with a commit does not install stale data
+    private final ConcurrentHashMap<UUID, Long> refreshedAt = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile boolean complete;
+    private volatile DayPropertyIndex dayIndex;
+    // Everything committed before this instant (less the replay margin) is in the index; null until the first load
+    private volatile Instant watermark;
+    private volatile LocalDate indexedFloor;
+    // Serialises day index updates with the rebuild that swaps it
+    private final Object dayIndexMonitor = new Object();
+
+    @Value("${availability.index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${availability.index.horizon-days:730}")
+    private int horizonDays;
+
+    @Value("${availability.index.snapshot.enabled:true}")
+    private boolean snapshotEnabled;
+
+    @Value("${availability.index.snapshot.path:${java.io.tmpdir}/availability-index.snapshot}")
+    private String snapshotPath;
+
+    @Value("${availability.index.snapshot.max-age-hours:24}")
+    private long snapshotMaxAgeHours;
+
+    // Slack for clock skew between this instance and the database, and for transactions in flight at the watermark
+    @Value("${availability.index.snapshot.replay-margin-seconds:120}")
+    private long replayMarginSeconds;
+
+    // Above this many changed properties a full rebuild is cheaper than replaying them one by one, on restore and on
+    // the periodic refresh
+    @Value("${availability.index.snapshot.max-replay-properties:2000}")
+    private int maxReplayProperties;
+
+    public ShortletAvailabilityIndex(ShortletAvailabilityRepository availabilityRepository,
+                                     ShortletBookingRepository bookingRepository,
+                                     AvailabilitySearchCache searchCache,
+                                     AvailabilityRuleLoader ruleLoader,
+                                     ShortletAvailabilityTombstoneRepository tombstoneRepository) {
+        this.availabilityRepository = availabilityRepository;
+        this.bookingRepository = bookingRepository;
+        this.searchCache = searchCache;
+        this.ruleLoader = ruleLoader;
+        this.tombstoneRepository = tombstoneRepository;
+    }
+
+    /**
+     * Returns the timeline for a property if the index can answer for this landlord and start date,
+     * loading it from the database on a miss. Empty means the caller must fall back to the database.
+     * Properties without availability are answered but not kept.
+     */
+    public Optional<PropertyTimeline> timeline(UUID landlordId, UUID propertyId, LocalDate startDate) {
+        if (!enabled || propertyId == null || startDate == null) {
+            return Optional.empty();
+        }
+        PropertyTimeline timeline = getOrLoad(propertyId);
+        if (!timeline.canAnswer(landlordId, startDate)) {
+            return Optional.empty();
+        }
+        return Optional.of(timeline);
+    }
+
+    /**
+     * Like {@link #timeline(UUID, UUID, LocalDate)} but never loads: empty when the property is not resident.
+     * Used by batch paths that resolve misses with set-based queries instead.
+     */
+    public Optional<PropertyTimeline> residentTimeline(UUID propertyId, LocalDate startDate) {
+        if (!enabled || propertyId == null || startDate == null) {
+            return Optional.empty();
+        }
+        PropertyTimeline timeline = timelines.get(propertyId);
+        if (timeline == null || !timeline.canAnswer(null, startDate)) {
+            return Optional.empty();
+        }
+        return Optional.of(timeline);
+    }
+
+    /**
+     * Property IDs free for the whole stay, or empty when the index has not been fully loaded yet or the
+     * start date is before the loaded floor.
+     */
+    public Optional<List<UUID>> findFreeProperties(LocalDate startDate, LocalDate endDate) {
+        if (!enabled || !complete) {
+            return Optional.empty();
+        }
+        int start = (int) startDate.toEpochDay();
+        int end = (int) endDate.toEpochDay();
+        DayPropertyIndex days = dayIndex;
+        if (days != null && days.contains(start, end)) {
+            return Optional.of(days.findFree(start, end));
+        }
+        List<UUID> free = new ArrayList<>();
+        for (PropertyTimeline timeline : timelines.values()) {
+            if (startDate.isBefore(timeline.getFloor())) {
+                return Optional.empty();
+            }
+            if (timeline.hasAvailability() && timeline.isFree(startDate, endDate)) {
+                free.add(timeline.getPropertyId());
+            }
+        }
+        return Optional.of(free);
+    }
+
+    /**
+     * Every resident timeline, or empty when the index has not been fully loaded yet or the window starts before
+     * the loaded floor.
+     */
+    public Optional<Collection<PropertyTimeline>> allTimelines(LocalDate windowStart) {
+        if (!enabled || !complete) {
+            return Optional.empty();
+        }
+        Collection<PropertyTimeline> all = timelines.values();
+        for (PropertyTimeline timeline : all) {
+            if (windowStart.isBefore(timeline.getFloor())) {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(all);
+    }
+
+    /**
+     * Reloads the property once the current transaction commits, or immediately when there is none, then drops
+     * cached searches intersecting [from, to]. Reloading before commit would read the pre-commit state.
+     */
+    public void refreshAfterCommit(UUID propertyId, LocalDate from, LocalDate to) {
+        if (propertyId == null) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            refresh(propertyId);
+            searchCache.invalidate(from, to);
+        });
+    }
+
+    /**
+     * Like {@link #refreshAfterCommit(UUID, LocalDate, LocalDate)} for writes that delete availability rows, rules or
+     * exceptions. Also records a tombstone in the current transaction so that an instance restoring from a snapshot
+     * taken before the delete reloads the property.
+     */
+    public void refreshAfterDelete(UUID propertyId, LocalDate from, LocalDate to) {
+        if (propertyId == null) {
+            return;
+        }
+        ShortletAvailabilityTombstone tombstone = new ShortletAvailabilityTombstone();
+        tombstone.setPropertyId(propertyId);
+        tombstoneRepository.save(tombstone);
+        refreshAfterCommit(propertyId, from, to);
+    }
+
+    public void refresh(UUID propertyId) {
+        long seq = sequence.incrementAndGet();
+        refreshedAt.put(propertyId, seq);
+        if (!enabled) {
+            return;
+        }
+        try {
+            install(propertyId, load(propertyId), seq);
+        } catch (RuntimeException e) {
+            // Leave the property to be reloaded lazily rather than serving the pre-commit state
+            synchronized (dayIndexMonitor) {
+                timelines.remove(propertyId);
+                if (dayIndex != null) {
+                    dayIndex.remove(propertyId);
+                }
+            }
+            logger.warn("⚠️ Failed to refresh availability index for property {}: {}", propertyId, e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled || !restoreFromSnapshot()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Reloads the properties whose availability, bookings or rules were written, or whose rows were deleted, since the
+     * watermark. Falls back to {@link #rebuild()} when the index was never fully loaded, the day floor has moved
+     * since the last rebuild, or more than {@code max-replay-properties} changed. A failed reload leaves the
+     * watermark where it was, so the same changes are replayed on the next run.
+     */
+    @Scheduled(fixedDelayString = "${availability.index.refresh-interval-ms:300000}",
+            initialDelayString = "${availability.index.refresh-interval-ms:300000}")
+    public void refreshChanged() {
+        if (!enabled) {
+            return;
+        }
+        Instant since = watermark;
+        LocalDate floor = floor();
+        if (!complete || since == null || !floor.equals(indexedFloor)) {
+            rebuild();
+            return;
+        }
+        Instant startedAt = Instant.now();
+        try {
+            Set<UUID> changed = changedSince(since);
+            if (changed.size() > maxReplayProperties) {
+                logger.info("📅 {} properties changed since {}, rebuilding availability index instead", changed.size(), since);
+                rebuild();
+                return;
+            }
+            for (UUID propertyId : changed) {
+                long seq = sequence.get();
+                install(propertyId, load(propertyId), seq);
+            }
+            watermark = startedAt;
+            if (!changed.isEmpty()) {
+                searchCache.clear();
+                logger.debug("Availability index replayed {} properties changed since {}", changed.size(), since);
+                writeSnapshot(startedAt, indexedFloor);
+            }
+        } catch (RuntimeException e) {
+            logger.error("❌ Failed to refresh availability index since {}: {}", since, e.getMessage());
+        }
+    }
+
+    /**
+     * Reloads every property in four queries. Properties refreshed by a local write while the load was running
+     * keep their newer timeline.
+     */
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long seq = sequence.get();
+        // Taken before the first query, so that anything committed while loading is replayed from the snapshot
+        Instant startedAt = Instant.now();
+        try {
+            LocalDate floor = floor();
+            Map<UUID, List<ShortletAvailability>> availabilities = new HashMap<>();
+            for (ShortletAvailability availability : availabilityRepository.findAll()) {
+                availabilities.computeIfAbsent(availability.getPropertyId(), id -> new ArrayList<>()).add(availability);
+            }
+            Map<UUID, AvailabilityRuleSet> rules = ruleLoader.all();
+            Map<UUID, List<ShortletBooking>> bookings = new HashMap<>();
+            for (ShortletBooking booking : bookingRepository.findByStatusAndEndDateAfter(BookingStatus.ACCEPTED, floor)) {
+                bookings.computeIfAbsent(booking.getPropertyId(), id -> new ArrayList<>()).add(booking);
+            }
+            Set<UUID> propertyIds = new HashSet<>(availabilities.keySet());
+            propertyIds.addAll(rules.keySet());
+            for (UUID propertyId : propertyIds) {
+                PropertyTimeline timeline = PropertyTimeline.of(propertyId, floor, horizonDays,
+                        availabilities.getOrDefault(propertyId, List.of()),
+                        rules.getOrDefault(propertyId, AvailabilityRuleSet.EMPTY),
+                        bookings.getOrDefault(propertyId, List.of()));
+                timelines.compute(propertyId, (id, current) -> refreshedSince(id, seq) ? current : timeline);
+            }
+            timelines.keySet().removeIf(id -> !propertyIds.contains(id) && !refreshedSince(id, seq));
+            synchronized (dayIndexMonitor) {
+                dayIndex = DayPropertyIndex.build((int) floor.toEpochDay(), horizonDays, timelines.values());
+            }
+            complete = true;
+            watermark = startedAt;
+            indexedFloor = floor;
+            searchCache.clear();
+            logger.info("📅 Availability index rebuilt: {} properties", timelines.size());
+            writeSnapshot(startedAt, floor);
+        } catch (RuntimeException e) {
+            logger.error("❌ Failed to rebuild availability index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Installs the snapshot and reloads every property written since its watermark. False when there is no usable
+     * snapshot or too much has changed, in which case the caller rebuilds from scratch.
+     */
+    boolean restoreFromSnapshot() {
+        if (!snapshotEnabled) {
+            return false;
+        }
+        long seq = sequence.get();
+        try {
+            Optional<AvailabilityIndexSnapshot.Contents> read = AvailabilityIndexSnapshot.read(Path.of(snapshotPath));
+            if (read.isEmpty()) {
+                return false;
+            }
+            AvailabilityIndexSnapshot.Contents snapshot = read.get();
+            if (snapshot.horizonDays() != horizonDays
+                    || snapshot.watermark().isBefore(Instant.now().minus(Duration.ofHours(snapshotMaxAgeHours)))) {
+                logger.info("📅 Ignoring availability index snapshot from {}: stale or different horizon", snapshot.watermark());
+                return false;
+            }
+            Instant startedAt = Instant.now();
+            Set<UUID> changed = changedSince(snapshot.watermark());
+            if (changed.size() > maxReplayProperties) {
+                logger.info("📅 {} properties changed since availability index snapshot, rebuilding instead", changed.size());
+                return false;
+            }
+            for (PropertyTimeline timeline : snapshot.timelines()) {
+                timelines.compute(timeline.getPropertyId(), (id, current) -> refreshedSince(id, seq) ? current : timeline);
+            }
+            synchronized (dayIndexMonitor) {
+                dayIndex = DayPropertyIndex.build(snapshot.floorDay(), horizonDays, timelines.values());
+            }
+            // Unlike refresh(), a failed reload must abort the restore: the property would otherwise be missing
+            // from a complete index until the next rebuild
+            for (UUID propertyId : changed) {
+                install(propertyId, load(propertyId), sequence.get());
+            }
+            complete = true;
+            watermark = startedAt;
+            indexedFloor = LocalDate.ofEpochDay(snapshot.floorDay());
+            searchCache.clear();
+            logger.info("📅 Availability index restored from snapshot of {}: {} properties, {} replayed",
+                    snapshot.watermark(), timelines.size(), changed.size());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.warn("⚠️ Failed to restore availability index from snapshot: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Properties with availability, bookings or rules written, or rows deleted, since the watermark less the replay
+     * margin.
+     */
+    private Set<UUID> changedSince(Instant watermark) {
+        OffsetDateTime since = watermark.minusSeconds(replayMarginSeconds).atOffset(ZoneOffset.UTC);
+        Set<UUID> changed = new HashSet<>(availabilityRepository.findPropertyIdsUpdatedAfter(since));
+        changed.addAll(bookingRepository.findPropertyIdsUpdatedAfter(since));
+        changed.addAll(ruleLoader.changedPropertyIdsSince(since));
+        changed.addAll(tombstoneRepository.findPropertyIdsDeletedAfter(since));
+        return changed;
+    }
+
+    private void writeSnapshot(Instant watermark, LocalDate floor) {
+        if (!snapshotEnabled) {
+            return;
+        }
+        try {
+            AvailabilityIndexSnapshot.write(Path.of(snapshotPath), watermark, (int) floor.toEpochDay(), horizonDays,
+                    timelines.values());
+            logger.debug("Wrote availability index snapshot with watermark {}", watermark);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("⚠️ Failed to write availability index snapshot: {}", e.getMessage());
+        }
+    }
+
+    private PropertyTimeline getOrLoad(UUID propertyId) {
+        PropertyTimeline timeline = timelines.get(propertyId);
+        if (timeline != null) {
+            return timeline;
+        }
+        long seq = sequence.get();
+        timeline = load(propertyId);
+        install(propertyId, timeline, seq);
+        return timeline;
+    }
+
+    private void install(UUID propertyId, PropertyTimeline timeline, long seq) {
+        synchronized (dayIndexMonitor) {
+            if (!timeline.hasAvailability()) {
+                // Nothing to answer from, so not kept: probing arbitrary property ids must not grow the index
+                if (!refreshedSince(propertyId, seq)) {
+                    timelines.remove(propertyId);
+                    if (dayIndex != null) {
+                        dayIndex.remove(propertyId);
+                    }
+                }
+                return;
+            }
+            PropertyTimeline installed = timelines.compute(propertyId,
+                    (id, current) -> refreshedSince(id, seq) ? current : timeline);
+            if (installed == timeline && dayIndex != null) {
+                dayIndex.put(timeline);
+            }
+        }
+    }
+
+    private boolean refreshedSince(UUID propertyId, long seq) {
+        return refreshedAt.getOrDefault(propertyId, 0L) > seq;
+    }
+
+    private PropertyTimeline load(UUID propertyId) {
+        LocalDate floor = floor();
+        List<ShortletAvailability> availabilities = availabilityRepository.findByPropertyId(propertyId);
+        AvailabilityRuleSet rules = ruleLoader.forProperty(propertyId);
+        List<ShortletBooking> accepted = bookingRepository
+                .findByPropertyIdAndStatusAndEndDateAfter(propertyId, BookingStatus.ACCEPTED, floor);
+        logger.debug("Loaded availability timeline for property {}: {} availability rows, {} accepted bookings",
+                propertyId, availabilities.size(), accepted.size());
+        return PropertyTimeline.of(propertyId, floor, horizonDays, availabilities, rules, accepted);
+    }
+
+    private LocalDate floor() {
+        return LocalDate.now().minusDays(1);
+    }
+}
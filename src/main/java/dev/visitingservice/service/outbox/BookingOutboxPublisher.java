@@ -0,0 +1,116 @@
+package dev.visitingservice.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.visitingservice.dto.BookingEventDTO;
+import dev.visitingservice.model.BookingEventOutbox;
+import dev.visitingservice.repository.BookingEventOutboxRepository;
+import dev.visitingservice.service.BookingEventBatcher;
+import dev.visitingservice.service.PropertyLockService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes the oldest outbox rows through the {@link BookingEventBatcher} and deletes them in the same database
+ * transaction once Kafka has acknowledged all of them. If the database commit fails after that, the rows are
+ * published again on the next pass, so consumers see each event at least once and can drop repeats by its eventId.
+ */
+@Component
+public class BookingOutboxPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingOutboxPublisher.class);
+
+    static final long RELAY_LOCK_KEY = 0x626f6f6b696e67L;
+
+    private final BookingEventOutboxRepository outboxRepository;
+    private final BookingEventBatcher batcher;
+    private final PropertyLockService lockService;
+    private final ObjectMapper objectMapper;
+    private final String bookingEventsTopic;
+    private final long sendTimeoutMs;
+    private final Counter published;
+
+    @Autowired
+    public BookingOutboxPublisher(BookingEventOutboxRepository outboxRepository,
+                                  BookingEventBatcher batcher,
+                                  PropertyLockService lockService,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${kafka.topic.booking-events:booking-events}") String bookingEventsTopic,
+                                  @Value("${booking.outbox.send-timeout-ms:30000}") long sendTimeoutMs) {
+        this.outboxRepository = outboxRepository;
+        this.batcher = batcher;
+        this.lockService = lockService;
+        this.objectMapper = objectMapper;
+        this.bookingEventsTopic = bookingEventsTopic;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.published = Counter.builder("booking.outbox.published")
+                .description("Booking events published from the outbox").register(meterRegistry);
+    }
+
+    /**
+     * Publishes up to limit events and returns how many rows were taken off the outbox; 0 when it is empty or
+     * another instance is draining it.
+     */
+    @Transactional
+    public int publishBatch(int limit) {
+        // Held until this transaction ends, so only one instance drains the outbox at a time
+        if (!lockService.tryLock(RELAY_LOCK_KEY)) {
+            return 0;
+        }
+        List<BookingEventOutbox> rows = outboxRepository.findOldest(limit);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<BookingEventDTO> events = new ArrayList<>(rows.size());
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (BookingEventOutbox row : rows) {
+            ids.add(row.getId());
+            try {
+                events.add(objectMapper.readValue(row.getPayload(), BookingEventDTO.class));
+            } catch (Exception e) {
+                // Would block the outbox forever; drop it with enough detail to replay by hand
+                logger.error("❌ Dropping unreadable outbox event {} ({}) for booking {}: {}",
+                        row.getEventId(), row.getEventType(), row.getBookingId(), e.getMessage());
+            }
+        }
+
+        if (!events.isEmpty()) {
+            CompletableFuture<?>[] sends = new CompletableFuture<?>[events.size()];
+            for (int i = 0; i < sends.length; i++) {
+                BookingEventDTO event = events.get(i);
+                sends[i] = batcher.publish(bookingEventsTopic, event.getBookingId().toString(), event);
+            }
+            // Any failed or unanswered send rolls the deletes back, so the rows are retried
+            try {
+                CompletableFuture.allOf(sends).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Do not hold the transaction and relay lock while Kafka is unreachable
+                throw new IllegalStateException("Kafka did not acknowledge " + events.size()
+                        + " outbox events within " + sendTimeoutMs + " ms");
+            } catch (ExecutionException e) {
+                throw new CompletionException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted publishing outbox events");
+            }
+            published.increment(events.size());
+        }
+        outboxRepository.deleteAllByIdInBatch(ids);
+        logger.debug("📦 Published {} outbox events", events.size());
+        return rows.size();
+    }
+}
@@ -0,0 +1,87 @@
+package dev.visitingservice.service.outbox;
+
+import dev.visitingservice.util.TransactionCallbacks;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the booking event outbox on a virtual thread. Writers wake it once their transaction commits, so events
+ * usually leave within milliseconds; the poll interval only covers events written by other instances and retries.
+ * Full batches are drained back to back.
+ */
+@Component
+public class BookingOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingOutboxRelay.class);
+
+    private final BookingOutboxPublisher publisher;
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final long retryBackoffMs;
+
+    private final Semaphore wakeups = new Semaphore(0);
+    private volatile Thread relay;
+
+    public BookingOutboxRelay(BookingOutboxPublisher publisher,
+                              @Value("${booking.outbox.batch-size:500}") int batchSize,
+                              @Value("${booking.outbox.poll-interval-ms:1000}") long pollIntervalMs,
+                              @Value("${booking.outbox.retry-backoff-ms:5000}") long retryBackoffMs) {
+        this.publisher = publisher;
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollIntervalMs;
+        this.retryBackoffMs = retryBackoffMs;
+    }
+
+    /**
+     * Wakes the relay when the current transaction commits, or now when there is none.
+     */
+    public void wakeAfterCommit() {
+        TransactionCallbacks.afterCommit(this::wake);
+    }
+
+    void wake() {
+        if (wakeups.availablePermits() == 0) {
+            wakeups.release();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        relay = Thread.ofVirtual().name("booking-outbox-relay").start(this::relayLoop);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (relay != null) {
+            relay.interrupt();
+        }
+    }
+
+    private void relayLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                if (publisher.publishBatch(batchSize) < batchSize) {
+                    wakeups.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                    wakeups.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                logger.warn("⚠️ Failed to publish booking outbox events, retrying in {} ms: {}", retryBackoffMs, e.getMessage());
+                try {
+                    Thread.sleep(retryBackoffMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
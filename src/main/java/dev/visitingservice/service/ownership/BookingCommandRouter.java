@@ -0,0 +1,269 @@
+package dev.visitingservice.service.ownership;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.visitingservice.dto.BookingCommandDTO;
+import dev.visitingservice.dto.ShortletAvailabilityDTO;
+import dev.visitingservice.exception.BookingConflictException;
+import dev.visitingservice.exception.ExternalServiceException;
+import dev.visitingservice.model.ShortletAvailability;
+import dev.visitingservice.model.ShortletAvailabilityRule;
+import dev.visitingservice.model.ShortletBooking;
+import dev.visitingservice.repository.ShortletAvailabilityRepository;
+import dev.visitingservice.repository.ShortletAvailabilityRuleRepository;
+import dev.visitingservice.repository.ShortletBookingRepository;
+import dev.visitingservice.service.BookingCoordinator;
+import dev.visitingservice.service.ShortletAvailabilityService;
+import dev.visitingservice.service.impl.ShortletBookingServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Sends each booking or availability write to the instance that owns its property, or runs it here through the
+ * {@link BookingCoordinator} when this instance is the owner (or the owner cannot be reached).
+ */
+@Service
+public class BookingCommandRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingCommandRouter.class);
+
+    public static final String COMMAND_PATH = "/internal/booking-commands";
+
+    private final PropertyOwnership ownership;
+    private final BookingCoordinator coordinator;
+    private final ShortletBookingServiceImpl bookingService;
+    private final ShortletAvailabilityService availabilityService;
+    private final ShortletBookingRepository bookingRepository;
+    private final ShortletAvailabilityRepository availabilityRepository;
+    private final ShortletAvailabilityRuleRepository ruleRepository;
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final String apiKey;
+
+    @Autowired
+    public BookingCommandRouter(PropertyOwnership ownership,
+                                BookingCoordinator coordinator,
+                                ShortletBookingServiceImpl bookingService,
+                                ShortletAvailabilityService availabilityService,
+                                ShortletBookingRepository bookingRepository,
+                                ShortletAvailabilityRepository availabilityRepository,
+                                ShortletAvailabilityRuleRepository ruleRepository,
+                                ObjectMapper objectMapper,
+                                @Value("${booking.ownership.api-key:}") String apiKey,
+                                @Value("${booking.ownership.connect-timeout-ms:2000}") long connectTimeoutMs,
+                                @Value("${booking.ownership.read-timeout-ms:45000}") long readTimeoutMs) {
+        this(ownership, coordinator, bookingService, availabilityService, bookingRepository, availabilityRepository,
+                ruleRepository, forwardingRestTemplate(connectTimeoutMs, readTimeoutMs), objectMapper, apiKey);
+    }
+
+    BookingCommandRouter(PropertyOwnership ownership,
+                         BookingCoordinator coordinator,
+                         ShortletBookingServiceImpl bookingService,
+                         ShortletAvailabilityService availabilityService,
+                         ShortletBookingRepository bookingRepository,
+                         ShortletAvailabilityRepository availabilityRepository,
+                         ShortletAvailabilityRuleRepository ruleRepository,
+                         RestTemplate restTemplate,
+                         ObjectMapper objectMapper,
+                         String apiKey) {
+        this.ownership = ownership;
+        this.coordinator = coordinator;
+        this.bookingService = bookingService;
+        this.availabilityService = availabilityService;
+        this.bookingRepository = bookingRepository;
+        this.availabilityRepository = availabilityRepository;
+        this.ruleRepository = ruleRepository;
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.apiKey = apiKey;
+    }
+
+    public <T> T route(BookingCommandDTO command, Class<T> resultType) {
+        UUID propertyId = propertyOf(command);
+        return dispatch(ownership.ownerUrl(propertyId).orElse(null), propertyId, command, resultType);
+    }
+
+    /**
+     * Routes a bulk availability write. Ranges whose properties share an owner travel as one command and are applied
+     * in one transaction there; a request spanning several owners is therefore only atomic per owner.
+     */
+    public List<ShortletAvailabilityDTO> routeBulk(UUID landlordId, List<ShortletAvailabilityDTO> ranges) {
+        if (ranges == null || ranges.isEmpty()) {
+            return List.of();
+        }
+        // Null key: properties this instance writes itself
+        Map<String, List<ShortletAvailabilityDTO>> byOwner = new LinkedHashMap<>();
+        for (ShortletAvailabilityDTO range : ranges) {
+            if (range.getPropertyId() == null) {
+                throw new IllegalArgumentException("propertyId, startDate and endDate are required for every range");
+            }
+            byOwner.computeIfAbsent(ownership.ownerUrl(range.getPropertyId()).orElse(null), owner -> new ArrayList<>())
+                    .add(range);
+        }
+        List<ShortletAvailabilityDTO> result = new ArrayList<>();
+        for (Map.Entry<String, List<ShortletAvailabilityDTO>> entry : byOwner.entrySet()) {
+            BookingCommandDTO command = new BookingCommandDTO(BookingCommandDTO.CommandType.SET_AVAILABILITY_BULK);
+            command.setLandlordId(landlordId);
+            command.setRanges(entry.getValue());
+            // Queued behind the property's other writes when there is just one; property locks cover the rest
+            List<UUID> properties = entry.getValue().stream().map(ShortletAvailabilityDTO::getPropertyId).distinct().toList();
+            command.setPropertyId(properties.size() == 1 ? properties.get(0) : null);
+            result.addAll(List.of(dispatch(entry.getKey(), command.getPropertyId(), command, ShortletAvailabilityDTO[].class)));
+        }
+        return result;
+    }
+
+    private <T> T dispatch(String owner, UUID propertyId, BookingCommandDTO command, Class<T> resultType) {
+        if (owner != null) {
+            try {
+                return forward(owner, command, resultType);
+            } catch (ResourceAccessException e) {
+                if (!isConnectFailure(e)) {
+                    // The request reached the owner, which may have run the command; running it here could apply it twice
+                    logger.error("❌ Owner {} of property {} did not answer {}: {}",
+                            owner, propertyId, command.getType(), e.getMessage());
+                    throw new ExternalServiceException("Owner instance did not answer; the command may have been applied", e);
+                }
+                logger.warn("⚠️ Owner {} of property {} unreachable, running {} locally: {}",
+                        owner, propertyId, command.getType(), e.getMessage());
+            }
+        }
+        return resultType.cast(executeLocally(command));
+    }
+
+    /**
+     * Runs the command on this instance without consulting ownership again, so forwarded commands never bounce.
+     */
+    public Object executeLocally(BookingCommandDTO command) {
+        if (command.getType() == null) {
+            throw new IllegalArgumentException("Command type is required");
+        }
+        return coordinator.submit(propertyOf(command), () -> switch (command.getType()) {
+            case CREATE -> bookingService.createValidatedBooking(command.getTenantId(), command.getLandlordId(),
+                    command.getPropertyId(), command.getStartDate(), command.getEndDate(), command.getFirstName(),
+                    command.getLastName(), command.getPhoneNumber(), command.getGuestNumber(), command.getEmail(),
+                    command.getAmount(), command.getCurrency(), command.getSessionId(), command.getUserAgent(),
+                    command.getSourceIP());
+            case ACCEPT -> bookingService.acceptBooking(command.getBookingId());
+            case REJECT -> bookingService.rejectBooking(command.getBookingId());
+            case CANCEL -> bookingService.cancelBooking(command.getBookingId());
+            case RESCHEDULE -> bookingService.rescheduleBooking(command.getBookingId(), command.getStartDate(),
+                    command.getEndDate());
+            case SET_AVAILABILITY -> availabilityService.setAvailability(command.getLandlordId(),
+                    command.getPropertyId(), command.getStartDate(), command.getEndDate());
+            case SET_AVAILABILITY_BULK -> availabilityService.setAvailabilityBulk(command.getLandlordId(),
+                    command.getRanges()).toArray(new ShortletAvailabilityDTO[0]);
+            case DELETE_AVAILABILITY -> {
+                availabilityService.deleteAvailability(command.getAvailabilityId());
+                yield null;
+            }
+            case SET_AVAILABILITY_RULE -> availabilityService.setAvailabilityRule(command.getLandlordId(), command.getRule());
+            case DELETE_AVAILABILITY_RULE -> {
+                availabilityService.deleteAvailabilityRule(command.getLandlordId(), command.getRuleId());
+                yield null;
+            }
+            case ADD_AVAILABILITY_EXCEPTION -> availabilityService.addAvailabilityException(command.getLandlordId(),
+                    command.getRuleId(), command.getStartDate(), command.getEndDate());
+            case DELETE_AVAILABILITY_EXCEPTION -> {
+                availabilityService.deleteAvailabilityException(command.getLandlordId(), command.getRuleId(),
+                        command.getExceptionId());
+                yield null;
+            }
+        });
+    }
+
+    public boolean isValidApiKey(String key) {
+        return !apiKey.isBlank() && apiKey.equals(key);
+    }
+
+    // Bookings, availability rows and rules never change property, so it is safe to resolve the owner before queueing
+    private UUID propertyOf(BookingCommandDTO command) {
+        if (command.getPropertyId() != null) {
+            return command.getPropertyId();
+        }
+        if (command.getBookingId() != null) {
+            return bookingRepository.findById(command.getBookingId()).map(ShortletBooking::getPropertyId).orElse(null);
+        }
+        if (command.getAvailabilityId() != null) {
+            return availabilityRepository.findById(command.getAvailabilityId())
+                    .map(ShortletAvailability::getPropertyId).orElse(null);
+        }
+        if (command.getRule() != null) {
+            return command.getRule().getPropertyId();
+        }
+        if (command.getRuleId() != null) {
+            return ruleRepository.findById(command.getRuleId()).map(ShortletAvailabilityRule::getPropertyId).orElse(null);
+        }
+        return null;
+    }
+
+    private <T> T forward(String owner, BookingCommandDTO command, Class<T> resultType) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-API-KEY", apiKey);
+        try {
+            return restTemplate.postForObject(owner + COMMAND_PATH, new HttpEntity<>(command, headers), resultType);
+        } catch (HttpStatusCodeException e) {
+            String message = errorMessage(e);
+            if (e.getStatusCode().value() == HttpStatus.CONFLICT.value()) {
+                throw new BookingConflictException(message);
+            }
+            if (e.getStatusCode().value() == HttpStatus.BAD_REQUEST.value()) {
+                throw new IllegalArgumentException(message);
+            }
+            throw new IllegalStateException(message);
+        }
+    }
+
+    // Only failures before the request was sent are safe to retry locally
+    private static boolean isConnectFailure(ResourceAccessException e) {
+        Throwable cause = e.getCause();
+        return cause instanceof ConnectException || cause instanceof UnknownHostException
+                || cause instanceof HttpConnectTimeoutException;
+    }
+
+    // The read timeout must outlast the owner's coordinator wait plus the command itself
+    private static RestTemplate forwardingRestTemplate(long connectTimeoutMs, long readTimeoutMs) {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(client);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        return new RestTemplate(requestFactory);
+    }
+
+    private String errorMessage(HttpStatusCodeException e) {
+        try {
+            JsonNode body = objectMapper.readTree(e.getResponseBodyAsString());
+            if (body != null && body.hasNonNull("error")) {
+                return body.get("error").asText();
+            }
+        } catch (Exception ignored) {
+            // fall through to the status text
+        }
+        return "Owner instance rejected the command: " + e.getStatusCode();
+    }
+}
@@ -0,0 +1,152 @@
+package dev.visitingservice.service.ownership;
+
+import dev.visitingservice.config.BookingTopicConfig;
+import dev.visitingservice.model.BookingPartitionOwner;
+import dev.visitingservice.repository.BookingPartitionOwnerRepository;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides which instance writes a property. Properties hash onto the booking-events partitions, and whichever
+ * instance the ownership consumer group assigns a partition to owns its properties. Owners advertise themselves in
+ * booking_partition_owner on every heartbeat so other instances know where to forward.
+ *
+ * A partition whose owner is unknown or has stopped heartbeating counts as local, so writes never stall on a
+ * rebalance; the database locks and constraints keep those windows correct.
+ */
+@Service
+public class PropertyOwnership implements ConsumerRebalanceListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropertyOwnership.class);
+
+    private final BookingPartitionOwnerRepository ownerRepository;
+    private final boolean enabled;
+    private final String advertisedUrl;
+    private final long staleSeconds;
+
+    private final Set<Integer> ownedPartitions = ConcurrentHashMap.newKeySet();
+    private volatile Map<Integer, BookingPartitionOwner> owners = Map.of();
+
+    public PropertyOwnership(BookingPartitionOwnerRepository ownerRepository,
+                             @Value("${booking.ownership.enabled:false}") boolean enabled,
+                             @Value("${booking.ownership.advertised-url:}") String advertisedUrl,
+                             @Value("${booking.ownership.api-key:}") String apiKey,
+                             @Value("${booking.ownership.stale-seconds:30}") long staleSeconds) {
+        if (enabled && (advertisedUrl == null || advertisedUrl.isBlank())) {
+            throw new IllegalStateException("booking.ownership.advertised-url is required when ownership is enabled");
+        }
+        // Owners reject forwarded commands without the key, so every write to another owner's property would fail
+        if (enabled && (apiKey == null || apiKey.isBlank())) {
+            throw new IllegalStateException("booking.ownership.api-key is required when ownership is enabled");
+        }
+        this.ownerRepository = ownerRepository;
+        this.enabled = enabled;
+        this.advertisedUrl = advertisedUrl;
+        this.staleSeconds = staleSeconds;
+    }
+
+    public static int partitionFor(UUID propertyId) {
+        byte[] key = propertyId.toString().getBytes(StandardCharsets.UTF_8);
+        return Utils.toPositive(Utils.murmur2(key)) % BookingTopicConfig.BOOKING_EVENTS_PARTITIONS;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Base URL of the instance that should perform writes for the property, or empty when this instance should do
+     * them itself.
+     */
+    public Optional<String> ownerUrl(UUID propertyId) {
+        if (!enabled || propertyId == null) {
+            return Optional.empty();
+        }
+        int partition = partitionFor(propertyId);
+        if (ownedPartitions.contains(partition)) {
+            return Optional.empty();
+        }
+        BookingPartitionOwner owner = owners.get(partition);
+        if (owner == null || advertisedUrl.equals(owner.getOwnerUrl())
+                || owner.getHeartbeatAt().isBefore(OffsetDateTime.now().minusSeconds(staleSeconds))) {
+            return Optional.empty();
+        }
+        return Optional.of(owner.getOwnerUrl());
+    }
+
+    // Nothing to process: the consumer exists so the group assigns this instance its share of the partitions
+    @KafkaListener(id = "booking-ownership",
+            topics = "${kafka.topic.booking-events:booking-events}",
+            groupId = "${booking.ownership.group-id:visiting-service-ownership}",
+            containerFactory = "ownershipListenerContainerFactory",
+            autoStartup = "${booking.ownership.enabled:false}")
+    public void onBookingEvent(String payload) {
+    }
+
+    @Override
+    public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+        List<Integer> assigned = partitions.stream().map(TopicPartition::partition).toList();
+        ownedPartitions.addAll(assigned);
+        logger.info("🏠 Took ownership of booking partitions {}", assigned);
+        heartbeat();
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        List<Integer> revoked = partitions.stream().map(TopicPartition::partition).toList();
+        ownedPartitions.removeAll(revoked);
+        if (!revoked.isEmpty()) {
+            logger.info("🚪 Released ownership of booking partitions {}", revoked);
+            try {
+                ownerRepository.releaseOwnership(revoked, advertisedUrl);
+            } catch (Exception e) {
+                logger.warn("⚠️ Could not clear ownership of partitions {}: {}", revoked, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void onPartitionsLost(Collection<TopicPartition> partitions) {
+        // Another instance may already own them, so leave its rows alone
+        ownedPartitions.removeAll(partitions.stream().map(TopicPartition::partition).toList());
+        logger.warn("⚠️ Lost ownership of booking partitions {}", partitions);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.ownership.heartbeat-ms:10000}")
+    public void heartbeat() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            OffsetDateTime now = OffsetDateTime.now();
+            ownerRepository.saveAll(ownedPartitions.stream()
+                    .map(partition -> new BookingPartitionOwner(partition, advertisedUrl, now))
+                    .toList());
+            Map<Integer, BookingPartitionOwner> latest = new HashMap<>();
+            for (BookingPartitionOwner owner : ownerRepository.findAll()) {
+                latest.put(owner.getPartitionId(), owner);
+            }
+            owners = latest;
+        } catch (Exception e) {
+            logger.warn("⚠️ Booking ownership heartbeat failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package dev.visitingservice.service.payment;
+
+import dev.visitingservice.dto.PaymentStatusEventDTO;
+import dev.visitingservice.service.ShortletBookingService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies payment status changes published by the payment service. Each poll arrives as one batch and is written in
+ * one transaction by {@link ShortletBookingService#updateBookingPayments}; the offsets are acknowledged only after
+ * that commits. A failed batch is not acknowledged, so the container retries it; once the retries are used up each of
+ * its records goes to {@link #recover} and the batch is skipped.
+ */
+@Service
+public class PaymentStatusConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentStatusConsumer.class);
+
+    private final ShortletBookingService bookingService;
+    private final DistributionSummary batchSize;
+    private final Counter updated;
+    private final Counter skipped;
+
+    public PaymentStatusConsumer(ShortletBookingService bookingService, MeterRegistry meterRegistry) {
+        this.bookingService = bookingService;
+        this.batchSize = DistributionSummary.builder("payments.consumer.batch.size")
+                .description("Payment status records per consumed batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.updated = Counter.builder("payments.consumer.updated")
+                .description("Bookings updated from payment status events").register(meterRegistry);
+        this.skipped = Counter.builder("payments.consumer.skipped")
+                .description("Payment status events dropped after their batch kept failing").register(meterRegistry);
+    }
+
+    @KafkaListener(id = "payment-status",
+            topics = "${kafka.topic.payment-events:payment-events}",
+            groupId = "${payments.consumer.group-id:visiting-service-payments}",
+            containerFactory = "paymentListenerContainerFactory",
+            autoStartup = "${payments.consumer.enabled:false}")
+    public void onPaymentEvents(List<ConsumerRecord<String, PaymentStatusEventDTO>> records, Acknowledgment ack) {
+        List<PaymentStatusEventDTO> updates = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, PaymentStatusEventDTO> record : records) {
+            // Null when the value could not be deserialized; retrying would not fix it
+            if (record.value() == null) {
+                logger.warn("⚠️ Skipping unreadable payment event at {}-{}@{}",
+                        record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            updates.add(record.value());
+        }
+        batchSize.record(records.size());
+
+        int count = updates.isEmpty() ? 0 : bookingService.updateBookingPayments(updates);
+        ack.acknowledge();
+        updated.increment(count);
+        logger.info("💳 Applied {} payment events to {} bookings", records.size(), count);
+    }
+
+    /**
+     * Called for every record of a batch that still failed after the configured retries. Logs enough to re-apply the
+     * update by hand; the record is then skipped.
+     */
+    public void recover(ConsumerRecord<?, ?> record, Exception cause) {
+        skipped.increment();
+        if (record.value() instanceof PaymentStatusEventDTO event) {
+            logger.error("❌ Giving up on payment event at {}-{}@{} for booking {} ({}, ref {}): {}",
+                    record.topic(), record.partition(), record.offset(), event.getBookingId(),
+                    event.getPaymentStatus(), event.getPaymentReference(), cause.getMessage());
+        } else {
+            logger.error("❌ Giving up on payment event at {}-{}@{}: {}",
+                    record.topic(), record.partition(), record.offset(), cause.getMessage());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+-- Recurring viewing slot templates, expanded on read instead of pre-creating availability_slot rows
+CREATE TABLE IF NOT EXISTS viewing_slot_template (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    property_id UUID NOT NULL,
+    landlord_id UUID NOT NULL,
+    days_of_week INTEGER NOT NULL DEFAULT 0,
+    start_time TIME NOT NULL,
+    end_time TIME NOT NULL,
+    interval_minutes INTEGER NOT NULL DEFAULT 60,
+    valid_from DATE NOT NULL,
+    valid_until DATE,
+    created_at TIMESTAMP WITH TIME ZONE,
+    updated_at TIMESTAMP WITH TIME ZONE,
+    CONSTRAINT chk_viewing_slot_template_times CHECK (start_time < end_time),
+    CONSTRAINT chk_viewing_slot_template_interval CHECK (interval_minutes > 0)
+);
+
+CREATE INDEX IF NOT EXISTS idx_viewing_slot_template_property ON viewing_slot_template (property_id);
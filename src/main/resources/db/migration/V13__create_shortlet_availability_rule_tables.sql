@@ -0,0 +1,22 @@
+-- Recurring shortlet availability rules with explicit exception ranges
+CREATE TABLE IF NOT EXISTS shortlet_availability_rule (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    landlord_id UUID NOT NULL,
+    property_id UUID NOT NULL,
+    days_of_week INTEGER NOT NULL DEFAULT 0,
+    start_date DATE NOT NULL,
+    end_date DATE,
+    CONSTRAINT chk_availability_rule_dates CHECK (end_date IS NULL OR end_date >= start_date)
+);
+
+CREATE INDEX IF NOT EXISTS idx_availability_rule_property ON shortlet_availability_rule (property_id);
+
+CREATE TABLE IF NOT EXISTS shortlet_availability_exception (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    rule_id UUID NOT NULL REFERENCES shortlet_availability_rule (id) ON DELETE CASCADE,
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    CONSTRAINT chk_availability_exception_dates CHECK (end_date >= start_date)
+);
+
+CREATE INDEX IF NOT EXISTS idx_availability_exception_rule ON shortlet_availability_exception (rule_id);
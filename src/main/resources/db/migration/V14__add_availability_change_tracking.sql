@@ -0,0 +1,38 @@
+-- Change tracking so the in-memory availability index can replay only what changed since its last snapshot
+ALTER TABLE shortlet_availability
+ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW();
+
+ALTER TABLE shortlet_availability_rule
+ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW();
+
+ALTER TABLE shortlet_availability_exception
+ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW();
+
+CREATE INDEX IF NOT EXISTS idx_shortlet_availability_updated_at ON shortlet_availability(updated_at);
+CREATE INDEX IF NOT EXISTS idx_availability_rule_updated_at ON shortlet_availability_rule(updated_at);
+CREATE INDEX IF NOT EXISTS idx_availability_exception_updated_at ON shortlet_availability_exception(updated_at);
+
+-- Reuses update_updated_at_column() from V3
+CREATE TRIGGER update_shortlet_availability_updated_at
+    BEFORE UPDATE ON shortlet_availability
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+CREATE TRIGGER update_availability_rule_updated_at
+    BEFORE UPDATE ON shortlet_availability_rule
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+CREATE TRIGGER update_availability_exception_updated_at
+    BEFORE UPDATE ON shortlet_availability_exception
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+-- Deleted rows leave no updated_at behind, so deletions are recorded per property
+CREATE TABLE IF NOT EXISTS shortlet_availability_tombstone (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    property_id UUID NOT NULL,
+    deleted_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_availability_tombstone_deleted_at ON shortlet_availability_tombstone(deleted_at);
@@ -0,0 +1,19 @@
+-- V15__add_accepted_booking_overlap_exclusion.sql
+-- Let the database reject overlapping ACCEPTED bookings of a property, whichever instance writes them.
+-- Stays are half-open nights, so a checkout day may be the next guest's check-in day.
+-- Existing overlapping ACCEPTED bookings must be resolved before this migration can apply.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1 FROM pg_constraint
+        WHERE conname = 'excl_accepted_booking_overlap'
+    ) THEN
+        ALTER TABLE shortlet_booking
+        ADD CONSTRAINT excl_accepted_booking_overlap
+        EXCLUDE USING gist (property_id WITH =, daterange(start_date, end_date, '[)') WITH &&)
+        WHERE (status = 'ACCEPTED');
+    END IF;
+END $$;
@@ -0,0 +1,8 @@
+-- Which instance currently owns each booking-events partition, so other instances can forward property writes to it
+CREATE TABLE IF NOT EXISTS booking_partition_owner (
+    partition_id INTEGER PRIMARY KEY,
+    owner_url VARCHAR(255) NOT NULL,
+    heartbeat_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_partition_owner_url ON booking_partition_owner (owner_url);
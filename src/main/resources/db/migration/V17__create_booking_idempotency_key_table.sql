@@ -0,0 +1,11 @@
+-- Responses of booking creations made with an Idempotency-Key, replayed when a client retries the same key
+CREATE TABLE IF NOT EXISTS booking_idempotency_key (
+    idempotency_key VARCHAR(300) PRIMARY KEY,
+    tenant_id UUID NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    response_body TEXT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_idempotency_key_expires_at ON booking_idempotency_key (expires_at);
@@ -0,0 +1,14 @@
+-- Short-lived reservations of a property's nights during checkout; rows past expires_at no longer block anything
+CREATE TABLE IF NOT EXISTS booking_hold (
+    id UUID PRIMARY KEY,
+    tenant_id UUID NOT NULL,
+    landlord_id UUID NOT NULL,
+    property_id UUID NOT NULL,
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_hold_property_expires ON booking_hold (property_id, expires_at);
+CREATE INDEX IF NOT EXISTS idx_booking_hold_expires_at ON booking_hold (expires_at);
@@ -0,0 +1,14 @@
+-- Booking creations submitted asynchronously: the intent is stored first and processed off the request thread
+CREATE TABLE IF NOT EXISTS booking_request (
+    id UUID PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    tenant_id UUID NOT NULL,
+    property_id UUID NOT NULL,
+    payload TEXT NOT NULL,
+    booking_id UUID,
+    error VARCHAR(500),
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_request_status_updated ON booking_request (status, updated_at);
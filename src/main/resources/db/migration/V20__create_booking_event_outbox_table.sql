@@ -0,0 +1,10 @@
+-- Booking events written in the same transaction as the change they describe; the outbox relay publishes them to
+-- Kafka in batches and deletes the published rows
+CREATE TABLE IF NOT EXISTS booking_event_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    event_id UUID NOT NULL,
+    booking_id UUID NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
@@ -0,0 +1,2 @@
+-- A key row is now inserted before the booking is created, as a claim; its response is filled in once it succeeds
+ALTER TABLE booking_idempotency_key ALTER COLUMN response_body DROP NOT NULL;
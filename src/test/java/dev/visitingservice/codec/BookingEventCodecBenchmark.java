@@ -0,0 +1,123 @@
+package dev.visitingservice.codec;
+
+import dev.visitingservice.dto.BookingEventDTO;
+import dev.visitingservice.dto.BookingEventPayload;
+import dev.visitingservice.dto.BookingEventType;
+import dev.visitingservice.dto.ShortletBookingDTO;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialise/deserialise cost of a booking event in the current JSON encoding and the binary one, for a fully
+ * populated BOOKING_ACCEPTED and a sparse BOOKING_REJECTED. Prints the bytes per event before running.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=dev.visitingservice.codec.BookingEventCodecBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingEventCodecBenchmark {
+
+    private static final String TOPIC = "booking-events";
+
+    @Param({"accepted", "rejected"})
+    public String event;
+
+    private final JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+    private final JsonDeserializer<BookingEventDTO> jsonDeserializer =
+            new JsonDeserializer<>(BookingEventDTO.class).trustedPackages("dev.visitingservice.dto");
+
+    private BookingEventDTO dto;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() {
+        dto = "accepted".equals(event) ? acceptedEvent() : rejectedEvent();
+        json = jsonSerializer.serialize(TOPIC, dto);
+        binary = BookingEventCodec.encode(dto);
+    }
+
+    @Benchmark
+    public byte[] serializeJson() {
+        return jsonSerializer.serialize(TOPIC, dto);
+    }
+
+    @Benchmark
+    public byte[] serializeBinary() {
+        return BookingEventCodec.encode(dto);
+    }
+
+    @Benchmark
+    public BookingEventDTO deserializeJson() {
+        return jsonDeserializer.deserialize(TOPIC, json);
+    }
+
+    @Benchmark
+    public BookingEventDTO deserializeBinary() {
+        return BookingEventCodec.decode(binary);
+    }
+
+    static BookingEventDTO acceptedEvent() {
+        ShortletBookingDTO booking = new ShortletBookingDTO();
+        booking.setId(UUID.randomUUID());
+        booking.setTenantId(UUID.randomUUID());
+        booking.setLandlordId(UUID.randomUUID());
+        booking.setPropertyId(UUID.randomUUID());
+        booking.setStartDate(LocalDate.of(2025, 7, 12));
+        booking.setEndDate(LocalDate.of(2025, 7, 15));
+        booking.setStatus("ACCEPTED");
+        booking.setFirstName("Adaeze");
+        booking.setLastName("Okafor");
+        booking.setPhoneNumber("+2348012345678");
+        booking.setGuestNumber(2);
+        booking.setTenantEmail("adaeze@example.com");
+        booking.setTotalAmount(185000.0);
+        booking.setCurrency("NGN");
+        BookingEventPayload payload = BookingEventPayload.fromBookingDTO(booking);
+        payload.setPreviousStatus("PENDING");
+        payload.setPropertyTitle("Two-bedroom apartment, Lekki Phase 1");
+        payload.setPropertyLocation("Lekki, Lagos");
+        payload.setPropertyType("APARTMENT");
+        payload.setSessionId("session-" + UUID.randomUUID());
+        payload.setUserAgent("Mozilla/5.0 (iPhone; CPU iPhone OS 17_0 like Mac OS X)");
+        payload.setBookingChannel("mobile");
+        payload.setUpdatedAt(OffsetDateTime.now());
+        return new BookingEventDTO(BookingEventType.BOOKING_ACCEPTED, booking.getId(), payload);
+    }
+
+    static BookingEventDTO rejectedEvent() {
+        BookingEventPayload payload = new BookingEventPayload();
+        payload.setTenantId(UUID.randomUUID());
+        payload.setPropertyId(UUID.randomUUID());
+        payload.setStatus("REJECTED");
+        payload.setPreviousStatus("PENDING");
+        payload.setUpdatedAt(OffsetDateTime.now());
+        return new BookingEventDTO(BookingEventType.BOOKING_REJECTED, UUID.randomUUID(), payload);
+    }
+
+    public static void main(String[] args) throws Exception {
+        JsonSerializer<Object> serializer = new JsonSerializer<>();
+        for (BookingEventDTO sample : new BookingEventDTO[]{acceptedEvent(), rejectedEvent()}) {
+            System.out.printf("%s: JSON %d bytes, binary %d bytes%n", sample.getEventType(),
+                    serializer.serialize(TOPIC, sample).length, BookingEventCodec.encode(sample).length);
+        }
+        Options options = new OptionsBuilder()
+                .include(BookingEventCodecBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,91 @@
+package dev.visitingservice.codec;
+
+import dev.visitingservice.dto.BookingEventDTO;
+import dev.visitingservice.dto.BookingEventPayload;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingEventCodecTest {
+
+    private static void assertSameEvent(BookingEventDTO expected, BookingEventDTO actual) {
+        assertEquals(expected.getEventId(), actual.getEventId());
+        assertEquals(expected.getEventType(), actual.getEventType());
+        assertEquals(expected.getBookingId(), actual.getBookingId());
+        assertEquals(expected.getTimestamp(), actual.getTimestamp());
+        BookingEventPayload a = expected.getPayload();
+        BookingEventPayload b = actual.getPayload();
+        assertEquals(a.getTenantId(), b.getTenantId());
+        assertEquals(a.getLandlordId(), b.getLandlordId());
+        assertEquals(a.getStartDate(), b.getStartDate());
+        assertEquals(a.getEndDate(), b.getEndDate());
+        assertEquals(a.getTotalNights(), b.getTotalNights());
+        assertEquals(a.getStatus(), b.getStatus());
+        assertEquals(a.getGuestNumber(), b.getGuestNumber());
+        assertEquals(a.getTotalAmount(), b.getTotalAmount());
+        assertEquals(a.getCurrency(), b.getCurrency());
+        assertEquals(a.getPropertyTitle(), b.getPropertyTitle());
+        assertEquals(a.getUpdatedAt(), b.getUpdatedAt());
+        assertEquals(a.getPreviousStatus(), b.getPreviousStatus());
+    }
+
+    @Test
+    void encode_RoundTripsFullAndSparseEventsInFewerBytesThanJson() {
+        BookingEventSerializer jsonOnly = new BookingEventSerializer(Set.of());
+        for (BookingEventDTO event : new BookingEventDTO[]{
+                BookingEventCodecBenchmark.acceptedEvent(), BookingEventCodecBenchmark.rejectedEvent()}) {
+            byte[] binary = BookingEventCodec.encode(event);
+
+            assertSameEvent(event, BookingEventCodec.decode(binary));
+            int json = jsonOnly.serialize("booking-events", event).length;
+            assertTrue(binary.length * 3 < json, "binary " + binary.length + " bytes vs JSON " + json);
+        }
+        BookingEventDTO noCurrency = BookingEventCodecBenchmark.rejectedEvent();
+        noCurrency.getPayload().setCurrency(null);
+        assertNull(BookingEventCodec.decode(BookingEventCodec.encode(noCurrency)).getPayload().getCurrency());
+    }
+
+    @Test
+    void serializer_UsesBinaryOnlyOnConfiguredTopicsAndDeserializerReadsBoth() {
+        BookingEventSerializer serializer = new BookingEventSerializer(Set.of("booking-events"));
+        serializer.configure(Map.of(), false);
+        BookingEventDeserializer deserializer = new BookingEventDeserializer();
+        deserializer.configure(Map.of(JsonDeserializer.TRUSTED_PACKAGES, "dev.visitingservice.dto",
+                JsonDeserializer.VALUE_DEFAULT_TYPE, BookingEventDTO.class.getName(),
+                JsonDeserializer.USE_TYPE_INFO_HEADERS, false), false);
+        BookingEventDTO event = BookingEventCodecBenchmark.acceptedEvent();
+
+        RecordHeaders binaryHeaders = new RecordHeaders();
+        byte[] binary = serializer.serialize("booking-events", binaryHeaders, event);
+        RecordHeaders jsonHeaders = new RecordHeaders();
+        byte[] json = serializer.serialize("booking-events-legacy", jsonHeaders, event);
+
+        assertEquals(BookingEventCodec.MAGIC, binary[0]);
+        assertNotNull(binaryHeaders.lastHeader(BookingEventSerializer.ENCODING_HEADER));
+        assertEquals('{', json[0]);
+        assertNull(jsonHeaders.lastHeader(BookingEventSerializer.ENCODING_HEADER));
+
+        assertEquals(event.getBookingId(),
+                ((BookingEventDTO) deserializer.deserialize("booking-events", binaryHeaders, binary)).getBookingId());
+        assertEquals(event.getBookingId(),
+                ((BookingEventDTO) deserializer.deserialize("booking-events-legacy", new RecordHeaders(), json)).getBookingId());
+    }
+
+    @Test
+    void decode_RejectsUnknownVersionsAndTruncatedRecords() {
+        byte[] binary = BookingEventCodec.encode(BookingEventCodecBenchmark.rejectedEvent());
+
+        byte[] future = binary.clone();
+        future[1] = (byte) (BookingEventCodec.VERSION + 1);
+        assertThrows(SerializationException.class, () -> BookingEventCodec.decode(future));
+
+        byte[] truncated = java.util.Arrays.copyOf(binary, binary.length - 5);
+        assertThrows(SerializationException.class, () -> BookingEventCodec.decode(truncated));
+    }
+}
@@ -0,0 +1,76 @@
+package dev.visitingservice.service;
+
+import dev.visitingservice.model.ShortletAvailability;
+import dev.visitingservice.repository.ShortletAvailabilityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class AvailabilityCompactionServiceTest {
+
+    @Mock
+    private ShortletAvailabilityRepository availabilityRepository;
+
+    @Mock
+    private PropertyLockService propertyLockService;
+
+    @InjectMocks
+    private AvailabilityCompactionService compactionService;
+
+    private final UUID landlordId = UUID.randomUUID();
+    private final UUID propertyId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private ShortletAvailability row(LocalDate start, LocalDate end) {
+        ShortletAvailability availability = new ShortletAvailability();
+        availability.setId(UUID.randomUUID());
+        availability.setLandlordId(landlordId);
+        availability.setPropertyId(propertyId);
+        availability.setStartDate(start);
+        availability.setEndDate(end);
+        return availability;
+    }
+
+    @Test
+    void compact_MergesTouchingAndOverlappingRows() {
+        ShortletAvailability first = row(LocalDate.of(2026, 11, 1), LocalDate.of(2026, 11, 10));
+        ShortletAvailability touching = row(LocalDate.of(2026, 11, 11), LocalDate.of(2026, 11, 15));
+        ShortletAvailability overlapping = row(LocalDate.of(2026, 11, 14), LocalDate.of(2026, 11, 20));
+        ShortletAvailability separate = row(LocalDate.of(2026, 12, 1), LocalDate.of(2026, 12, 5));
+        when(availabilityRepository.findByLandlordIdAndPropertyIdWithLock(landlordId, propertyId))
+                .thenReturn(List.of(overlapping, separate, first, touching));
+
+        int reclaimed = compactionService.compact(landlordId, propertyId, touching.getId());
+
+        assertEquals(2, reclaimed);
+        assertEquals(LocalDate.of(2026, 11, 1), touching.getStartDate());
+        assertEquals(LocalDate.of(2026, 11, 20), touching.getEndDate());
+        assertEquals(LocalDate.of(2026, 12, 5), separate.getEndDate());
+        verify(availabilityRepository).deleteAll(List.of(first, overlapping));
+        verify(availabilityRepository).flush();
+    }
+
+    @Test
+    void compact_LeavesDisjointRowsAlone() {
+        when(availabilityRepository.findByLandlordIdAndPropertyIdWithLock(landlordId, propertyId)).thenReturn(List.of(
+                row(LocalDate.of(2026, 11, 1), LocalDate.of(2026, 11, 10)),
+                row(LocalDate.of(2026, 11, 12), LocalDate.of(2026, 11, 15))));
+
+        assertEquals(0, compactionService.compact(landlordId, propertyId));
+        verify(availabilityRepository, never()).deleteAll(anyList());
+    }
+}
@@ -0,0 +1,74 @@
+package dev.visitingservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingCoordinatorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BookingCoordinator coordinator = new BookingCoordinator(meterRegistry, true, 30, 1000);
+
+    @Test
+    void submit_RunsOnePropertySeriallyAndOthersInParallel() throws Exception {
+        UUID busy = UUID.randomUUID();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            int n = i;
+            results.add(CompletableFuture.supplyAsync(() -> coordinator.submit(busy, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(2);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return n;
+            })));
+        }
+
+        // A different property is not queued behind the busy one
+        CountDownLatch blocked = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> coordinator.submit(busy, () -> {
+            try {
+                blocked.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        assertEquals("other", coordinator.submit(UUID.randomUUID(), () -> "other"));
+        blocked.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, maxRunning.get());
+        assertEquals(22, meterRegistry.get("booking.coordinator.wait").timer().count());
+    }
+
+    @Test
+    void submit_RethrowsActionExceptionAndRunsNestedCallsInline() {
+        UUID propertyId = UUID.randomUUID();
+
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+                () -> coordinator.submit(propertyId, () -> {
+                    throw new IllegalArgumentException("Booking not found");
+                }));
+        assertEquals("Booking not found", thrown.getMessage());
+
+        assertEquals("nested", coordinator.submit(propertyId, () -> coordinator.submit(propertyId, () -> "nested")));
+    }
+}
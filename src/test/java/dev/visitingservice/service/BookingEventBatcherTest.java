@@ -0,0 +1,110 @@
+package dev.visitingservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BookingEventBatcherTest {
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    private final AtomicInteger transactions = new AtomicInteger();
+    private final AtomicLong offsets = new AtomicLong();
+    private final CountDownLatch firstCommit = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstCommit = new CountDownLatch(1);
+
+    private BookingEventBatcher batcher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenAnswer(inv -> {
+            String topic = inv.getArgument(0);
+            RecordMetadata metadata = new RecordMetadata(new TopicPartition(topic, 0), offsets.getAndIncrement(), 0,
+                    System.currentTimeMillis(), 0, 0);
+            return CompletableFuture.completedFuture(new SendResult<>(
+                    new ProducerRecord<>(topic, inv.getArgument(1), inv.getArgument(2)), metadata));
+        });
+        when(kafkaTemplate.executeInTransaction(any())).thenAnswer(inv -> {
+            // Hold the first commit open so the remaining records pile up behind it
+            if (transactions.incrementAndGet() == 1) {
+                firstCommit.countDown();
+                releaseFirstCommit.await(5, TimeUnit.SECONDS);
+            }
+            return ((KafkaOperations.OperationsCallback<String, Object, Object>) inv.getArgument(0))
+                    .doInOperations(kafkaTemplate);
+        });
+        batcher = new BookingEventBatcher(kafkaTemplate, new SimpleMeterRegistry(), 500, 20);
+        batcher.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.stop();
+    }
+
+    @Test
+    void publish_CoalescesConcurrentCallersAndGivesEachItsOwnMetadata() throws Exception {
+        CompletableFuture<RecordMetadata> first = batcher.publish("booking-events", "first", "event-0");
+        assertTrue(firstCommit.await(5, TimeUnit.SECONDS));
+
+        List<CompletableFuture<RecordMetadata>> burst = new ArrayList<>();
+        List<Thread> callers = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            String key = "key-" + i;
+            callers.add(Thread.ofVirtual().start(() -> {
+                CompletableFuture<RecordMetadata> result = batcher.publish("booking-events", key, "event");
+                synchronized (burst) {
+                    burst.add(result);
+                }
+            }));
+        }
+        for (Thread caller : callers) {
+            caller.join();
+        }
+        releaseFirstCommit.countDown();
+
+        assertEquals(0, first.get(5, TimeUnit.SECONDS).offset());
+        List<Long> burstOffsets = new ArrayList<>();
+        for (CompletableFuture<RecordMetadata> result : burst) {
+            burstOffsets.add(result.get(5, TimeUnit.SECONDS).offset());
+        }
+        assertEquals(100, burstOffsets.stream().distinct().count());
+        assertTrue(transactions.get() <= 2, "100 queued records should go out in one transaction, not " + transactions.get());
+        assertTrue(batcher.targetBatchSize() > 1);
+    }
+
+    @Test
+    void publish_FailsEveryCallerInTheBatchWhenTheTransactionFails() {
+        releaseFirstCommit.countDown();
+        doThrow(new IllegalStateException("broker down")).when(kafkaTemplate).executeInTransaction(any());
+
+        CompletableFuture<RecordMetadata> result = batcher.publish("booking-events", "key", "event");
+
+        Exception failure = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertEquals("broker down", failure.getCause().getMessage());
+    }
+}
@@ -0,0 +1,129 @@
+package dev.visitingservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.visitingservice.dto.ShortletBookingDTO;
+import dev.visitingservice.exception.BookingConflictException;
+import dev.visitingservice.model.BookingIdempotencyKey;
+import dev.visitingservice.repository.BookingIdempotencyKeyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BookingIdempotencyServiceTest {
+
+    @Mock
+    private BookingIdempotencyKeyRepository keyRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final UUID tenantId = UUID.randomUUID();
+    private final Map<String, String> request = Map.of("propertyId", UUID.randomUUID().toString(),
+            "startDate", "2025-07-12", "endDate", "2025-07-15");
+    private final AtomicInteger created = new AtomicInteger();
+
+    private BookingIdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(keyRepository.findByIdempotencyKeyAndExpiresAtAfter(anyString(), any())).thenReturn(Optional.empty());
+        service = new BookingIdempotencyService(keyRepository, objectMapper, new SimpleMeterRegistry(), true, 100, 24, 120);
+    }
+
+    private ShortletBookingDTO create() {
+        ShortletBookingDTO dto = new ShortletBookingDTO();
+        dto.setId(UUID.randomUUID());
+        dto.setTenantId(tenantId);
+        dto.setStartDate(LocalDate.of(2025, 7, 12));
+        dto.setStatus("PENDING");
+        created.incrementAndGet();
+        return dto;
+    }
+
+    @Test
+    void createOnce_ReplaysSameKeyAndRejectsDifferentRequest() {
+        ShortletBookingDTO first = service.createOnce("retry-1", tenantId, request, this::create);
+        ShortletBookingDTO second = service.createOnce("retry-1", tenantId, request, this::create);
+
+        assertEquals(1, created.get());
+        assertEquals(first.getId(), second.getId());
+        assertEquals(first.getStartDate(), second.getStartDate());
+        assertThrows(IllegalArgumentException.class,
+                () -> service.createOnce("retry-1", tenantId, Map.of("propertyId", "other"), this::create));
+
+        // Another tenant's identical key is a different request
+        service.createOnce("retry-1", UUID.randomUUID(), request, this::create);
+        assertEquals(2, created.get());
+        // No key, no dedupe
+        service.createOnce(null, tenantId, request, this::create);
+        assertEquals(3, created.get());
+    }
+
+    @Test
+    void createOnce_ReplaysKeyPersistedByAnotherInstance() {
+        service.createOnce("retry-2", tenantId, request, this::create);
+        ArgumentCaptor<String> requestHash = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<OffsetDateTime> expiresAt = ArgumentCaptor.forClass(OffsetDateTime.class);
+        verify(keyRepository).claim(eq(tenantId + ":retry-2"), eq(tenantId), requestHash.capture(), any(), any());
+        verify(keyRepository).complete(eq(tenantId + ":retry-2"), body.capture(), expiresAt.capture());
+        BookingIdempotencyKey saved = new BookingIdempotencyKey(tenantId + ":retry-2", tenantId, requestHash.getValue(),
+                body.getValue(), expiresAt.getValue());
+
+        BookingIdempotencyService other = new BookingIdempotencyService(keyRepository, objectMapper,
+                new SimpleMeterRegistry(), true, 100, 24, 120);
+        when(keyRepository.findByIdempotencyKeyAndExpiresAtAfter(eq(tenantId + ":retry-2"), any()))
+                .thenReturn(Optional.of(saved));
+
+        ShortletBookingDTO replayed = other.createOnce("retry-2", tenantId, request, this::create);
+
+        assertEquals(1, created.get());
+        assertEquals("PENDING", replayed.getStatus());
+    }
+
+    @Test
+    void createOnce_RejectsRetryWhileAnotherInstanceHoldsTheClaim() {
+        service.createOnce("retry-3", tenantId, request, this::create);
+        ArgumentCaptor<String> requestHash = ArgumentCaptor.forClass(String.class);
+        verify(keyRepository).claim(anyString(), any(), requestHash.capture(), any(), any());
+
+        // The original is still running on another instance: its row has no response yet
+        BookingIdempotencyService other = new BookingIdempotencyService(keyRepository, objectMapper,
+                new SimpleMeterRegistry(), true, 100, 24, 120);
+        BookingIdempotencyKey pending = new BookingIdempotencyKey(tenantId + ":retry-4", tenantId,
+                requestHash.getValue(), null, OffsetDateTime.now().plusMinutes(2));
+        when(keyRepository.claim(eq(tenantId + ":retry-4"), any(), any(), any(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(keyRepository.findByIdempotencyKeyAndExpiresAtAfter(eq(tenantId + ":retry-4"), any()))
+                .thenReturn(Optional.empty(), Optional.of(pending));
+
+        assertThrows(BookingConflictException.class, () -> other.createOnce("retry-4", tenantId, request, this::create));
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    void createOnce_ReleasesTheClaimWhenCreationFails() {
+        assertThrows(IllegalArgumentException.class, () -> service.createOnce("retry-5", tenantId, request, () -> {
+            throw new IllegalArgumentException("Property is not available for the selected dates");
+        }));
+
+        verify(keyRepository).release(tenantId + ":retry-5");
+        verify(keyRepository, never()).complete(anyString(), anyString(), any());
+        service.createOnce("retry-5", tenantId, request, this::create);
+        assertEquals(1, created.get());
+    }
+}
@@ -0,0 +1,114 @@
+package dev.visitingservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.visitingservice.dto.BookingCommandDTO;
+import dev.visitingservice.dto.BookingRequestDTO;
+import dev.visitingservice.dto.ShortletBookingDTO;
+import dev.visitingservice.model.BookingRequest;
+import dev.visitingservice.model.BookingRequest.RequestStatus;
+import dev.visitingservice.repository.BookingRequestRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BookingRequestServiceTest {
+
+    @Mock
+    private BookingRequestRepository requestRepository;
+
+    @Mock
+    private ShortletBookingService bookingService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final UUID requestId = UUID.randomUUID();
+    private final BookingRequest row = new BookingRequest();
+
+    private BookingRequestService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        BookingCommandDTO command = new BookingCommandDTO();
+        command.setTenantId(UUID.randomUUID());
+        command.setLandlordId(UUID.randomUUID());
+        command.setPropertyId(UUID.randomUUID());
+        command.setStartDate(LocalDate.now().plusDays(3));
+        command.setEndDate(LocalDate.now().plusDays(5));
+        row.setId(requestId);
+        row.setStatus(RequestStatus.SUBMITTED);
+        row.setPayload(objectMapper.writeValueAsString(command));
+        when(requestRepository.findById(requestId)).thenReturn(Optional.of(row));
+        when(requestRepository.complete(eq(requestId), any(), any(), any(), any())).thenAnswer(inv -> {
+            row.setStatus(inv.getArgument(1));
+            row.setBookingId(inv.getArgument(2));
+            row.setError(inv.getArgument(3));
+            return 1;
+        });
+        service = new BookingRequestService(requestRepository, bookingService, objectMapper, new SimpleMeterRegistry(),
+                4, 100, 60, 10);
+    }
+
+    @Test
+    void process_CompletesWaitersOnceClaimedAndSkipsRequestsClaimedElsewhere() {
+        ShortletBookingDTO booking = new ShortletBookingDTO();
+        booking.setId(UUID.randomUUID());
+        when(bookingService.createBooking(any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), any(),
+                any(), any(), any(), any())).thenReturn(booking);
+        when(bookingService.getBookingById(booking.getId())).thenReturn(booking);
+        when(requestRepository.transition(eq(requestId), eq(RequestStatus.SUBMITTED), eq(RequestStatus.PROCESSING), any()))
+                .thenReturn(1, 0);
+
+        CompletableFuture<BookingRequestDTO> outcome = service.outcome(requestId, 5, TimeUnit.SECONDS);
+        assertFalse(outcome.isDone());
+
+        service.process(requestId);
+        service.process(requestId);
+
+        BookingRequestDTO done = outcome.join();
+        assertEquals("COMPLETED", done.getStatus());
+        assertEquals(booking.getId(), done.getBooking().getId());
+        verify(bookingService, times(1)).createBooking(any(), any(), any(), any(), any(), any(), any(), any(), any(),
+                any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void process_RecordsFailureMessage() {
+        when(requestRepository.transition(eq(requestId), any(), any(), any())).thenReturn(1);
+        when(bookingService.createBooking(any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), any(),
+                any(), any(), any(), any())).thenThrow(new IllegalArgumentException("Property is not available for the selected dates"));
+
+        service.process(requestId);
+
+        BookingRequestDTO failed = service.get(requestId);
+        assertEquals("FAILED", failed.getStatus());
+        assertEquals("Property is not available for the selected dates", failed.getError());
+        assertTrue(failed.isFinished());
+        assertNull(failed.getBooking());
+    }
+
+    @Test
+    void outcome_ForgetsWaitersOfUnknownOrUnfinishedRequests() {
+        UUID unknown = UUID.randomUUID();
+        when(requestRepository.findById(unknown)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> service.outcome(unknown, 5, TimeUnit.SECONDS));
+        // Never finished here, e.g. recovered by another instance
+        assertNull(service.outcome(requestId, 10, TimeUnit.MILLISECONDS).join());
+
+        assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(service, "outcomes")).isEmpty());
+    }
+}
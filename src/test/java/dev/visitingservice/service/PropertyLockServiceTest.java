@@ -0,0 +1,114 @@
+package dev.visitingservice.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PropertyLockServiceTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private DatabaseMetaData metaData;
+
+    private final UUID propertyId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getDatabaseProductName()).thenReturn("H2");
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private boolean lockFromOtherThread(PropertyLockService service) {
+        return CompletableFuture.supplyAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            try {
+                service.lock(propertyId);
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+                return true;
+            } catch (IllegalStateException e) {
+                return false;
+            } finally {
+                TransactionSynchronizationManager.setActualTransactionActive(false);
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }).join();
+    }
+
+    private boolean tryLockFromOtherThread(PropertyLockService service, long key) {
+        return CompletableFuture.supplyAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            try {
+                return service.tryLock(key);
+            } finally {
+                TransactionSynchronizationManager.setActualTransactionActive(false);
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }).join();
+    }
+
+    @Test
+    void lock_HeldUntilTransactionCompletes() {
+        PropertyLockService service = new PropertyLockService(dataSource, "property", 16, 0);
+
+        service.lock(propertyId);
+        assertFalse(lockFromOtherThread(service));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertTrue(lockFromOtherThread(service));
+    }
+
+    @Test
+    void lock_NoOpInRowMode() {
+        PropertyLockService service = new PropertyLockService(dataSource, "row", 16, 0);
+
+        service.lock(propertyId);
+
+        assertFalse(service.isPropertyMode());
+        assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new PropertyLockService(dataSource, "table", 16, 0));
+    }
+
+    @Test
+    void tryLock_FallsBackToAnInProcessLockOffPostgres() {
+        PropertyLockService service = new PropertyLockService(dataSource, "row", 16, 0);
+
+        assertTrue(service.tryLock(42L));
+        assertFalse(tryLockFromOtherThread(service, 42L));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertTrue(tryLockFromOtherThread(service, 42L));
+    }
+}
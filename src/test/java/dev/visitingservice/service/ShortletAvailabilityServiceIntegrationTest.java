@@ -142,4 +142,22 @@ public class ShortletAvailabilityServiceIntegrationTest {
         List<UUID> available = availabilityService.getAvailablePropertyIdsInRange(LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 30));
         assertFalse(available.contains(propertyId));
     }
+
+    @Test
+    void testPagedSearchReturnsDisjointPages() {
+        for (int i = 0; i < 3; i++) {
+            ShortletAvailability avail = new ShortletAvailability();
+            avail.setLandlordId(landlordId);
+            avail.setPropertyId(UUID.randomUUID());
+            avail.setStartDate(LocalDate.of(2025, 10, 1));
+            avail.setEndDate(LocalDate.of(2025, 10, 30));
+            availabilityRepository.save(avail);
+        }
+
+        List<UUID> first = availabilityService.getAvailablePropertyIdsInRange(LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 30), 0, 2);
+        List<UUID> second = availabilityService.getAvailablePropertyIdsInRange(LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 30), 1, 2);
+        assertEquals(2, first.size());
+        assertEquals(1, second.size());
+        assertFalse(first.contains(second.get(0)));
+    }
 }
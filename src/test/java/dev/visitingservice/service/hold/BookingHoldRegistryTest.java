@@ -0,0 +1,113 @@
+package dev.visitingservice.service.hold;
+
+import dev.visitingservice.model.BookingHold;
+import dev.visitingservice.repository.BookingHoldRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BookingHoldRegistryTest {
+
+    @Mock
+    private BookingHoldRepository holdRepository;
+
+    private BookingHoldRegistry registry;
+
+    private final UUID propertyId = UUID.randomUUID();
+    private final UUID tenantId = UUID.randomUUID();
+    private final LocalDate start = LocalDate.now().plusDays(10);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        registry = new BookingHoldRegistry(holdRepository, new SimpleMeterRegistry());
+    }
+
+    private BookingHold hold(UUID propertyId, LocalDate startDate, LocalDate endDate, OffsetDateTime expiresAt) {
+        BookingHold hold = new BookingHold();
+        hold.setId(UUID.randomUUID());
+        hold.setTenantId(tenantId);
+        hold.setLandlordId(UUID.randomUUID());
+        hold.setPropertyId(propertyId);
+        hold.setStartDate(startDate);
+        hold.setEndDate(endDate);
+        hold.setExpiresAt(expiresAt);
+        return hold;
+    }
+
+    @Test
+    void isHeld_BlocksOverlappingNightsOfOtherTenants() {
+        UUID other = UUID.randomUUID();
+        registry.add(hold(propertyId, start, start.plusDays(3), OffsetDateTime.now(ZoneOffset.UTC).plusMinutes(10)), true);
+
+        assertTrue(registry.isHeld(propertyId, start.plusDays(2), start.plusDays(5), null));
+        assertTrue(registry.isHeld(propertyId, start.minusDays(2), start.plusDays(1), UUID.randomUUID()));
+        assertFalse(registry.isHeld(propertyId, start, start.plusDays(3), tenantId)); // the holder's own stay
+        assertFalse(registry.isHeld(propertyId, start.plusDays(3), start.plusDays(5), null)); // check-out day is free
+        assertFalse(registry.isHeld(other, start, start.plusDays(3), null));
+        assertEquals(List.of(other), registry.withoutHeld(List.of(propertyId, other), start, start.plusDays(1)));
+    }
+
+    @Test
+    void reapExpired_DropsExpiredHoldsAndDeletesOnlyLocalRows() {
+        BookingHold local = hold(propertyId, start, start.plusDays(3), OffsetDateTime.now(ZoneOffset.UTC).minusSeconds(1));
+        BookingHold foreign = hold(propertyId, start.plusDays(5), start.plusDays(7), OffsetDateTime.now(ZoneOffset.UTC).minusSeconds(1));
+        BookingHold active = hold(propertyId, start.plusDays(10), start.plusDays(12), OffsetDateTime.now(ZoneOffset.UTC).plusMinutes(10));
+        registry.add(local, true);
+        registry.add(foreign, false);
+        registry.add(active, true);
+
+        // Expired holds stop blocking even before the reaper gets to them
+        assertFalse(registry.isHeld(propertyId, start, start.plusDays(7), null));
+
+        assertEquals(2, registry.reapExpired());
+        assertEquals(0, registry.reapExpired());
+        verify(holdRepository).deleteAllByIdInBatch(List.of(local.getId()));
+        assertTrue(registry.isHeld(propertyId, start.plusDays(10), start.plusDays(11), null));
+    }
+
+    @Test
+    void sync_AddsHoldsFromOtherInstancesAndDropsReleasedOnes() {
+        BookingHold foreign = hold(propertyId, start, start.plusDays(3), OffsetDateTime.now(ZoneOffset.UTC).plusMinutes(10));
+        when(holdRepository.findByExpiresAtAfter(any())).thenReturn(List.of(foreign));
+
+        registry.sync();
+        assertTrue(registry.isHeld(propertyId, start, start.plusDays(1), null));
+
+        when(holdRepository.findByExpiresAtAfter(any())).thenReturn(List.of());
+        registry.sync();
+        assertFalse(registry.isHeld(propertyId, start, start.plusDays(1), null));
+    }
+
+    @Test
+    void sync_DropsLocalHoldsReleasedElsewhereButKeepsThoseAddedDuringTheQuery() throws InterruptedException {
+        BookingHold released = hold(propertyId, start, start.plusDays(3), OffsetDateTime.now(ZoneOffset.UTC).plusMinutes(10));
+        BookingHold committing = hold(propertyId, start.plusDays(5), start.plusDays(7), OffsetDateTime.now(ZoneOffset.UTC).plusMinutes(10));
+        registry.add(released, true);
+        Thread.sleep(5);
+        when(holdRepository.findByExpiresAtAfter(any())).thenAnswer(invocation -> {
+            // Committed after the query's snapshot, so it is missing from the result
+            Thread.sleep(5);
+            registry.add(committing, true);
+            return List.of();
+        });
+
+        registry.sync();
+
+        assertFalse(registry.isHeld(propertyId, start, start.plusDays(1), null));
+        assertTrue(registry.isHeld(propertyId, start.plusDays(5), start.plusDays(6), null));
+        verify(holdRepository, never()).deleteAllByIdInBatch(any());
+    }
+}
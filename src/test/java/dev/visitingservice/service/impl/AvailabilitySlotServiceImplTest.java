@@ -2,18 +2,32 @@ package dev.visitingservice.service.impl;
 
 import dev.visitingservice.exception.SlotUnavailableException;
 import dev.visitingservice.model.AvailabilitySlot;
+import dev.visitingservice.model.ViewingSlotTemplate;
 import dev.visitingservice.repository.AvailabilitySlotRepository;
+import dev.visitingservice.repository.ViewingSlotTemplateRepository;
+import dev.visitingservice.service.PropertyLockService;
 import dev.visitingservice.service.VisitValidationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 class AvailabilitySlotServiceImplTest {
@@ -21,9 +35,15 @@ class AvailabilitySlotServiceImplTest {
     @Mock
     private AvailabilitySlotRepository repository;
 
+    @Mock
+    private ViewingSlotTemplateRepository templateRepository;
+
     @Mock
     private VisitValidationService validationService;
 
+    @Mock
+    private PropertyLockService propertyLockService;
+
     @InjectMocks
     private AvailabilitySlotServiceImpl service;
 
@@ -32,6 +52,10 @@ class AvailabilitySlotServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(service, "maxRangeDays", 92);
+        ReflectionTestUtils.setField(service, "maxSlotsPerRequest", 5000);
+        ReflectionTestUtils.setField(service, "templateLookaheadDays", 2);
+        when(propertyLockService.isPropertyMode()).thenReturn(true);
         slot = new AvailabilitySlot();
         slot.setPropertyId(UUID.randomUUID());
         slot.setLandlordId(UUID.randomUUID());
@@ -67,5 +91,126 @@ class AvailabilitySlotServiceImplTest {
             .thenReturn(true);
         assertTrue(service.isSlotAvailable(slot.getPropertyId(), start, end));
     }
-}
 
+    @Test
+    void createSlotsForDateRange_SkipsOverlapsWithOneWindowQuery() {
+        UUID propertyId = slot.getPropertyId();
+        LocalDate monday = LocalDate.of(2026, 11, 2);
+        // Existing 10:00-11:00 Lagos slot on Wednesday
+        AvailabilitySlot existing = new AvailabilitySlot();
+        existing.setStartTime(OffsetDateTime.of(2026, 11, 4, 9, 0, 0, 0, ZoneOffset.UTC));
+        existing.setEndTime(OffsetDateTime.of(2026, 11, 4, 10, 0, 0, 0, ZoneOffset.UTC));
+        when(repository.findByPropertyIdAndStartTimeLessThanAndEndTimeGreaterThanOrderByStartTime(eq(propertyId), any(), any()))
+                .thenReturn(List.of(existing));
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<AvailabilitySlot> created = service.createSlotsForDateRange(propertyId, slot.getLandlordId(),
+                monday, monday.plusDays(6), Set.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY),
+                LocalTime.of(10, 0), LocalTime.of(12, 0), 30);
+
+        // 4 slots on Monday, 2 on Wednesday after the 10:00-11:00 overlap
+        assertEquals(6, created.size());
+        verify(repository, times(1)).findByPropertyIdAndStartTimeLessThanAndEndTimeGreaterThanOrderByStartTime(eq(propertyId), any(), any());
+        verify(repository, never()).existsByPropertyIdAndStartTimeLessThanAndEndTimeGreaterThan(any(), any(), any());
+        verify(repository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void getAvailableSlots_ExpandsTemplatesAroundStoredSlots() {
+        UUID propertyId = slot.getPropertyId();
+        ZoneId lagos = ZoneId.of("Africa/Lagos");
+        LocalDate tomorrow = LocalDate.now(lagos).plusDays(1);
+        ViewingSlotTemplate template = template(propertyId, tomorrow);
+        // Booked 10:00-11:00 tomorrow and an unbooked stored slot at 15:00
+        AvailabilitySlot booked = new AvailabilitySlot();
+        booked.setStartTime(tomorrow.atTime(10, 0).atZone(lagos).toOffsetDateTime());
+        booked.setEndTime(tomorrow.atTime(11, 0).atZone(lagos).toOffsetDateTime());
+        booked.setBooked(true);
+        AvailabilitySlot stored = new AvailabilitySlot();
+        stored.setStartTime(tomorrow.atTime(15, 0).atZone(lagos).toOffsetDateTime());
+        stored.setEndTime(tomorrow.atTime(16, 0).atZone(lagos).toOffsetDateTime());
+        when(templateRepository.findByPropertyId(propertyId)).thenReturn(List.of(template));
+        when(repository.findByPropertyIdAndEndTimeAfterOrderByStartTime(eq(propertyId), any()))
+                .thenReturn(List.of(booked, stored));
+
+        List<AvailabilitySlot> slots = service.getAvailableSlots(propertyId);
+
+        // Two days of two template slots, minus the booked one, plus the stored slot
+        assertEquals(4, slots.size());
+        assertEquals(tomorrow.atTime(11, 0).atZone(lagos).toInstant(), slots.get(0).getStartTime().toInstant());
+        assertSame(stored, slots.get(1));
+        assertEquals(AvailabilitySlotServiceImpl.templateSlotId(template.getId(), slots.get(0).getStartTime()),
+                slots.get(0).getId());
+        verify(repository, never()).findByPropertyIdAndStartTimeAfterAndBookedFalse(any(), any());
+    }
+
+    @Test
+    void claimTemplateSlot_StoresBookedRowOnlyForTemplateSlot() {
+        UUID propertyId = slot.getPropertyId();
+        ZoneId lagos = ZoneId.of("Africa/Lagos");
+        LocalDate tomorrow = LocalDate.now(lagos).plusDays(1);
+        ViewingSlotTemplate template = template(propertyId, tomorrow);
+        OffsetDateTime start = tomorrow.atTime(11, 0).atZone(lagos).toOffsetDateTime();
+        when(templateRepository.findByPropertyId(propertyId)).thenReturn(List.of(template));
+        when(repository.save(any(AvailabilitySlot.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Optional<AvailabilitySlot> claimed = service.claimTemplateSlot(propertyId,
+                AvailabilitySlotServiceImpl.templateSlotId(template.getId(), start));
+
+        assertTrue(claimed.isPresent());
+        assertTrue(claimed.get().isBooked());
+        assertNull(claimed.get().getId());
+        assertEquals(start.toInstant(), claimed.get().getStartTime().toInstant());
+        assertTrue(service.claimTemplateSlot(propertyId, UUID.randomUUID()).isEmpty());
+        verify(repository, times(1)).save(any(AvailabilitySlot.class));
+    }
+
+    @Test
+    void claimTemplateSlot_SecondClaimOfTheSameSlotIsRejectedUnderThePropertyLock() {
+        UUID propertyId = slot.getPropertyId();
+        ZoneId lagos = ZoneId.of("Africa/Lagos");
+        LocalDate tomorrow = LocalDate.now(lagos).plusDays(1);
+        ViewingSlotTemplate template = template(propertyId, tomorrow);
+        OffsetDateTime start = tomorrow.atTime(11, 0).atZone(lagos).toOffsetDateTime();
+        UUID slotId = AvailabilitySlotServiceImpl.templateSlotId(template.getId(), start);
+        when(templateRepository.findByPropertyId(propertyId)).thenReturn(List.of(template));
+        when(repository.save(any(AvailabilitySlot.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        // The first claim's row is visible to whoever takes the lock next
+        when(repository.existsByPropertyIdAndStartTimeLessThanAndEndTimeGreaterThan(eq(propertyId), any(), any()))
+                .thenReturn(false, true);
+
+        assertTrue(service.claimTemplateSlot(propertyId, slotId).isPresent());
+        assertThrows(SlotUnavailableException.class, () -> service.claimTemplateSlot(propertyId, slotId));
+
+        verify(repository, times(1)).save(any(AvailabilitySlot.class));
+        InOrder order = inOrder(propertyLockService, repository);
+        for (int claim = 0; claim < 2; claim++) {
+            order.verify(propertyLockService).lock(propertyId);
+            order.verify(repository).existsByPropertyIdAndStartTimeLessThanAndEndTimeGreaterThan(eq(propertyId), any(), any());
+        }
+    }
+
+    @Test
+    void claimTemplateSlot_LocksTheTemplateRowsInRowMode() {
+        UUID propertyId = slot.getPropertyId();
+        when(propertyLockService.isPropertyMode()).thenReturn(false);
+        when(templateRepository.findByPropertyIdWithLock(propertyId)).thenReturn(List.of());
+
+        assertTrue(service.claimTemplateSlot(propertyId, UUID.randomUUID()).isEmpty());
+        verify(templateRepository).findByPropertyIdWithLock(propertyId);
+        verify(propertyLockService, never()).lock(any());
+    }
+
+    private ViewingSlotTemplate template(UUID propertyId, LocalDate validFrom) {
+        ViewingSlotTemplate template = new ViewingSlotTemplate();
+        template.setId(UUID.randomUUID());
+        template.setPropertyId(propertyId);
+        template.setLandlordId(slot.getLandlordId());
+        template.setStartTime(LocalTime.of(10, 0));
+        template.setEndTime(LocalTime.of(12, 0));
+        template.setIntervalMinutes(60);
+        template.setValidFrom(validFrom);
+        template.setValidUntil(validFrom.plusDays(1));
+        return template;
+    }
+}
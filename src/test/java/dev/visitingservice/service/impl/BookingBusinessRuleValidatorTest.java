@@ -0,0 +1,109 @@
+package dev.visitingservice.service.impl;
+
+import dev.visitingservice.model.ShortletAvailability;
+import dev.visitingservice.model.ShortletBooking;
+import dev.visitingservice.model.ShortletBooking.BookingStatus;
+import dev.visitingservice.repository.BookingHoldRepository;
+import dev.visitingservice.repository.ShortletAvailabilityRepository;
+import dev.visitingservice.repository.ShortletBookingRepository;
+import dev.visitingservice.service.PropertyLockService;
+import dev.visitingservice.service.hold.BookingHoldRegistry;
+import dev.visitingservice.service.index.AvailabilityRuleLoader;
+import dev.visitingservice.service.index.AvailabilityRuleSet;
+import dev.visitingservice.service.index.PropertyTimeline;
+import dev.visitingservice.service.index.ShortletAvailabilityIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BookingBusinessRuleValidatorTest {
+
+    @Mock
+    private ShortletAvailabilityRepository availabilityRepository;
+
+    @Mock
+    private ShortletBookingRepository bookingRepository;
+
+    @Mock
+    private ShortletAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private AvailabilityRuleLoader ruleLoader;
+
+    @Mock
+    private PropertyLockService propertyLockService;
+
+    @Mock
+    private BookingHoldRepository holdRepository;
+
+    @Mock
+    private BookingHoldRegistry holdRegistry;
+
+    @InjectMocks
+    private BookingBusinessRuleValidator validator;
+
+    private final UUID landlordId = UUID.randomUUID();
+    private final UUID propertyId = UUID.randomUUID();
+    private final LocalDate start = LocalDate.now().plusDays(10);
+    private final LocalDate end = LocalDate.now().plusDays(13);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(propertyLockService.isPropertyMode()).thenReturn(true);
+        when(ruleLoader.forProperty(landlordId, propertyId)).thenReturn(AvailabilityRuleSet.EMPTY);
+    }
+
+    private ShortletAvailability availability(LocalDate from, LocalDate to) {
+        ShortletAvailability availability = new ShortletAvailability();
+        availability.setLandlordId(landlordId);
+        availability.setPropertyId(propertyId);
+        availability.setStartDate(from);
+        availability.setEndDate(to);
+        return availability;
+    }
+
+    @Test
+    void validate_BooksUnderLockWhenTheIndexIsBehind() {
+        // The index still has a booking that was cancelled on another instance
+        ShortletBooking cancelled = new ShortletBooking();
+        cancelled.setStartDate(start);
+        cancelled.setEndDate(end);
+        cancelled.setStatus(BookingStatus.ACCEPTED);
+        PropertyTimeline stale = PropertyTimeline.of(propertyId, LocalDate.now().minusDays(1),
+                List.of(availability(start.minusDays(5), end.plusDays(5))), List.of(cancelled));
+        when(availabilityIndex.residentTimeline(propertyId, start)).thenReturn(Optional.of(stale));
+        when(availabilityRepository.findByLandlordIdAndPropertyIdAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
+                landlordId, propertyId, end, start)).thenReturn(List.of(
+                availability(start.minusDays(5), start.plusDays(1)), availability(start.plusDays(2), end.plusDays(5))));
+
+        validator.validateInCurrentTransaction(landlordId, propertyId, start, end, UUID.randomUUID());
+
+        verify(propertyLockService).lock(propertyId);
+        verify(availabilityIndex).refreshAfterCommit(propertyId, start, end);
+    }
+
+    @Test
+    void validate_RejectsUnderLockWhenRowsLeaveAGap() {
+        when(availabilityIndex.residentTimeline(propertyId, start)).thenReturn(Optional.empty());
+        when(availabilityRepository.findByLandlordIdAndPropertyIdAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
+                landlordId, propertyId, end, start)).thenReturn(List.of(
+                availability(start.minusDays(5), start), availability(start.plusDays(2), end.plusDays(5))));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> validator.validateInCurrentTransaction(landlordId, propertyId, start, end, UUID.randomUUID()));
+        verify(propertyLockService).lock(propertyId);
+        verify(availabilityIndex, never()).refreshAfterCommit(any(), any(), any());
+    }
+}
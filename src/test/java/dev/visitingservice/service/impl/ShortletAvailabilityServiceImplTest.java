@@ -0,0 +1,246 @@
+package dev.visitingservice.service.impl;
+
+import dev.visitingservice.dto.AvailabilityCheckDTO;
+import dev.visitingservice.dto.ShortletAvailabilityDTO;
+import dev.visitingservice.model.ShortletAvailability;
+import dev.visitingservice.model.ShortletBooking;
+import dev.visitingservice.model.ShortletBooking.BookingStatus;
+import dev.visitingservice.model.ShortletAvailabilityRule;
+import dev.visitingservice.repository.ShortletAvailabilityExceptionRepository;
+import dev.visitingservice.repository.ShortletAvailabilityRepository;
+import dev.visitingservice.repository.ShortletAvailabilityRuleRepository;
+import dev.visitingservice.repository.ShortletBookingRepository;
+import dev.visitingservice.service.AvailabilityCompactionService;
+import dev.visitingservice.service.PropertyLockService;
+import dev.visitingservice.service.VisitValidationService;
+import dev.visitingservice.service.hold.BookingHoldRegistry;
+import dev.visitingservice.service.index.AvailabilityRuleLoader;
+import dev.visitingservice.service.index.AvailabilityRuleSet;
+import dev.visitingservice.service.index.AvailabilitySearchCache;
+import dev.visitingservice.service.index.ShortletAvailabilityIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ShortletAvailabilityServiceImplTest {
+
+    @Mock
+    private ShortletAvailabilityRepository availabilityRepository;
+
+    @Mock
+    private ShortletBookingRepository bookingRepository;
+
+    @Mock
+    private VisitValidationService validationService;
+
+    @Mock
+    private ShortletAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private AvailabilitySearchCache searchCache;
+
+    @Mock
+    private AvailabilityCompactionService compactionService;
+
+    @Mock
+    private ShortletAvailabilityRuleRepository ruleRepository;
+
+    @Mock
+    private ShortletAvailabilityExceptionRepository exceptionRepository;
+
+    @Mock
+    private AvailabilityRuleLoader ruleLoader;
+
+    @Mock
+    private PropertyLockService propertyLockService;
+
+    @Mock
+    private BookingHoldRegistry holdRegistry;
+
+    @InjectMocks
+    private ShortletAvailabilityServiceImpl service;
+
+    private final UUID landlordId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(holdRegistry.withoutHeld(any(), any(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        ReflectionTestUtils.setField(service, "maxCheckBatchSize", 500);
+        ReflectionTestUtils.setField(service, "maxBulkRanges", 1000);
+        ReflectionTestUtils.setField(service, "maxSearchPageSize", 100);
+    }
+
+    private ShortletAvailability availability(UUID propertyId, LocalDate start, LocalDate end) {
+        ShortletAvailability availability = new ShortletAvailability();
+        availability.setLandlordId(landlordId);
+        availability.setPropertyId(propertyId);
+        availability.setStartDate(start);
+        availability.setEndDate(end);
+        return availability;
+    }
+
+    @Test
+    void checkAvailability_ResolvesMissesWithTwoQueries() {
+        UUID free = UUID.randomUUID();
+        UUID booked = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        LocalDate start = LocalDate.of(2026, 12, 18);
+        LocalDate end = LocalDate.of(2026, 12, 20);
+
+        ShortletBooking booking = new ShortletBooking();
+        booking.setPropertyId(booked);
+        booking.setStartDate(LocalDate.of(2026, 12, 19));
+        booking.setEndDate(LocalDate.of(2026, 12, 22));
+        booking.setStatus(BookingStatus.ACCEPTED);
+
+        when(availabilityRepository.findByPropertyIdIn(anyCollection())).thenReturn(List.of(
+                availability(free, LocalDate.of(2026, 12, 1), LocalDate.of(2026, 12, 31)),
+                availability(booked, LocalDate.of(2026, 12, 1), LocalDate.of(2026, 12, 31))));
+        when(bookingRepository.findByPropertyIdInAndStatusAndEndDateAfter(anyCollection(), eq(BookingStatus.ACCEPTED), eq(start)))
+                .thenReturn(List.of(booking));
+
+        List<AvailabilityCheckDTO> results = service.checkAvailability(List.of(
+                new AvailabilityCheckDTO(free, start, end, null),
+                new AvailabilityCheckDTO(booked, start, end, null),
+                new AvailabilityCheckDTO(unknown, start, end, null),
+                new AvailabilityCheckDTO(free, end, start, null)));
+
+        assertEquals(List.of(true, false, false, false), results.stream().map(AvailabilityCheckDTO::getAvailable).toList());
+        verify(availabilityRepository, times(1)).findByPropertyIdIn(anyCollection());
+        verify(bookingRepository, times(1)).findByPropertyIdInAndStatusAndEndDateAfter(anyCollection(), any(), any());
+    }
+
+    @Test
+    void checkAvailability_RejectsOversizedBatch() {
+        ReflectionTestUtils.setField(service, "maxCheckBatchSize", 1);
+        AvailabilityCheckDTO check = new AvailabilityCheckDTO(UUID.randomUUID(), LocalDate.now(), LocalDate.now().plusDays(1), null);
+
+        assertThrows(IllegalArgumentException.class, () -> service.checkAvailability(List.of(check, check)));
+        verifyNoInteractions(availabilityRepository, bookingRepository);
+    }
+
+    private ShortletAvailabilityDTO range(UUID propertyId, LocalDate start, LocalDate end) {
+        ShortletAvailabilityDTO dto = new ShortletAvailabilityDTO();
+        dto.setPropertyId(propertyId);
+        dto.setStartDate(start);
+        dto.setEndDate(end);
+        return dto;
+    }
+
+    @Test
+    void setAvailabilityBulk_MergesInMemoryAndChecksOwnershipOncePerProperty() {
+        UUID propertyId = UUID.randomUUID();
+        ShortletAvailability kept = availability(propertyId, LocalDate.of(2026, 12, 1), LocalDate.of(2026, 12, 5));
+        ShortletAvailability absorbed = availability(propertyId, LocalDate.of(2026, 12, 10), LocalDate.of(2026, 12, 12));
+        when(availabilityRepository.findByLandlordIdAndPropertyIdInWithLock(eq(landlordId), anyCollection()))
+                .thenReturn(List.of(kept, absorbed));
+
+        List<ShortletAvailabilityDTO> result = service.setAvailabilityBulk(landlordId, List.of(
+                range(propertyId, LocalDate.of(2026, 12, 8), LocalDate.of(2026, 12, 11)),
+                range(propertyId, LocalDate.of(2026, 12, 13), LocalDate.of(2026, 12, 20))));
+
+        verify(validationService, times(1)).validateListingOwnership(propertyId, landlordId);
+        verify(availabilityRepository).deleteAllInBatch(List.of(absorbed));
+        verify(availabilityRepository).saveAll(argThat(rows -> {
+            List<ShortletAvailability> inserted = new ArrayList<>();
+            rows.forEach(inserted::add);
+            return inserted.size() == 1
+                    && inserted.get(0).getStartDate().equals(LocalDate.of(2026, 12, 8))
+                    && inserted.get(0).getEndDate().equals(LocalDate.of(2026, 12, 20));
+        }));
+        assertEquals(2, result.size());
+    }
+
+    @Test
+    void getAvailablePropertyIdsInRange_PagesTheIndexInTheDatabaseOrder() {
+        LocalDate start = LocalDate.now().plusDays(3);
+        LocalDate end = start.plusDays(2);
+        // Unsigned order, as Postgres sorts uuid columns; UUID.compareTo would put the last two first
+        UUID first = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        UUID second = UUID.fromString("00000000-0000-0000-8000-000000000000");
+        UUID third = UUID.fromString("7fffffff-0000-0000-0000-000000000000");
+        UUID fourth = UUID.fromString("80000000-0000-0000-0000-000000000000");
+        UUID fifth = UUID.fromString("ffffffff-0000-0000-0000-000000000000");
+        when(searchCache.getPropertyIds(start, end)).thenReturn(Optional.empty());
+        when(availabilityIndex.findFreeProperties(start, end))
+                .thenReturn(Optional.of(List.of(fifth, third, first, fourth, second)));
+
+        List<UUID> paged = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            paged.addAll(service.getAvailablePropertyIdsInRange(start, end, page, 2));
+        }
+
+        assertEquals(List.of(first, second, third, fourth, fifth), paged);
+        verify(searchCache, times(3)).putPropertyIds(eq(start), eq(end),
+                eq(List.of(first, second, third, fourth, fifth)), anyLong());
+    }
+
+    @Test
+    void getAvailablePropertyIdsInRange_EvaluatesRulesOnDatabaseFallback() {
+        UUID rowProperty = UUID.randomUUID();
+        UUID weekendProperty = UUID.randomUUID();
+        UUID weekdayProperty = UUID.randomUUID();
+        // Saturday night, Sunday checkout
+        LocalDate start = LocalDate.of(2026, 11, 7);
+        LocalDate end = LocalDate.of(2026, 11, 8);
+
+        ShortletAvailabilityRule weekends = new ShortletAvailabilityRule();
+        weekends.setId(UUID.randomUUID());
+        weekends.setLandlordId(landlordId);
+        weekends.setPropertyId(weekendProperty);
+        weekends.setDaysOfWeek(Set.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY));
+        weekends.setStartDate(start.minusMonths(1));
+        ShortletAvailabilityRule weekdays = new ShortletAvailabilityRule();
+        weekdays.setId(UUID.randomUUID());
+        weekdays.setLandlordId(landlordId);
+        weekdays.setPropertyId(weekdayProperty);
+        weekdays.setDaysOfWeek(Set.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY));
+        weekdays.setStartDate(start.minusMonths(1));
+
+        when(searchCache.getPropertyIds(start, end)).thenReturn(Optional.empty());
+        when(availabilityIndex.findFreeProperties(start, end)).thenReturn(Optional.empty());
+        when(availabilityRepository.findFreePropertyIdsInRange(start, end)).thenReturn(List.of(rowProperty));
+        when(ruleRepository.findPropertyIdsActiveBetween(start, end)).thenReturn(List.of(weekendProperty, weekdayProperty));
+        when(ruleLoader.forProperties(anyCollection())).thenReturn(Map.of(
+                weekendProperty, AvailabilityRuleSet.of(List.of(weekends), List.of()),
+                weekdayProperty, AvailabilityRuleSet.of(List.of(weekdays), List.of())));
+
+        List<UUID> result = service.getAvailablePropertyIdsInRange(start, end);
+
+        assertEquals(2, result.size());
+        assertTrue(result.containsAll(List.of(rowProperty, weekendProperty)));
+    }
+
+    @Test
+    void isAvailable_AcceptsAdjacentRowsOnDatabaseFallback() {
+        UUID propertyId = UUID.randomUUID();
+        LocalDate start = LocalDate.of(2026, 12, 18);
+        LocalDate end = LocalDate.of(2026, 12, 24);
+        when(availabilityIndex.timeline(landlordId, propertyId, start)).thenReturn(Optional.empty());
+        when(ruleLoader.forProperty(landlordId, propertyId)).thenReturn(AvailabilityRuleSet.EMPTY);
+        when(availabilityRepository.findByLandlordIdAndPropertyIdAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
+                landlordId, propertyId, end, start)).thenReturn(List.of(
+                availability(propertyId, start.minusDays(3), start.plusDays(2)),
+                availability(propertyId, start.plusDays(3), end)));
+
+        assertTrue(service.isAvailable(landlordId, propertyId, start, end));
+        assertFalse(service.isAvailable(landlordId, propertyId, start, end.plusDays(1)));
+    }
+}
@@ -0,0 +1,226 @@
+package dev.visitingservice.service.impl;
+
+import dev.visitingservice.dto.PaymentStatusEventDTO;
+import dev.visitingservice.exception.BookingConflictException;
+import dev.visitingservice.model.ShortletAvailability;
+import dev.visitingservice.model.ShortletBooking;
+import dev.visitingservice.model.ShortletBooking.BookingStatus;
+import dev.visitingservice.repository.ShortletAvailabilityRepository;
+import dev.visitingservice.repository.ShortletBookingRepository;
+import dev.visitingservice.service.AvailabilityCompactionService;
+import dev.visitingservice.service.BookingEventProducerService;
+import dev.visitingservice.service.BookingValidationService;
+import dev.visitingservice.service.NotificationPublisher;
+import dev.visitingservice.service.PropertyLockService;
+import dev.visitingservice.service.index.AvailabilityRuleLoader;
+import dev.visitingservice.service.index.AvailabilityRuleSet;
+import dev.visitingservice.service.index.ShortletAvailabilityIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ShortletBookingServiceImplTest {
+
+    @Mock
+    private ShortletBookingRepository bookingRepository;
+
+    @Mock
+    private ShortletAvailabilityRepository availabilityRepository;
+
+    @Mock
+    private NotificationPublisher notificationPublisher;
+
+    @Mock
+    private BookingEventProducerService eventProducer;
+
+    @Mock
+    private BookingValidationService bookingValidationService;
+
+    @Mock
+    private BookingBusinessRuleValidator businessRuleValidator;
+
+    @Mock
+    private ShortletAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private AvailabilityCompactionService compactionService;
+
+    @Mock
+    private AvailabilityRuleLoader ruleLoader;
+
+    @Mock
+    private PropertyLockService propertyLockService;
+
+    @InjectMocks
+    private ShortletBookingServiceImpl service;
+
+    private final UUID landlordId = UUID.randomUUID();
+    private final UUID propertyId = UUID.randomUUID();
+    private ShortletBooking booking;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        booking = new ShortletBooking();
+        booking.setId(UUID.randomUUID());
+        booking.setTenantId(UUID.randomUUID());
+        booking.setLandlordId(landlordId);
+        booking.setPropertyId(propertyId);
+        booking.setStartDate(LocalDate.now().plusDays(10));
+        booking.setEndDate(LocalDate.now().plusDays(13));
+        booking.setStatus(BookingStatus.PENDING);
+        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+
+        ShortletAvailability availability = new ShortletAvailability();
+        availability.setId(UUID.randomUUID());
+        availability.setLandlordId(landlordId);
+        availability.setPropertyId(propertyId);
+        availability.setStartDate(LocalDate.now());
+        availability.setEndDate(LocalDate.now().plusDays(30));
+        when(availabilityRepository.findByLandlordIdAndPropertyId(landlordId, propertyId)).thenReturn(List.of(availability));
+        when(availabilityRepository.findByLandlordIdAndPropertyIdAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
+                landlordId, propertyId, booking.getEndDate(), booking.getStartDate())).thenReturn(List.of(availability));
+        when(propertyLockService.isPropertyMode()).thenReturn(true);
+    }
+
+    @Test
+    void acceptBooking_TranslatesExclusionViolationToConflict() {
+        when(bookingRepository.saveAndFlush(booking)).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLException("conflicting key value violates exclusion constraint \"excl_accepted_booking_overlap\"", "23P01")));
+
+        assertThrows(BookingConflictException.class, () -> service.acceptBooking(booking.getId()));
+        verify(availabilityRepository, never()).deleteById(any());
+        verify(eventProducer, never()).sendBookingAccepted(any(), anyString());
+    }
+
+    @Test
+    void acceptBooking_RejectsKnownOverlapWithoutWriting() {
+        when(bookingRepository.existsByPropertyIdAndStatusAndStartDateLessThanAndEndDateGreaterThan(
+                propertyId, BookingStatus.ACCEPTED, booking.getEndDate(), booking.getStartDate())).thenReturn(true);
+
+        assertThrows(BookingConflictException.class, () -> service.acceptBooking(booking.getId()));
+        verify(bookingRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void acceptBooking_RejectsOverlappingPendingInOneUpdate() {
+        ShortletBooking pending = new ShortletBooking();
+        pending.setId(UUID.randomUUID());
+        pending.setLandlordId(landlordId);
+        pending.setPropertyId(propertyId);
+        pending.setStartDate(booking.getStartDate().plusDays(1));
+        pending.setEndDate(booking.getEndDate().plusDays(2));
+        pending.setStatus(BookingStatus.PENDING);
+        when(bookingRepository.findByPropertyIdAndStatusAndIdNotAndStartDateLessThanAndEndDateGreaterThan(
+                propertyId, BookingStatus.PENDING, booking.getId(), booking.getEndDate(), booking.getStartDate()))
+                .thenReturn(List.of(pending));
+        when(bookingRepository.updateStatusByIdIn(eq(List.of(pending.getId())), eq(BookingStatus.PENDING),
+                eq(BookingStatus.REJECTED), any())).thenReturn(1);
+
+        service.acceptBooking(booking.getId());
+
+        verify(bookingRepository, never()).findByLandlordId(any());
+        verify(bookingRepository, never()).save(pending);
+        verify(eventProducer).sendBookingsRejected(argThat(dtos -> dtos.size() == 1
+                && "REJECTED".equals(dtos.get(0).getStatus())), eq("PENDING"));
+        verify(eventProducer, never()).sendBookingRejected(any(), anyString());
+        verify(notificationPublisher, timeout(1000)).sendBookingRejected(pending);
+        assertEquals(BookingStatus.ACCEPTED, booking.getStatus());
+    }
+
+    @Test
+    void createBooking_EmailsOnlyAfterTheBookingCommits() {
+        when(bookingRepository.save(any(ShortletBooking.class))).thenAnswer(invocation -> {
+            ShortletBooking saved = invocation.getArgument(0);
+            saved.setId(booking.getId());
+            return saved;
+        });
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.createBooking(booking.getTenantId(), landlordId, propertyId, booking.getStartDate(),
+                    booking.getEndDate(), "Ada", "Obi", "+2348000000000", 2, "ada@example.com", 250.0, "NGN",
+                    "session", "agent", "127.0.0.1");
+
+            verify(eventProducer).sendBookingCreated(any());
+            verify(notificationPublisher, never()).sendBookingCreated(any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(notificationPublisher, timeout(1000)).sendBookingCreated(booking);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void updateBookingPayments_LoadsAndWritesTheBatchOnce() {
+        UUID unknown = UUID.randomUUID();
+        when(bookingRepository.findAllById(anyCollection())).thenReturn(List.of(booking));
+
+        int updated = service.updateBookingPayments(List.of(
+                new PaymentStatusEventDTO(booking.getId(), "PENDING", "ref-1", null),
+                new PaymentStatusEventDTO(unknown, "PAID", "ref-2", 100.0),
+                new PaymentStatusEventDTO(booking.getId(), "REFUNDED_TWICE", null, null),
+                new PaymentStatusEventDTO(booking.getId(), "PAID", null, 250.0)));
+
+        assertEquals(1, updated);
+        assertEquals(ShortletBooking.PaymentStatus.PAID, booking.getPaymentStatus());
+        assertEquals("ref-1", booking.getPaymentReference());
+        assertEquals(0, java.math.BigDecimal.valueOf(250.0).compareTo(booking.getPaymentAmount()));
+        verify(bookingRepository).findAllById(Set.of(booking.getId(), unknown));
+        verify(bookingRepository, never()).findById(any());
+        verify(bookingRepository).saveAll(argThat(saved -> saved.iterator().next() == booking));
+        verify(eventProducer).sendBookingPaymentsUpdated(argThat(dtos -> dtos.size() == 1), anyMap());
+        verify(eventProducer, never()).sendBookingPaymentUpdated(any(), any());
+    }
+
+    @Test
+    void acceptBooking_SplitsAvailabilityUnderThePropertyLock() {
+        ShortletAvailability first = new ShortletAvailability();
+        first.setId(UUID.randomUUID());
+        first.setLandlordId(landlordId);
+        first.setPropertyId(propertyId);
+        first.setStartDate(booking.getStartDate().minusDays(4));
+        first.setEndDate(booking.getStartDate().plusDays(1));
+        ShortletAvailability second = new ShortletAvailability();
+        second.setId(UUID.randomUUID());
+        second.setLandlordId(landlordId);
+        second.setPropertyId(propertyId);
+        second.setStartDate(booking.getStartDate().plusDays(2));
+        second.setEndDate(booking.getEndDate().plusDays(4));
+        when(availabilityRepository.findByLandlordIdAndPropertyIdAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
+                landlordId, propertyId, booking.getEndDate(), booking.getStartDate())).thenReturn(List.of(first, second));
+        when(ruleLoader.forProperty(landlordId, propertyId)).thenReturn(AvailabilityRuleSet.EMPTY);
+        when(bookingRepository.findByPropertyIdAndStatusAndIdNotAndStartDateLessThanAndEndDateGreaterThan(
+                any(), any(), any(), any(), any())).thenReturn(List.of());
+
+        service.acceptBooking(booking.getId());
+
+        var order = inOrder(propertyLockService, availabilityRepository);
+        order.verify(propertyLockService).lock(propertyId);
+        order.verify(availabilityRepository).findByLandlordIdAndPropertyIdAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
+                landlordId, propertyId, booking.getEndDate(), booking.getStartDate());
+        verify(availabilityRepository).save(argThat(row -> row.getStartDate().equals(first.getStartDate())
+                && row.getEndDate().equals(booking.getStartDate().minusDays(1))));
+        verify(availabilityRepository).save(argThat(row -> row.getStartDate().equals(booking.getEndDate().plusDays(1))
+                && row.getEndDate().equals(second.getEndDate())));
+        verify(availabilityRepository).deleteById(first.getId());
+        verify(availabilityRepository).deleteById(second.getId());
+        assertEquals(BookingStatus.ACCEPTED, booking.getStatus());
+    }
+}
@@ -0,0 +1,97 @@
+package dev.visitingservice.service.index;
+
+import dev.visitingservice.model.ShortletAvailability;
+import dev.visitingservice.model.ShortletAvailabilityException;
+import dev.visitingservice.model.ShortletAvailabilityRule;
+import dev.visitingservice.model.ShortletBooking;
+import dev.visitingservice.model.ShortletBooking.BookingStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityIndexSnapshotTest {
+
+    private final UUID landlordId = UUID.randomUUID();
+    private final LocalDate floor = LocalDate.of(2025, 9, 1);
+
+    @TempDir
+    Path dir;
+
+    private PropertyTimeline timeline(UUID propertyId) {
+        ShortletAvailability availability = new ShortletAvailability();
+        availability.setLandlordId(landlordId);
+        availability.setPropertyId(propertyId);
+        availability.setStartDate(LocalDate.of(2025, 10, 1));
+        availability.setEndDate(LocalDate.of(2025, 10, 30));
+        ShortletBooking booking = new ShortletBooking();
+        booking.setLandlordId(landlordId);
+        booking.setPropertyId(propertyId);
+        booking.setStartDate(LocalDate.of(2025, 10, 10));
+        booking.setEndDate(LocalDate.of(2025, 10, 15));
+        booking.setStatus(BookingStatus.ACCEPTED);
+        // Saturdays from 2027, beyond the 365 day horizon, except one of them
+        ShortletAvailabilityRule saturdays = AvailabilityRuleSetTest.rule(propertyId, Set.of(DayOfWeek.SATURDAY),
+                LocalDate.of(2027, 1, 1), null);
+        saturdays.setLandlordId(landlordId);
+        ShortletAvailabilityException closed = new ShortletAvailabilityException();
+        closed.setRuleId(saturdays.getId());
+        closed.setStartDate(LocalDate.of(2027, 1, 9));
+        closed.setEndDate(LocalDate.of(2027, 1, 9));
+        return PropertyTimeline.of(propertyId, floor, 365, List.of(availability),
+                AvailabilityRuleSet.of(List.of(saturdays), List.of(closed)), List.of(booking));
+    }
+
+    @Test
+    void readAfterWrite_RestoresRunsRulesAndLandlord() throws IOException {
+        Path path = dir.resolve("index.snapshot");
+        Instant watermark = Instant.parse("2025-09-01T12:00:00Z");
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        AvailabilityIndexSnapshot.write(path, watermark, (int) floor.toEpochDay(), 365,
+                List.of(timeline(first), timeline(second)));
+        AvailabilityIndexSnapshot.Contents contents = AvailabilityIndexSnapshot.read(path).orElseThrow();
+
+        assertEquals(watermark, contents.watermark());
+        assertEquals(365, contents.horizonDays());
+        assertEquals(List.of(first, second),
+                contents.timelines().stream().map(PropertyTimeline::getPropertyId).toList());
+        PropertyTimeline restored = contents.timelines().get(0);
+        assertEquals(landlordId, restored.getLandlordId());
+        assertEquals(floor, restored.getFloor());
+        assertTrue(restored.canAnswer(landlordId, LocalDate.of(2025, 10, 1)));
+        assertTrue(restored.isFree(LocalDate.of(2025, 10, 15), LocalDate.of(2025, 10, 20)));
+        assertFalse(restored.isFree(LocalDate.of(2025, 10, 8), LocalDate.of(2025, 10, 11)));
+        assertTrue(restored.covers(LocalDate.of(2027, 1, 2), LocalDate.of(2027, 1, 2)));
+        assertFalse(restored.covers(LocalDate.of(2027, 1, 9), LocalDate.of(2027, 1, 9)));
+        assertFalse(Files.exists(dir.resolve("index.snapshot.tmp")));
+    }
+
+    @Test
+    void read_RejectsDamagedFileAndMissingFileIsEmpty() throws IOException {
+        Path path = dir.resolve("index.snapshot");
+        assertTrue(AvailabilityIndexSnapshot.read(path).isEmpty());
+
+        AvailabilityIndexSnapshot.write(path, Instant.now(), (int) floor.toEpochDay(), 365,
+                List.of(timeline(UUID.randomUUID())));
+        try (var channel = Files.newByteChannel(path, StandardOpenOption.WRITE)) {
+            channel.position(Files.size(path) - 1);
+            channel.write(ByteBuffer.wrap(new byte[]{0x7f}));
+        }
+
+        assertThrows(IOException.class, () -> AvailabilityIndexSnapshot.read(path));
+    }
+}
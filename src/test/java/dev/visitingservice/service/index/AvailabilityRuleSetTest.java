@@ -0,0 +1,72 @@
+package dev.visitingservice.service.index;
+
+import dev.visitingservice.model.ShortletAvailability;
+import dev.visitingservice.model.ShortletAvailabilityException;
+import dev.visitingservice.model.ShortletAvailabilityRule;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityRuleSetTest {
+
+    private final UUID propertyId = UUID.randomUUID();
+    // Monday
+    private final LocalDate monday = LocalDate.of(2026, 11, 2);
+
+    static ShortletAvailabilityRule rule(UUID propertyId, Set<DayOfWeek> days, LocalDate start, LocalDate end) {
+        ShortletAvailabilityRule rule = new ShortletAvailabilityRule();
+        rule.setId(UUID.randomUUID());
+        rule.setLandlordId(UUID.randomUUID());
+        rule.setPropertyId(propertyId);
+        rule.setDaysOfWeek(days);
+        rule.setStartDate(start);
+        rule.setEndDate(end);
+        return rule;
+    }
+
+    @Test
+    void isAvailableOn_MatchesWeekdaysOutsideExceptions() {
+        ShortletAvailabilityRule weekends = rule(propertyId, Set.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY), monday, null);
+        ShortletAvailabilityException closed = new ShortletAvailabilityException();
+        closed.setRuleId(weekends.getId());
+        closed.setStartDate(monday.plusDays(12));
+        closed.setEndDate(monday.plusDays(13));
+        AvailabilityRuleSet rules = AvailabilityRuleSet.of(List.of(weekends), List.of(closed));
+
+        assertFalse(rules.isAvailableOn(monday));
+        assertTrue(rules.isAvailableOn(monday.plusDays(5)));
+        assertTrue(rules.isAvailableOn(monday.plusDays(6)));
+        // Second weekend is an exception, open-ended rule still applies years later
+        assertFalse(rules.isAvailableOn(monday.plusDays(12)));
+        assertFalse(rules.isAvailableOn(monday.plusDays(13)));
+        assertTrue(rules.isAvailableOn(monday.plusWeeks(200).plusDays(5)));
+        assertFalse(rules.isAvailableOn(monday.minusDays(2)));
+    }
+
+    @Test
+    void covers_CombinesRowsAndRules() {
+        ShortletAvailabilityRule weekdays = rule(propertyId,
+                Set.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY), monday, monday.plusWeeks(4));
+        AvailabilityRuleSet rules = AvailabilityRuleSet.of(List.of(weekdays), List.of());
+        ShortletAvailability friday = new ShortletAvailability();
+        friday.setStartDate(monday.plusDays(4));
+        friday.setEndDate(monday.plusDays(4));
+
+        assertTrue(rules.covers(List.of(), monday, monday.plusDays(3)));
+        assertFalse(rules.covers(List.of(), monday, monday.plusDays(4)));
+        assertTrue(rules.covers(List.of(friday), monday, monday.plusDays(4)));
+        assertFalse(rules.covers(List.of(friday), monday, monday.plusDays(5)));
+
+        int day = (int) monday.toEpochDay();
+        int[][] runs = rules.runs(day, day + 14);
+        assertEquals(2, runs.length);
+        assertArrayEquals(new int[]{day, day + 3}, runs[0]);
+        assertArrayEquals(new int[]{day + 7, day + 10}, runs[1]);
+    }
+}
@@ -0,0 +1,55 @@
+package dev.visitingservice.service.index;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilitySearchCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AvailabilitySearchCache cache = new AvailabilitySearchCache(registry, true, 2, 60, false);
+
+    private final LocalDate weekendStart = LocalDate.of(2026, 12, 18);
+    private final LocalDate weekendEnd = LocalDate.of(2026, 12, 20);
+
+    @Test
+    void invalidate_DropsOnlyIntersectingKeys() {
+        List<UUID> ids = List.of(UUID.randomUUID());
+        cache.putPropertyIds(weekendStart, weekendEnd, ids, cache.version());
+        cache.putPropertyIds(LocalDate.of(2027, 1, 1), LocalDate.of(2027, 1, 3), ids, cache.version());
+
+        cache.invalidate(LocalDate.of(2026, 12, 20), LocalDate.of(2026, 12, 25));
+
+        assertTrue(cache.getPropertyIds(weekendStart, weekendEnd).isEmpty());
+        assertEquals(ids, cache.getPropertyIds(LocalDate.of(2027, 1, 1), LocalDate.of(2027, 1, 3)).orElseThrow());
+        assertEquals(1.0, registry.get("availability.search.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1.0, registry.get("availability.search.cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void put_IgnoresResultComputedAcrossInvalidation() {
+        long version = cache.version();
+        cache.invalidate(weekendStart, weekendEnd);
+
+        cache.putPropertyIds(weekendStart, weekendEnd, List.of(UUID.randomUUID()), version);
+
+        assertTrue(cache.getPropertyIds(weekendStart, weekendEnd).isEmpty());
+    }
+
+    @Test
+    void put_EvictsLeastRecentlyUsedBeyondCapacity() {
+        cache.putPropertyIds(weekendStart, weekendEnd, List.of(), cache.version());
+        cache.putPropertyIds(weekendStart, weekendEnd.plusDays(1), List.of(), cache.version());
+        cache.getPropertyIds(weekendStart, weekendEnd);
+        cache.putPropertyIds(weekendStart, weekendEnd.plusDays(2), List.of(), cache.version());
+
+        assertTrue(cache.getPropertyIds(weekendStart, weekendEnd).isPresent());
+        assertTrue(cache.getPropertyIds(weekendStart, weekendEnd.plusDays(1)).isEmpty());
+        assertEquals(1.0, registry.get("availability.search.cache.evictions").counter().count());
+    }
+}
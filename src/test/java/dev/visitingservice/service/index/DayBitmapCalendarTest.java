@@ -0,0 +1,58 @@
+package dev.visitingservice.service.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DayBitmapCalendarTest {
+
+    private static final int BASE = 20_000;
+
+    @Test
+    void isFree_SpansWordBoundaries() {
+        // available BASE+10..BASE+200 inclusive, booked nights BASE+63..BASE+65
+        DayBitmapCalendar calendar = DayBitmapCalendar.of(BASE, 730,
+                new int[]{BASE + 10}, new int[]{BASE + 200},
+                new int[]{BASE + 63}, new int[]{BASE + 66});
+
+        assertTrue(calendar.isFree(BASE + 10, BASE + 63));
+        assertFalse(calendar.isFree(BASE + 10, BASE + 64));
+        assertTrue(calendar.isFree(BASE + 66, BASE + 200));
+        assertFalse(calendar.isFree(BASE + 66, BASE + 201));
+        assertFalse(calendar.isFree(BASE + 9, BASE + 20));
+    }
+
+    @Test
+    void isFree_RequiresCheckoutDayToBeAvailable() {
+        DayBitmapCalendar calendar = DayBitmapCalendar.of(BASE, 730,
+                new int[]{BASE}, new int[]{BASE + 5}, new int[0], new int[0]);
+
+        assertTrue(calendar.isFree(BASE, BASE + 5));
+        assertFalse(calendar.isFree(BASE + 1, BASE + 6));
+        assertTrue(calendar.isFree(BASE + 5, BASE + 5));
+    }
+
+    @Test
+    void contains_OnlyWithinHorizon() {
+        DayBitmapCalendar calendar = DayBitmapCalendar.of(BASE, 730, new int[0], new int[0], new int[0], new int[0]);
+
+        assertTrue(calendar.contains(BASE, BASE + 729));
+        assertFalse(calendar.contains(BASE, BASE + 730));
+        assertFalse(calendar.contains(BASE - 1, BASE + 3));
+    }
+
+    @Test
+    void freeStarts_SlidesOverFreeNights() {
+        // available BASE..BASE+20 inclusive, booked nights BASE+5..BASE+6
+        DayBitmapCalendar calendar = DayBitmapCalendar.of(BASE, 730,
+                new int[]{BASE}, new int[]{BASE + 20},
+                new int[]{BASE + 5}, new int[]{BASE + 7});
+
+        assertEquals(List.of(BASE, BASE + 1, BASE + 2, BASE + 7, BASE + 8),
+                calendar.freeStarts(BASE, BASE + 11, 3, false));
+        assertEquals(List.of(BASE + 7), calendar.freeStarts(BASE + 3, BASE + 20, 3, true));
+        assertTrue(calendar.freeStarts(BASE, BASE + 20, 14, false).isEmpty());
+    }
+}
@@ -0,0 +1,76 @@
+package dev.visitingservice.service.index;
+
+import dev.visitingservice.model.ShortletAvailability;
+import dev.visitingservice.model.ShortletBooking;
+import dev.visitingservice.model.ShortletBooking.BookingStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DayPropertyIndexTest {
+
+    private final LocalDate floor = LocalDate.of(2025, 9, 1);
+    private final int base = (int) floor.toEpochDay();
+
+    private ShortletAvailability availability(UUID propertyId, LocalDate start, LocalDate end) {
+        ShortletAvailability availability = new ShortletAvailability();
+        availability.setLandlordId(UUID.randomUUID());
+        availability.setPropertyId(propertyId);
+        availability.setStartDate(start);
+        availability.setEndDate(end);
+        return availability;
+    }
+
+    private ShortletBooking accepted(UUID propertyId, LocalDate start, LocalDate end) {
+        ShortletBooking booking = new ShortletBooking();
+        booking.setPropertyId(propertyId);
+        booking.setStartDate(start);
+        booking.setEndDate(end);
+        booking.setStatus(BookingStatus.ACCEPTED);
+        return booking;
+    }
+
+    private int day(LocalDate date) {
+        return (int) date.toEpochDay();
+    }
+
+    @Test
+    void findFree_IntersectsNightsAndCheckoutDay() {
+        UUID open = UUID.randomUUID();
+        UUID booked = UUID.randomUUID();
+        UUID shortWindow = UUID.randomUUID();
+        DayPropertyIndex index = DayPropertyIndex.build(base, 730, List.of(
+                PropertyTimeline.of(open, floor,
+                        List.of(availability(open, LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 31))), List.of()),
+                PropertyTimeline.of(booked, floor,
+                        List.of(availability(booked, LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 31))),
+                        List.of(accepted(booked, LocalDate.of(2025, 10, 10), LocalDate.of(2025, 10, 12)))),
+                PropertyTimeline.of(shortWindow, floor,
+                        List.of(availability(shortWindow, LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 10))), List.of())));
+
+        assertEquals(List.of(open), index.findFree(day(LocalDate.of(2025, 10, 9)), day(LocalDate.of(2025, 10, 11))));
+        assertEquals(3, index.findFree(day(LocalDate.of(2025, 10, 5)), day(LocalDate.of(2025, 10, 10))).size());
+        assertEquals(2, index.findFree(day(LocalDate.of(2025, 10, 12)), day(LocalDate.of(2025, 10, 15))).size());
+    }
+
+    @Test
+    void put_ReplacesPreviousBits() {
+        UUID propertyId = UUID.randomUUID();
+        DayPropertyIndex index = DayPropertyIndex.build(base, 730, List.of(PropertyTimeline.of(propertyId, floor,
+                List.of(availability(propertyId, LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 31))), List.of())));
+
+        index.put(PropertyTimeline.of(propertyId, floor,
+                List.of(availability(propertyId, LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 31))),
+                List.of(accepted(propertyId, LocalDate.of(2025, 10, 3), LocalDate.of(2025, 10, 6)))));
+
+        assertTrue(index.findFree(day(LocalDate.of(2025, 10, 2)), day(LocalDate.of(2025, 10, 4))).isEmpty());
+        assertEquals(List.of(propertyId), index.findFree(day(LocalDate.of(2025, 10, 6)), day(LocalDate.of(2025, 10, 9))));
+
+        index.remove(propertyId);
+        assertTrue(index.findFree(day(LocalDate.of(2025, 10, 6)), day(LocalDate.of(2025, 10, 9))).isEmpty());
+    }
+}
@@ -0,0 +1,132 @@
+package dev.visitingservice.service.index;
+
+import dev.visitingservice.model.ShortletAvailability;
+import dev.visitingservice.model.ShortletBooking;
+import dev.visitingservice.model.ShortletBooking.BookingStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PropertyTimelineTest {
+
+    private final UUID landlordId = UUID.randomUUID();
+    private final UUID propertyId = UUID.randomUUID();
+    private final LocalDate floor = LocalDate.of(2025, 9, 1);
+
+    private ShortletAvailability availability(LocalDate start, LocalDate end) {
+        ShortletAvailability availability = new ShortletAvailability();
+        availability.setLandlordId(landlordId);
+        availability.setPropertyId(propertyId);
+        availability.setStartDate(start);
+        availability.setEndDate(end);
+        return availability;
+    }
+
+    private ShortletBooking accepted(LocalDate start, LocalDate end) {
+        ShortletBooking booking = new ShortletBooking();
+        booking.setLandlordId(landlordId);
+        booking.setPropertyId(propertyId);
+        booking.setStartDate(start);
+        booking.setEndDate(end);
+        booking.setStatus(BookingStatus.ACCEPTED);
+        return booking;
+    }
+
+    @Test
+    void isFree_WhenCoveredAndNoBookings() {
+        PropertyTimeline timeline = PropertyTimeline.of(propertyId, floor,
+                List.of(availability(LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 30))), List.of());
+
+        assertTrue(timeline.isFree(LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 30)));
+        assertFalse(timeline.isFree(LocalDate.of(2025, 9, 30), LocalDate.of(2025, 10, 5)));
+        assertFalse(timeline.isFree(LocalDate.of(2025, 10, 25), LocalDate.of(2025, 10, 31)));
+    }
+
+    @Test
+    void overlapsBooking_TreatsCheckoutDayAsFree() {
+        PropertyTimeline timeline = PropertyTimeline.of(propertyId, floor,
+                List.of(availability(LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 30))),
+                List.of(accepted(LocalDate.of(2025, 10, 10), LocalDate.of(2025, 10, 15))));
+
+        assertTrue(timeline.overlapsBooking(LocalDate.of(2025, 10, 14), LocalDate.of(2025, 10, 16)));
+        assertTrue(timeline.overlapsBooking(LocalDate.of(2025, 10, 5), LocalDate.of(2025, 10, 11)));
+        assertFalse(timeline.overlapsBooking(LocalDate.of(2025, 10, 15), LocalDate.of(2025, 10, 20)));
+        assertFalse(timeline.overlapsBooking(LocalDate.of(2025, 10, 5), LocalDate.of(2025, 10, 10)));
+        assertTrue(timeline.isFree(LocalDate.of(2025, 10, 15), LocalDate.of(2025, 10, 20)));
+    }
+
+    @Test
+    void covers_CoalescesAdjacentAndOverlappingRows() {
+        PropertyTimeline timeline = PropertyTimeline.of(propertyId, floor, List.of(
+                availability(LocalDate.of(2025, 10, 8), LocalDate.of(2025, 10, 20)),
+                availability(LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 10)),
+                availability(LocalDate.of(2025, 10, 21), LocalDate.of(2025, 10, 25)),
+                availability(LocalDate.of(2025, 11, 1), LocalDate.of(2025, 11, 5))), List.of());
+
+        assertTrue(timeline.covers(LocalDate.of(2025, 10, 2), LocalDate.of(2025, 10, 25)));
+        assertFalse(timeline.covers(LocalDate.of(2025, 10, 24), LocalDate.of(2025, 11, 2)));
+        assertTrue(timeline.covers(LocalDate.of(2025, 11, 1), LocalDate.of(2025, 11, 5)));
+    }
+
+    @Test
+    void canAnswer_RejectsOtherLandlordsAndDatesBeforeFloor() {
+        PropertyTimeline timeline = PropertyTimeline.of(propertyId, floor,
+                List.of(availability(LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 30))), List.of());
+
+        assertTrue(timeline.canAnswer(landlordId, LocalDate.of(2025, 10, 1)));
+        assertFalse(timeline.canAnswer(UUID.randomUUID(), LocalDate.of(2025, 10, 1)));
+        assertFalse(timeline.canAnswer(landlordId, floor.minusDays(1)));
+    }
+
+    @Test
+    void isFree_FallsBackToRunsBeyondHorizon() {
+        PropertyTimeline timeline = PropertyTimeline.of(propertyId, floor, 30,
+                List.of(availability(LocalDate.of(2025, 9, 20), LocalDate.of(2025, 10, 20))),
+                List.of(accepted(LocalDate.of(2025, 10, 5), LocalDate.of(2025, 10, 8))));
+
+        // inside the 30-day bitmap
+        assertTrue(timeline.isFree(LocalDate.of(2025, 9, 20), LocalDate.of(2025, 9, 30)));
+        assertFalse(timeline.isFree(LocalDate.of(2025, 9, 19), LocalDate.of(2025, 9, 25)));
+        // checkout day past the horizon
+        assertTrue(timeline.isFree(LocalDate.of(2025, 10, 8), LocalDate.of(2025, 10, 20)));
+        assertFalse(timeline.isFree(LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 20)));
+    }
+
+    @Test
+    void freeStartDates_MatchesBitmapAndRunPaths() {
+        List<ShortletAvailability> availabilities = List.of(availability(LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 20)));
+        List<ShortletBooking> bookings = List.of(accepted(LocalDate.of(2025, 10, 5), LocalDate.of(2025, 10, 9)));
+        PropertyTimeline withCalendar = PropertyTimeline.of(propertyId, floor, availabilities, bookings);
+        PropertyTimeline withoutCalendar = PropertyTimeline.of(propertyId, floor, 1, availabilities, bookings);
+
+        List<LocalDate> expected = List.of(LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 2),
+                LocalDate.of(2025, 10, 9), LocalDate.of(2025, 10, 10));
+        assertEquals(expected, withCalendar.freeStartDates(LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 13), 3, false));
+        assertEquals(expected, withoutCalendar.freeStartDates(LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 13), 3, false));
+        assertEquals(List.of(LocalDate.of(2025, 10, 9)),
+                withCalendar.freeStartDates(LocalDate.of(2025, 10, 4), LocalDate.of(2025, 10, 20), 3, true));
+    }
+
+    @Test
+    void isFree_EvaluatesRulesInsideAndBeyondHorizon() {
+        // Every Friday to Sunday from the floor on, with the first Saturday night booked
+        AvailabilityRuleSet weekends = AvailabilityRuleSet.of(List.of(AvailabilityRuleSetTest.rule(propertyId,
+                Set.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY, DayOfWeek.SUNDAY), floor, null)), List.of());
+        PropertyTimeline timeline = PropertyTimeline.of(propertyId, floor, 30, List.of(), weekends,
+                List.of(accepted(LocalDate.of(2025, 9, 6), LocalDate.of(2025, 9, 7))));
+
+        assertTrue(timeline.hasAvailability());
+        assertTrue(timeline.isFree(LocalDate.of(2025, 9, 12), LocalDate.of(2025, 9, 14)));
+        assertFalse(timeline.isFree(LocalDate.of(2025, 9, 5), LocalDate.of(2025, 9, 7)));
+        assertFalse(timeline.isFree(LocalDate.of(2025, 9, 11), LocalDate.of(2025, 9, 13)));
+        // beyond the 30-day bitmap
+        assertTrue(timeline.isFree(LocalDate.of(2025, 12, 5), LocalDate.of(2025, 12, 7)));
+        assertFalse(timeline.isFree(LocalDate.of(2025, 12, 5), LocalDate.of(2025, 12, 8)));
+    }
+}
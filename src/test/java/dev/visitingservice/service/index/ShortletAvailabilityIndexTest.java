@@ -0,0 +1,115 @@
+package dev.visitingservice.service.index;
+
+import dev.visitingservice.model.ShortletAvailability;
+import dev.visitingservice.repository.ShortletAvailabilityRepository;
+import dev.visitingservice.repository.ShortletAvailabilityTombstoneRepository;
+import dev.visitingservice.repository.ShortletBookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ShortletAvailabilityIndexTest {
+
+    @Mock
+    private ShortletAvailabilityRepository availabilityRepository;
+
+    @Mock
+    private ShortletBookingRepository bookingRepository;
+
+    @Mock
+    private AvailabilitySearchCache searchCache;
+
+    @Mock
+    private AvailabilityRuleLoader ruleLoader;
+
+    @Mock
+    private ShortletAvailabilityTombstoneRepository tombstoneRepository;
+
+    private ShortletAvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        index = new ShortletAvailabilityIndex(availabilityRepository, bookingRepository, searchCache, ruleLoader,
+                tombstoneRepository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "horizonDays", 365);
+        ReflectionTestUtils.setField(index, "maxReplayProperties", 2000);
+        when(ruleLoader.forProperty(any(UUID.class))).thenReturn(AvailabilityRuleSet.EMPTY);
+    }
+
+    @Test
+    void timeline_KeepsOnlyPropertiesWithAvailability() {
+        UUID listed = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        LocalDate start = LocalDate.now().plusDays(5);
+        ShortletAvailability availability = new ShortletAvailability();
+        availability.setLandlordId(UUID.randomUUID());
+        availability.setPropertyId(listed);
+        availability.setStartDate(start);
+        availability.setEndDate(start.plusDays(10));
+        when(availabilityRepository.findByPropertyId(listed)).thenReturn(List.of(availability));
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(index.timeline(null, listed, start).orElseThrow().isFree(start, start.plusDays(3)));
+            assertFalse(index.timeline(null, unknown, start).orElseThrow().hasAvailability());
+        }
+
+        verify(availabilityRepository, times(1)).findByPropertyId(listed);
+        verify(availabilityRepository, times(3)).findByPropertyId(unknown);
+        assertTrue(index.residentTimeline(listed, start).isPresent());
+        assertTrue(index.residentTimeline(unknown, start).isEmpty());
+    }
+
+    private static ShortletAvailability availability(UUID propertyId, LocalDate start) {
+        ShortletAvailability availability = new ShortletAvailability();
+        availability.setLandlordId(UUID.randomUUID());
+        availability.setPropertyId(propertyId);
+        availability.setStartDate(start);
+        availability.setEndDate(start.plusDays(10));
+        return availability;
+    }
+
+    @Test
+    void refreshChanged_ReloadsOnlyPropertiesWrittenSinceTheLastLoad() {
+        UUID loaded = UUID.randomUUID();
+        UUID added = UUID.randomUUID();
+        LocalDate start = LocalDate.now().plusDays(5);
+        when(availabilityRepository.findAll()).thenReturn(List.of(availability(loaded, start)));
+        index.rebuild();
+        when(availabilityRepository.findPropertyIdsUpdatedAfter(any())).thenReturn(List.of(added));
+        when(availabilityRepository.findByPropertyId(added)).thenReturn(List.of(availability(added, start)));
+
+        index.refreshChanged();
+
+        verify(availabilityRepository, times(1)).findAll();
+        verify(availabilityRepository, never()).findByPropertyId(loaded);
+        assertEquals(Set.of(loaded, added),
+                Set.copyOf(index.findFreeProperties(start, start.plusDays(3)).orElseThrow()));
+    }
+
+    @Test
+    void refreshChanged_RebuildsWhenTooManyPropertiesChanged() {
+        ReflectionTestUtils.setField(index, "maxReplayProperties", 1);
+        index.refreshChanged();
+        when(availabilityRepository.findPropertyIdsUpdatedAfter(any()))
+                .thenReturn(List.of(UUID.randomUUID(), UUID.randomUUID()));
+
+        index.refreshChanged();
+
+        // Once for the first load without a watermark, once for the fallback
+        verify(availabilityRepository, times(2)).findAll();
+        verify(availabilityRepository, never()).findByPropertyId(any());
+    }
+}
@@ -0,0 +1,103 @@
+package dev.visitingservice.service.outbox;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.visitingservice.dto.BookingEventDTO;
+import dev.visitingservice.dto.BookingEventPayload;
+import dev.visitingservice.dto.BookingEventType;
+import dev.visitingservice.model.BookingEventOutbox;
+import dev.visitingservice.repository.BookingEventOutboxRepository;
+import dev.visitingservice.service.BookingEventBatcher;
+import dev.visitingservice.service.PropertyLockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BookingOutboxPublisherTest {
+
+    @Mock
+    private BookingEventOutboxRepository outboxRepository;
+
+    @Mock
+    private BookingEventBatcher batcher;
+
+    @Mock
+    private PropertyLockService lockService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private BookingOutboxPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        publisher = new BookingOutboxPublisher(outboxRepository, batcher, lockService, objectMapper, new SimpleMeterRegistry(),
+                "booking-events", 50);
+    }
+
+    private BookingEventOutbox row(long id, UUID bookingId) throws Exception {
+        BookingEventDTO event = new BookingEventDTO(BookingEventType.BOOKING_REJECTED, bookingId, new BookingEventPayload());
+        BookingEventOutbox row = new BookingEventOutbox(event.getEventId(), bookingId, event.getEventType().name(),
+                objectMapper.writeValueAsString(event));
+        row.setId(id);
+        return row;
+    }
+
+    @Test
+    void publishBatch_DeletesRowsOnlyOnceEverySendIsAcknowledged() throws Exception {
+        List<BookingEventOutbox> rows = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            rows.add(row(id, UUID.randomUUID()));
+        }
+        when(lockService.tryLock(BookingOutboxPublisher.RELAY_LOCK_KEY)).thenReturn(true);
+        when(outboxRepository.findOldest(500)).thenReturn(rows);
+        when(batcher.publish(eq("booking-events"), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(3, publisher.publishBatch(500));
+
+        for (BookingEventOutbox row : rows) {
+            verify(batcher).publish(eq("booking-events"), eq(row.getBookingId().toString()), any(BookingEventDTO.class));
+        }
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L));
+
+        when(batcher.publish(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        assertThrows(CompletionException.class, () -> publisher.publishBatch(500));
+        verify(outboxRepository, times(1)).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void publishBatch_LeavesOutboxAloneWhileAnotherInstanceDrainsIt() {
+        when(lockService.tryLock(anyLong())).thenReturn(false);
+
+        assertEquals(0, publisher.publishBatch(500));
+
+        verify(outboxRepository, never()).findOldest(anyInt());
+        verifyNoInteractions(batcher);
+    }
+
+    @Test
+    void publishBatch_KeepsRowsWhenKafkaDoesNotAnswerInTime() throws Exception {
+        when(lockService.tryLock(BookingOutboxPublisher.RELAY_LOCK_KEY)).thenReturn(true);
+        when(outboxRepository.findOldest(500)).thenReturn(List.of(row(1, UUID.randomUUID())));
+        when(batcher.publish(anyString(), anyString(), any())).thenReturn(new CompletableFuture<>());
+
+        assertThrows(IllegalStateException.class, () -> publisher.publishBatch(500));
+
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+    }
+}
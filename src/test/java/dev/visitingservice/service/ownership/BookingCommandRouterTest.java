@@ -0,0 +1,137 @@
+package dev.visitingservice.service.ownership;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.visitingservice.dto.BookingCommandDTO;
+import dev.visitingservice.dto.BookingCommandDTO.CommandType;
+import dev.visitingservice.dto.ShortletAvailabilityDTO;
+import dev.visitingservice.dto.ShortletBookingDTO;
+import dev.visitingservice.exception.ExternalServiceException;
+import dev.visitingservice.repository.ShortletAvailabilityRepository;
+import dev.visitingservice.repository.ShortletAvailabilityRuleRepository;
+import dev.visitingservice.repository.ShortletBookingRepository;
+import dev.visitingservice.service.BookingCoordinator;
+import dev.visitingservice.service.ShortletAvailabilityService;
+import dev.visitingservice.service.impl.ShortletBookingServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.ConnectException;
+import java.net.http.HttpTimeoutException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BookingCommandRouterTest {
+
+    private static final String OWNER = "http://visiting-2:8080";
+
+    @Mock
+    private PropertyOwnership ownership;
+
+    @Mock
+    private BookingCoordinator coordinator;
+
+    @Mock
+    private ShortletBookingServiceImpl bookingService;
+
+    @Mock
+    private ShortletAvailabilityService availabilityService;
+
+    @Mock
+    private ShortletBookingRepository bookingRepository;
+
+    @Mock
+    private ShortletAvailabilityRepository availabilityRepository;
+
+    @Mock
+    private ShortletAvailabilityRuleRepository ruleRepository;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private BookingCommandRouter router;
+
+    private final UUID propertyId = UUID.randomUUID();
+    private final BookingCommandDTO command = new BookingCommandDTO(CommandType.ACCEPT);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        router = new BookingCommandRouter(ownership, coordinator, bookingService, availabilityService,
+                bookingRepository, availabilityRepository, ruleRepository, restTemplate, new ObjectMapper(), "secret");
+        command.setBookingId(UUID.randomUUID());
+        command.setPropertyId(propertyId);
+        when(ownership.ownerUrl(propertyId)).thenReturn(Optional.of(OWNER));
+        when(coordinator.submit(any(), any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+    }
+
+    @Test
+    void route_RunsLocallyWhenTheOwnerRefusesTheConnection() {
+        ShortletBookingDTO accepted = new ShortletBookingDTO();
+        when(restTemplate.postForObject(eq(OWNER + BookingCommandRouter.COMMAND_PATH), any(), eq(ShortletBookingDTO.class)))
+                .thenThrow(new ResourceAccessException("I/O error", new ConnectException("Connection refused")));
+        when(bookingService.acceptBooking(command.getBookingId())).thenReturn(accepted);
+
+        assertSame(accepted, router.route(command, ShortletBookingDTO.class));
+    }
+
+    @Test
+    void route_DoesNotRunLocallyWhenTheOwnerTimesOutAfterReceivingTheCommand() {
+        when(restTemplate.postForObject(eq(OWNER + BookingCommandRouter.COMMAND_PATH), any(), eq(ShortletBookingDTO.class)))
+                .thenThrow(new ResourceAccessException("I/O error", new HttpTimeoutException("Request timed out")));
+
+        assertThrows(ExternalServiceException.class, () -> router.route(command, ShortletBookingDTO.class));
+        verify(coordinator, never()).submit(any(), any());
+        verify(bookingService, never()).acceptBooking(any());
+    }
+
+    @Test
+    void route_QueuesOnlyTheLockedPartOfANewBooking() {
+        BookingCommandDTO create = new BookingCommandDTO(CommandType.CREATE);
+        create.setPropertyId(propertyId);
+        when(ownership.ownerUrl(propertyId)).thenReturn(Optional.empty());
+        ShortletBookingDTO created = new ShortletBookingDTO();
+        when(bookingService.createValidatedBooking(any(), any(), eq(propertyId), any(), any(), any(), any(), any(),
+                any(), any(), any(), any(), any(), any(), any())).thenReturn(created);
+
+        assertSame(created, router.route(create, ShortletBookingDTO.class));
+        verify(coordinator).submit(eq(propertyId), any());
+        verify(bookingService, never()).validateNewBooking(any(), any(), any(), any(), any(), any(), any());
+        verify(bookingService, never()).createBooking(any(), any(), any(), any(), any(), any(), any(), any(),
+                any(), any(), any(), any(), any(), any(), any());
+    }
+
+    private static ShortletAvailabilityDTO range(UUID propertyId) {
+        ShortletAvailabilityDTO range = new ShortletAvailabilityDTO();
+        range.setPropertyId(propertyId);
+        range.setStartDate(LocalDate.now().plusDays(1));
+        range.setEndDate(LocalDate.now().plusDays(5));
+        return range;
+    }
+
+    @Test
+    void routeBulk_SendsEachOwnerOnlyTheRangesOfItsProperties() {
+        UUID localProperty = UUID.randomUUID();
+        UUID landlordId = UUID.randomUUID();
+        ShortletAvailabilityDTO remote = range(propertyId);
+        ShortletAvailabilityDTO local = range(localProperty);
+        when(ownership.ownerUrl(localProperty)).thenReturn(Optional.empty());
+        when(restTemplate.postForObject(eq(OWNER + BookingCommandRouter.COMMAND_PATH), any(), eq(ShortletAvailabilityDTO[].class)))
+                .thenReturn(new ShortletAvailabilityDTO[]{remote});
+        when(availabilityService.setAvailabilityBulk(landlordId, List.of(local))).thenReturn(List.of(local));
+
+        assertEquals(List.of(remote, local), router.routeBulk(landlordId, List.of(remote, local)));
+        verify(availabilityService, never()).setAvailabilityBulk(landlordId, List.of(remote, local));
+        verify(coordinator).submit(eq(localProperty), any());
+    }
+}
@@ -0,0 +1,81 @@
+package dev.visitingservice.service.ownership;
+
+import dev.visitingservice.config.BookingTopicConfig;
+import dev.visitingservice.model.BookingPartitionOwner;
+import dev.visitingservice.repository.BookingPartitionOwnerRepository;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PropertyOwnershipTest {
+
+    private static final String SELF = "http://visiting-1:8080";
+    private static final String OTHER = "http://visiting-2:8080";
+
+    @Mock
+    private BookingPartitionOwnerRepository ownerRepository;
+
+    private PropertyOwnership ownership;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ownership = new PropertyOwnership(ownerRepository, true, SELF, "secret", 30);
+    }
+
+    private UUID propertyOn(int partition) {
+        while (true) {
+            UUID propertyId = UUID.randomUUID();
+            if (PropertyOwnership.partitionFor(propertyId) == partition) {
+                return propertyId;
+            }
+        }
+    }
+
+    @Test
+    void ownerUrl_ForwardsOnlyToLiveOwnersOfOtherPartitions() {
+        UUID mine = propertyOn(0);
+        UUID theirs = propertyOn(1);
+        UUID stale = propertyOn(2);
+        UUID unowned = propertyOn(3);
+        when(ownerRepository.findAll()).thenReturn(List.of(
+                new BookingPartitionOwner(1, OTHER, OffsetDateTime.now()),
+                new BookingPartitionOwner(2, OTHER, OffsetDateTime.now().minusMinutes(5))));
+
+        ownership.onPartitionsAssigned(List.of(new TopicPartition(BookingTopicConfig.BOOKING_EVENTS_TOPIC, 0)));
+
+        assertEquals(Optional.empty(), ownership.ownerUrl(mine));
+        assertEquals(Optional.of(OTHER), ownership.ownerUrl(theirs));
+        assertEquals(Optional.empty(), ownership.ownerUrl(stale));
+        assertEquals(Optional.empty(), ownership.ownerUrl(unowned));
+        verify(ownerRepository).saveAll(argThat(owners -> owners.iterator().next().getPartitionId() == 0));
+    }
+
+    @Test
+    void onPartitionsRevoked_StopsTreatingPartitionAsLocal() {
+        UUID propertyId = propertyOn(4);
+        TopicPartition partition = new TopicPartition(BookingTopicConfig.BOOKING_EVENTS_TOPIC, 4);
+        ownership.onPartitionsAssigned(List.of(partition));
+        when(ownerRepository.findAll()).thenReturn(List.of(new BookingPartitionOwner(4, OTHER, OffsetDateTime.now())));
+
+        ownership.onPartitionsRevoked(List.of(partition));
+        ownership.heartbeat();
+
+        assertEquals(Optional.of(OTHER), ownership.ownerUrl(propertyId));
+        verify(ownerRepository).releaseOwnership(List.of(4), SELF);
+        assertThrows(IllegalStateException.class, () -> new PropertyOwnership(ownerRepository, true, " ", "secret", 30));
+        assertThrows(IllegalStateException.class, () -> new PropertyOwnership(ownerRepository, true, SELF, "", 30));
+        assertDoesNotThrow(() -> new PropertyOwnership(ownerRepository, false, "", "", 30));
+    }
+}
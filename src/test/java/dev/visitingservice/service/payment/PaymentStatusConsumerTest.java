@@ -0,0 +1,73 @@
+package dev.visitingservice.service.payment;
+
+import dev.visitingservice.dto.PaymentStatusEventDTO;
+import dev.visitingservice.service.ShortletBookingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PaymentStatusConsumerTest {
+
+    @Mock
+    private ShortletBookingService bookingService;
+
+    @Mock
+    private Acknowledgment ack;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PaymentStatusConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        consumer = new PaymentStatusConsumer(bookingService, meterRegistry);
+    }
+
+    private static ConsumerRecord<String, PaymentStatusEventDTO> record(long offset, PaymentStatusEventDTO value) {
+        return new ConsumerRecord<>("payment-events", 0, offset, null, value);
+    }
+
+    @Test
+    void onPaymentEvents_AppliesTheBatchOnceThenAcknowledges() {
+        PaymentStatusEventDTO paid = new PaymentStatusEventDTO(UUID.randomUUID(), "PAID", "ref-1", 100.0);
+        PaymentStatusEventDTO failed = new PaymentStatusEventDTO(UUID.randomUUID(), "FAILED", "ref-2", null);
+        when(bookingService.updateBookingPayments(anyList())).thenReturn(2);
+
+        consumer.onPaymentEvents(List.of(record(0, paid), record(1, null), record(2, failed)), ack);
+
+        var order = inOrder(bookingService, ack);
+        order.verify(bookingService).updateBookingPayments(List.of(paid, failed));
+        order.verify(ack).acknowledge();
+    }
+
+    @Test
+    void onPaymentEvents_DoesNotAcknowledgeAFailedBatch() {
+        when(bookingService.updateBookingPayments(anyList())).thenThrow(new IllegalStateException("database down"));
+
+        assertThrows(IllegalStateException.class, () -> consumer.onPaymentEvents(
+                List.of(record(0, new PaymentStatusEventDTO(UUID.randomUUID(), "PAID", null, null))), ack));
+        verify(ack, never()).acknowledge();
+    }
+
+    @Test
+    void recover_CountsRecordsGivenUpOn() {
+        consumer.recover(record(4, new PaymentStatusEventDTO(UUID.randomUUID(), "PAID", "ref-4", 50.0)),
+                new IllegalStateException("database down"));
+        consumer.recover(record(5, null), new IllegalStateException("database down"));
+
+        assertEquals(2.0, meterRegistry.counter("payments.consumer.skipped").count());
+        verifyNoInteractions(bookingService);
+    }
+}